@@ -17,7 +17,6 @@ package org.teavm.classlib.impl.console;
 
 import org.teavm.backend.c.intrinsic.RuntimeInclude;
 import org.teavm.backend.wasm.runtime.WasmSupport;
-import org.teavm.backend.wasm.runtime.gc.WasmGCSupport;
 import org.teavm.classlib.PlatformDetector;
 import org.teavm.interop.Address;
 import org.teavm.interop.Import;
@@ -37,9 +36,7 @@ public final class Console {
         } else if (PlatformDetector.isWebAssembly()) {
             WasmSupport.putCharsStderr(Address.ofData(data).add(off), len);
         } else if (PlatformDetector.isWebAssemblyGC()) {
-            for (var i = 0; i < len; ++i) {
-                WasmGCSupport.putCharStderr((char) data[off + i]);
-            }
+            WasmGCConsoleBuffer.STDERR.print(data, off, len);
         } else {
             for (int i = 0; i < len; ++i) {
                 byte b = data[i + off];
@@ -57,9 +54,7 @@ public final class Console {
         } else if (PlatformDetector.isWebAssembly()) {
             WasmSupport.putCharsStdout(Address.ofData(data).add(off), len);
         } else if (PlatformDetector.isWebAssemblyGC()) {
-            for (var i = 0; i < len; ++i) {
-                WasmGCSupport.putCharStdout((char) data[off + i]);
-            }
+            WasmGCConsoleBuffer.STDOUT.print(data, off, len);
         } else {
             for (int i = 0; i < len; ++i) {
                 byte b = data[i + off];
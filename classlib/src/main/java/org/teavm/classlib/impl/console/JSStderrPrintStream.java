@@ -15,7 +15,6 @@
  */
 package org.teavm.classlib.impl.console;
 
-import org.teavm.backend.wasm.runtime.gc.WasmGCSupport;
 import org.teavm.classlib.PlatformDetector;
 import org.teavm.jso.JSBody;
 
@@ -26,14 +25,20 @@ public class JSStderrPrintStream extends JsConsolePrintStream {
             s = "null";
         }
         if (PlatformDetector.isWebAssemblyGC()) {
-            for (int i = 0; i < s.length(); ++i) {
-                WasmGCSupport.putCharStderr(s.charAt(i));
-            }
+            WasmGCConsoleBuffer.STDERR.print(s);
         } else {
             writeJs(s);
         }
     }
 
+    @Override
+    public void flush() {
+        super.flush();
+        if (PlatformDetector.isWebAssemblyGC()) {
+            WasmGCConsoleBuffer.STDERR.flush();
+        }
+    }
+
     @JSBody(params = "b", script = "$rt_putStderr(b);")
     private static native void writeJs(String s);
 }
@@ -15,7 +15,6 @@
  */
 package org.teavm.classlib.impl.console;
 
-import org.teavm.backend.wasm.runtime.gc.WasmGCSupport;
 import org.teavm.classlib.PlatformDetector;
 import org.teavm.jso.JSBody;
 
@@ -26,14 +25,20 @@ public class JSStdoutPrintStream extends JsConsolePrintStream {
             s = "null";
         }
         if (PlatformDetector.isWebAssemblyGC()) {
-            for (int i = 0; i < s.length(); ++i) {
-                WasmGCSupport.putCharStdout(s.charAt(i));
-            }
+            WasmGCConsoleBuffer.STDOUT.print(s);
         } else {
             writeJs(s);
         }
     }
 
+    @Override
+    public void flush() {
+        super.flush();
+        if (PlatformDetector.isWebAssemblyGC()) {
+            WasmGCConsoleBuffer.STDOUT.flush();
+        }
+    }
+
     @JSBody(params = "b", script = "$rt_putStdout(b);")
     private static native void writeJs(String s);
 }
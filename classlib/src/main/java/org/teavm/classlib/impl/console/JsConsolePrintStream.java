@@ -130,8 +130,9 @@ public abstract class JsConsolePrintStream extends PrintStream {
     @Override
     public void flush() {
         if (flushAction != null) {
+            var action = flushAction;
             flushAction = null;
-            flushAction.run();
+            action.run();
         }
     }
 
@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.console;
+
+import org.teavm.interop.Import;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.impl.JS;
+
+final class WasmGCConsoleBuffer {
+    static final int MAX_PENDING = 4096;
+    static final WasmGCConsoleBuffer STDOUT = new WasmGCConsoleBuffer(s -> putStringStdout(JS.wrap(s)));
+    static final WasmGCConsoleBuffer STDERR = new WasmGCConsoleBuffer(s -> putStringStderr(JS.wrap(s)));
+
+    private final Sink sink;
+    private final StringBuilder pending = new StringBuilder();
+
+    WasmGCConsoleBuffer(Sink sink) {
+        this.sink = sink;
+    }
+
+    void print(String s) {
+        var lastNewLine = s.lastIndexOf('\n');
+        if (lastNewLine >= 0) {
+            if (pending.length() == 0) {
+                sink.write(lastNewLine == s.length() - 1 ? s : s.substring(0, lastNewLine + 1));
+            } else {
+                pending.append(s, 0, lastNewLine + 1);
+                flush();
+            }
+        }
+        pending.append(s, lastNewLine + 1, s.length());
+        if (pending.length() >= MAX_PENDING) {
+            flush();
+        }
+    }
+
+    void print(byte[] data, int off, int len) {
+        var chars = new char[len];
+        for (var i = 0; i < len; ++i) {
+            chars[i] = (char) data[off + i];
+        }
+        print(new String(chars));
+    }
+
+    void flush() {
+        if (pending.length() > 0) {
+            sink.write(pending.toString());
+            pending.setLength(0);
+        }
+    }
+
+    interface Sink {
+        void write(String s);
+    }
+
+    @Import(name = "putStringStdout", module = "teavmConsole")
+    private static native void putStringStdout(JSObject s);
+
+    @Import(name = "putStringStderr", module = "teavmConsole")
+    private static native void putStringStderr(JSObject s);
+}
@@ -0,0 +1,133 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.lang.management;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.teavm.classlib.PlatformDetector;
+import org.teavm.runtime.GC;
+import org.teavm.runtime.GCStatistics;
+
+/**
+ * Provides memory and GC statistics. Only low-level targets (C and WebAssembly) have their own GC and report
+ * actual values, on other targets collection counts and times are reported as undefined.
+ * More detailed statistics of low-level GC are available via {@link GCStatistics}.
+ */
+public class TManagementFactory {
+    private static final String HEAP_POOL = "Heap";
+    private static TMemoryMXBean memoryMXBean;
+    private static List<TGarbageCollectorMXBean> garbageCollectorMXBeans;
+
+    private TManagementFactory() {
+    }
+
+    public static TMemoryMXBean getMemoryMXBean() {
+        if (memoryMXBean == null) {
+            memoryMXBean = new MemoryMXBeanImpl();
+        }
+        return memoryMXBean;
+    }
+
+    public static List<TGarbageCollectorMXBean> getGarbageCollectorMXBeans() {
+        if (garbageCollectorMXBeans == null) {
+            garbageCollectorMXBeans = List.of(new GarbageCollectorMXBeanImpl("Young", false),
+                    new GarbageCollectorMXBeanImpl("Full", true));
+        }
+        return garbageCollectorMXBeans;
+    }
+
+    public static List<TMemoryManagerMXBean> getMemoryManagerMXBeans() {
+        return new ArrayList<>(getGarbageCollectorMXBeans());
+    }
+
+    private static class MemoryMXBeanImpl implements TMemoryMXBean {
+        @Override
+        public int getObjectPendingFinalizationCount() {
+            return 0;
+        }
+
+        @Override
+        public TMemoryUsage getHeapMemoryUsage() {
+            if (PlatformDetector.isLowLevel()) {
+                long committed = GC.availableBytes();
+                return new TMemoryUsage(GC.minAvailableBytes(), committed - GC.getFreeMemory(), committed,
+                        GC.maxAvailableBytes());
+            }
+            return new TMemoryUsage(-1, 0, 0, -1);
+        }
+
+        @Override
+        public TMemoryUsage getNonHeapMemoryUsage() {
+            return new TMemoryUsage(-1, 0, 0, -1);
+        }
+
+        @Override
+        public boolean isVerbose() {
+            return false;
+        }
+
+        @Override
+        public void setVerbose(boolean value) {
+        }
+
+        @Override
+        public void gc() {
+            System.gc();
+        }
+    }
+
+    private static class GarbageCollectorMXBeanImpl implements TGarbageCollectorMXBean {
+        private final String name;
+        private final boolean full;
+
+        GarbageCollectorMXBeanImpl(String name, boolean full) {
+            this.name = name;
+            this.full = full;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public String[] getMemoryPoolNames() {
+            return new String[] { HEAP_POOL };
+        }
+
+        @Override
+        public long getCollectionCount() {
+            if (PlatformDetector.isLowLevel()) {
+                return full ? GCStatistics.getFullCollectionCount() : GCStatistics.getYoungCollectionCount();
+            }
+            return -1;
+        }
+
+        @Override
+        public long getCollectionTime() {
+            if (PlatformDetector.isLowLevel()) {
+                long time = full ? GCStatistics.getFullCollectionTime() : GCStatistics.getYoungCollectionTime();
+                return time / 1000000;
+            }
+            return -1;
+        }
+    }
+}
@@ -36,6 +36,10 @@ import org.teavm.classlib.java.util.stream.intimpl.TArrayIntStreamImpl;
 import org.teavm.classlib.java.util.stream.longimpl.TArrayLongStreamImpl;
 
 public class TArrays extends TObject {
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int COUNTING_SORT_THRESHOLD = 3200;
+    private static final int BYTE_COUNTING_SORT_THRESHOLD = 64;
+
     public static char[] copyOf(char[] array, int length) {
         char[] result = new char[length];
         int sz = TMath.min(length, array.length);
@@ -473,459 +477,815 @@ public class TArrays extends TObject {
         fill(a, 0, a.length, val);
     }
 
-    public static void sort(int[] a, int fromIndex, int toIndex) {
+    private static void checkSortRange(int length, int fromIndex, int toIndex) {
         if (fromIndex > toIndex) {
             throw new IllegalArgumentException();
         }
-        int[] subarray = new int[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
+        if (fromIndex < 0 || toIndex > length) {
+            throw new ArrayIndexOutOfBoundsException();
         }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
+    }
+
+    private static int quickSortDepth(int size) {
+        int depth = 0;
+        while (size > 1) {
+            size >>>= 1;
+            depth += 2;
         }
+        return depth;
+    }
+
+    public static void sort(int[] a, int fromIndex, int toIndex) {
+        checkSortRange(a.length, fromIndex, toIndex);
+        quickSort(a, fromIndex, toIndex - 1, quickSortDepth(toIndex - fromIndex));
     }
 
     public static void sort(int[] a) {
-        if (a.length == 0) {
-            return;
-        }
-        int[] first = a;
-        int[] second = new int[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
+        sort(a, 0, a.length);
+    }
+
+    private static void quickSort(int[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right + 1);
+                return;
             }
-            int[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
+            int third = (right - left) / 3;
+            int m1 = left + third;
+            int m2 = right - third;
+            int pivot1 = a[m1];
+            int pivot2 = a[m2];
+            if (pivot1 > pivot2) {
+                int tmp = pivot1;
+                pivot1 = pivot2;
+                pivot2 = tmp;
+            }
+            a[m1] = a[left];
+            a[m2] = a[right];
+
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                int value = a[k];
+                if (value < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = value;
+                } else if (value > pivot2) {
+                    while (k < great && a[great] > pivot2) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = value;
+                    value = a[k];
+                    if (value < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = value;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quickSort(a, left, less - 2, depth);
+            quickSort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+            left = less;
+            right = great;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(int[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
             }
+            a[j + 1] = value;
         }
     }
 
-    private static void merge(int[] a, int[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
+    private static void heapSort(int[] a, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, from, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            int tmp = a[from];
+            a[from] = a[from + end];
+            a[from + end] = tmp;
+            siftDown(a, from, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int offset, int index, int size) {
+        int value = a[offset + index];
         while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
+            int child = 2 * index + 1;
+            if (child >= size) {
                 break;
             }
-            int p = a[from];
-            int q = a[from2];
-            if (p <= q) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (a[offset + child] <= value) {
+                break;
             }
+            a[offset + index] = a[offset + child];
+            index = child;
         }
+        a[offset + index] = value;
     }
 
     public static void sort(long[] a, int fromIndex, int toIndex) {
-        if (fromIndex > toIndex) {
-            throw new IllegalArgumentException();
-        }
-        long[] subarray = new long[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
-        }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
-        }
+        checkSortRange(a.length, fromIndex, toIndex);
+        quickSort(a, fromIndex, toIndex - 1, quickSortDepth(toIndex - fromIndex));
     }
 
     public static void sort(long[] a) {
-        if (a.length == 0) {
-            return;
-        }
-        long[] first = a;
-        long[] second = new long[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
+        sort(a, 0, a.length);
+    }
+
+    private static void quickSort(long[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right + 1);
+                return;
             }
-            long[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
+            int third = (right - left) / 3;
+            int m1 = left + third;
+            int m2 = right - third;
+            long pivot1 = a[m1];
+            long pivot2 = a[m2];
+            if (pivot1 > pivot2) {
+                long tmp = pivot1;
+                pivot1 = pivot2;
+                pivot2 = tmp;
+            }
+            a[m1] = a[left];
+            a[m2] = a[right];
+
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                long value = a[k];
+                if (value < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = value;
+                } else if (value > pivot2) {
+                    while (k < great && a[great] > pivot2) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = value;
+                    value = a[k];
+                    if (value < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = value;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quickSort(a, left, less - 2, depth);
+            quickSort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+            left = less;
+            right = great;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(long[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            long value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
             }
+            a[j + 1] = value;
         }
     }
 
-    private static void merge(long[] a, long[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
+    private static void heapSort(long[] a, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, from, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            long tmp = a[from];
+            a[from] = a[from + end];
+            a[from + end] = tmp;
+            siftDown(a, from, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int offset, int index, int size) {
+        long value = a[offset + index];
         while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
+            int child = 2 * index + 1;
+            if (child >= size) {
                 break;
             }
-            long p = a[from];
-            long q = a[from2];
-            if (p <= q) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (a[offset + child] <= value) {
+                break;
             }
+            a[offset + index] = a[offset + child];
+            index = child;
         }
+        a[offset + index] = value;
     }
 
     public static void sort(short[] a, int fromIndex, int toIndex) {
-        if (fromIndex > toIndex) {
-            throw new IllegalArgumentException();
-        }
-        short[] subarray = new short[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
-        }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
+        checkSortRange(a.length, fromIndex, toIndex);
+        if (toIndex - fromIndex < COUNTING_SORT_THRESHOLD) {
+            quickSort(a, fromIndex, toIndex - 1, quickSortDepth(toIndex - fromIndex));
+        } else {
+            countingSort(a, fromIndex, toIndex);
         }
     }
 
     public static void sort(short[] a) {
-        if (a.length == 0) {
-            return;
+        sort(a, 0, a.length);
+    }
+
+    private static void countingSort(short[] a, int from, int to) {
+        int[] counts = new int[1 << 16];
+        for (int i = from; i < to; ++i) {
+            counts[a[i] - Short.MIN_VALUE]++;
         }
-        short[] first = a;
-        short[] second = new short[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
+        int index = from;
+        for (int i = 0; i < counts.length; ++i) {
+            short value = (short) (i + Short.MIN_VALUE);
+            for (int count = counts[i]; count > 0; --count) {
+                a[index++] = value;
             }
-            short[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+    }
+
+    private static void quickSort(short[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right + 1);
+                return;
             }
+            int third = (right - left) / 3;
+            int m1 = left + third;
+            int m2 = right - third;
+            short pivot1 = a[m1];
+            short pivot2 = a[m2];
+            if (pivot1 > pivot2) {
+                short tmp = pivot1;
+                pivot1 = pivot2;
+                pivot2 = tmp;
+            }
+            a[m1] = a[left];
+            a[m2] = a[right];
+
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                short value = a[k];
+                if (value < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = value;
+                } else if (value > pivot2) {
+                    while (k < great && a[great] > pivot2) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = value;
+                    value = a[k];
+                    if (value < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = value;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quickSort(a, left, less - 2, depth);
+            quickSort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+            left = less;
+            right = great;
         }
+        insertionSort(a, left, right);
     }
 
-    private static void merge(short[] a, short[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
+    private static void insertionSort(short[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            short value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(short[] a, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, from, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            short tmp = a[from];
+            a[from] = a[from + end];
+            a[from + end] = tmp;
+            siftDown(a, from, 0, end);
+        }
+    }
+
+    private static void siftDown(short[] a, int offset, int index, int size) {
+        short value = a[offset + index];
         while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
+            int child = 2 * index + 1;
+            if (child >= size) {
                 break;
             }
-            short p = a[from];
-            short q = a[from2];
-            if (p <= q) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (a[offset + child] <= value) {
+                break;
             }
+            a[offset + index] = a[offset + child];
+            index = child;
         }
+        a[offset + index] = value;
     }
 
     public static void sort(char[] a, int fromIndex, int toIndex) {
-        if (fromIndex > toIndex) {
-            throw new IllegalArgumentException();
-        }
-        char[] subarray = new char[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
-        }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
+        checkSortRange(a.length, fromIndex, toIndex);
+        if (toIndex - fromIndex < COUNTING_SORT_THRESHOLD) {
+            quickSort(a, fromIndex, toIndex - 1, quickSortDepth(toIndex - fromIndex));
+        } else {
+            countingSort(a, fromIndex, toIndex);
         }
     }
 
     public static void sort(char[] a) {
-        if (a.length == 0) {
-            return;
+        sort(a, 0, a.length);
+    }
+
+    private static void countingSort(char[] a, int from, int to) {
+        int[] counts = new int[1 << 16];
+        for (int i = from; i < to; ++i) {
+            counts[a[i]]++;
         }
-        char[] first = a;
-        char[] second = new char[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
+        int index = from;
+        for (int i = 0; i < counts.length; ++i) {
+            char value = (char) i;
+            for (int count = counts[i]; count > 0; --count) {
+                a[index++] = value;
             }
-            char[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+    }
+
+    private static void quickSort(char[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right + 1);
+                return;
+            }
+            int third = (right - left) / 3;
+            int m1 = left + third;
+            int m2 = right - third;
+            char pivot1 = a[m1];
+            char pivot2 = a[m2];
+            if (pivot1 > pivot2) {
+                char tmp = pivot1;
+                pivot1 = pivot2;
+                pivot2 = tmp;
+            }
+            a[m1] = a[left];
+            a[m2] = a[right];
+
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                char value = a[k];
+                if (value < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = value;
+                } else if (value > pivot2) {
+                    while (k < great && a[great] > pivot2) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = value;
+                    value = a[k];
+                    if (value < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = value;
+                    }
+                }
             }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quickSort(a, left, less - 2, depth);
+            quickSort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+            left = less;
+            right = great;
         }
+        insertionSort(a, left, right);
     }
 
-    private static void merge(char[] a, char[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
+    private static void insertionSort(char[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            char value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(char[] a, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, from, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            char tmp = a[from];
+            a[from] = a[from + end];
+            a[from + end] = tmp;
+            siftDown(a, from, 0, end);
+        }
+    }
+
+    private static void siftDown(char[] a, int offset, int index, int size) {
+        char value = a[offset + index];
         while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
+            int child = 2 * index + 1;
+            if (child >= size) {
                 break;
             }
-            char p = a[from];
-            char q = a[from2];
-            if (p <= q) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
             }
+            if (a[offset + child] <= value) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
         }
+        a[offset + index] = value;
     }
 
     public static void sort(byte[] a, int fromIndex, int toIndex) {
-        if (fromIndex > toIndex) {
-            throw new IllegalArgumentException();
-        }
-        byte[] subarray = new byte[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
-        }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
+        checkSortRange(a.length, fromIndex, toIndex);
+        if (toIndex - fromIndex < BYTE_COUNTING_SORT_THRESHOLD) {
+            insertionSort(a, fromIndex, toIndex - 1);
+        } else {
+            countingSort(a, fromIndex, toIndex);
         }
     }
 
     public static void sort(byte[] a) {
-        if (a.length == 0) {
-            return;
-        }
-        byte[] first = a;
-        byte[] second = new byte[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
-            }
-            byte[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
+        sort(a, 0, a.length);
+    }
+
+    private static void countingSort(byte[] a, int from, int to) {
+        int[] counts = new int[1 << 8];
+        for (int i = from; i < to; ++i) {
+            counts[a[i] - Byte.MIN_VALUE]++;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+        int index = from;
+        for (int i = 0; i < counts.length; ++i) {
+            byte value = (byte) (i + Byte.MIN_VALUE);
+            for (int count = counts[i]; count > 0; --count) {
+                a[index++] = value;
             }
         }
     }
 
-    private static void merge(byte[] a, byte[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
-        while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
-                break;
-            }
-            byte p = a[from];
-            byte q = a[from2];
-            if (p <= q) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+    private static void insertionSort(byte[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            byte value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
             }
+            a[j + 1] = value;
         }
     }
 
     public static void sort(float[] a, int fromIndex, int toIndex) {
-        if (fromIndex > toIndex) {
-            throw new IllegalArgumentException();
+        checkSortRange(a.length, fromIndex, toIndex);
+        sortRange(a, fromIndex, toIndex);
+    }
+
+    public static void sort(float[] a) {
+        sort(a, 0, a.length);
+    }
+
+    private static void sortRange(float[] a, int from, int to) {
+        int end = to;
+        for (int i = to - 1; i >= from; --i) {
+            float value = a[i];
+            if (value != value) {
+                a[i] = a[--end];
+                a[end] = value;
+            }
         }
-        float[] subarray = new float[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
+
+        quickSort(a, from, end - 1, quickSortDepth(end - from));
+
+        int low = from;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (a[middle] < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
+        int negativeZeros = 0;
+        int zeroEnd = low;
+        while (zeroEnd < end && a[zeroEnd] == 0) {
+            if (1 / a[zeroEnd] < 0) {
+                ++negativeZeros;
+            }
+            ++zeroEnd;
+        }
+        for (int i = low; i < zeroEnd; ++i) {
+            a[i] = i < low + negativeZeros ? -0f : 0f;
         }
     }
 
-    public static void sort(float[] a) {
-        if (a.length == 0) {
-            return;
-        }
-        float[] first = a;
-        float[] second = new float[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
+    private static void quickSort(float[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right + 1);
+                return;
             }
-            float[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
+            int third = (right - left) / 3;
+            int m1 = left + third;
+            int m2 = right - third;
+            float pivot1 = a[m1];
+            float pivot2 = a[m2];
+            if (pivot1 > pivot2) {
+                float tmp = pivot1;
+                pivot1 = pivot2;
+                pivot2 = tmp;
+            }
+            a[m1] = a[left];
+            a[m2] = a[right];
+
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                float value = a[k];
+                if (value < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = value;
+                } else if (value > pivot2) {
+                    while (k < great && a[great] > pivot2) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = value;
+                    value = a[k];
+                    if (value < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = value;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quickSort(a, left, less - 2, depth);
+            quickSort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+            left = less;
+            right = great;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(float[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            float value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
             }
+            a[j + 1] = value;
         }
     }
 
-    private static void merge(float[] a, float[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
+    private static void heapSort(float[] a, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, from, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            float tmp = a[from];
+            a[from] = a[from + end];
+            a[from + end] = tmp;
+            siftDown(a, from, 0, end);
+        }
+    }
+
+    private static void siftDown(float[] a, int offset, int index, int size) {
+        float value = a[offset + index];
         while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
+            int child = 2 * index + 1;
+            if (child >= size) {
                 break;
             }
-            float p = a[from];
-            float q = a[from2];
-            if (Float.compare(p, q) <= 0) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (a[offset + child] <= value) {
+                break;
             }
+            a[offset + index] = a[offset + child];
+            index = child;
         }
+        a[offset + index] = value;
     }
 
     public static void sort(double[] a, int fromIndex, int toIndex) {
-        if (fromIndex > toIndex) {
-            throw new IllegalArgumentException();
+        checkSortRange(a.length, fromIndex, toIndex);
+        sortRange(a, fromIndex, toIndex);
+    }
+
+    public static void sort(double[] a) {
+        sort(a, 0, a.length);
+    }
+
+    private static void sortRange(double[] a, int from, int to) {
+        int end = to;
+        for (int i = to - 1; i >= from; --i) {
+            double value = a[i];
+            if (value != value) {
+                a[i] = a[--end];
+                a[end] = value;
+            }
         }
-        double[] subarray = new double[toIndex - fromIndex];
-        for (int i = fromIndex; i < toIndex; ++i) {
-            subarray[i - fromIndex] = a[i];
+
+        quickSort(a, from, end - 1, quickSortDepth(end - from));
+
+        int low = from;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (a[middle] < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
-        sort(subarray);
-        for (int i = fromIndex; i < toIndex; ++i) {
-            a[i] = subarray[i - fromIndex];
+        int negativeZeros = 0;
+        int zeroEnd = low;
+        while (zeroEnd < end && a[zeroEnd] == 0) {
+            if (1 / a[zeroEnd] < 0) {
+                ++negativeZeros;
+            }
+            ++zeroEnd;
+        }
+        for (int i = low; i < zeroEnd; ++i) {
+            a[i] = i < low + negativeZeros ? -0d : 0d;
         }
     }
 
-    public static void sort(double[] a) {
-        if (a.length == 0) {
-            return;
-        }
-        double[] first = a;
-        double[] second = new double[a.length];
-        int chunkSize = 1;
-        while (chunkSize < a.length) {
-            for (int i = 0; i < first.length; i += chunkSize * 2) {
-                merge(first, second, i, Math.min(first.length, i + chunkSize),
-                        Math.min(first.length, i + 2 * chunkSize));
+    private static void quickSort(double[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right + 1);
+                return;
             }
-            double[] tmp = first;
-            first = second;
-            second = tmp;
-            chunkSize *= 2;
+            int third = (right - left) / 3;
+            int m1 = left + third;
+            int m2 = right - third;
+            double pivot1 = a[m1];
+            double pivot2 = a[m2];
+            if (pivot1 > pivot2) {
+                double tmp = pivot1;
+                pivot1 = pivot2;
+                pivot2 = tmp;
+            }
+            a[m1] = a[left];
+            a[m2] = a[right];
+
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                double value = a[k];
+                if (value < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = value;
+                } else if (value > pivot2) {
+                    while (k < great && a[great] > pivot2) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = value;
+                    value = a[k];
+                    if (value < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = value;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quickSort(a, left, less - 2, depth);
+            quickSort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+            left = less;
+            right = great;
         }
-        if (first != a) {
-            for (int i = 0; i < first.length; ++i) {
-                second[i] = first[i];
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(double[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            double value = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > value) {
+                a[j + 1] = a[j];
+                --j;
             }
+            a[j + 1] = value;
         }
     }
 
-    private static void merge(double[] a, double[] b, int from, int split, int to) {
-        int index = from;
-        int from2 = split;
+    private static void heapSort(double[] a, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, from, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            double tmp = a[from];
+            a[from] = a[from + end];
+            a[from + end] = tmp;
+            siftDown(a, from, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int offset, int index, int size) {
+        double value = a[offset + index];
         while (true) {
-            if (from == split) {
-                while (from2 < to) {
-                    b[index++] = a[from2++];
-                }
-                break;
-            } else if (from2 == to) {
-                while (from < split) {
-                    b[index++] = a[from++];
-                }
+            int child = 2 * index + 1;
+            if (child >= size) {
                 break;
             }
-            double p = a[from];
-            double q = a[from2];
-            if (Double.compare(p, q) <= 0) {
-                b[index++] = p;
-                ++from;
-            } else {
-                b[index++] = q;
-                ++from2;
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (a[offset + child] <= value) {
+                break;
             }
+            a[offset + index] = a[offset + child];
+            index = child;
         }
+        a[offset + index] = value;
     }
 
     public static void sort(Object[] a) {
@@ -0,0 +1,189 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import org.teavm.classlib.java.lang.TRunnable;
+
+public abstract class TAbstractExecutorService implements TExecutorService {
+    protected <T> TRunnableFuture<T> newTaskFor(TRunnable runnable, T value) {
+        return new TFutureTask<>(runnable, value);
+    }
+
+    protected <T> TRunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new TFutureTask<>(callable);
+    }
+
+    @Override
+    public TFuture<?> submit(TRunnable task) {
+        TRunnableFuture<Void> future = newTaskFor(Objects.requireNonNull(task), null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> TFuture<T> submit(TRunnable task, T result) {
+        TRunnableFuture<T> future = newTaskFor(Objects.requireNonNull(task), result);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> TFuture<T> submit(Callable<T> task) {
+        TRunnableFuture<T> future = newTaskFor(Objects.requireNonNull(task));
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> List<TFuture<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        List<TFuture<T>> futures = submitAll(tasks);
+        try {
+            for (TFuture<T> future : futures) {
+                try {
+                    future.get();
+                } catch (TExecutionException | TCancellationException e) {
+                    // Reported through the future
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            throw e;
+        }
+        return futures;
+    }
+
+    @Override
+    public <T> List<TFuture<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TTimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        List<TFuture<T>> futures = submitAll(tasks);
+        try {
+            for (TFuture<T> future : futures) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    future.get(remaining, TTimeUnit.MILLISECONDS);
+                } catch (TExecutionException | TCancellationException e) {
+                    // Reported through the future
+                } catch (TTimeoutException e) {
+                    break;
+                }
+            }
+        } finally {
+            cancelAll(futures);
+        }
+        return futures;
+    }
+
+    private <T> List<TFuture<T>> submitAll(Collection<? extends Callable<T>> tasks) {
+        List<TFuture<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                TRunnableFuture<T> future = newTaskFor(Objects.requireNonNull(task));
+                futures.add(future);
+                execute(future);
+            }
+        } catch (RuntimeException | Error e) {
+            cancelAll(futures);
+            throw e;
+        }
+        return futures;
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, TExecutionException {
+        try {
+            return doInvokeAny(tasks, false, 0);
+        } catch (TTimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TTimeUnit unit)
+            throws InterruptedException, TExecutionException, TTimeoutException {
+        return doInvokeAny(tasks, true, System.currentTimeMillis() + unit.toMillis(timeout));
+    }
+
+    private <T> T doInvokeAny(Collection<? extends Callable<T>> tasks, boolean timed, long deadline)
+            throws InterruptedException, TExecutionException, TTimeoutException {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        Object lock = new Object();
+        List<TFuture<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                TFutureTask<T> future = new TFutureTask<T>(Objects.requireNonNull(task)) {
+                    @Override
+                    protected void done() {
+                        synchronized (lock) {
+                            lock.notifyAll();
+                        }
+                    }
+                };
+                futures.add(future);
+                execute(future);
+            }
+            synchronized (lock) {
+                while (true) {
+                    boolean pending = false;
+                    TExecutionException lastError = null;
+                    for (TFuture<T> future : futures) {
+                        if (!future.isDone()) {
+                            pending = true;
+                            continue;
+                        }
+                        try {
+                            return future.get();
+                        } catch (TExecutionException e) {
+                            lastError = e;
+                        } catch (TCancellationException e) {
+                            // Try next task
+                        }
+                    }
+                    if (!pending) {
+                        throw lastError != null ? lastError : new TExecutionException(null);
+                    }
+                    if (timed) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new TTimeoutException();
+                        }
+                        lock.wait(remaining);
+                    } else {
+                        lock.wait();
+                    }
+                }
+            }
+        } finally {
+            cancelAll(futures);
+        }
+    }
+
+    private static <T> void cancelAll(List<TFuture<T>> futures) {
+        for (TFuture<T> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,761 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.teavm.classlib.PlatformDetector;
+import org.teavm.classlib.java.lang.TRunnable;
+import org.teavm.classlib.java.lang.TThread;
+import org.teavm.platform.Platform;
+import org.teavm.platform.PlatformRunnable;
+import org.teavm.runtime.EventQueue;
+
+/**
+ * Dependent stages are stored as plain callbacks and run right in the fiber that completes the future. Asynchronous
+ * stages without an explicit executor go to {@link TForkJoinPool#commonPool()}, where they are drained in batches by
+ * a single worker fiber.
+ */
+public class TCompletableFuture<T> implements TFuture<T>, TCompletionStage<T> {
+    private boolean done;
+    private T result;
+    private Throwable exception;
+    private List<TRunnable> dependents;
+    private int waiters;
+
+    public TCompletableFuture() {
+    }
+
+    public static <U> TCompletableFuture<U> supplyAsync(Supplier<U> supplier) {
+        return supplyAsync(supplier, TForkJoinPool.commonPool());
+    }
+
+    public static <U> TCompletableFuture<U> supplyAsync(Supplier<U> supplier, TExecutor executor) {
+        Objects.requireNonNull(supplier);
+        TCompletableFuture<U> future = new TCompletableFuture<>();
+        dispatch(Objects.requireNonNull(executor), future, () -> future.completeWith(supplier.get(), null));
+        return future;
+    }
+
+    public static TCompletableFuture<Void> runAsync(TRunnable runnable) {
+        return runAsync(runnable, TForkJoinPool.commonPool());
+    }
+
+    public static TCompletableFuture<Void> runAsync(TRunnable runnable, TExecutor executor) {
+        Objects.requireNonNull(runnable);
+        TCompletableFuture<Void> future = new TCompletableFuture<>();
+        dispatch(Objects.requireNonNull(executor), future, () -> {
+            runnable.run();
+            future.completeWith(null, null);
+        });
+        return future;
+    }
+
+    public static <U> TCompletableFuture<U> completedFuture(U value) {
+        TCompletableFuture<U> future = new TCompletableFuture<>();
+        future.completeWith(value, null);
+        return future;
+    }
+
+    public static <U> TCompletionStage<U> completedStage(U value) {
+        return completedFuture(value);
+    }
+
+    public static <U> TCompletableFuture<U> failedFuture(Throwable ex) {
+        TCompletableFuture<U> future = new TCompletableFuture<>();
+        future.completeWith(null, Objects.requireNonNull(ex));
+        return future;
+    }
+
+    public static <U> TCompletionStage<U> failedStage(Throwable ex) {
+        return failedFuture(ex);
+    }
+
+    public static TCompletableFuture<Void> allOf(TCompletableFuture<?>... cfs) {
+        TCompletableFuture<Void> future = new TCompletableFuture<>();
+        if (cfs.length == 0) {
+            future.completeWith(null, null);
+        } else {
+            AllOf allOf = new AllOf(future, cfs);
+            for (TCompletableFuture<?> cf : cfs) {
+                cf.onDone(allOf);
+            }
+        }
+        return future;
+    }
+
+    public static TCompletableFuture<Object> anyOf(TCompletableFuture<?>... cfs) {
+        TCompletableFuture<Object> future = new TCompletableFuture<>();
+        for (TCompletableFuture<?> cf : cfs) {
+            relay(cf, future);
+        }
+        return future;
+    }
+
+    public boolean complete(T value) {
+        return completeWith(value, null);
+    }
+
+    public boolean completeExceptionally(Throwable ex) {
+        return completeWith(null, Objects.requireNonNull(ex));
+    }
+
+    public TCompletableFuture<T> completeAsync(Supplier<? extends T> supplier) {
+        return completeAsync(supplier, defaultExecutor());
+    }
+
+    public TCompletableFuture<T> completeAsync(Supplier<? extends T> supplier, TExecutor executor) {
+        Objects.requireNonNull(supplier);
+        dispatch(Objects.requireNonNull(executor), this, () -> completeWith(supplier.get(), null));
+        return this;
+    }
+
+    public TCompletableFuture<T> orTimeout(long timeout, TTimeUnit unit) {
+        if (!done) {
+            Timeout timer = new Timeout(() -> completeWith(null, new TTimeoutException()), unit.toMillis(timeout));
+            onDone(timer::cancel);
+        }
+        return this;
+    }
+
+    public TCompletableFuture<T> completeOnTimeout(T value, long timeout, TTimeUnit unit) {
+        if (!done) {
+            Timeout timer = new Timeout(() -> completeWith(value, null), unit.toMillis(timeout));
+            onDone(timer::cancel);
+        }
+        return this;
+    }
+
+    public void obtrudeValue(T value) {
+        if (!completeWith(value, null)) {
+            result = value;
+            exception = null;
+        }
+    }
+
+    public void obtrudeException(Throwable ex) {
+        Objects.requireNonNull(ex);
+        if (!completeWith(null, ex)) {
+            result = null;
+            exception = ex;
+        }
+    }
+
+    private boolean completeWith(T value, Throwable ex) {
+        if (done) {
+            return false;
+        }
+        done = true;
+        result = value;
+        exception = ex;
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+        List<TRunnable> dependents = this.dependents;
+        if (dependents != null) {
+            this.dependents = null;
+            for (TRunnable dependent : dependents) {
+                dependent.run();
+            }
+        }
+        return true;
+    }
+
+    private void completeThrowable(Throwable ex) {
+        completeWith(null, ex instanceof TCompletionException ? ex : new TCompletionException(ex));
+    }
+
+    private void onDone(TRunnable action) {
+        if (done) {
+            action.run();
+        } else {
+            if (dependents == null) {
+                dependents = new ArrayList<>();
+            }
+            dependents.add(action);
+        }
+    }
+
+    private static void dispatch(TExecutor executor, TCompletableFuture<?> target, TRunnable action) {
+        TRunnable guardedAction = () -> {
+            try {
+                action.run();
+            } catch (Throwable e) {
+                target.completeThrowable(e);
+            }
+        };
+        if (executor == null) {
+            guardedAction.run();
+        } else {
+            try {
+                executor.execute(guardedAction);
+            } catch (Throwable e) {
+                target.completeThrowable(e);
+            }
+        }
+    }
+
+    private static <U> void relay(TCompletableFuture<? extends U> source, TCompletableFuture<U> target) {
+        source.onDone(() -> {
+            if (source.exception != null) {
+                target.completeThrowable(source.exception);
+            } else {
+                target.completeWith(source.result, null);
+            }
+        });
+    }
+
+    private <U> TCompletableFuture<U> stage(TExecutor executor, boolean handlesErrors, Step<? super T, U> step) {
+        TCompletableFuture<U> target = newIncompleteFuture();
+        onDone(() -> {
+            if (!handlesErrors && exception != null) {
+                target.completeThrowable(exception);
+            } else {
+                dispatch(executor, target, () -> step.run(result, exception, target));
+            }
+        });
+        return target;
+    }
+
+    private <U, V> TCompletableFuture<V> bothStage(TCompletionStage<? extends U> other, TExecutor executor,
+            BothStep<? super T, ? super U, V> step) {
+        TCompletableFuture<? extends U> second = other.toCompletableFuture();
+        TCompletableFuture<V> target = newIncompleteFuture();
+        onDone(() -> second.onDone(() -> {
+            Throwable error = exception != null ? exception : second.exception;
+            if (error != null) {
+                target.completeThrowable(error);
+            } else {
+                dispatch(executor, target, () -> step.run(result, second.result, target));
+            }
+        }));
+        return target;
+    }
+
+    private TCompletableFuture<T> either(TCompletionStage<? extends T> other) {
+        TCompletableFuture<T> first = new TCompletableFuture<>();
+        relay(this, first);
+        relay(other.toCompletableFuture(), first);
+        return first;
+    }
+
+    private static TExecutor asyncExecutor(TExecutor executor) {
+        return Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> thenApply(Function<? super T, ? extends U> fn) {
+        return uniApply(null, fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn) {
+        return uniApply(defaultExecutor(), fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn, TExecutor executor) {
+        return uniApply(asyncExecutor(executor), fn);
+    }
+
+    private <U> TCompletableFuture<U> uniApply(TExecutor executor, Function<? super T, ? extends U> fn) {
+        Objects.requireNonNull(fn);
+        return stage(executor, false, (value, error, target) -> target.completeWith(fn.apply(value), null));
+    }
+
+    @Override
+    public TCompletableFuture<Void> thenAccept(Consumer<? super T> action) {
+        return uniAccept(null, action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> thenAcceptAsync(Consumer<? super T> action) {
+        return uniAccept(defaultExecutor(), action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> thenAcceptAsync(Consumer<? super T> action, TExecutor executor) {
+        return uniAccept(asyncExecutor(executor), action);
+    }
+
+    private TCompletableFuture<Void> uniAccept(TExecutor executor, Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        return stage(executor, false, (value, error, target) -> {
+            action.accept(value);
+            target.completeWith(null, null);
+        });
+    }
+
+    @Override
+    public TCompletableFuture<Void> thenRun(TRunnable action) {
+        return uniRun(null, action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> thenRunAsync(TRunnable action) {
+        return uniRun(defaultExecutor(), action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> thenRunAsync(TRunnable action, TExecutor executor) {
+        return uniRun(asyncExecutor(executor), action);
+    }
+
+    private TCompletableFuture<Void> uniRun(TExecutor executor, TRunnable action) {
+        Objects.requireNonNull(action);
+        return stage(executor, false, (value, error, target) -> {
+            action.run();
+            target.completeWith(null, null);
+        });
+    }
+
+    @Override
+    public <U, V> TCompletableFuture<V> thenCombine(TCompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        return biApply(other, null, fn);
+    }
+
+    @Override
+    public <U, V> TCompletableFuture<V> thenCombineAsync(TCompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        return biApply(other, defaultExecutor(), fn);
+    }
+
+    @Override
+    public <U, V> TCompletableFuture<V> thenCombineAsync(TCompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn, TExecutor executor) {
+        return biApply(other, asyncExecutor(executor), fn);
+    }
+
+    private <U, V> TCompletableFuture<V> biApply(TCompletionStage<? extends U> other, TExecutor executor,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        Objects.requireNonNull(fn);
+        return bothStage(other, executor, (first, second, target) -> target.completeWith(fn.apply(first, second),
+                null));
+    }
+
+    @Override
+    public <U> TCompletableFuture<Void> thenAcceptBoth(TCompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action) {
+        return biAccept(other, null, action);
+    }
+
+    @Override
+    public <U> TCompletableFuture<Void> thenAcceptBothAsync(TCompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action) {
+        return biAccept(other, defaultExecutor(), action);
+    }
+
+    @Override
+    public <U> TCompletableFuture<Void> thenAcceptBothAsync(TCompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action, TExecutor executor) {
+        return biAccept(other, asyncExecutor(executor), action);
+    }
+
+    private <U> TCompletableFuture<Void> biAccept(TCompletionStage<? extends U> other, TExecutor executor,
+            BiConsumer<? super T, ? super U> action) {
+        Objects.requireNonNull(action);
+        return bothStage(other, executor, (first, second, target) -> {
+            action.accept(first, second);
+            target.completeWith(null, null);
+        });
+    }
+
+    @Override
+    public TCompletableFuture<Void> runAfterBoth(TCompletionStage<?> other, TRunnable action) {
+        return biRun(other, null, action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> runAfterBothAsync(TCompletionStage<?> other, TRunnable action) {
+        return biRun(other, defaultExecutor(), action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> runAfterBothAsync(TCompletionStage<?> other, TRunnable action,
+            TExecutor executor) {
+        return biRun(other, asyncExecutor(executor), action);
+    }
+
+    private TCompletableFuture<Void> biRun(TCompletionStage<?> other, TExecutor executor, TRunnable action) {
+        Objects.requireNonNull(action);
+        return bothStage(other, executor, (first, second, target) -> {
+            action.run();
+            target.completeWith(null, null);
+        });
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> applyToEither(TCompletionStage<? extends T> other, Function<? super T, U> fn) {
+        return either(other).uniApply(null, fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> applyToEitherAsync(TCompletionStage<? extends T> other,
+            Function<? super T, U> fn) {
+        return either(other).uniApply(defaultExecutor(), fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> applyToEitherAsync(TCompletionStage<? extends T> other,
+            Function<? super T, U> fn, TExecutor executor) {
+        return either(other).uniApply(asyncExecutor(executor), fn);
+    }
+
+    @Override
+    public TCompletableFuture<Void> acceptEither(TCompletionStage<? extends T> other, Consumer<? super T> action) {
+        return either(other).uniAccept(null, action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> acceptEitherAsync(TCompletionStage<? extends T> other,
+            Consumer<? super T> action) {
+        return either(other).uniAccept(defaultExecutor(), action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> acceptEitherAsync(TCompletionStage<? extends T> other,
+            Consumer<? super T> action, TExecutor executor) {
+        return either(other).uniAccept(asyncExecutor(executor), action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> runAfterEither(TCompletionStage<?> other, TRunnable action) {
+        return anyOf(this, other.toCompletableFuture()).uniRun(null, action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> runAfterEitherAsync(TCompletionStage<?> other, TRunnable action) {
+        return anyOf(this, other.toCompletableFuture()).uniRun(defaultExecutor(), action);
+    }
+
+    @Override
+    public TCompletableFuture<Void> runAfterEitherAsync(TCompletionStage<?> other, TRunnable action,
+            TExecutor executor) {
+        return anyOf(this, other.toCompletableFuture()).uniRun(asyncExecutor(executor), action);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> thenCompose(Function<? super T, ? extends TCompletionStage<U>> fn) {
+        return uniCompose(null, fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> thenComposeAsync(Function<? super T, ? extends TCompletionStage<U>> fn) {
+        return uniCompose(defaultExecutor(), fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> thenComposeAsync(Function<? super T, ? extends TCompletionStage<U>> fn,
+            TExecutor executor) {
+        return uniCompose(asyncExecutor(executor), fn);
+    }
+
+    private <U> TCompletableFuture<U> uniCompose(TExecutor executor,
+            Function<? super T, ? extends TCompletionStage<U>> fn) {
+        Objects.requireNonNull(fn);
+        return stage(executor, false, (value, error, target) -> relay(fn.apply(value).toCompletableFuture(), target));
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> handle(BiFunction<? super T, Throwable, ? extends U> fn) {
+        return uniHandle(null, fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> handleAsync(BiFunction<? super T, Throwable, ? extends U> fn) {
+        return uniHandle(defaultExecutor(), fn);
+    }
+
+    @Override
+    public <U> TCompletableFuture<U> handleAsync(BiFunction<? super T, Throwable, ? extends U> fn,
+            TExecutor executor) {
+        return uniHandle(asyncExecutor(executor), fn);
+    }
+
+    private <U> TCompletableFuture<U> uniHandle(TExecutor executor, BiFunction<? super T, Throwable, ? extends U> fn) {
+        Objects.requireNonNull(fn);
+        return stage(executor, true, (value, error, target) -> target.completeWith(fn.apply(value, error), null));
+    }
+
+    @Override
+    public TCompletableFuture<T> whenComplete(BiConsumer<? super T, ? super Throwable> action) {
+        return uniWhenComplete(null, action);
+    }
+
+    @Override
+    public TCompletableFuture<T> whenCompleteAsync(BiConsumer<? super T, ? super Throwable> action) {
+        return uniWhenComplete(defaultExecutor(), action);
+    }
+
+    @Override
+    public TCompletableFuture<T> whenCompleteAsync(BiConsumer<? super T, ? super Throwable> action,
+            TExecutor executor) {
+        return uniWhenComplete(asyncExecutor(executor), action);
+    }
+
+    private TCompletableFuture<T> uniWhenComplete(TExecutor executor,
+            BiConsumer<? super T, ? super Throwable> action) {
+        Objects.requireNonNull(action);
+        return stage(executor, true, (value, error, target) -> {
+            try {
+                action.accept(value, error);
+            } catch (Throwable e) {
+                if (error == null) {
+                    target.completeThrowable(e);
+                    return;
+                }
+                if (e != error) {
+                    error.addSuppressed(e);
+                }
+            }
+            if (error != null) {
+                target.completeThrowable(error);
+            } else {
+                target.completeWith(value, null);
+            }
+        });
+    }
+
+    @Override
+    public TCompletableFuture<T> exceptionally(Function<Throwable, ? extends T> fn) {
+        Objects.requireNonNull(fn);
+        return stage(null, true, (value, error, target) -> target.completeWith(error != null
+                ? fn.apply(error) : value, null));
+    }
+
+    @Override
+    public TCompletableFuture<T> toCompletableFuture() {
+        return this;
+    }
+
+    public <U> TCompletableFuture<U> newIncompleteFuture() {
+        return new TCompletableFuture<>();
+    }
+
+    public TExecutor defaultExecutor() {
+        return TForkJoinPool.commonPool();
+    }
+
+    public TCompletableFuture<T> copy() {
+        TCompletableFuture<T> copy = newIncompleteFuture();
+        relay(this, copy);
+        return copy;
+    }
+
+    public TCompletionStage<T> minimalCompletionStage() {
+        return copy();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        completeWith(null, new TCancellationException());
+        return isCancelled();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return exception instanceof TCancellationException;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isCompletedExceptionally() {
+        return exception != null;
+    }
+
+    public int getNumberOfDependents() {
+        return dependents != null ? dependents.size() : 0;
+    }
+
+    @Override
+    public T get() throws InterruptedException, TExecutionException {
+        if (!done) {
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (!done) {
+                        wait();
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        return reportGet();
+    }
+
+    @Override
+    public T get(long timeout, TTimeUnit unit) throws InterruptedException, TExecutionException, TTimeoutException {
+        if (!done) {
+            long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (!done) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new TTimeoutException();
+                        }
+                        wait(remaining);
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        return reportGet();
+    }
+
+    public T join() {
+        if (!done) {
+            boolean interrupted = false;
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (!done) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+            if (interrupted) {
+                TThread.currentThread().interrupt();
+            }
+        }
+        return reportJoin();
+    }
+
+    public T getNow(T valueIfAbsent) {
+        return done ? reportJoin() : valueIfAbsent;
+    }
+
+    private T reportGet() throws TExecutionException {
+        if (exception == null) {
+            return result;
+        }
+        if (exception instanceof TCancellationException) {
+            throw (TCancellationException) exception;
+        }
+        Throwable cause = exception;
+        if (cause instanceof TCompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        throw new TExecutionException(cause);
+    }
+
+    private T reportJoin() {
+        if (exception == null) {
+            return result;
+        }
+        if (exception instanceof TCancellationException) {
+            throw (TCancellationException) exception;
+        }
+        if (exception instanceof TCompletionException) {
+            throw (TCompletionException) exception;
+        }
+        throw new TCompletionException(exception);
+    }
+
+    @Override
+    public String toString() {
+        String status;
+        if (!done) {
+            int count = getNumberOfDependents();
+            status = count == 0 ? "[Incomplete]" : "[Incomplete with " + count + " dependents]";
+        } else if (exception != null) {
+            status = "[Completed exceptionally: " + exception + "]";
+        } else {
+            status = "[Completed normally]";
+        }
+        return super.toString() + status;
+    }
+
+    private interface Step<T, U> {
+        void run(T value, Throwable error, TCompletableFuture<U> target);
+    }
+
+    private interface BothStep<T, U, V> {
+        void run(T first, U second, TCompletableFuture<V> target);
+    }
+
+    static class AllOf implements TRunnable {
+        private final TCompletableFuture<Void> target;
+        private final TCompletableFuture<?>[] sources;
+        private int remaining;
+
+        AllOf(TCompletableFuture<Void> target, TCompletableFuture<?>[] sources) {
+            this.target = target;
+            this.sources = sources;
+            remaining = sources.length;
+        }
+
+        @Override
+        public void run() {
+            if (--remaining > 0) {
+                return;
+            }
+            for (TCompletableFuture<?> source : sources) {
+                if (source.exception != null) {
+                    target.completeThrowable(source.exception);
+                    return;
+                }
+            }
+            target.completeWith(null, null);
+        }
+    }
+
+    static class Timeout implements PlatformRunnable, EventQueue.Event {
+        private final TRunnable action;
+        private final int timerId;
+
+        Timeout(TRunnable action, long delay) {
+            this.action = action;
+            timerId = PlatformDetector.isLowLevel()
+                    ? EventQueue.offer(this, System.currentTimeMillis() + delay)
+                    : Platform.schedule(this, (int) Math.min(delay, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void run() {
+            action.run();
+        }
+
+        void cancel() {
+            if (PlatformDetector.isLowLevel()) {
+                EventQueue.kill(timerId);
+            } else {
+                Platform.killSchedule(timerId);
+            }
+        }
+    }
+}
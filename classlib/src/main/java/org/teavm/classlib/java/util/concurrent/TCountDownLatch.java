@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+public class TCountDownLatch {
+    private long count;
+    private int waiters;
+
+    public TCountDownLatch(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count < 0");
+        }
+        this.count = count;
+    }
+
+    public void await() throws InterruptedException {
+        if (count == 0) {
+            return;
+        }
+        waiters++;
+        try {
+            synchronized (this) {
+                while (count > 0) {
+                    wait();
+                }
+            }
+        } finally {
+            waiters--;
+        }
+    }
+
+    public boolean await(long timeout, TTimeUnit unit) throws InterruptedException {
+        if (count == 0) {
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        waiters++;
+        try {
+            synchronized (this) {
+                while (count > 0) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    wait(remaining);
+                }
+            }
+        } finally {
+            waiters--;
+        }
+        return true;
+    }
+
+    public void countDown() {
+        if (count == 0) {
+            return;
+        }
+        if (--count == 0 && waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[Count = " + count + "]";
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import org.teavm.classlib.PlatformDetector;
+import org.teavm.classlib.java.lang.TRunnable;
+import org.teavm.classlib.java.lang.TThread;
+import org.teavm.platform.Platform;
+import org.teavm.runtime.EventQueue;
+
+/**
+ * Executor service that runs its tasks on fibers. A worker fiber drains the whole submission queue before it
+ * finishes, so a burst of tasks (for example, a chain of completion stages) is handled within a single fiber
+ * instead of starting a fiber per task. A new worker is started only when every running worker is suspended in
+ * the middle of a task, and no more than {@code parallelism} workers exist at the same time. While a worker runs
+ * a task and more tasks are pending, that check is postponed until the worker yields to the event loop, so that
+ * a worker which simply goes on to drain the queue does not cause another fiber to start.
+ */
+public class TForkJoinPool extends TAbstractExecutorService {
+    private static final int COMMON_PARALLELISM = 64;
+    private static TForkJoinPool common;
+
+    private final int parallelism;
+    private final boolean isCommon;
+    private final Queue<TRunnable> queue = new ArrayDeque<>();
+    private int workerCount;
+    private int busyWorkerCount;
+    private int nextWorkerId;
+    private boolean compensationScheduled;
+    private boolean shutdown;
+    private int terminationWaiters;
+
+    public TForkJoinPool() {
+        this(COMMON_PARALLELISM);
+    }
+
+    public TForkJoinPool(int parallelism) {
+        this(parallelism, false);
+    }
+
+    private TForkJoinPool(int parallelism, boolean isCommon) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.parallelism = parallelism;
+        this.isCommon = isCommon;
+    }
+
+    public static TForkJoinPool commonPool() {
+        if (common == null) {
+            common = new TForkJoinPool(COMMON_PARALLELISM, true);
+        }
+        return common;
+    }
+
+    public static int getCommonPoolParallelism() {
+        return COMMON_PARALLELISM;
+    }
+
+    static TForkJoinPool currentPool() {
+        TThread thread = TThread.currentThread();
+        return thread instanceof Worker ? ((Worker) thread).pool : null;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getPoolSize() {
+        return workerCount;
+    }
+
+    public int getActiveThreadCount() {
+        return busyWorkerCount;
+    }
+
+    public int getRunningThreadCount() {
+        return busyWorkerCount;
+    }
+
+    public boolean isQuiescent() {
+        return busyWorkerCount == 0 && queue.isEmpty();
+    }
+
+    public int getQueuedSubmissionCount() {
+        return queue.size();
+    }
+
+    public long getQueuedTaskCount() {
+        return queue.size();
+    }
+
+    public boolean hasQueuedSubmissions() {
+        return !queue.isEmpty();
+    }
+
+    public <T> T invoke(TForkJoinTask<T> task) {
+        execute(task);
+        return task.join();
+    }
+
+    public void execute(TForkJoinTask<?> task) {
+        enqueue(Objects.requireNonNull(task));
+    }
+
+    @Override
+    public void execute(TRunnable task) {
+        if (task instanceof TForkJoinTask<?>) {
+            enqueue((TForkJoinTask<?>) task);
+        } else {
+            enqueue(Objects.requireNonNull(task));
+        }
+    }
+
+    public <T> TForkJoinTask<T> submit(TForkJoinTask<T> task) {
+        execute(task);
+        return task;
+    }
+
+    @Override
+    public <T> TForkJoinTask<T> submit(Callable<T> task) {
+        return submit(TForkJoinTask.adapt(task));
+    }
+
+    @Override
+    public <T> TForkJoinTask<T> submit(TRunnable task, T result) {
+        return submit(TForkJoinTask.adapt(task, result));
+    }
+
+    @Override
+    public TForkJoinTask<?> submit(TRunnable task) {
+        return submit(TForkJoinTask.adapt(task));
+    }
+
+    void enqueue(TForkJoinTask<?> task) {
+        enqueue(task::doExec);
+    }
+
+    private void enqueue(TRunnable task) {
+        if (shutdown) {
+            throw new TRejectedExecutionException();
+        }
+        queue.add(task);
+        if (workerCount == busyWorkerCount && workerCount < parallelism) {
+            if (currentPool() != this) {
+                startWorker();
+            } else {
+                scheduleCompensation();
+            }
+        }
+    }
+
+    private void scheduleCompensation() {
+        if (!compensationScheduled) {
+            compensationScheduled = true;
+            if (PlatformDetector.isLowLevel()) {
+                EventQueue.offer(this::compensate);
+            } else {
+                Platform.postpone(this::compensate);
+            }
+        }
+    }
+
+    private void compensate() {
+        compensationScheduled = false;
+        if (!queue.isEmpty() && workerCount == busyWorkerCount && workerCount < parallelism) {
+            startWorker();
+        }
+    }
+
+    private void startWorker() {
+        Worker worker = new Worker(this, nextWorkerId++);
+        workerCount++;
+        worker.start();
+    }
+
+    private void work(Worker worker) {
+        try {
+            while (true) {
+                TRunnable task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                if (!queue.isEmpty() && workerCount < parallelism) {
+                    scheduleCompensation();
+                }
+                busyWorkerCount++;
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    worker.getUncaughtExceptionHandler().uncaughtException(worker, e);
+                } finally {
+                    busyWorkerCount--;
+                }
+            }
+        } finally {
+            workerCount--;
+            if (terminationWaiters > 0 && isTerminated()) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (!isCommon) {
+            shutdown = true;
+        }
+    }
+
+    @Override
+    public List<TRunnable> shutdownNow() {
+        shutdown();
+        List<TRunnable> result = new ArrayList<>();
+        if (!isCommon) {
+            result.addAll(queue);
+            queue.clear();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && workerCount == 0 && queue.isEmpty();
+    }
+
+    public boolean isTerminating() {
+        return shutdown && !isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TTimeUnit unit) throws InterruptedException {
+        if (isCommon) {
+            return awaitQuiescence(timeout, unit);
+        }
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        terminationWaiters++;
+        try {
+            synchronized (this) {
+                while (!isTerminated()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    wait(remaining);
+                }
+            }
+        } finally {
+            terminationWaiters--;
+        }
+        return true;
+    }
+
+    public boolean awaitQuiescence(long timeout, TTimeUnit unit) {
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (!isQuiescent()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            TThread.yield();
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[parallelism = " + parallelism + ", size = " + workerCount
+                + ", active = " + busyWorkerCount + ", submissions = " + queue.size() + "]";
+    }
+
+    static class Worker extends TThread {
+        final TForkJoinPool pool;
+
+        Worker(TForkJoinPool pool, int index) {
+            super("ForkJoinPool-worker-" + index);
+            this.pool = pool;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            pool.work(this);
+        }
+    }
+}
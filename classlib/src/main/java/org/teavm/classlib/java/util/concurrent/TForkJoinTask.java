@@ -0,0 +1,337 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import org.teavm.classlib.java.lang.TRunnable;
+import org.teavm.classlib.java.lang.TThread;
+
+public abstract class TForkJoinTask<V> implements TFuture<V> {
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int NORMAL = 2;
+    private static final int EXCEPTIONAL = 3;
+
+    private int state;
+    private Throwable exception;
+    private int waiters;
+
+    public abstract V getRawResult();
+
+    protected abstract void setRawResult(V value);
+
+    protected abstract boolean exec();
+
+    public final TForkJoinTask<V> fork() {
+        TForkJoinPool pool = TForkJoinPool.currentPool();
+        if (pool == null) {
+            pool = TForkJoinPool.commonPool();
+        }
+        pool.enqueue(this);
+        return this;
+    }
+
+    public final V join() {
+        doJoin();
+        return reportUnchecked();
+    }
+
+    public final V invoke() {
+        doExec();
+        doJoin();
+        return reportUnchecked();
+    }
+
+    public final void quietlyJoin() {
+        doJoin();
+    }
+
+    public final void quietlyInvoke() {
+        doExec();
+        doJoin();
+    }
+
+    public static void invokeAll(TForkJoinTask<?> t1, TForkJoinTask<?> t2) {
+        t2.fork();
+        t1.invoke();
+        t2.join();
+    }
+
+    public static void invokeAll(TForkJoinTask<?>... tasks) {
+        for (int i = tasks.length - 1; i > 0; --i) {
+            tasks[i].fork();
+        }
+        if (tasks.length > 0) {
+            tasks[0].quietlyInvoke();
+        }
+        joinAll(Arrays.asList(tasks));
+    }
+
+    public static <T extends TForkJoinTask<?>> Collection<T> invokeAll(Collection<T> tasks) {
+        List<T> list = new ArrayList<>(tasks);
+        for (int i = list.size() - 1; i > 0; --i) {
+            list.get(i).fork();
+        }
+        if (!list.isEmpty()) {
+            list.get(0).quietlyInvoke();
+        }
+        joinAll(list);
+        return tasks;
+    }
+
+    private static void joinAll(List<? extends TForkJoinTask<?>> tasks) {
+        RuntimeException error = null;
+        for (TForkJoinTask<?> task : tasks) {
+            task.doJoin();
+            if (error == null && task.state == EXCEPTIONAL) {
+                error = asUnchecked(task.exception);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    final void doExec() {
+        if (state != NEW) {
+            return;
+        }
+        state = RUNNING;
+        boolean completed;
+        try {
+            completed = exec();
+        } catch (Throwable e) {
+            finish(EXCEPTIONAL, e);
+            return;
+        }
+        if (completed) {
+            finish(NORMAL, null);
+        }
+    }
+
+    private void doJoin() {
+        if (state == NEW) {
+            doExec();
+        }
+        if (state == RUNNING) {
+            boolean interrupted = false;
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (state == RUNNING) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+            if (interrupted) {
+                TThread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void finish(int state, Throwable exception) {
+        if (this.state >= NORMAL) {
+            return;
+        }
+        this.state = state;
+        this.exception = exception;
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private V reportUnchecked() {
+        if (state == EXCEPTIONAL) {
+            throw asUnchecked(exception);
+        }
+        return getRawResult();
+    }
+
+    private static RuntimeException asUnchecked(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+
+    public void complete(V value) {
+        setRawResult(value);
+        finish(NORMAL, null);
+    }
+
+    public void completeExceptionally(Throwable ex) {
+        finish(EXCEPTIONAL, ex instanceof RuntimeException || ex instanceof Error ? ex : new RuntimeException(ex));
+    }
+
+    public final void quietlyComplete() {
+        finish(NORMAL, null);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (state == NEW) {
+            finish(EXCEPTIONAL, new TCancellationException());
+        }
+        return isCancelled();
+    }
+
+    @Override
+    public final boolean isCancelled() {
+        return state == EXCEPTIONAL && exception instanceof TCancellationException;
+    }
+
+    @Override
+    public final boolean isDone() {
+        return state >= NORMAL;
+    }
+
+    public final boolean isCompletedAbnormally() {
+        return state == EXCEPTIONAL;
+    }
+
+    public final boolean isCompletedNormally() {
+        return state == NORMAL;
+    }
+
+    public final Throwable getException() {
+        return state == EXCEPTIONAL ? exception : null;
+    }
+
+    public void reinitialize() {
+        state = NEW;
+        exception = null;
+    }
+
+    @Override
+    public final V get() throws InterruptedException, TExecutionException {
+        doJoin();
+        return report();
+    }
+
+    @Override
+    public final V get(long timeout, TTimeUnit unit)
+            throws InterruptedException, TExecutionException, TTimeoutException {
+        if (state == NEW) {
+            doExec();
+        }
+        if (state == RUNNING) {
+            long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (state == RUNNING) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new TTimeoutException();
+                        }
+                        wait(remaining);
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        return report();
+    }
+
+    private V report() throws TExecutionException {
+        if (state == EXCEPTIONAL) {
+            if (exception instanceof TCancellationException) {
+                throw (TCancellationException) exception;
+            }
+            throw new TExecutionException(exception);
+        }
+        return getRawResult();
+    }
+
+    public static TForkJoinPool getPool() {
+        return TForkJoinPool.currentPool();
+    }
+
+    public static boolean inForkJoinPool() {
+        return TForkJoinPool.currentPool() != null;
+    }
+
+    public static TForkJoinTask<?> adapt(TRunnable runnable) {
+        return new AdaptedCallable<>(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public static <T> TForkJoinTask<T> adapt(TRunnable runnable, T result) {
+        return new AdaptedCallable<>(() -> {
+            runnable.run();
+            return result;
+        });
+    }
+
+    public static <T> TForkJoinTask<T> adapt(Callable<? extends T> callable) {
+        return new AdaptedCallable<>(callable);
+    }
+
+    static class AdaptedCallable<T> extends TForkJoinTask<T> implements TRunnableFuture<T> {
+        private final Callable<? extends T> callable;
+        private T result;
+
+        AdaptedCallable(Callable<? extends T> callable) {
+            this.callable = Objects.requireNonNull(callable);
+        }
+
+        @Override
+        public T getRawResult() {
+            return result;
+        }
+
+        @Override
+        protected void setRawResult(T value) {
+            result = value;
+        }
+
+        @Override
+        protected boolean exec() {
+            try {
+                result = callable.call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            quietlyInvoke();
+        }
+    }
+}
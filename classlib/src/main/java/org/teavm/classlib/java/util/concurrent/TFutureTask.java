@@ -0,0 +1,201 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import org.teavm.classlib.java.lang.TRunnable;
+import org.teavm.classlib.java.lang.TThread;
+
+public class TFutureTask<V> implements TRunnableFuture<V> {
+    private static final int NEW = 0;
+    private static final int NORMAL = 1;
+    private static final int EXCEPTIONAL = 2;
+    private static final int CANCELLED = 3;
+
+    private Callable<V> callable;
+    private int state;
+    private V result;
+    private Throwable exception;
+    private TThread runner;
+    private int waiters;
+
+    public TFutureTask(Callable<V> callable) {
+        this.callable = Objects.requireNonNull(callable);
+    }
+
+    public TFutureTask(TRunnable runnable, V result) {
+        Objects.requireNonNull(runnable);
+        callable = () -> {
+            runnable.run();
+            return result;
+        };
+    }
+
+    @Override
+    public void run() {
+        if (state != NEW || runner != null) {
+            return;
+        }
+        runner = TThread.currentThread();
+        V value;
+        try {
+            value = callable.call();
+        } catch (Throwable e) {
+            runner = null;
+            setException(e);
+            return;
+        }
+        runner = null;
+        set(value);
+    }
+
+    protected boolean runAndReset() {
+        if (state != NEW || runner != null) {
+            return false;
+        }
+        runner = TThread.currentThread();
+        try {
+            callable.call();
+        } catch (Throwable e) {
+            runner = null;
+            setException(e);
+            return false;
+        }
+        runner = null;
+        return state == NEW;
+    }
+
+    protected void set(V v) {
+        if (state == NEW) {
+            result = v;
+            finish(NORMAL);
+        }
+    }
+
+    protected void setException(Throwable t) {
+        if (state == NEW) {
+            exception = t;
+            finish(EXCEPTIONAL);
+        }
+    }
+
+    protected void done() {
+    }
+
+    private void finish(int state) {
+        this.state = state;
+        callable = null;
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+        done();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (state != NEW) {
+            return false;
+        }
+        if (mayInterruptIfRunning && runner != null) {
+            runner.interrupt();
+        }
+        finish(CANCELLED);
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+        return state != NEW;
+    }
+
+    @Override
+    public V get() throws InterruptedException, TExecutionException {
+        if (state == NEW) {
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (state == NEW) {
+                        wait();
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        return report();
+    }
+
+    @Override
+    public V get(long timeout, TTimeUnit unit) throws InterruptedException, TExecutionException, TTimeoutException {
+        if (state == NEW) {
+            long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+            waiters++;
+            try {
+                synchronized (this) {
+                    while (state == NEW) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new TTimeoutException();
+                        }
+                        wait(remaining);
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        return report();
+    }
+
+    private V report() throws TExecutionException {
+        switch (state) {
+            case NORMAL:
+                return result;
+            case EXCEPTIONAL:
+                throw new TExecutionException(exception);
+            default:
+                throw new TCancellationException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        String status;
+        switch (state) {
+            case NORMAL:
+                status = "[Completed normally]";
+                break;
+            case EXCEPTIONAL:
+                status = "[Completed exceptionally: " + exception + "]";
+                break;
+            case CANCELLED:
+                status = "[Cancelled]";
+                break;
+            default:
+                status = "[Not completed]";
+                break;
+        }
+        return super.toString() + status;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import org.teavm.classlib.java.lang.TThread;
+
+public class TSemaphore {
+    private final boolean fair;
+    private int permits;
+    private int waiters;
+
+    public TSemaphore(int permits) {
+        this(permits, false);
+    }
+
+    public TSemaphore(int permits, boolean fair) {
+        this.permits = permits;
+        this.fair = fair;
+    }
+
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        checkPermits(permits);
+        if (TThread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (this.permits >= permits) {
+            this.permits -= permits;
+            return;
+        }
+        waiters++;
+        try {
+            synchronized (this) {
+                while (this.permits < permits) {
+                    wait();
+                }
+            }
+        } finally {
+            waiters--;
+        }
+        this.permits -= permits;
+    }
+
+    public void acquireUninterruptibly() {
+        acquireUninterruptibly(1);
+    }
+
+    public void acquireUninterruptibly(int permits) {
+        checkPermits(permits);
+        if (this.permits >= permits) {
+            this.permits -= permits;
+            return;
+        }
+        boolean interrupted = false;
+        waiters++;
+        try {
+            synchronized (this) {
+                while (this.permits < permits) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            waiters--;
+        }
+        this.permits -= permits;
+        if (interrupted) {
+            TThread.currentThread().interrupt();
+        }
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        if (this.permits >= permits) {
+            this.permits -= permits;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean tryAcquire(long timeout, TTimeUnit unit) throws InterruptedException {
+        return tryAcquire(1, timeout, unit);
+    }
+
+    public boolean tryAcquire(int permits, long timeout, TTimeUnit unit) throws InterruptedException {
+        checkPermits(permits);
+        if (TThread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (this.permits >= permits) {
+            this.permits -= permits;
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        waiters++;
+        try {
+            synchronized (this) {
+                while (this.permits < permits) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    wait(remaining);
+                }
+            }
+        } finally {
+            waiters--;
+        }
+        this.permits -= permits;
+        return true;
+    }
+
+    public void release() {
+        release(1);
+    }
+
+    public void release(int permits) {
+        checkPermits(permits);
+        this.permits += permits;
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    public int availablePermits() {
+        return permits;
+    }
+
+    public int drainPermits() {
+        int result = Math.max(permits, 0);
+        permits -= result;
+        return result;
+    }
+
+    protected void reducePermits(int reduction) {
+        checkPermits(reduction);
+        permits -= reduction;
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
+
+    public final boolean hasQueuedThreads() {
+        return waiters > 0;
+    }
+
+    public final int getQueueLength() {
+        return waiters;
+    }
+
+    private static void checkPermits(int permits) {
+        if (permits < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[Permits = " + permits + "]";
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent.locks;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Queue;
+import org.teavm.classlib.java.lang.TThread;
+import org.teavm.classlib.java.util.concurrent.TTimeUnit;
+
+public class TReentrantLock implements TLock {
+    private final boolean fair;
+    private TThread owner;
+    private int holdCount;
+    private int lockWaiters;
+    private int waiters;
+
+    public TReentrantLock() {
+        this(false);
+    }
+
+    public TReentrantLock(boolean fair) {
+        this.fair = fair;
+    }
+
+    @Override
+    public void lock() {
+        TThread current = TThread.currentThread();
+        if (tryAcquire(current)) {
+            return;
+        }
+        boolean interrupted = false;
+        lockWaiters++;
+        waiters++;
+        try {
+            synchronized (this) {
+                while (!tryAcquire(current)) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            lockWaiters--;
+            waiters--;
+        }
+        if (interrupted) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        acquire(-1);
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryAcquire(TThread.currentThread());
+    }
+
+    @Override
+    public boolean tryLock(long time, TTimeUnit unit) throws InterruptedException {
+        return acquire(System.currentTimeMillis() + Math.max(unit.toMillis(time), 0));
+    }
+
+    private boolean acquire(long deadline) throws InterruptedException {
+        if (TThread.interrupted()) {
+            throw new InterruptedException();
+        }
+        TThread current = TThread.currentThread();
+        if (tryAcquire(current)) {
+            return true;
+        }
+        lockWaiters++;
+        waiters++;
+        try {
+            synchronized (this) {
+                while (!tryAcquire(current)) {
+                    if (deadline < 0) {
+                        wait();
+                    } else {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        wait(remaining);
+                    }
+                }
+            }
+        } finally {
+            lockWaiters--;
+            waiters--;
+        }
+        return true;
+    }
+
+    private boolean tryAcquire(TThread current) {
+        if (owner == null) {
+            owner = current;
+            holdCount = 1;
+            return true;
+        }
+        if (owner == current) {
+            holdCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void unlock() {
+        checkOwner();
+        if (--holdCount == 0) {
+            owner = null;
+            wakeUp();
+        }
+    }
+
+    private void checkOwner() {
+        if (owner != TThread.currentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+    }
+
+    private void wakeUp() {
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private boolean awaitSignal(Waiter waiter, Queue<Waiter> queue, long deadline, boolean interruptible)
+            throws InterruptedException {
+        checkOwner();
+        if (interruptible && TThread.interrupted()) {
+            throw new InterruptedException();
+        }
+        TThread current = owner;
+        int savedHoldCount = holdCount;
+        queue.add(waiter);
+        holdCount = 0;
+        owner = null;
+
+        InterruptedException interruption = null;
+        boolean interrupted = false;
+        waiters++;
+        try {
+            synchronized (this) {
+                notifyAll();
+                while (!waiter.signalled) {
+                    try {
+                        if (deadline < 0) {
+                            wait();
+                        } else {
+                            long remaining = deadline - System.currentTimeMillis();
+                            if (remaining <= 0) {
+                                break;
+                            }
+                            wait(remaining);
+                        }
+                    } catch (InterruptedException e) {
+                        if (interruptible) {
+                            interruption = e;
+                            break;
+                        }
+                        interrupted = true;
+                    }
+                }
+                if (!waiter.signalled) {
+                    queue.remove(waiter);
+                }
+                while (owner != null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                owner = current;
+                holdCount = savedHoldCount;
+            }
+        } finally {
+            waiters--;
+        }
+        if (interruption != null) {
+            throw interruption;
+        }
+        if (interrupted) {
+            current.interrupt();
+        }
+        return waiter.signalled;
+    }
+
+    @Override
+    public TCondition newCondition() {
+        return new ConditionObject();
+    }
+
+    public int getHoldCount() {
+        return owner == TThread.currentThread() ? holdCount : 0;
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return owner == TThread.currentThread();
+    }
+
+    public boolean isLocked() {
+        return owner != null;
+    }
+
+    public final boolean isFair() {
+        return fair;
+    }
+
+    public final boolean hasQueuedThreads() {
+        return lockWaiters > 0;
+    }
+
+    public final int getQueueLength() {
+        return lockWaiters;
+    }
+
+    public boolean hasWaiters(TCondition condition) {
+        return getWaitQueueLength(condition) > 0;
+    }
+
+    public int getWaitQueueLength(TCondition condition) {
+        if (!(condition instanceof ConditionObject) || ((ConditionObject) condition).owner() != this) {
+            throw new IllegalArgumentException();
+        }
+        checkOwner();
+        return ((ConditionObject) condition).queue.size();
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + (owner == null ? "[Unlocked]" : "[Locked by thread " + owner.getName() + "]");
+    }
+
+    static class Waiter {
+        boolean signalled;
+    }
+
+    class ConditionObject implements TCondition {
+        final Queue<Waiter> queue = new ArrayDeque<>();
+
+        TReentrantLock owner() {
+            return TReentrantLock.this;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            awaitSignal(new Waiter(), queue, -1, true);
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            try {
+                awaitSignal(new Waiter(), queue, -1, false);
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            long start = System.currentTimeMillis();
+            long millis = nanosTimeout > 0 ? Math.max(nanosTimeout / 1000000, 1) : 0;
+            awaitSignal(new Waiter(), queue, start + millis, true);
+            return nanosTimeout - (System.currentTimeMillis() - start) * 1000000;
+        }
+
+        @Override
+        public boolean await(long time, TTimeUnit unit) throws InterruptedException {
+            return awaitSignal(new Waiter(), queue, System.currentTimeMillis() + Math.max(unit.toMillis(time), 0),
+                    true);
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            return awaitSignal(new Waiter(), queue, Math.max(deadline.getTime(), 0), true);
+        }
+
+        @Override
+        public void signal() {
+            checkOwner();
+            Waiter waiter = queue.poll();
+            if (waiter != null) {
+                waiter.signalled = true;
+                wakeUp();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            checkOwner();
+            if (!queue.isEmpty()) {
+                for (Waiter waiter : queue) {
+                    waiter.signalled = true;
+                }
+                queue.clear();
+                wakeUp();
+            }
+        }
+    }
+}
@@ -43,6 +43,7 @@ dependencies {
     compileOnly(libs.jackson.annotations)
 
     testImplementation(libs.junit)
+    testImplementation(libs.jackson.databind)
 }
 
 val jsOutputDir = layout.buildDirectory.dir("generated/js")
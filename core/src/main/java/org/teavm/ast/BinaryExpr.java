@@ -22,6 +22,8 @@ public class BinaryExpr extends Expr {
     private OperationType type;
     private Expr firstOperand;
     private Expr secondOperand;
+    private boolean overflowFree;
+    private boolean safeInteger;
 
     public BinaryOperation getOperation() {
         return operation;
@@ -55,6 +57,29 @@ public class BinaryExpr extends Expr {
         this.type = type;
     }
 
+    /**
+     * Indicates that result of the operation is known to fit into its type without wrapping.
+     */
+    public boolean isOverflowFree() {
+        return overflowFree;
+    }
+
+    public void setOverflowFree(boolean overflowFree) {
+        this.overflowFree = overflowFree;
+    }
+
+    /**
+     * Indicates that operands and result of the long operation are known to be exactly representable
+     * by double, so that the operation can be performed on plain numbers.
+     */
+    public boolean isSafeInteger() {
+        return safeInteger;
+    }
+
+    public void setSafeInteger(boolean safeInteger) {
+        this.safeInteger = safeInteger;
+    }
+
     @Override
     public void acceptVisitor(ExprVisitor visitor) {
         visitor.visit(this);
@@ -72,6 +97,8 @@ public class BinaryExpr extends Expr {
         copy.setSecondOperand(secondOperand != null ? secondOperand.clone(cache) : null);
         copy.setOperation(operation);
         copy.setType(type);
+        copy.setOverflowFree(overflowFree);
+        copy.setSafeInteger(safeInteger);
         return copy;
     }
 }
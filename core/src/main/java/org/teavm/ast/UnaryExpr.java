@@ -21,6 +21,8 @@ public class UnaryExpr extends Expr {
     private UnaryOperation operation;
     private Expr operand;
     private OperationType type;
+    private boolean overflowFree;
+    private boolean safeInteger;
 
     public UnaryOperation getOperation() {
         return operation;
@@ -46,6 +48,29 @@ public class UnaryExpr extends Expr {
         this.type = type;
     }
 
+    /**
+     * Indicates that result of the operation is known to fit into its type without wrapping.
+     */
+    public boolean isOverflowFree() {
+        return overflowFree;
+    }
+
+    public void setOverflowFree(boolean overflowFree) {
+        this.overflowFree = overflowFree;
+    }
+
+    /**
+     * Indicates that operands and result of the long operation are known to be exactly representable
+     * by double, so that the operation can be performed on plain numbers.
+     */
+    public boolean isSafeInteger() {
+        return safeInteger;
+    }
+
+    public void setSafeInteger(boolean safeInteger) {
+        this.safeInteger = safeInteger;
+    }
+
     @Override
     public void acceptVisitor(ExprVisitor visitor) {
         visitor.visit(this);
@@ -61,6 +86,8 @@ public class UnaryExpr extends Expr {
         copy.setOperation(operation);
         copy.setOperand(operand != null ? operand.clone(cache) : null);
         copy.setType(type);
+        copy.setOverflowFree(overflowFree);
+        copy.setSafeInteger(safeInteger);
         return copy;
     }
 }
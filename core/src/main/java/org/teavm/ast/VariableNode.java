@@ -22,6 +22,7 @@ public class VariableNode {
     private int originalIndex;
     private VariableType type;
     private String name;
+    private boolean safeInteger;
 
     public VariableNode(int index, VariableType type) {
         this.index = index;
@@ -56,4 +57,16 @@ public class VariableNode {
     public void setName(String name) {
         this.name = name;
     }
+
+    /**
+     * Indicates that the variable is of long type and all values it takes are known to be exactly
+     * representable by double.
+     */
+    public boolean isSafeInteger() {
+        return safeInteger;
+    }
+
+    public void setSafeInteger(boolean safeInteger) {
+        this.safeInteger = safeInteger;
+    }
 }
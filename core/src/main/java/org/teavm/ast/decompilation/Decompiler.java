@@ -28,6 +28,7 @@ import org.teavm.ast.AsyncMethodPart;
 import org.teavm.ast.BlockStatement;
 import org.teavm.ast.GotoPartStatement;
 import org.teavm.ast.IdentifiedStatement;
+import org.teavm.ast.MethodNode;
 import org.teavm.ast.RegularMethodNode;
 import org.teavm.ast.SequentialStatement;
 import org.teavm.ast.Statement;
@@ -48,6 +49,7 @@ import org.teavm.model.MethodReference;
 import org.teavm.model.Program;
 import org.teavm.model.TextLocation;
 import org.teavm.model.TryCatchBlock;
+import org.teavm.model.analysis.LongBitWidthAnalysis;
 import org.teavm.model.instructions.AssignInstruction;
 import org.teavm.model.instructions.BinaryBranchingInstruction;
 import org.teavm.model.instructions.BranchingInstruction;
@@ -56,6 +58,7 @@ import org.teavm.model.text.ListingBuilder;
 import org.teavm.model.util.AsyncProgramSplitter;
 import org.teavm.model.util.ProgramUtils;
 import org.teavm.model.util.TypeInferer;
+import org.teavm.model.util.VariableType;
 
 public class Decompiler {
     private ClassHolderSource classSource;
@@ -73,6 +76,8 @@ public class Decompiler {
     private Deque<Block> stack;
     private Program program;
     private boolean friendlyToDebugger;
+    private boolean longArithmeticAnalysis;
+    private LongBitWidthAnalysis longBitWidths;
 
     public Decompiler(ClassHolderSource classSource, Set<MethodReference> splitMethods, boolean friendlyToDebugger) {
         this.classSource = classSource;
@@ -80,6 +85,15 @@ public class Decompiler {
         this.friendlyToDebugger = friendlyToDebugger;
     }
 
+    /**
+     * Enables bit width analysis of long variables, which allows to mark arithmetic expressions that can't
+     * overflow 64 bits, as well as variables and expressions that fit into 53 bits. Only backends that take
+     * advantage of these flags (i.e. JavaScript with BigInt longs) should enable it, since the analysis is not free.
+     */
+    public void setLongArithmeticAnalysis(boolean longArithmeticAnalysis) {
+        this.longArithmeticAnalysis = longArithmeticAnalysis;
+    }
+
     static class Block {
         Block parent;
         final IdentifiedStatement statement;
@@ -124,6 +138,10 @@ public class Decompiler {
             variable.setName(program.variableAt(i).getDebugName());
             methodNode.getVariables().add(variable);
         }
+        if (longBitWidths != null) {
+            markSafeIntegerVariables(methodNode, program, typeInferer, longBitWidths);
+            longBitWidths = null;
+        }
 
         Optimizer optimizer = new Optimizer(classSource);
         optimizer.optimize(methodNode, method.getProgram(), friendlyToDebugger);
@@ -157,6 +175,10 @@ public class Decompiler {
             variable.setName(program.variableAt(i).getDebugName());
             node.getVariables().add(variable);
         }
+        if (longArithmeticAnalysis) {
+            markSafeIntegerVariables(node, program, typeInferer, new LongBitWidthAnalysis(program));
+        }
+        longBitWidths = null;
 
         Optimizer optimizer = new Optimizer(classSource);
         optimizer.optimize(node, splitter, friendlyToDebugger);
@@ -165,6 +187,24 @@ public class Decompiler {
         return node;
     }
 
+    private static void markSafeIntegerVariables(MethodNode method, Program program, TypeInferer typeInferer,
+            LongBitWidthAnalysis widths) {
+        // Several variables may share a register, so the register is a safe integer only when all of them are
+        boolean[] unsafeRegisters = new boolean[program.variableCount()];
+        for (int i = 0; i < program.variableCount(); ++i) {
+            int register = program.variableAt(i).getRegister();
+            if (register >= 0 && (typeInferer.typeOf(i) != VariableType.LONG || !widths.isSafeInteger(i))) {
+                unsafeRegisters[register] = true;
+            }
+        }
+        for (VariableNode variable : method.getVariables()) {
+            int register = variable.getIndex();
+            if (register >= 0 && variable.getType() == VariableType.LONG) {
+                variable.setSafeInteger(!unsafeRegisters[register]);
+            }
+        }
+    }
+
     private AsyncMethodPart getRegularMethodStatement(Program program, int[] targetBlocks, boolean async) {
         AsyncMethodPart result = new AsyncMethodPart();
         lastBlockId = 1;
@@ -191,6 +231,10 @@ public class Decompiler {
         StatementGenerator generator = new StatementGenerator();
         generator.classSource = classSource;
         generator.program = program;
+        if (longArithmeticAnalysis) {
+            longBitWidths = new LongBitWidthAnalysis(program);
+            generator.longBitWidths = longBitWidths;
+        }
         generator.indexer = indexer;
         parentNode = codeTree.getRoot();
         currentNode = parentNode.getFirstChild();
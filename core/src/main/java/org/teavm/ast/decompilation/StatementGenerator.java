@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import org.teavm.ast.ArrayType;
 import org.teavm.ast.AssignmentStatement;
+import org.teavm.ast.BinaryExpr;
 import org.teavm.ast.BinaryOperation;
 import org.teavm.ast.BoundCheckExpr;
 import org.teavm.ast.BreakStatement;
@@ -40,17 +41,20 @@ import org.teavm.ast.Statement;
 import org.teavm.ast.SwitchClause;
 import org.teavm.ast.SwitchStatement;
 import org.teavm.ast.ThrowStatement;
+import org.teavm.ast.UnaryExpr;
 import org.teavm.ast.UnaryOperation;
 import org.teavm.ast.UnwrapArrayExpr;
 import org.teavm.ast.WhileStatement;
 import org.teavm.common.GraphIndexer;
 import org.teavm.model.BasicBlock;
 import org.teavm.model.ClassHolderSource;
+import org.teavm.model.Instruction;
 import org.teavm.model.InvokeDynamicInstruction;
 import org.teavm.model.MethodReference;
 import org.teavm.model.Program;
 import org.teavm.model.TextLocation;
 import org.teavm.model.Variable;
+import org.teavm.model.analysis.LongBitWidthAnalysis;
 import org.teavm.model.instructions.ArrayElementType;
 import org.teavm.model.instructions.ArrayLengthInstruction;
 import org.teavm.model.instructions.AssignInstruction;
@@ -101,6 +105,7 @@ class StatementGenerator implements InstructionVisitor {
     GraphIndexer indexer;
     Decompiler.Block currentBlock;
     Program program;
+    LongBitWidthAnalysis longBitWidths;
     ClassHolderSource classSource;
     private TextLocation currentLocation;
     boolean async;
@@ -150,53 +155,53 @@ class StatementGenerator implements InstructionVisitor {
 
     @Override
     public void visit(BinaryInstruction insn) {
-        int first = insn.getFirstOperand().getIndex();
-        int second = insn.getSecondOperand().getIndex();
-        Variable result = insn.getReceiver();
         switch (insn.getOperation()) {
             case ADD:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.ADD);
+                binary(insn, BinaryOperation.ADD);
                 break;
             case SUBTRACT:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.SUBTRACT);
+                binary(insn, BinaryOperation.SUBTRACT);
                 break;
             case MULTIPLY:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.MULTIPLY);
+                binary(insn, BinaryOperation.MULTIPLY);
                 break;
             case DIVIDE:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.DIVIDE);
+                binary(insn, BinaryOperation.DIVIDE);
                 break;
             case MODULO:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.MODULO);
+                binary(insn, BinaryOperation.MODULO);
                 break;
             case COMPARE:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.COMPARE);
+                binary(insn, BinaryOperation.COMPARE);
                 break;
             case AND:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.BITWISE_AND);
+                binary(insn, BinaryOperation.BITWISE_AND);
                 break;
             case OR:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.BITWISE_OR);
+                binary(insn, BinaryOperation.BITWISE_OR);
                 break;
             case XOR:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.BITWISE_XOR);
+                binary(insn, BinaryOperation.BITWISE_XOR);
                 break;
             case SHIFT_LEFT:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.LEFT_SHIFT);
+                binary(insn, BinaryOperation.LEFT_SHIFT);
                 break;
             case SHIFT_RIGHT:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.RIGHT_SHIFT);
+                binary(insn, BinaryOperation.RIGHT_SHIFT);
                 break;
             case SHIFT_RIGHT_UNSIGNED:
-                binary(insn.getOperandType(), first, second, result, BinaryOperation.UNSIGNED_RIGHT_SHIFT);
+                binary(insn, BinaryOperation.UNSIGNED_RIGHT_SHIFT);
                 break;
         }
     }
 
     @Override
     public void visit(NegateInstruction insn) {
-        assign(Expr.unary(UnaryOperation.NEGATE, mapOperandType(insn.getOperandType()),
-                Expr.var(insn.getOperand().getIndex())), insn.getReceiver());
+        UnaryExpr expr = (UnaryExpr) Expr.unary(UnaryOperation.NEGATE, mapOperandType(insn.getOperandType()),
+                Expr.var(insn.getOperand().getIndex()));
+        expr.setOverflowFree(isOverflowFree(insn));
+        expr.setSafeInteger(isSafeInteger(insn));
+        assign(expr, insn.getReceiver());
     }
 
     @Override
@@ -530,8 +535,20 @@ class StatementGenerator implements InstructionVisitor {
         statements.add(stmt);
     }
 
-    private void binary(NumericOperandType type, int first, int second, Variable result, BinaryOperation op) {
-        assign(Expr.binary(op, mapOperandType(type), Expr.var(first), Expr.var(second)), result);
+    private void binary(BinaryInstruction insn, BinaryOperation op) {
+        BinaryExpr expr = (BinaryExpr) Expr.binary(op, mapOperandType(insn.getOperandType()),
+                Expr.var(insn.getFirstOperand().getIndex()), Expr.var(insn.getSecondOperand().getIndex()));
+        expr.setOverflowFree(isOverflowFree(insn));
+        expr.setSafeInteger(isSafeInteger(insn));
+        assign(expr, insn.getReceiver());
+    }
+
+    private boolean isOverflowFree(Instruction insn) {
+        return longBitWidths != null && longBitWidths.isOverflowFree(insn);
+    }
+
+    private boolean isSafeInteger(Instruction insn) {
+        return longBitWidths != null && longBitWidths.isSafeInteger(insn);
     }
 
     private static OperationType mapOperandType(NumericOperandType type) {
@@ -76,6 +76,7 @@ import org.teavm.backend.c.intrinsic.ShadowStackIntrinsic;
 import org.teavm.backend.c.intrinsic.StringsIntrinsic;
 import org.teavm.backend.c.intrinsic.StructureIntrinsic;
 import org.teavm.backend.c.transform.CFileSystemTransformer;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.lowlevel.analyze.LowLevelInliningFilterFactory;
 import org.teavm.backend.lowlevel.dependency.ExceptionHandlingDependencyListener;
 import org.teavm.backend.lowlevel.dependency.StringsDependencyListener;
@@ -133,6 +134,7 @@ import org.teavm.runtime.GC;
 import org.teavm.runtime.RuntimeArray;
 import org.teavm.runtime.RuntimeClass;
 import org.teavm.runtime.RuntimeObject;
+import org.teavm.vm.BuildProfiler;
 import org.teavm.vm.BuildTarget;
 import org.teavm.vm.TeaVMTarget;
 import org.teavm.vm.TeaVMTargetController;
@@ -171,6 +173,10 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
     private boolean lineNumbersGenerated;
     private SimpleStringPool stringPool;
     private boolean heapDump;
+    private int gcMarkBudget;
+    private int gcThreads = 1;
+    private HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+    private int heapSizingTarget;
     private boolean obfuscated;
     private List<CallSiteDescriptor> callSites = new ArrayList<>();
 
@@ -198,6 +204,43 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         this.heapDump = heapDump;
     }
 
+    /**
+     * Enables incremental marking in garbage collector. When enabled, GC starts marking in advance and interleaves
+     * it with allocation, performing at most the given number of object scans per step, so that the pause
+     * when memory runs out is limited to finishing marking, sweep and defragmentation.
+     *
+     * @param gcMarkBudget number of objects scanned per marking step, or 0 to disable incremental marking.
+     */
+    public void setGcMarkBudget(int gcMarkBudget) {
+        this.gcMarkBudget = gcMarkBudget;
+    }
+
+    /**
+     * Sets number of native threads that garbage collector uses to mark and to sweep heap during full collection.
+     * Marking threads trace objects from their own stacks and steal work from each other when they run out of it.
+     * Young collections, incremental marking and builds with memory trace keep marking on the main thread.
+     * When more than one thread is requested, the generated code must be linked against threading library
+     * of the target platform (i.e. pthreads on Unix systems).
+     *
+     * @param gcThreads number of GC threads, 1 to collect garbage on the main thread only.
+     */
+    public void setGcThreads(int gcThreads) {
+        this.gcThreads = gcThreads;
+    }
+
+    /**
+     * Selects strategy that garbage collector uses to decide whether to grow or to shrink heap after collection.
+     *
+     * @param heapSizingPolicy heap sizing strategy.
+     * @param heapSizingTarget target value of the strategy, i.e. GC overhead in percent for
+     *                         {@link HeapSizingPolicy#GC_OVERHEAD} or pause time in milliseconds for
+     *                         {@link HeapSizingPolicy#PAUSE_TIME}, or 0 to use default value.
+     */
+    public void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy, int heapSizingTarget) {
+        this.heapSizingPolicy = heapSizingPolicy;
+        this.heapSizingTarget = heapSizingTarget > 0 ? heapSizingTarget : heapSizingPolicy.getDefaultTarget();
+    }
+
     public void setAstCache(MethodNodeCache astCache) {
         this.astCache = astCache;
     }
@@ -273,6 +316,10 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         dependencyAnalyzer.linkMethod(new MethodReference(GC.class, "tryShrink", void.class)).use();
         dependencyAnalyzer.linkMethod(new MethodReference(GC.class, "collectGarbage", void.class)).use();
         dependencyAnalyzer.linkMethod(new MethodReference(GC.class, "collectGarbageFull", void.class)).use();
+        if (gcThreads > 1) {
+            dependencyAnalyzer.linkMethod(new MethodReference(GC.class, "sweepWorker", int.class, void.class)).use();
+            dependencyAnalyzer.linkMethod(new MethodReference(GC.class, "markWorker", int.class, void.class)).use();
+        }
 
         dependencyAnalyzer.linkMethod(new MethodReference(ExceptionHandling.class, "throwException",
                 Throwable.class, void.class)).use();
@@ -394,6 +441,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         stringPool = new SimpleStringPool();
         boolean vmAssertions = Boolean.parseBoolean(System.getProperty("teavm.c.vmAssertions", "false"));
         boolean gcStats = Boolean.parseBoolean(System.getProperty("teavm.c.gcStats", "false"));
+        int gcEventLog = Integer.parseInt(System.getProperty("teavm.c.gcEventLog", "0"));
         GenerationContext context = new GenerationContext(vtableProvider, characteristics,
                 controller.getDependencyInfo(), stringPool, nameProvider, fileNames,
                 controller.getDiagnostics(), classes, intrinsics, generators, asyncMethods::contains, buildTarget,
@@ -419,6 +467,16 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         if (gcStats) {
             configHeaderWriter.println("#define TEAVM_GC_STATS 1");
         }
+        if (gcThreads > 1) {
+            configHeaderWriter.println("#define TEAVM_GC_THREADS " + gcThreads);
+        }
+        if (heapSizingPolicy != HeapSizingPolicy.OCCUPANCY) {
+            configHeaderWriter.println("#define TEAVM_GC_HEAP_POLICY " + heapSizingPolicy.ordinal());
+            configHeaderWriter.println("#define TEAVM_GC_HEAP_TARGET " + heapSizingTarget);
+        }
+        if (gcEventLog > 0) {
+            configHeaderWriter.println("#define TEAVM_GC_EVENT_LOG " + gcEventLog);
+        }
 
         ClassGenerator classGenerator = new ClassGenerator(context, tagRegistry, decompiler,
                 controller.getCacheStatus());
@@ -436,22 +494,27 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
             context.addGenerator(generatorFactory.createGenerator(intrinsicFactoryContext));
         }
 
-        generateClasses(classes, classGenerator, buildTarget);
-
-        generateSpecialFunctions(context, specialWriter);
-        OutputFileUtil.write(configHeaderWriter, "config.h", buildTarget);
-        OutputFileUtil.write(specialWriter, "special.c", buildTarget);
-        for (String runtimeFile : RUNTIME_FILES) {
-            copyResource(runtimeFile, buildTarget);
+        BuildProfiler profiler = controller.getProfiler();
+        try (BuildProfiler.Scope phase = profiler.phase("C: generate classes")) {
+            generateClasses(classes, classGenerator, buildTarget);
         }
-        generateCallSites(buildTarget, context, classes.getClassNames());
-        generateStrings(buildTarget, context);
 
-        List<ValueType> types = classGenerator.getTypes().stream()
-                .filter(c -> ClassGenerator.needsVirtualTable(characteristics, c))
-                .collect(Collectors.toList());
-        generateMainFile(context, classes, types, buildTarget);
-        generateAllFile(classes, types, buildTarget);
+        try (BuildProfiler.Scope phase = profiler.phase("C: write output")) {
+            generateSpecialFunctions(context, specialWriter);
+            OutputFileUtil.write(configHeaderWriter, "config.h", buildTarget);
+            OutputFileUtil.write(specialWriter, "special.c", buildTarget);
+            for (String runtimeFile : RUNTIME_FILES) {
+                copyResource(runtimeFile, buildTarget);
+            }
+            generateCallSites(buildTarget, context, classes.getClassNames());
+            generateStrings(buildTarget, context);
+
+            List<ValueType> types = classGenerator.getTypes().stream()
+                    .filter(c -> ClassGenerator.needsVirtualTable(characteristics, c))
+                    .collect(Collectors.toList());
+            generateMainFile(context, classes, types, buildTarget);
+            generateAllFile(classes, types, buildTarget);
+        }
     }
 
     private void copyResource(String name, BuildTarget buildTarget) throws IOException {
@@ -794,6 +857,9 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
 
         writer.println("teavm_beforeInit();");
         writer.println("teavm_initHeap(" + minHeapSize + ", " + maxHeapSize + ");");
+        if (gcMarkBudget > 0 && !context.isVmAssertions()) {
+            writer.println("teavm_gc_markStepBudget = " + gcMarkBudget + ";");
+        }
         generateVirtualTableHeaders(context, writer);
         writer.println("teavm_initStringPool();");
         for (ValueType type : types) {
@@ -40,6 +40,18 @@ public class GCIntrinsic implements Intrinsic {
             case "cardTable":
             case "writeBarrier":
             case "canShrinkHeap":
+            case "markStepBudget":
+            case "sweepThreadCount":
+            case "sweepInParallel":
+            case "markThreadCount":
+            case "markInParallel":
+            case "atomicGetInt":
+            case "atomicCompareAndSwapInt":
+            case "atomicCompareAndSwapShort":
+            case "atomicOrInt":
+            case "atomicOrByte":
+            case "heapSizingPolicy":
+            case "heapSizingTarget":
                 return true;
             default:
                 return false;
@@ -65,6 +77,29 @@ public class GCIntrinsic implements Intrinsic {
                 context.writer().print("1");
                 break;
 
+            case "sweepInParallel":
+                context.writer().print("teavm_gc_sweepInParallel()");
+                break;
+
+            case "markInParallel":
+                context.writer().print("teavm_gc_markInParallel()");
+                break;
+
+            case "atomicGetInt":
+            case "atomicCompareAndSwapInt":
+            case "atomicCompareAndSwapShort":
+            case "atomicOrInt":
+            case "atomicOrByte":
+                context.writer().print("teavm_gc_").print(invocation.getMethod().getName()).print("(");
+                for (int i = 0; i < invocation.getArguments().size(); ++i) {
+                    if (i > 0) {
+                        context.writer().print(", ");
+                    }
+                    context.emit(invocation.getArguments().get(i));
+                }
+                context.writer().print(")");
+                break;
+
             default:
                 context.includes().includePath("heaptrace.h");
                 context.writer().print("teavm_gc_").print(invocation.getMethod().getName());
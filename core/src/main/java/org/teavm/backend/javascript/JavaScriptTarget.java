@@ -16,6 +16,7 @@
 package org.teavm.backend.javascript;
 
 import com.carrotsearch.hppc.ObjectIntHashMap;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -56,12 +57,16 @@ import org.teavm.backend.javascript.rendering.Renderer;
 import org.teavm.backend.javascript.rendering.RenderingContext;
 import org.teavm.backend.javascript.rendering.RenderingUtil;
 import org.teavm.backend.javascript.rendering.RuntimeRenderer;
+import org.teavm.backend.javascript.runtime.splitting.ChunkLoader;
 import org.teavm.backend.javascript.spi.GeneratedBy;
 import org.teavm.backend.javascript.spi.Generator;
 import org.teavm.backend.javascript.spi.InjectedBy;
 import org.teavm.backend.javascript.spi.Injector;
 import org.teavm.backend.javascript.spi.MethodContributor;
 import org.teavm.backend.javascript.spi.MethodContributorContext;
+import org.teavm.backend.javascript.splitting.ChunkLoaderGenerator;
+import org.teavm.backend.javascript.splitting.ChunkPartitioner;
+import org.teavm.backend.javascript.splitting.SplitPointTransformer;
 import org.teavm.backend.javascript.templating.JavaScriptTemplateFactory;
 import org.teavm.cache.EmptyMethodNodeCache;
 import org.teavm.cache.MethodNodeCache;
@@ -71,6 +76,7 @@ import org.teavm.debugging.information.SourceLocation;
 import org.teavm.dependency.AbstractDependencyListener;
 import org.teavm.dependency.DependencyAgent;
 import org.teavm.dependency.DependencyAnalyzer;
+import org.teavm.dependency.DependencyInfo;
 import org.teavm.dependency.DependencyListener;
 import org.teavm.dependency.DependencyType;
 import org.teavm.dependency.MethodDependency;
@@ -108,6 +114,7 @@ import org.teavm.vm.spi.RendererListener;
 import org.teavm.vm.spi.TeaVMHostExtension;
 
 public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
     private static final NumberFormat STATS_NUM_FORMAT = new DecimalFormat("#,##0");
     private static final NumberFormat STATS_PERCENT_FORMAT = new DecimalFormat("0.000 %");
     private static final MethodReference CURRENT_THREAD = new MethodReference(Thread.class,
@@ -134,13 +141,17 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
     private JSModuleType moduleType = JSModuleType.UMD;
     private List<ExportedDeclaration> exports = new ArrayList<>();
     private int maxTopLevelNames = 80_000;
+    private boolean codeSplitting;
 
     @Override
     public List<ClassHolderTransformer> getTransformers() {
-        return List.of(
-                new WeakReferenceTransformer(),
-                new ReferenceQueueTransformer()
-        );
+        var transformers = new ArrayList<ClassHolderTransformer>();
+        transformers.add(new WeakReferenceTransformer());
+        transformers.add(new ReferenceQueueTransformer());
+        if (codeSplitting) {
+            transformers.add(new SplitPointTransformer());
+        }
+        return transformers;
     }
 
     @Override
@@ -164,6 +175,9 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         var refQueueGenerator = new ReferenceQueueGenerator();
         methodGenerators.put(new MethodReference(ReferenceQueue.class, "<init>", void.class), refQueueGenerator);
         methodGenerators.put(new MethodReference(ReferenceQueue.class, "poll", Reference.class), refQueueGenerator);
+
+        methodGenerators.put(new MethodReference(ChunkLoader.class, "load", String.class, void.class),
+                new ChunkLoaderGenerator());
     }
 
     @Override
@@ -237,6 +251,16 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         this.maxTopLevelNames = maxTopLevelNames;
     }
 
+    /**
+     * Specifies whether code reachable only through methods marked with {@link org.teavm.interop.SplitPoint}
+     * should be moved to separate files, loaded the first time a split point is called.
+     *
+     * @param codeSplitting whether TeaVM should split code into lazily loaded chunks.
+     */
+    public void setCodeSplitting(boolean codeSplitting) {
+        this.codeSplitting = codeSplitting;
+    }
+
     @Override
     public List<TeaVMHostExtension> getHostExtensions() {
         return Collections.singletonList(this);
@@ -334,8 +358,9 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
     @Override
     public void emit(ListableClassHolderSource classes, BuildTarget target, String outputName) {
         try (OutputStream output = target.createResource(outputName);
-                Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
-            emit(classes, writer, target);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                        OUTPUT_BUFFER_SIZE)) {
+            emit(classes, writer, target, outputName);
         } catch (IOException e) {
             throw new RenderingException(e);
         }
@@ -359,7 +384,7 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
     public void afterOptimizations(Program program, MethodReader method) {
     }
 
-    private void emit(ListableClassHolderSource classes, Writer writer, BuildTarget target) {
+    private void emit(ListableClassHolderSource classes, Writer writer, BuildTarget target, String outputName) {
         var aliasProvider = obfuscated
                 ? new MinifyingAliasProvider(maxTopLevelNames)
                 : new DefaultAliasProvider(maxTopLevelNames);
@@ -408,23 +433,47 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
                 controller.getEntryPoint());
         renderer.setProperties(controller.getProperties());
         renderer.setProgressConsumer(controller::reportProgress);
+        renderer.setThreadCount(controller.getOptimizationThreads());
+
+        var ref = new MethodReference(controller.getEntryPoint(), "main", ValueType.parse(String[].class),
+                ValueType.parse(void.class));
+        var chunkWriters = new LinkedHashMap<String, RememberingSourceWriter>();
+        if (codeSplitting) {
+            var dependencyInfo = controller.getDependencyInfo();
+            var partitioner = new ChunkPartitioner(classes, dependencyInfo.getCallGraph(),
+                    m -> isVirtual(methodContributorContext, m), m -> isForcedFunction(methodContributorContext, m),
+                    m -> isReferencedExternally(dependencyInfo, m));
+            partitioner.pin(ref);
+            renderer.setChunks(partitioner.partition(),
+                    chunk -> chunkWriters.computeIfAbsent(chunk, c -> new RememberingSourceWriter(false)));
+        }
 
         for (var listener : rendererListeners) {
             listener.begin(renderer, target);
         }
-        if (!renderer.render(classes, controller.isFriendlyToDebugger())) {
+        var profiler = controller.getProfiler();
+        boolean rendered;
+        try (var phase = profiler.phase("JS: render classes")) {
+            rendered = renderer.render(classes, controller.isFriendlyToDebugger());
+        }
+        if (!rendered) {
             return;
         }
+        // Declarations are usually the largest part of output. Don't let writers keep buffers
+        // of the same size while the rest is rendered and written.
         var declarations = rememberingWriter.save();
-        rememberingWriter.clear();
+        rememberingWriter.release();
+        var chunks = new LinkedHashMap<String, RememberedSource>();
+        for (var entry : chunkWriters.entrySet()) {
+            chunks.put(entry.getKey(), entry.getValue().save());
+            entry.getValue().release();
+        }
 
         renderer.renderStringPool();
         renderer.renderStringConstants();
         renderer.renderCompatibilityStubs();
 
         var alias = "$rt_export_main";
-        var ref = new MethodReference(controller.getEntryPoint(), "main", ValueType.parse(String[].class),
-                ValueType.parse(void.class));
         if (classes.resolve(ref) != null) {
             rememberingWriter.startVariableDeclaration().appendFunction(alias)
                     .appendFunction("$rt_mainStarter").append("(").appendMethod(ref);
@@ -436,58 +485,122 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
                     n -> n.functionName(alias), controller.getEntryPointName()));
         }
 
+        if (!chunks.isEmpty()) {
+            renderChunkBase(rememberingWriter, outputName);
+        }
+
         for (var listener : rendererListeners) {
             listener.complete();
         }
         var epilogue = rememberingWriter.save();
         rememberingWriter.clear();
 
-        var runtimeRenderer = new RuntimeRenderer(classes, rememberingWriter, controller.getClassInitializerInfo());
-        runtimeRenderer.prepareAstParts(renderer.isThreadLibraryUsed());
-        declarations.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
-        epilogue.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
-        runtimeRenderer.removeUnusedParts();
-        runtimeRenderer.renderRuntime();
-        var runtime = rememberingWriter.save();
-        rememberingWriter.clear();
-        runtimeRenderer.renderEpilogue();
-        var runtimeEpilogue = rememberingWriter.save();
-        rememberingWriter.clear();
-
-        naming.additionalScopeName();
-        naming.functionName("$rt_exports");
-        for (var module : importedModules.values()) {
-            naming.functionName(module);
-        }
-        for (var export : exports) {
-            export.nameFreq.accept(naming);
+        RememberedSource runtime;
+        RememberedSource runtimeEpilogue;
+        try (var phase = profiler.phase("JS: render runtime")) {
+            var runtimeRenderer = new RuntimeRenderer(classes, rememberingWriter, controller.getClassInitializerInfo());
+            runtimeRenderer.prepareAstParts(renderer.isThreadLibraryUsed());
+            declarations.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+            epilogue.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+            for (var chunk : chunks.values()) {
+                chunk.replay(runtimeRenderer.sink, RememberedSource.FILTER_REF);
+            }
+            runtimeRenderer.removeUnusedParts();
+            runtimeRenderer.renderRuntime();
+            runtime = rememberingWriter.save();
+            rememberingWriter.clear();
+            runtimeRenderer.renderEpilogue();
+            runtimeEpilogue = rememberingWriter.save();
+            rememberingWriter.clear();
         }
+
         var frequencyEstimator = new NameFrequencyEstimator();
-        runtime.replay(frequencyEstimator, RememberedSource.FILTER_REF);
-        runtimeEpilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
-        declarations.replay(frequencyEstimator, RememberedSource.FILTER_REF);
-        epilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
-        frequencyEstimator.apply(naming);
+        try (var phase = profiler.phase("JS: naming")) {
+            naming.additionalScopeName();
+            naming.functionName("$rt_exports");
+            for (var module : importedModules.values()) {
+                naming.functionName(module);
+            }
+            for (var export : exports) {
+                export.nameFreq.accept(naming);
+            }
+            runtime.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+            runtimeEpilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+            declarations.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+            epilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+            for (var chunk : chunks.values()) {
+                chunk.replay(frequencyEstimator, RememberedSource.FILTER_REF);
+            }
+            frequencyEstimator.apply(naming);
+        }
 
-        var sourceWriter = builder.build(writer);
-        sourceWriter.setDebugInformationEmitter(debugEmitterToUse);
-        printWrapperStart(sourceWriter);
-        if (frequencyEstimator.hasAdditionalScope()) {
-            sourceWriter.append("let ").append(naming.additionalScopeName()).ws().append('=').ws()
-                    .append("{};").softNewLine();
+        try (var phase = profiler.phase("JS: write output")) {
+            var sourceWriter = builder.build(writer);
+            sourceWriter.setDebugInformationEmitter(debugEmitterToUse);
+            printWrapperStart(sourceWriter);
+            if (frequencyEstimator.hasAdditionalScope()) {
+                sourceWriter.append("let ").append(naming.additionalScopeName()).ws().append('=').ws()
+                        .append("{};").softNewLine();
+            }
+
+            // Drop each part as soon as it's written, so that it can be reclaimed while the rest is being written
+            int start = sourceWriter.getOffset();
+            runtime.write(sourceWriter, 0);
+            runtime = null;
+            declarations.write(sourceWriter, 0);
+            declarations = null;
+            runtimeEpilogue.write(sourceWriter, 0);
+            runtimeEpilogue = null;
+            epilogue.write(sourceWriter, 0);
+            epilogue = null;
+
+            printModuleEnd(sourceWriter);
+            sourceWriter.finish();
+
+            int totalSize = sourceWriter.getOffset() - start;
+            printStats(sourceWriter, totalSize);
+
+            for (var iter = chunks.entrySet().iterator(); iter.hasNext();) {
+                var chunk = iter.next();
+                iter.remove();
+                writeChunk(target, chunkFilePrefix(outputName) + chunk.getKey() + ".js", builder, chunk.getValue());
+            }
         }
+    }
 
-        int start = sourceWriter.getOffset();
-        runtime.write(sourceWriter, 0);
-        declarations.write(sourceWriter, 0);
-        runtimeEpilogue.write(sourceWriter, 0);
-        epilogue.write(sourceWriter, 0);
+    private static String chunkFilePrefix(String outputName) {
+        return (outputName.endsWith(".js") ? outputName.substring(0, outputName.length() - 3) : outputName) + ".";
+    }
 
-        printModuleEnd(sourceWriter);
-        sourceWriter.finish();
+    private void renderChunkBase(SourceWriter writer, String outputName) {
+        writer.startVariableDeclaration().appendFunction("$rt_chunkBase");
+        if (moduleType == JSModuleType.ES2015) {
+            writer.append("import.meta.url");
+        } else {
+            writer.append("typeof document").ws().append("!==").ws().append("'undefined'").ws().append("&&").ws()
+                    .append("document.currentScript").ws().append("?").ws().append("document.currentScript.src")
+                    .ws().append(":").ws().append("typeof location").ws().append("!==").ws().append("'undefined'")
+                    .ws().append("?").ws().append("location.href").ws().append(":").ws().append("void 0");
+        }
+        writer.endDeclaration();
+
+        var prefix = chunkFilePrefix(outputName);
+        prefix = prefix.substring(prefix.lastIndexOf('/') + 1);
+        writer.startVariableDeclaration().appendFunction("$rt_chunkPrefix").append('"')
+                .append(RenderingUtil.escapeString(prefix)).append('"').endDeclaration();
+    }
 
-        int totalSize = sourceWriter.getOffset() - start;
-        printStats(sourceWriter, totalSize);
+    private void writeChunk(BuildTarget target, String fileName, OutputSourceWriterBuilder builder,
+            RememberedSource chunk) {
+        try (OutputStream output = target.createResource(fileName);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                        OUTPUT_BUFFER_SIZE)) {
+            var sourceWriter = builder.build(writer);
+            chunk.write(sourceWriter, 0);
+            sourceWriter.finish();
+        } catch (IOException e) {
+            throw new RenderingException(e);
+        }
     }
 
     private void printWrapperStart(SourceWriter writer) {
@@ -835,6 +948,13 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         return false;
     }
 
+    private static boolean isReferencedExternally(DependencyInfo dependencyInfo, MethodReference method) {
+        // Methods used by dependency plugins are referenced by native or generated JavaScript rather than
+        // by Java call sites, so we can't tell which chunk such references come from
+        var dep = dependencyInfo.getMethod(method);
+        return dep != null && dep.isCalled();
+    }
+
     private boolean isForcedFunction(MethodContributorContext context, MethodReference method) {
         for (var predicate : forcedFunctionMethods) {
             if (predicate.isContributing(context, method)) {
@@ -98,6 +98,29 @@ public class RememberingSourceWriter extends SourceWriter {
         methodIndexes.clear();
     }
 
+    /**
+     * Same as {@link #clear()}, but also frees internal buffers. Should be called after saving large sources,
+     * otherwise this writer keeps holding at least as much memory as the saved source itself.
+     */
+    public void release() {
+        clear();
+        sb = new StringBuilder();
+        intArgs.release();
+        commands.release();
+        strings = new ArrayList<>();
+        stringIndexes = new ObjectIntHashMap<>();
+        fields = new ArrayList<>();
+        fieldIndexes = new ObjectIntHashMap<>();
+        methodDescriptors = new ArrayList<>();
+        methodDescriptorIndexes = new ObjectIntHashMap<>();
+        methods = new ArrayList<>();
+        methodIndexes = new ObjectIntHashMap<>();
+    }
+
+    int bufferSize() {
+        return sb.capacity() * 2 + intArgs.buffer.length * 4 + commands.buffer.length;
+    }
+
     @Override
     public SourceWriter append(char value) {
         sb.append(value);
@@ -20,15 +20,21 @@ import com.carrotsearch.hppc.ObjectIntMap;
 import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 import org.teavm.ast.AsyncMethodNode;
 import org.teavm.ast.ControlFlowEntry;
@@ -75,7 +81,7 @@ public class Renderer implements RenderingManager {
     public static final int SECTION_STRING_POOL = 0;
     public static final int SECTION_METADATA = 1;
 
-    private final SourceWriter writer;
+    private SourceWriter writer;
     private final ListableClassReaderSource classSource;
     private final ClassReaderSource originalClassSource;
     private final ClassLoader classLoader;
@@ -95,6 +101,12 @@ public class Renderer implements RenderingManager {
     private AstDependencyExtractor dependencyExtractor = new AstDependencyExtractor();
     private List<ExportedDeclaration> exports;
     private String entryPoint;
+    private final Diagnostics diagnostics;
+    private Map<MethodReference, String> methodChunks = Map.of();
+    private Function<String, SourceWriter> chunkWriters;
+    private Map<String, MethodBodyRenderer> chunkBodyRenderers = new HashMap<>();
+    private int threadCount = 1;
+    private ParallelDecompiler parallelDecompiler;
 
     public static final MethodDescriptor CLINIT_METHOD = new MethodDescriptor("<clinit>", ValueType.VOID);
 
@@ -109,6 +121,7 @@ public class Renderer implements RenderingManager {
         this.services = context.getServices();
         this.asyncMethods = new HashSet<>(asyncMethods);
         this.context = context;
+        this.diagnostics = diagnostics;
         methodBodyRenderer = new MethodBodyRenderer(context, diagnostics, context.isMinifying(), asyncMethods,
                 writer);
         this.generators = generators;
@@ -124,6 +137,18 @@ public class Renderer implements RenderingManager {
         return writer;
     }
 
+    /**
+     * Moves bodies of the given methods to separate chunks. The core script only declares variables for these
+     * methods, while chunks assign them.
+     *
+     * @param methodChunks maps methods to names of chunks they belong to.
+     * @param chunkWriters provides a writer for each chunk.
+     */
+    public void setChunks(Map<MethodReference, String> methodChunks, Function<String, SourceWriter> chunkWriters) {
+        this.methodChunks = methodChunks;
+        this.chunkWriters = chunkWriters;
+    }
+
     @Override
     public String getEntryPoint() {
         return entryPoint;
@@ -171,6 +196,19 @@ public class Renderer implements RenderingManager {
         return properties;
     }
 
+    /**
+     * Specifies how many threads should decompile method bodies. Decompiled bodies are still rendered
+     * on the calling thread in class order, so the output does not depend on the number of threads.
+     *
+     * @param threadCount number of worker threads, 1 to decompile methods on the calling thread.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Number of threads should be positive: " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
     public void setProgressConsumer(IntFunction<TeaVMProgressFeedback> progressConsumer) {
         this.progressConsumer = progressConsumer;
     }
@@ -252,15 +290,26 @@ public class Renderer implements RenderingManager {
         splitMethods.addAll(asyncFinder.getAsyncFamilyMethods());
 
         var decompiler = new Decompiler(classes, splitMethods, isFriendlyToDebugger);
+        decompiler.setLongArithmeticAnalysis(true);
+        if (threadCount > 1) {
+            parallelDecompiler = new ParallelDecompiler(sequence, classes, splitMethods, isFriendlyToDebugger);
+        }
 
-        int index = 0;
-        for (var cls : sequence) {
-            writer.markClassStart(cls.getName());
-            renderDeclaration(cls);
-            renderMethodBodies(cls, decompiler);
-            writer.markClassEnd();
-            if (progressConsumer.apply(1000 * ++index / sequence.size()) == TeaVMProgressFeedback.CANCEL) {
-                return false;
+        try {
+            int index = 0;
+            for (var cls : sequence) {
+                writer.markClassStart(cls.getName());
+                renderDeclaration(cls);
+                renderMethodBodies(cls, decompiler);
+                writer.markClassEnd();
+                if (progressConsumer.apply(1000 * ++index / sequence.size()) == TeaVMProgressFeedback.CANCEL) {
+                    return false;
+                }
+            }
+        } finally {
+            if (parallelDecompiler != null) {
+                parallelDecompiler.shutdown();
+                parallelDecompiler = null;
             }
         }
         renderClassMetadata(sequence);
@@ -379,14 +428,21 @@ public class Renderer implements RenderingManager {
             if (!filterMethod(method)) {
                 continue;
             }
-            var isFunction = context.isForcedFunction(method.getReference());
-            if (isFunction) {
-                writer.startFunctionDeclaration();
+            var chunk = methodChunks.get(method.getReference());
+            if (chunk != null) {
+                writer.declareVariable().appendMethod(method.getReference());
+                renderChunkBody(method, decompiler, chunk);
             } else {
-                writer.startVariableDeclaration();
+                var isFunction = context.isForcedFunction(method.getReference());
+                if (isFunction) {
+                    writer.startFunctionDeclaration();
+                } else {
+                    writer.startVariableDeclaration();
+                }
+                renderBody(method, decompiler, isFunction);
+                writer.endDeclaration();
             }
-            renderBody(method, decompiler, isFunction);
-            writer.endDeclaration();
+            method.releaseProgram();
             if (needsInitializers && !method.hasModifier(ElementModifier.STATIC)
                     && method.getName().equals("<init>")) {
                 renderInitializer(method);
@@ -404,12 +460,16 @@ public class Renderer implements RenderingManager {
                 || context.getInjector(method.getReference()) != null) {
             return false;
         }
-        if (!method.hasModifier(ElementModifier.NATIVE) && method.getProgram() == null) {
+        if (!method.hasModifier(ElementModifier.NATIVE) && !hasProgram(method)) {
             return false;
         }
         return true;
     }
 
+    private static boolean hasProgram(MethodReader method) {
+        return method instanceof MethodHolder ? ((MethodHolder) method).hasProgram() : method.getProgram() != null;
+    }
+
     private void renderCallClinit(MethodReader clinit, ClassReader cls) {
         boolean isAsync = asyncMethods.contains(clinit.getReference());
 
@@ -841,6 +901,26 @@ public class Renderer implements RenderingManager {
         writer.emitMethod(null);
     }
 
+    private void renderChunkBody(MethodHolder method, Decompiler decompiler, String chunk) {
+        var coreWriter = writer;
+        var coreMethodBodyRenderer = methodBodyRenderer;
+        var chunkWriter = chunkWriters.apply(chunk);
+        writer = chunkWriter;
+        methodBodyRenderer = chunkBodyRenderers.computeIfAbsent(chunk, c -> new MethodBodyRenderer(context,
+                diagnostics, context.isMinifying(), asyncMethods, chunkWriter));
+        try {
+            var ref = method.getReference();
+            writer.emitMethod(ref.getDescriptor());
+            writer.appendMethod(ref).ws().append("=").ws();
+            renderRegularBody(method, decompiler, false);
+            writer.outdent().append("};").softNewLine();
+            writer.emitMethod(null);
+        } finally {
+            writer = coreWriter;
+            methodBodyRenderer = coreMethodBodyRenderer;
+        }
+    }
+
     private void renderNativeBody(MethodHolder method, ClassReaderSource classes, boolean isFunction) {
         var reference = method.getReference();
         var generator = generators.get(reference);
@@ -915,7 +995,9 @@ public class Renderer implements RenderingManager {
         MethodReference reference = method.getReference();
         MethodNode node;
         var async = asyncMethods.contains(reference);
-        if (async) {
+        if (parallelDecompiler != null) {
+            node = parallelDecompiler.take(method);
+        } else if (async) {
             node = decompileAsync(decompiler, method);
         } else {
             var entry = decompileRegular(decompiler, method);
@@ -937,19 +1019,25 @@ public class Renderer implements RenderingManager {
     }
 
     private AstCacheEntry decompileRegular(Decompiler decompiler, MethodHolder method) {
-        if (astCache == null) {
-            return decompileRegularCacheMiss(decompiler, method);
+        AstCacheEntry entry = getCachedRegular(method);
+        if (entry == null) {
+            entry = decompileRegularCacheMiss(decompiler, method);
+            storeRegular(method, entry);
         }
+        return entry;
+    }
 
-        AstCacheEntry entry = !cacheStatus.isStaleMethod(method.getReference())
+    private AstCacheEntry getCachedRegular(MethodHolder method) {
+        return astCache != null && !cacheStatus.isStaleMethod(method.getReference())
                 ? astCache.get(method.getReference(), cacheStatus)
                 : null;
-        if (entry == null) {
-            entry = decompileRegularCacheMiss(decompiler, method);
+    }
+
+    private void storeRegular(MethodHolder method, AstCacheEntry entry) {
+        if (astCache != null) {
             RegularMethodNode finalNode = entry.method;
             astCache.store(method.getReference(), entry, () -> dependencyExtractor.extract(finalNode));
         }
-        return entry;
     }
 
     private AstCacheEntry decompileRegularCacheMiss(Decompiler decompiler, MethodHolder method) {
@@ -959,19 +1047,123 @@ public class Renderer implements RenderingManager {
     }
 
     private AsyncMethodNode decompileAsync(Decompiler decompiler, MethodHolder method) {
-        if (astCache == null) {
-            return decompiler.decompileAsync(method);
+        AsyncMethodNode node = getCachedAsync(method);
+        if (node == null) {
+            node = decompiler.decompileAsync(method);
+            storeAsync(method, node);
         }
+        return node;
+    }
 
-        AsyncMethodNode node = !cacheStatus.isStaleMethod(method.getReference())
+    private AsyncMethodNode getCachedAsync(MethodHolder method) {
+        return astCache != null && !cacheStatus.isStaleMethod(method.getReference())
                 ? astCache.getAsync(method.getReference(), cacheStatus)
                 : null;
-        if (node == null) {
-            node = decompiler.decompileAsync(method);
-            AsyncMethodNode finalNode = node;
-            astCache.storeAsync(method.getReference(), node, () -> dependencyExtractor.extract(finalNode));
+    }
+
+    private void storeAsync(MethodHolder method, AsyncMethodNode node) {
+        if (astCache != null) {
+            astCache.storeAsync(method.getReference(), node, () -> dependencyExtractor.extract(node));
+        }
+    }
+
+    /**
+     * Decompiles method bodies on a fork-join pool ahead of rendering. Methods are submitted in the order
+     * in which {@link #renderMethodBodies} requests them, and at most a fixed number of them is kept
+     * decompiled but not yet rendered. The AST cache is only accessed from the calling thread.
+     */
+    private class ParallelDecompiler {
+        private final ForkJoinPool pool = new ForkJoinPool(threadCount);
+        private final ThreadLocal<Decompiler> decompilers;
+        private final Iterator<MethodHolder> methods;
+        private final ArrayDeque<PendingBody> pending = new ArrayDeque<>();
+        private final int maxPending = threadCount * 16;
+
+        ParallelDecompiler(List<ClassHolder> sequence, ListableClassHolderSource classes,
+                Set<MethodReference> splitMethods, boolean friendlyToDebugger) {
+            var snapshot = snapshotClasses(classes);
+            decompilers = ThreadLocal.withInitial(() -> {
+                var decompiler = new Decompiler(snapshot, splitMethods, friendlyToDebugger);
+                decompiler.setLongArithmeticAnalysis(true);
+                return decompiler;
+            });
+            methods = sequence.stream()
+                    .flatMap(cls -> cls.getMethods().stream())
+                    .filter(method -> !method.hasModifier(ElementModifier.NATIVE) && filterMethod(method))
+                    .iterator();
+        }
+
+        private ClassHolderSource snapshotClasses(ListableClassHolderSource classes) {
+            var snapshot = new HashMap<String, ClassHolder>();
+            for (var className : classes.getClassNames()) {
+                snapshot.put(className, classes.get(className));
+            }
+            return snapshot::get;
+        }
+
+        MethodNode take(MethodHolder method) {
+            fill();
+            var body = pending.poll();
+            if (body == null || body.method != method) {
+                throw new IllegalStateException("Method " + method.getReference()
+                        + " was requested out of order");
+            }
+            if (body.task == null) {
+                return body.node;
+            }
+            var result = body.task.join();
+            if (result instanceof AstCacheEntry) {
+                var entry = (AstCacheEntry) result;
+                storeRegular(method, entry);
+                return entry.method;
+            } else {
+                var node = (AsyncMethodNode) result;
+                storeAsync(method, node);
+                return node;
+            }
+        }
+
+        private void fill() {
+            while (pending.size() < maxPending && methods.hasNext()) {
+                var method = methods.next();
+                if (asyncMethods.contains(method.getReference())) {
+                    var node = getCachedAsync(method);
+                    pending.add(node != null
+                            ? new PendingBody(method, node, null)
+                            : new PendingBody(method, null, submit(method, () -> decompilers.get()
+                                    .decompileAsync(method))));
+                } else {
+                    var entry = getCachedRegular(method);
+                    pending.add(entry != null
+                            ? new PendingBody(method, entry.method, null)
+                            : new PendingBody(method, null, submit(method, () -> decompileRegularCacheMiss(
+                                    decompilers.get(), method))));
+                }
+            }
+        }
+
+        private <T> ForkJoinTask<T> submit(MethodHolder method, Callable<T> task) {
+            // Class sources may produce programs lazily and cache them, so programs must be materialized
+            // here rather than on a worker thread
+            method.getProgram();
+            return pool.submit(task);
+        }
+
+        void shutdown() {
+            pool.shutdownNow();
+        }
+    }
+
+    private static class PendingBody {
+        final MethodHolder method;
+        final MethodNode node;
+        final ForkJoinTask<?> task;
+
+        PendingBody(MethodHolder method, MethodNode node, ForkJoinTask<?> task) {
+            this.method = method;
+            this.node = node;
+            this.task = task;
         }
-        return node;
     }
 
     static void renderAsyncPrologue(SourceWriter writer, RenderingContext context) {
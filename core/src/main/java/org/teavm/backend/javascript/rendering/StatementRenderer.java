@@ -64,6 +64,7 @@ import org.teavm.ast.SwitchStatement;
 import org.teavm.ast.ThrowStatement;
 import org.teavm.ast.TryCatchStatement;
 import org.teavm.ast.UnaryExpr;
+import org.teavm.ast.UnaryOperation;
 import org.teavm.ast.UnwrapArrayExpr;
 import org.teavm.ast.VariableExpr;
 import org.teavm.ast.WhileStatement;
@@ -97,7 +98,9 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
     private List<String> blockIds = new ArrayList<>();
     private IntIndexedContainer blockIndexMap = new IntArrayList();
     private static final MethodDescriptor CLINIT_METHOD = new MethodDescriptor("<clinit>", ValueType.VOID);
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
     private VariableNameGenerator variableNameGenerator;
+    private MethodNode currentMethod;
     private final Deque<LocationStackEntry> locationStack = new ArrayDeque<>();
     private TextLocation lastEmittedLocation = TextLocation.EMPTY;
 
@@ -118,6 +121,7 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
         end = false;
         precedence = null;
         variableNameGenerator.setCurrentMethod(null);
+        currentMethod = null;
         locationStack.clear();
         lastEmittedLocation = TextLocation.EMPTY;
         variableNameGenerator.clear();
@@ -132,6 +136,7 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
     }
 
     public void setCurrentMethod(MethodNode currentMethod) {
+        this.currentMethod = currentMethod;
         variableNameGenerator.setCurrentMethod(currentMethod);
     }
 
@@ -225,24 +230,33 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
         if (statement.getLocation() != null) {
             pushLocation(statement.getLocation());
         }
+        boolean safeInteger = isSafeIntegerVariable(statement.getLeftValue());
         if (statement.getLeftValue() != null) {
             if (statement.isAsync()) {
                 writer.append(context.tempVarName());
             } else {
-                precedence = Precedence.COMMA;
-                statement.getLeftValue().acceptVisitor(this);
+                visitLeftValue(statement.getLeftValue(), safeInteger);
             }
             writer.ws().append("=").ws();
         }
         precedence = Precedence.COMMA;
-        statement.getRightValue().acceptVisitor(this);
+        if (safeInteger && !statement.isAsync()) {
+            writeNumber(statement.getRightValue());
+        } else {
+            statement.getRightValue().acceptVisitor(this);
+        }
         writer.append(";").softNewLine();
         if (statement.isAsync()) {
             emitSuspendChecker();
             if (statement.getLeftValue() != null) {
-                precedence = Precedence.COMMA;
-                statement.getLeftValue().acceptVisitor(this);
-                writer.ws().append("=").ws().append(context.tempVarName()).append(";").softNewLine();
+                visitLeftValue(statement.getLeftValue(), safeInteger);
+                writer.ws().append("=").ws();
+                if (safeInteger) {
+                    writer.appendGlobal("Number").append("(").append(context.tempVarName()).append(")");
+                } else {
+                    writer.append(context.tempVarName());
+                }
+                writer.append(";").softNewLine();
             }
         }
         if (statement.getLocation() != null) {
@@ -250,6 +264,23 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
         }
     }
 
+    private void visitLeftValue(Expr leftValue, boolean safeInteger) {
+        if (safeInteger) {
+            // Variables that hold safe integers are numbers, so they must not be wrapped into BigInt here
+            VariableExpr variable = (VariableExpr) leftValue;
+            if (variable.getLocation() != null) {
+                pushLocation(variable.getLocation());
+            }
+            writer.append(variableName(variable.getIndex()));
+            if (variable.getLocation() != null) {
+                popLocation();
+            }
+        } else {
+            precedence = Precedence.COMMA;
+            leftValue.acceptVisitor(this);
+        }
+    }
+
     @Override
     public void visit(SequentialStatement statement) {
         visitStatements(statement.getSequence());
@@ -629,33 +660,166 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
         }
     }
 
+    private void visitLongArithmetic(BinaryExpr expr, String op, String function) {
+        // BigInt arithmetic is exact, so wrapping to 64 bits is only needed when the result may overflow
+        if (expr.isOverflowFree()) {
+            visitBinary(expr, op, false);
+        } else {
+            visitBinaryFunction(expr, function);
+        }
+    }
+
+    private boolean isSafeIntegerVariable(Expr expr) {
+        if (!(expr instanceof VariableExpr) || currentMethod == null) {
+            return false;
+        }
+        int index = ((VariableExpr) expr).getIndex();
+        return index < currentMethod.getVariables().size() && currentMethod.getVariables().get(index).isSafeInteger();
+    }
+
+    private boolean isSafeIntegerExpr(Expr expr) {
+        if (expr instanceof BinaryExpr) {
+            BinaryExpr binary = (BinaryExpr) expr;
+            return binary.getType() == OperationType.LONG && binary.isSafeInteger();
+        } else if (expr instanceof UnaryExpr) {
+            UnaryExpr unary = (UnaryExpr) expr;
+            return unary.getOperation() == UnaryOperation.NEGATE && unary.getType() == OperationType.LONG
+                    && unary.isSafeInteger();
+        } else if (expr instanceof PrimitiveCastExpr) {
+            PrimitiveCastExpr cast = (PrimitiveCastExpr) expr;
+            return cast.getSource() == OperationType.INT && cast.getTarget() == OperationType.LONG;
+        }
+        return isSafeIntegerVariable(expr);
+    }
+
+    private static boolean isSafeIntegerConstant(Expr expr) {
+        if (!(expr instanceof ConstantExpr) || !(((ConstantExpr) expr).getValue() instanceof Long)) {
+            return false;
+        }
+        long value = (Long) ((ConstantExpr) expr).getValue();
+        return value >= -MAX_SAFE_INTEGER && value <= MAX_SAFE_INTEGER;
+    }
+
+    private boolean isSafeIntegerComparison(BinaryExpr expr) {
+        Expr first = expr.getFirstOperand();
+        Expr second = expr.getSecondOperand();
+        return (isSafeIntegerExpr(first) || isSafeIntegerExpr(second))
+                && (isSafeIntegerExpr(first) || isSafeIntegerConstant(first))
+                && (isSafeIntegerExpr(second) || isSafeIntegerConstant(second));
+    }
+
+    private void writeBigInt(Expr expr) {
+        writer.appendGlobal("BigInt").append("(");
+        precedence = Precedence.min();
+        writeNumber(expr);
+        writer.append(")");
+    }
+
+    private void writeNumber(Expr expr) {
+        if (expr.getLocation() != null) {
+            pushLocation(expr.getLocation());
+        }
+        if (isSafeIntegerVariable(expr)) {
+            writer.append(variableName(((VariableExpr) expr).getIndex()));
+        } else if (isSafeIntegerConstant(expr)) {
+            long value = (Long) ((ConstantExpr) expr).getValue();
+            if (value < 0) {
+                writer.append("(").append(Long.toString(value)).append(")");
+            } else {
+                writer.append(Long.toString(value));
+            }
+        } else if (isSafeIntegerExpr(expr)) {
+            if (expr instanceof BinaryExpr) {
+                BinaryExpr binary = (BinaryExpr) expr;
+                String op = binary.getOperation() == BinaryOperation.ADD ? "+"
+                        : binary.getOperation() == BinaryOperation.SUBTRACT ? "-" : "*";
+                visitBinary(binary.getOperation(), op, () -> writeNumber(binary.getFirstOperand()),
+                        () -> writeNumber(binary.getSecondOperand()));
+            } else if (expr instanceof UnaryExpr) {
+                Precedence outerPrecedence = precedence;
+                if (outerPrecedence.ordinal() > Precedence.UNARY.ordinal()) {
+                    writer.append('(');
+                }
+                writer.append(" -");
+                precedence = Precedence.UNARY;
+                writeNumber(((UnaryExpr) expr).getOperand());
+                if (outerPrecedence.ordinal() > Precedence.UNARY.ordinal()) {
+                    writer.append(')');
+                }
+            } else {
+                ((PrimitiveCastExpr) expr).getValue().acceptVisitor(this);
+            }
+        } else {
+            writer.appendGlobal("Number").append("(");
+            precedence = Precedence.min();
+            expr.acceptVisitor(this);
+            writer.append(")");
+        }
+        if (expr.getLocation() != null) {
+            popLocation();
+        }
+    }
+
+    private void visitLongComparison(BinaryExpr expr, String op) {
+        if (isSafeIntegerComparison(expr)) {
+            visitSafeIntegerComparison(expr, op);
+        } else {
+            visitBinary(expr, op, false);
+        }
+    }
+
+    private void visitSafeIntegerComparison(BinaryExpr expr, String op) {
+        if (expr.getLocation() != null) {
+            pushLocation(expr.getLocation());
+        }
+        if (op != null) {
+            visitBinary(expr.getOperation(), op, () -> writeNumber(expr.getFirstOperand()),
+                    () -> writeNumber(expr.getSecondOperand()));
+        } else {
+            writer.appendFunction("$rt_compare").append("(");
+            precedence = Precedence.min();
+            writeNumber(expr.getFirstOperand());
+            writer.append(",").ws();
+            precedence = Precedence.min();
+            writeNumber(expr.getSecondOperand());
+            writer.append(")");
+        }
+        if (expr.getLocation() != null) {
+            popLocation();
+        }
+    }
+
     @Override
     public void visit(BinaryExpr expr) {
         if (expr.getType() == OperationType.LONG) {
+            if (expr.isSafeInteger()) {
+                writeBigInt(expr);
+                return;
+            }
             switch (expr.getOperation()) {
                 case ADD:
-                    visitBinaryFunction(expr, "Long_add");
+                    visitLongArithmetic(expr, "+", "Long_add");
                     break;
                 case SUBTRACT:
-                    visitBinaryFunction(expr, "Long_sub");
+                    visitLongArithmetic(expr, "-", "Long_sub");
                     break;
                 case MULTIPLY:
-                    visitBinaryFunction(expr, "Long_mul");
+                    visitLongArithmetic(expr, "*", "Long_mul");
                     break;
                 case DIVIDE:
-                    visitBinaryFunction(expr, "Long_div");
+                    visitLongArithmetic(expr, "/", "Long_div");
                     break;
                 case MODULO:
-                    visitBinaryFunction(expr, "Long_rem");
+                    visitBinary(expr, "%", false);
                     break;
                 case BITWISE_OR:
-                    visitBinaryFunction(expr, "Long_or");
+                    visitBinary(expr, "|", false);
                     break;
                 case BITWISE_AND:
-                    visitBinaryFunction(expr, "Long_and");
+                    visitBinary(expr, "&", false);
                     break;
                 case BITWISE_XOR:
-                    visitBinaryFunction(expr, "Long_xor");
+                    visitBinary(expr, "^", false);
                     break;
                 case LEFT_SHIFT:
                     visitBinaryFunction(expr, "Long_shl");
@@ -667,25 +831,29 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
                     visitBinaryFunction(expr, "Long_shru");
                     break;
                 case COMPARE:
-                    visitBinaryFunction(expr, "Long_compare");
+                    if (isSafeIntegerComparison(expr)) {
+                        visitSafeIntegerComparison(expr, null);
+                    } else {
+                        visitBinaryFunction(expr, "Long_compare");
+                    }
                     break;
                 case EQUALS:
-                    visitBinaryFunction(expr, "Long_eq");
+                    visitLongComparison(expr, "===");
                     break;
                 case NOT_EQUALS:
-                    visitBinaryFunction(expr, "Long_ne");
+                    visitLongComparison(expr, "!==");
                     break;
                 case LESS:
-                    visitBinaryFunction(expr, "Long_lt");
+                    visitLongComparison(expr, "<");
                     break;
                 case LESS_OR_EQUALS:
-                    visitBinaryFunction(expr, "Long_le");
+                    visitLongComparison(expr, "<=");
                     break;
                 case GREATER:
-                    visitBinaryFunction(expr, "Long_gt");
+                    visitLongComparison(expr, ">");
                     break;
                 case GREATER_OR_EQUALS:
-                    visitBinaryFunction(expr, "Long_ge");
+                    visitLongComparison(expr, ">=");
                     break;
                 default:
                     break;
@@ -772,32 +940,29 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
 
     @Override
     public void visit(UnaryExpr expr) {
+        if (isSafeIntegerExpr(expr)) {
+            writeBigInt(expr);
+            return;
+        }
         if (expr.getLocation() != null) {
             pushLocation(expr.getLocation());
         }
         Precedence outerPrecedence = precedence;
         switch (expr.getOperation()) {
             case NOT: {
-                if (expr.getType() == OperationType.LONG) {
-                    writer.appendFunction("Long_not").append("(");
-                    precedence = Precedence.min();
-                    expr.getOperand().acceptVisitor(this);
+                if (outerPrecedence.ordinal() > Precedence.UNARY.ordinal()) {
+                    writer.append('(');
+                }
+                writer.append(expr.getType() == null ? "!" : "~");
+                precedence = Precedence.UNARY;
+                expr.getOperand().acceptVisitor(this);
+                if (outerPrecedence.ordinal() > Precedence.UNARY.ordinal()) {
                     writer.append(')');
-                } else {
-                    if (outerPrecedence.ordinal() > Precedence.UNARY.ordinal()) {
-                        writer.append('(');
-                    }
-                    writer.append(expr.getType() == null ? "!" : "~");
-                    precedence = Precedence.UNARY;
-                    expr.getOperand().acceptVisitor(this);
-                    if (outerPrecedence.ordinal() > Precedence.UNARY.ordinal()) {
-                        writer.append(')');
-                    }
                 }
                 break;
             }
             case NEGATE:
-                if (expr.getType() == OperationType.LONG) {
+                if (expr.getType() == OperationType.LONG && !expr.isOverflowFree()) {
                     writer.appendFunction("Long_neg").append("(");
                     precedence = Precedence.min();
                     expr.getOperand().acceptVisitor(this);
@@ -930,6 +1095,11 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
             case LONG:
                 switch (expr.getTarget()) {
                     case INT:
+                        if (isSafeIntegerExpr(expr.getValue())) {
+                            visitBinary(BinaryOperation.BITWISE_OR, "|", () -> writeNumber(expr.getValue()),
+                                    () -> writer.append("0"));
+                            break;
+                        }
                         precedence = Precedence.MEMBER_ACCESS;
                         Expr longShifted = extractLongRightShiftedBy32(expr.getValue());
                         if (longShifted != null) {
@@ -944,6 +1114,10 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
                         break;
                     case FLOAT:
                     case DOUBLE:
+                        if (isSafeIntegerExpr(expr.getValue())) {
+                            writeNumber(expr.getValue());
+                            break;
+                        }
                         writer.appendFunction("Long_toNumber").append("(");
                         precedence = Precedence.min();
                         expr.getValue().acceptVisitor(this);
@@ -1043,6 +1217,10 @@ public class StatementRenderer implements ExprVisitor, StatementVisitor {
 
     @Override
     public void visit(VariableExpr expr) {
+        if (isSafeIntegerVariable(expr)) {
+            writeBigInt(expr);
+            return;
+        }
         if (expr.getLocation() != null) {
             pushLocation(expr.getLocation());
         }
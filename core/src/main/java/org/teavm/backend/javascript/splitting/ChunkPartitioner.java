@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.splitting;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.teavm.callgraph.CallGraph;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.ListableClassReaderSource;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+
+/**
+ * Distributes methods between the core script and lazily loaded chunks. A method is moved to a chunk
+ * when the only way to reach it is through split points of this chunk. Everything reachable from other places
+ * (methods without callers, virtual methods, class initializers, class library, methods referenced by native
+ * or generated JavaScript, etc.) stays in the core, as well as methods reachable from several chunks.
+ */
+public class ChunkPartitioner {
+    private static final String[] SYSTEM_PACKAGES = { "java.", "javax.", "jdk.", "sun.", "org.teavm.backend.",
+            "org.teavm.classlib.", "org.teavm.interop.", "org.teavm.jso.", "org.teavm.platform.",
+            "org.teavm.runtime." };
+    private final ListableClassReaderSource classes;
+    private final CallGraph callGraph;
+    private final Predicate<MethodReference> isVirtual;
+    private final Predicate<MethodReference> isForcedFunction;
+    private final Predicate<MethodReference> isReferencedExternally;
+    private final Set<MethodReference> pinned = new HashSet<>();
+    private final Map<MethodReference, String> splitPoints = new LinkedHashMap<>();
+
+    public ChunkPartitioner(ListableClassReaderSource classes, CallGraph callGraph,
+            Predicate<MethodReference> isVirtual, Predicate<MethodReference> isForcedFunction,
+            Predicate<MethodReference> isReferencedExternally) {
+        this.classes = classes;
+        this.callGraph = callGraph;
+        this.isVirtual = isVirtual;
+        this.isForcedFunction = isForcedFunction;
+        this.isReferencedExternally = isReferencedExternally;
+    }
+
+    public void pin(MethodReference method) {
+        pinned.add(method);
+    }
+
+    public Map<MethodReference, String> partition() {
+        var seeds = new HashSet<MethodReference>();
+        for (var className : classes.getClassNames()) {
+            var cls = classes.get(className);
+            for (var method : cls.getMethods()) {
+                var chunkName = SplitPointTransformer.getChunkName(method);
+                if (chunkName != null) {
+                    splitPoints.put(method.getReference(), chunkName);
+                }
+            }
+        }
+        if (splitPoints.isEmpty()) {
+            return Map.of();
+        }
+
+        for (var className : classes.getClassNames()) {
+            var cls = classes.get(className);
+            for (var method : cls.getMethods()) {
+                if (!isMovable(method) || callGraph.getNode(method.getReference()).getCallerCallSites().isEmpty()) {
+                    seeds.add(method.getReference());
+                }
+            }
+        }
+
+        while (true) {
+            var core = reach(seeds, Set.of());
+            var result = new HashMap<MethodReference, String>();
+            var newSeeds = new HashSet<MethodReference>();
+            for (var splitPoint : splitPoints.entrySet()) {
+                var start = new HashSet<MethodReference>();
+                addCallees(splitPoint.getKey(), core, start);
+                for (var method : reach(start, core)) {
+                    var existing = result.putIfAbsent(method, splitPoint.getValue());
+                    if (existing != null && !existing.equals(splitPoint.getValue())) {
+                        newSeeds.add(method);
+                    }
+                }
+            }
+
+            for (var className : classes.getClassNames()) {
+                var cls = classes.get(className);
+                for (var method : cls.getMethods()) {
+                    var ref = method.getReference();
+                    if (!core.contains(ref) && !result.containsKey(ref)) {
+                        newSeeds.add(ref);
+                    }
+                }
+            }
+
+            if (!seeds.addAll(newSeeds)) {
+                result.keySet().removeIf(method -> !isMovable(classes.getMethod(method)));
+                return result;
+            }
+        }
+    }
+
+    private Set<MethodReference> reach(Set<MethodReference> start, Set<MethodReference> excluded) {
+        var visited = new HashSet<MethodReference>();
+        Queue<MethodReference> queue = new ArrayDeque<>();
+        for (var method : start) {
+            if (visited.add(method)) {
+                queue.add(method);
+            }
+        }
+        while (!queue.isEmpty()) {
+            var method = queue.remove();
+            if (splitPoints.containsKey(method)) {
+                continue;
+            }
+            var callees = new HashSet<MethodReference>();
+            addCallees(method, excluded, callees);
+            for (var callee : callees) {
+                if (visited.add(callee)) {
+                    queue.add(callee);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private void addCallees(MethodReference method, Set<MethodReference> excluded, Set<MethodReference> result) {
+        for (var callSite : callGraph.getNode(method).getCallSites()) {
+            for (var callee : callSite.getCalledMethods()) {
+                var calleeRef = callee.getMethod();
+                if (!excluded.contains(calleeRef)) {
+                    result.add(calleeRef);
+                }
+            }
+        }
+    }
+
+    private boolean isMovable(MethodReader method) {
+        if (method == null) {
+            return false;
+        }
+        var ref = method.getReference();
+        if (pinned.contains(ref) || splitPoints.containsKey(ref)) {
+            return false;
+        }
+        if (!hasProgram(method) || method.hasModifier(ElementModifier.NATIVE)
+                || method.getName().equals("<clinit>")) {
+            return false;
+        }
+        if (!method.getAnnotations().all().iterator().hasNext()) {
+            return !isSystemClass(method.getOwnerName()) && !isVirtual.test(ref) && !isForcedFunction.test(ref)
+                    && !isReferencedExternally.test(ref);
+        }
+        return false;
+    }
+
+    private static boolean hasProgram(MethodReader method) {
+        return method instanceof MethodHolder ? ((MethodHolder) method).hasProgram() : method.getProgram() != null;
+    }
+
+    private static boolean isSystemClass(String className) {
+        for (var prefix : SYSTEM_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.splitting;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.teavm.backend.javascript.runtime.splitting.ChunkLoader;
+import org.teavm.interop.SplitPoint;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformer;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+
+public class SplitPointTransformer implements ClassHolderTransformer {
+    private static final MethodReference LOAD_METHOD = new MethodReference(ChunkLoader.class, "load",
+            String.class, void.class);
+
+    @Override
+    public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
+        for (var method : cls.getMethods()) {
+            var chunkName = getChunkName(method);
+            if (chunkName == null || method.getProgram() == null || method.getProgram().basicBlockCount() == 0) {
+                continue;
+            }
+            var program = method.getProgram();
+
+            var name = new StringConstantInstruction();
+            name.setReceiver(program.createVariable());
+            name.setConstant(chunkName);
+
+            var load = new InvokeInstruction();
+            load.setType(InvocationType.SPECIAL);
+            load.setMethod(LOAD_METHOD);
+            load.setArguments(name.getReceiver());
+
+            List<Instruction> instructions = new ArrayList<>();
+            instructions.add(name);
+            instructions.add(load);
+            program.basicBlockAt(0).addFirstAll(instructions);
+        }
+    }
+
+    public static String getChunkName(MethodReader method) {
+        var annot = method.getAnnotations().get(SplitPoint.class.getName());
+        if (annot == null) {
+            return null;
+        }
+        var value = annot.getValue("value");
+        var name = value != null ? value.getString() : "";
+        if (name.isEmpty()) {
+            name = method.getOwnerName() + "_" + method.getName();
+        }
+        return name.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.lowlevel;
+
+/**
+ * Strategy that garbage collector of low-level targets (C and WebAssembly) uses to decide whether to grow
+ * or to shrink heap after collection. Heap never grows beyond maximum heap size or shrinks below minimum heap size.
+ */
+public enum HeapSizingPolicy {
+    /**
+     * Grows heap twice as large as live data when more than a half of heap is occupied, and shrinks it
+     * when less than a quarter is occupied. Target value is not used.
+     */
+    OCCUPANCY(0),
+
+    /**
+     * Grows heap while the share of time spent in GC exceeds target value (in percent), and shrinks it
+     * while this share is well below target and most of heap is free.
+     */
+    GC_OVERHEAD(5),
+
+    /**
+     * Keeps heap as small as possible while GC pauses exceed target value (in milliseconds),
+     * otherwise behaves like {@link #OCCUPANCY}.
+     */
+    PAUSE_TIME(10);
+
+    private final int defaultTarget;
+
+    HeapSizingPolicy(int defaultTarget) {
+        this.defaultTarget = defaultTarget;
+    }
+
+    /**
+     * Target value that is used when none was specified explicitly.
+     */
+    public int getDefaultTarget() {
+        return defaultTarget;
+    }
+}
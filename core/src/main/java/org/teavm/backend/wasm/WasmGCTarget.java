@@ -254,6 +254,7 @@ public class WasmGCTarget implements TeaVMTarget, TeaVMWasmGCHost {
                 controller.getEntryPoint()
         );
         declarationsGenerator.setFriendlyToDebugger(controller.isFriendlyToDebugger());
+        declarationsGenerator.setThreadCount(controller.getOptimizationThreads());
         var moduleGenerator = new WasmGCModuleGenerator(declarationsGenerator);
 
         var classConsumerContext = createClassConsumerContext(classes, declarationsGenerator);
@@ -282,12 +283,17 @@ public class WasmGCTarget implements TeaVMTarget, TeaVMWasmGCHost {
             refQueueSupplyFunction.setExportName("teavm.reportGarbageCollectedValue");
         }
 
-        moduleGenerator.generate();
-        customGenerators.contributeToModule(module);
-        generateExceptionExports(declarationsGenerator);
-        adjustModuleMemory(module);
+        var profiler = controller.getProfiler();
+        try (var phase = profiler.phase("Wasm GC: generate module")) {
+            moduleGenerator.generate();
+            customGenerators.contributeToModule(module);
+            generateExceptionExports(declarationsGenerator);
+            adjustModuleMemory(module);
+        }
 
-        emitWasmFile(module, buildTarget, outputName, debugInfoBuilder);
+        try (var phase = profiler.phase("Wasm GC: write binary")) {
+            emitWasmFile(module, buildTarget, outputName, debugInfoBuilder);
+        }
     }
 
     private void generateExceptionExports(WasmGCDeclarationsGenerator declarationsGenerator) {
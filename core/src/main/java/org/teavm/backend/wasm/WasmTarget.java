@@ -34,6 +34,7 @@ import java.util.Set;
 import java.util.function.Supplier;
 import org.teavm.ast.InvocationExpr;
 import org.teavm.ast.decompilation.Decompiler;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.lowlevel.analyze.LowLevelInliningFilterFactory;
 import org.teavm.backend.lowlevel.dependency.StringsDependencyListener;
 import org.teavm.backend.lowlevel.generate.NameProviderWithSpecialNames;
@@ -182,6 +183,7 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
             Address.class, int.class, int.class, int.class, int.class, void.class);
     private static final MethodReference RESIZE_HEAP_REF = new MethodReference(WasmHeap.class, "resizeHeap",
             int.class, void.class);
+    private static final MethodReference THREAD_START = new MethodReference(Thread.class, "start", void.class);
     private static final Set<MethodReference> VIRTUAL_METHODS = new HashSet<>(Arrays.asList(
             new MethodReference(Object.class, "clone", Object.class)));
 
@@ -201,6 +203,8 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
     private BoundCheckInsertion boundCheckInsertion = new BoundCheckInsertion();
     private int minHeapSize = 2 * 1024 * 1024;
     private int maxHeapSize = 128 * 1024 * 1024;
+    private HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+    private int heapSizingTarget;
     private boolean obfuscated;
     private Set<MethodReference> asyncMethods;
     private boolean hasThreads;
@@ -208,6 +212,7 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
     private ReportingWasmBinaryStatsCollector statsCollector;
     private SourceFileResolver sourceFileResolver;
     private boolean exceptionsUsed;
+    private boolean sharedMemory;
 
     @Override
     public void setController(TeaVMTargetController controller) {
@@ -303,6 +308,11 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         this.maxHeapSize = maxHeapSize;
     }
 
+    public void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy, int heapSizingTarget) {
+        this.heapSizingPolicy = heapSizingPolicy;
+        this.heapSizingTarget = heapSizingTarget > 0 ? heapSizingTarget : heapSizingPolicy.getDefaultTarget();
+    }
+
     public void setObfuscated(boolean obfuscated) {
         this.obfuscated = obfuscated;
     }
@@ -319,6 +329,19 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         this.exceptionsUsed = exceptionsUsed;
     }
 
+    /**
+     * Declares linear memory as shared, so that it can be posted to Web Workers. This is only a preparatory
+     * step towards running Java threads on workers, which is not supported yet: the runtime remains
+     * single-threaded and its GC moves objects, so Java threads are not mapped to workers, monitors and atomics
+     * are not lowered to atomic instructions, and programs that start threads are rejected. The option is
+     * intentionally not exposed by build tools.
+     *
+     * @param sharedMemory whether linear memory should be shared.
+     */
+    public void setSharedMemory(boolean sharedMemory) {
+        this.sharedMemory = sharedMemory;
+    }
+
     @Override
     public WasmRuntimeType getRuntimeType() {
         return runtimeType;
@@ -471,6 +494,9 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
     public void emit(ListableClassHolderSource classes, BuildTarget buildTarget, String outputName)
             throws IOException {
         prepareStats();
+        if (sharedMemory) {
+            checkNoThreadsStarted();
+        }
 
         var statsCollector = this.statsCollector != null ? this.statsCollector : WasmBinaryStatsCollector.EMPTY;
         WasmModule module = new WasmModule();
@@ -540,6 +566,8 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         }
 
         GCIntrinsic gcIntrinsic = new GCIntrinsic();
+        gcIntrinsic.setHeapSizingPolicy(heapSizingPolicy);
+        gcIntrinsic.setHeapSizingTarget(heapSizingTarget);
         context.addIntrinsic(gcIntrinsic);
         MutatorIntrinsic mutatorIntrinsic = new MutatorIntrinsic();
         context.addIntrinsic(mutatorIntrinsic);
@@ -551,7 +579,10 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         var generator = new WasmGenerator(decompiler, classes, context, classGenerator, binaryWriter,
                 asyncMethods::contains);
 
-        generateMethods(classes, context, generator, classGenerator, binaryWriter, module, dwarfClassGen);
+        var profiler = controller.getProfiler();
+        try (var phase = profiler.phase("Wasm: generate methods")) {
+            generateMethods(classes, context, generator, classGenerator, binaryWriter, module, dwarfClassGen);
+        }
         new WasmInteropFunctionGenerator(classGenerator, functionTypes).generateFunctions(module);
         exceptionHandlingIntrinsic.postProcess(context.callSites());
         generateIsSupertypeFunctions(tagRegistry, classGenerator, functions);
@@ -589,8 +620,10 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
             new IndirectCallTraceTransformation(module, functionTypes).apply();
         }
 
-        writeBinaryWasm(buildTarget, outputName, module, classGenerator, dwarfGenerator, dwarfClassGen,
-                statsCollector);
+        try (var phase = profiler.phase("Wasm: write binary")) {
+            writeBinaryWasm(buildTarget, outputName, module, classGenerator, dwarfGenerator, dwarfClassGen,
+                    statsCollector);
+        }
 
         if (wastEmitted) {
             emitWast(module, buildTarget, getBaseName(outputName) + ".wast");
@@ -767,6 +800,14 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         return index < 0 ? name : name.substring(0, index);
     }
 
+    private void checkNoThreadsStarted() {
+        var method = controller.getDependencyInfo().getMethod(THREAD_START);
+        if (method != null && method.isUsed()) {
+            controller.getDiagnostics().error(new CallLocation(THREAD_START), "Shared memory can't be used "
+                    + "in programs that start threads, since the WebAssembly runtime is single-threaded");
+        }
+    }
+
     private void emitWast(WasmModule module, BuildTarget buildTarget, String outputName) throws IOException {
         WasmRenderer renderer = new WasmRenderer(module);
         renderer.setLineNumbersEmitted(debugging);
@@ -1068,6 +1109,7 @@ public class WasmTarget implements TeaVMTarget, TeaVMWasmHost {
         gcIntrinsic.setRegionSize(WasmHeap.DEFAULT_REGION_SIZE);
 
         module.setMaxMemorySize(WasmRuntime.align(address, WasmHeap.PAGE_SIZE) / WasmHeap.PAGE_SIZE);
+        module.setSharedMemory(sharedMemory);
     }
 
     private VirtualTableProvider createVirtualTableProvider(ListableClassHolderSource classes) {
@@ -117,6 +117,10 @@ public class WasmGCDeclarationsGenerator {
         methodGenerator.setFriendlyToDebugger(friendlyToDebugger);
     }
 
+    public void setThreadCount(int threadCount) {
+        methodGenerator.setThreadCount(threadCount);
+    }
+
     public WasmGCClassInfoProvider classInfoProvider() {
         return classGenerator;
     }
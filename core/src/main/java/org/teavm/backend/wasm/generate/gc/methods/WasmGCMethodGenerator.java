@@ -24,6 +24,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
 import org.teavm.ast.RegularMethodNode;
 import org.teavm.ast.decompilation.Decompiler;
@@ -53,6 +55,8 @@ import org.teavm.diagnostics.Diagnostics;
 import org.teavm.interop.Import;
 import org.teavm.model.CallLocation;
 import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderSource;
 import org.teavm.model.ElementModifier;
 import org.teavm.model.ListableClassHolderSource;
 import org.teavm.model.ListableClassReaderSource;
@@ -90,6 +94,12 @@ public class WasmGCMethodGenerator implements BaseWasmFunctionRepository {
     private boolean strict;
     private String entryPoint;
     private Consumer<WasmGCInitializerContributor> initializerContributors;
+    private int threadCount = 1;
+    private ForkJoinPool pool;
+    private ThreadLocal<Decompiler> decompilers;
+    private ThreadLocal<ClassHierarchy> hierarchies;
+    private Queue<PendingMethodBody> unscheduledBodies = new ArrayDeque<>();
+    private int scheduledBodies;
 
     public WasmGCMethodGenerator(
             WasmModule module,
@@ -147,16 +157,75 @@ public class WasmGCMethodGenerator implements BaseWasmFunctionRepository {
         this.strings = strings;
     }
 
+    /**
+     * Specifies how many threads should prepare method bodies. Register allocation, decompilation and type
+     * inference of queued methods run on a fork-join pool, while Wasm code is still emitted on the calling
+     * thread in queue order, so the module does not depend on the number of threads. Programs are obtained
+     * on the calling thread, and workers only see the classes listed by the class source, resolved in advance.
+     *
+     * @param threadCount number of worker threads, 1 to prepare methods on the calling thread.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Number of threads should be positive: " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
     public boolean process() {
         if (queue.isEmpty()) {
             return false;
         }
-        while (!queue.isEmpty()) {
-            queue.remove().run();
+        try {
+            while (!queue.isEmpty()) {
+                scheduleMethodBodies();
+                queue.remove().run();
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+                pool = null;
+            }
         }
         return true;
     }
 
+    private void enqueueMethodBody(MethodHolder method, WasmFunction function) {
+        if (threadCount > 1 && !method.hasModifier(ElementModifier.NATIVE)
+                && customGenerators.get(method.getReference()) == null) {
+            var body = new PendingMethodBody(method);
+            unscheduledBodies.add(body);
+            queue.add(() -> generateMethodBody(method, function, body));
+        } else {
+            queue.add(() -> generateMethodBody(method, function, null));
+        }
+    }
+
+    private void scheduleMethodBodies() {
+        while (scheduledBodies < threadCount * 16 && !unscheduledBodies.isEmpty()) {
+            if (pool == null) {
+                pool = new ForkJoinPool(threadCount);
+                var snapshot = snapshotClasses();
+                decompilers = ThreadLocal.withInitial(() -> new Decompiler(snapshot, Set.of(), friendlyToDebugger));
+                hierarchies = ThreadLocal.withInitial(() -> new ClassHierarchy(snapshot));
+            }
+            var body = unscheduledBodies.remove();
+            // Class sources may produce programs lazily and cache them, so programs must be materialized
+            // here rather than on a worker thread
+            body.method.getProgram();
+            body.task = pool.submit(() -> prepareMethodBody(body.method, decompilers.get(), hierarchies.get()));
+            scheduledBodies++;
+        }
+    }
+
+    private ClassHolderSource snapshotClasses() {
+        var snapshot = new HashMap<String, ClassHolder>();
+        for (var className : classes.getClassNames()) {
+            snapshot.put(className, classes.get(className));
+        }
+        return snapshot::get;
+    }
+
     @Override
     public WasmFunction forStaticMethod(MethodReference methodReference) {
         return staticMethods.computeIfAbsent(methodReference, this::createStaticFunction);
@@ -177,7 +246,7 @@ public class WasmGCMethodGenerator implements BaseWasmFunctionRepository {
         if (cls != null) {
             var method = cls.getMethod(methodReference.getDescriptor());
             if (method != null && method.hasModifier(ElementModifier.STATIC)) {
-                queue.add(() -> generateMethodBody(method, function));
+                enqueueMethodBody(method, function);
             }
         }
 
@@ -205,20 +274,28 @@ public class WasmGCMethodGenerator implements BaseWasmFunctionRepository {
         if (cls != null) {
             var method = cls.getMethod(methodReference.getDescriptor());
             if (method != null && !method.hasModifier(ElementModifier.STATIC)) {
-                queue.add(() -> generateMethodBody(method, function));
+                enqueueMethodBody(method, function);
             }
         }
 
         return function;
     }
 
-    private void generateMethodBody(MethodHolder method, WasmFunction function) {
+    private void generateMethodBody(MethodHolder method, WasmFunction function, PendingMethodBody pendingBody) {
         try {
             var customGenerator = customGenerators.get(method.getReference());
             if (customGenerator != null) {
                 generateCustomMethodBody(customGenerator, method.getReference(), function);
             } else if (!method.hasModifier(ElementModifier.NATIVE)) {
-                generateRegularMethodBody(method, function);
+                PreparedMethodBody body;
+                if (pendingBody != null) {
+                    scheduledBodies--;
+                    body = pendingBody.task.join();
+                } else {
+                    body = prepareMethodBody(method, getDecompiler(), hierarchy);
+                }
+                generateRegularMethodBody(method, function, body);
+                method.releaseProgram();
             } else {
                 generateNativeMethodBody(method, function);
             }
@@ -236,18 +313,24 @@ public class WasmGCMethodGenerator implements BaseWasmFunctionRepository {
         customGenerator.apply(method, function, customGeneratorContext);
     }
 
-    private void generateRegularMethodBody(MethodHolder method, WasmFunction function) {
+    private PreparedMethodBody prepareMethodBody(MethodHolder method, Decompiler decompiler,
+            ClassHierarchy hierarchy) {
         Objects.requireNonNull(method.getProgram());
-        var decompiler = getDecompiler();
         var categoryProvider = new WasmGCVariableCategoryProvider(hierarchy);
         var allocator = new RegisterAllocator(categoryProvider);
         allocator.allocateRegisters(method.getReference(), method.getProgram(), friendlyToDebugger);
         var ast = decompiler.decompileRegular(method);
-        var firstVar = method.hasModifier(ElementModifier.STATIC) ? 1 : 0;
         var typeInference = new PreciseTypeInference(method.getProgram(), method.getReference(), hierarchy);
         typeInference.setPhisSkipped(true);
         typeInference.setBackPropagation(true);
         typeInference.ensure();
+        return new PreparedMethodBody(ast, typeInference);
+    }
+
+    private void generateRegularMethodBody(MethodHolder method, WasmFunction function, PreparedMethodBody body) {
+        var ast = body.ast;
+        var typeInference = body.typeInference;
+        var firstVar = method.hasModifier(ElementModifier.STATIC) ? 1 : 0;
 
         var registerCount = 0;
         for (var i = 0; i < method.getProgram().variableCount(); ++i) {
@@ -383,6 +466,25 @@ public class WasmGCMethodGenerator implements BaseWasmFunctionRepository {
         return dummyInitializer;
     }
 
+    private static class PendingMethodBody {
+        final MethodHolder method;
+        ForkJoinTask<PreparedMethodBody> task;
+
+        PendingMethodBody(MethodHolder method) {
+            this.method = method;
+        }
+    }
+
+    private static class PreparedMethodBody {
+        final RegularMethodNode ast;
+        final PreciseTypeInference typeInference;
+
+        PreparedMethodBody(RegularMethodNode ast, PreciseTypeInference typeInference) {
+            this.ast = ast;
+            this.typeInference = typeInference;
+        }
+    }
+
     private WasmGCCustomGeneratorContext customGeneratorContext = new WasmGCCustomGeneratorContext() {
         @Override
         public ClassLoader classLoader() {
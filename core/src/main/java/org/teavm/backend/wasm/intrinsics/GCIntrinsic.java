@@ -18,6 +18,7 @@ package org.teavm.backend.wasm.intrinsics;
 import java.util.ArrayList;
 import java.util.List;
 import org.teavm.ast.InvocationExpr;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmHeap;
 import org.teavm.backend.wasm.WasmRuntime;
 import org.teavm.backend.wasm.model.WasmNumType;
@@ -45,6 +46,8 @@ public class GCIntrinsic implements WasmIntrinsic {
     private static final FieldReference CARD_TABLE = new FieldReference(WasmHeap.class.getName(), "cardTable");
     private static final FieldReference HEAP_ADDRESS = new FieldReference(WasmHeap.class.getName(), "heapAddress");
     public final List<WasmInt32Constant> regionSizeExpressions = new ArrayList<>();
+    private HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+    private int heapSizingTarget;
 
     public void setRegionSize(int regionSize) {
         for (WasmInt32Constant constant : regionSizeExpressions) {
@@ -52,6 +55,14 @@ public class GCIntrinsic implements WasmIntrinsic {
         }
     }
 
+    public void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy) {
+        this.heapSizingPolicy = heapSizingPolicy;
+    }
+
+    public void setHeapSizingTarget(int heapSizingTarget) {
+        this.heapSizingTarget = heapSizingTarget;
+    }
+
     @Override
     public boolean isApplicable(MethodReference methodReference) {
         if (!methodReference.getClassName().equals(GC.class.getName())) {
@@ -73,6 +84,18 @@ public class GCIntrinsic implements WasmIntrinsic {
             case "resizeHeap":
             case "writeBarrier":
             case "canShrinkHeap":
+            case "markStepBudget":
+            case "sweepThreadCount":
+            case "sweepInParallel":
+            case "markThreadCount":
+            case "markInParallel":
+            case "atomicGetInt":
+            case "atomicCompareAndSwapInt":
+            case "atomicCompareAndSwapShort":
+            case "atomicOrInt":
+            case "atomicOrByte":
+            case "heapSizingPolicy":
+            case "heapSizingTarget":
                 return true;
             default:
                 return false;
@@ -110,6 +133,24 @@ public class GCIntrinsic implements WasmIntrinsic {
             }
             case "availableBytes":
                 return intToLong(getStaticField(manager, "heapSize"));
+            case "markStepBudget":
+                return new WasmInt32Constant(0);
+            case "sweepThreadCount":
+            case "markThreadCount":
+                return new WasmInt32Constant(1);
+            case "sweepInParallel":
+            case "markInParallel":
+            case "atomicGetInt":
+            case "atomicCompareAndSwapInt":
+            case "atomicCompareAndSwapShort":
+            case "atomicOrInt":
+            case "atomicOrByte":
+                // GC runs on a single thread in Wasm, so these are never reached
+                return new WasmUnreachable();
+            case "heapSizingPolicy":
+                return new WasmInt32Constant(heapSizingPolicy.ordinal());
+            case "heapSizingTarget":
+                return new WasmInt32Constant(heapSizingTarget);
             case "outOfMemory": {
                 WasmBlock block = new WasmBlock(false);
                 WasmCall call = new WasmCall(manager.getFunctions().forStaticMethod(PRINT_OUT_OF_MEMORY));
@@ -30,6 +30,7 @@ import org.teavm.common.GraphUtils;
 public class WasmModule {
     private int minMemorySize;
     private int maxMemorySize;
+    private boolean sharedMemory;
     private List<WasmMemorySegment> segments = new ArrayList<>();
     private List<WasmFunction> functionTable = new ArrayList<>();
     private WasmFunction startFunction;
@@ -90,6 +91,14 @@ public class WasmModule {
         this.maxMemorySize = maxMemorySize;
     }
 
+    public boolean isSharedMemory() {
+        return sharedMemory;
+    }
+
+    public void setSharedMemory(boolean sharedMemory) {
+        this.sharedMemory = sharedMemory;
+    }
+
     public WasmFunction getStartFunction() {
         return startFunction;
     }
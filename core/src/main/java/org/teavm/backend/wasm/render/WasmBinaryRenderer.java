@@ -223,7 +223,7 @@ public class WasmBinaryRenderer {
         WasmBinaryWriter section = new WasmBinaryWriter();
 
         section.writeByte(1);
-        section.writeByte(1);
+        section.writeByte(module.isSharedMemory() ? 3 : 1);
         section.writeLEB(module.getMinMemorySize());
         section.writeLEB(module.getMaxMemorySize());
 
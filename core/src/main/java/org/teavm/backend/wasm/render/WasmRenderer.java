@@ -88,7 +88,11 @@ public class WasmRenderer {
 
     public void renderMemory(WasmModule module) {
         visitor.lf();
-        visitor.open().append("memory (export \"memory\") " + module.getMinMemorySize()).close().lf();
+        visitor.open().append("memory (export \"memory\") " + module.getMinMemorySize());
+        if (module.isSharedMemory()) {
+            visitor.append(" " + module.getMaxMemorySize() + " shared");
+        }
+        visitor.close().lf();
     }
 
     public void renderData(WasmModule module) {
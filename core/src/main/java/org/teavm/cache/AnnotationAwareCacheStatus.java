@@ -83,7 +83,7 @@ public final class AnnotationAwareCacheStatus implements CacheStatus {
                 return STALE;
             }
             for (String itf : cls.getInterfaces()) {
-                if (getClassStatus(cls.getParent()) == STALE) {
+                if (getClassStatus(itf) == STALE) {
                     return STALE;
                 }
             }
@@ -128,7 +128,12 @@ public class AstIO {
 
     private void write(VarDataOutput output, VariableNode variable) throws IOException {
         output.writeUnsigned(variable.getIndex());
-        output.writeUnsigned(variable.getType().ordinal());
+        // Safe integer flag is stored as a type past the last one, so that caches written earlier stay readable
+        int type = variable.getType().ordinal();
+        if (variable.isSafeInteger()) {
+            type += VariableType.values().length;
+        }
+        output.writeUnsigned(type);
         output.writeUnsigned(variable.getName() != null ? variableTable.lookup(variable.getName()) + 1 : 0);
     }
 
@@ -162,8 +167,10 @@ public class AstIO {
 
     private VariableNode readVariable(VarDataInput input) throws IOException {
         int index = input.readUnsigned();
-        VariableType type = VariableType.values()[input.readUnsigned()];
-        VariableNode variable = new VariableNode(index, type);
+        int typeIndex = input.readUnsigned();
+        VariableType[] types = VariableType.values();
+        VariableNode variable = new VariableNode(index, types[typeIndex % types.length]);
+        variable.setSafeInteger(typeIndex >= types.length);
         int nameIndex = input.readUnsigned();
         variable.setName(nameIndex != 0 ? variableTable.at(nameIndex - 1) : null);
         return variable;
@@ -509,7 +516,7 @@ public class AstIO {
         @Override
         public void visit(BinaryExpr expr) {
             try {
-                output.writeUnsigned(0);
+                output.writeUnsigned(expr.isSafeInteger() ? 31 : expr.isOverflowFree() ? 29 : 0);
                 output.writeUnsigned(expr.getOperation().ordinal());
                 output.writeUnsigned(expr.getType() != null ? expr.getType().ordinal() + 1 : 0);
                 writeExpr(expr.getFirstOperand());
@@ -522,7 +529,7 @@ public class AstIO {
         @Override
         public void visit(UnaryExpr expr) {
             try {
-                output.writeUnsigned(1);
+                output.writeUnsigned(expr.isSafeInteger() ? 32 : expr.isOverflowFree() ? 30 : 1);
                 output.writeUnsigned(expr.getOperation().ordinal());
                 output.writeUnsigned(expr.getType() != null ? expr.getType().ordinal() + 1 : 0);
                 writeExpr(expr.getOperand());
@@ -960,9 +967,13 @@ public class AstIO {
     private Expr readExpr(VarDataInput input) throws IOException {
         int type = readNodeLocation(input.readUnsigned(), input);
         switch (type) {
-            case 0: {
+            case 0:
+            case 29:
+            case 31: {
                 BinaryExpr expr = new BinaryExpr();
                 expr.setLocation(lastReadLocation);
+                expr.setOverflowFree(type != 0);
+                expr.setSafeInteger(type == 31);
                 expr.setOperation(binaryOperations[input.readUnsigned()]);
                 int valueType = input.readUnsigned();
                 expr.setType(valueType > 0 ? OperationType.values()[valueType - 1] : null);
@@ -970,9 +981,13 @@ public class AstIO {
                 expr.setSecondOperand(readExpr(input));
                 return expr;
             }
-            case 1: {
+            case 1:
+            case 30:
+            case 32: {
                 UnaryExpr expr = new UnaryExpr();
                 expr.setLocation(lastReadLocation);
+                expr.setOverflowFree(type != 1);
+                expr.setSafeInteger(type == 32);
                 expr.setOperation(unaryOperations[input.readUnsigned()]);
                 int valueType = input.readUnsigned();
                 expr.setType(valueType > 0 ? OperationType.values()[valueType - 1] : null);
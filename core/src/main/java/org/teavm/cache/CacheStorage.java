@@ -0,0 +1,39 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface CacheStorage {
+    /**
+     * Opens cache entry for reading.
+     *
+     * @return stream with entry data or {@code null} if there's no such entry.
+     */
+    InputStream read(String key) throws IOException;
+
+    /**
+     * Returns time of the last modification of the entry, in milliseconds, or 0 if there's no such entry.
+     */
+    long lastModified(String key);
+
+    /**
+     * Opens cache entry for writing. Entry gets replaced when returned stream is closed.
+     */
+    OutputStream write(String key) throws IOException;
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import org.teavm.model.Program;
+
+/**
+ * Immutable compact representation of a program produced by {@link ProgramArena}. Since it can't be modified,
+ * it can be shared freely, and each call to {@link #inflate()} produces a new independent copy of the program.
+ */
+public final class CompactProgram {
+    private final ProgramArena arena;
+    private final byte[] data;
+
+    CompactProgram(ProgramArena arena, byte[] data) {
+        this.arena = arena;
+        this.data = data;
+    }
+
+    public Program inflate() {
+        return arena.inflate(data);
+    }
+
+    public int size() {
+        return data.length;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stores every cache entry in a separate file, key being a path relative to the cache directory.
+ */
+public class DirectoryCacheStorage implements CacheStorage {
+    private File directory;
+
+    public DirectoryCacheStorage(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        File file = new File(directory, key);
+        if (!file.exists()) {
+            return null;
+        }
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+
+    @Override
+    public long lastModified(String key) {
+        return new File(directory, key).lastModified();
+    }
+
+    @Override
+    public OutputStream write(String key) throws IOException {
+        File file = new File(directory, key);
+        file.getParentFile().mkdirs();
+        return new BufferedOutputStream(new FileOutputStream(file));
+    }
+}
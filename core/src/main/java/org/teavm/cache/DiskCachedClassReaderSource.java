@@ -15,14 +15,12 @@
  */
 package org.teavm.cache;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -34,11 +32,21 @@ import org.teavm.model.ClassReaderSource;
 import org.teavm.model.MethodReference;
 import org.teavm.model.ReferenceCache;
 import org.teavm.parsing.ClassDateProvider;
+import org.teavm.parsing.ClassHashProvider;
 
+/**
+ * <p>Class source that stores parsed classes in the cache and reports classes that were reparsed as stale.</p>
+ *
+ * <p>Cached class is considered up-to-date either when it is newer than the class file it was produced from
+ * (when created with {@link ClassDateProvider}), or when digest of the class file matches the digest stored
+ * along with the cached class (when created with {@link ClassHashProvider}). The latter survives checkouts
+ * and restoring of cache directory, which don't preserve file modification dates.</p>
+ */
 public class DiskCachedClassReaderSource implements ClassReaderSource, CacheStatus {
-    private File directory;
+    private CacheStorage storage;
     private ClassHolderSource innerSource;
     private ClassDateProvider classDateProvider;
+    private ClassHashProvider classHashProvider;
     private Map<String, Item> cache = new LinkedHashMap<>();
     private Set<String> newClasses = new HashSet<>();
     private ClassIO classIO;
@@ -46,12 +54,28 @@ public class DiskCachedClassReaderSource implements ClassReaderSource, CacheStat
     public DiskCachedClassReaderSource(File directory, ReferenceCache referenceCache, SymbolTable symbolTable,
             SymbolTable fileTable, SymbolTable variableTable, ClassHolderSource innerSource,
             ClassDateProvider classDateProvider) {
-        this.directory = directory;
+        this(new DirectoryCacheStorage(directory), referenceCache, symbolTable, fileTable, variableTable, innerSource,
+                classDateProvider);
+    }
+
+    public DiskCachedClassReaderSource(CacheStorage storage, ReferenceCache referenceCache, SymbolTable symbolTable,
+            SymbolTable fileTable, SymbolTable variableTable, ClassHolderSource innerSource,
+            ClassDateProvider classDateProvider) {
+        this.storage = storage;
         this.innerSource = innerSource;
         this.classDateProvider = classDateProvider;
         classIO = new ClassIO(referenceCache, symbolTable, fileTable, variableTable);
     }
 
+    public DiskCachedClassReaderSource(CacheStorage storage, ReferenceCache referenceCache, SymbolTable symbolTable,
+            SymbolTable fileTable, SymbolTable variableTable, ClassHolderSource innerSource,
+            ClassHashProvider classHashProvider) {
+        this.storage = storage;
+        this.innerSource = innerSource;
+        this.classHashProvider = classHashProvider;
+        classIO = new ClassIO(referenceCache, symbolTable, fileTable, variableTable);
+    }
+
     @Override
     public ClassReader get(String name) {
         return getItemFromCache(name).cls;
@@ -72,17 +96,11 @@ public class DiskCachedClassReaderSource implements ClassReaderSource, CacheStat
         if (item == null) {
             item = new Item();
             cache.put(name, item);
-            File classFile = new File(directory, name.replace('.', '/') + ".teavm-cls");
-            if (classFile.exists()) {
-                Date classDate = classDateProvider.getModificationDate(name);
-                if (classDate != null && classDate.before(new Date(classFile.lastModified()))) {
-                    try (InputStream input = new BufferedInputStream(new FileInputStream(classFile))) {
-                        item.cls = classIO.readClass(input, name);
-                    } catch (IOException e) {
-                        // We could not access cache file, so let's parse class file
-                        item.cls = null;
-                    }
-                }
+            try {
+                item.cls = classHashProvider != null ? readHashedClass(name) : readDatedClass(name);
+            } catch (IOException e) {
+                // We could not access cache file, so let's parse class file
+                item.cls = null;
             }
             if (item.cls == null) {
                 item.dirty = true;
@@ -93,6 +111,40 @@ public class DiskCachedClassReaderSource implements ClassReaderSource, CacheStat
         return item;
     }
 
+    private ClassReader readDatedClass(String name) throws IOException {
+        String key = getClassKey(name);
+        long cacheDate = storage.lastModified(key);
+        if (cacheDate == 0) {
+            return null;
+        }
+        Date classDate = classDateProvider.getModificationDate(name);
+        if (classDate == null || !classDate.before(new Date(cacheDate))) {
+            return null;
+        }
+        try (InputStream input = storage.read(key)) {
+            return input != null ? classIO.readClass(input, name) : null;
+        }
+    }
+
+    private ClassReader readHashedClass(String name) throws IOException {
+        try (InputStream input = storage.read(getHashedClassKey(name))) {
+            if (input == null) {
+                return null;
+            }
+            byte[] hash = classHashProvider.getContentHash(name);
+            if (hash == null) {
+                return null;
+            }
+            DataInputStream dataInput = new DataInputStream(input);
+            byte[] cachedHash = new byte[dataInput.readUnsignedByte()];
+            dataInput.readFully(cachedHash);
+            if (!Arrays.equals(hash, cachedHash)) {
+                return null;
+            }
+            return classIO.readClass(input, name);
+        }
+    }
+
     private static class Item {
         ClassReader cls;
         boolean dirty;
@@ -101,13 +153,31 @@ public class DiskCachedClassReaderSource implements ClassReaderSource, CacheStat
     public void flush() throws IOException {
         for (String className : newClasses) {
             Item item = cache.get(className);
-            if (item.cls != null) {
-                File classFile = new File(directory, className.replace('.', '/') + ".teavm-cls");
-                classFile.getParentFile().mkdirs();
-                try (OutputStream output = new BufferedOutputStream(new FileOutputStream(classFile))) {
+            if (item.cls == null) {
+                continue;
+            }
+            if (classHashProvider != null) {
+                byte[] hash = classHashProvider.getContentHash(className);
+                if (hash != null) {
+                    try (OutputStream output = storage.write(getHashedClassKey(className))) {
+                        output.write(hash.length);
+                        output.write(hash);
+                        classIO.writeClass(output, item.cls);
+                    }
+                }
+            } else {
+                try (OutputStream output = storage.write(getClassKey(className))) {
                     classIO.writeClass(output, item.cls);
                 }
             }
         }
     }
+
+    private static String getClassKey(String className) {
+        return className.replace('.', '/') + ".teavm-cls";
+    }
+
+    private static String getHashedClassKey(String className) {
+        return className.replace('.', '/') + ".teavm-hcls";
+    }
 }
@@ -15,15 +15,11 @@
  */
 package org.teavm.cache;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -38,15 +34,22 @@ import org.teavm.model.ProgramCache;
 import org.teavm.model.ReferenceCache;
 
 public class DiskProgramCache implements ProgramCache {
-    private File directory;
+    private CacheStorage storage;
     private ProgramIO programIO;
+    private ProgramArena arena;
     private Map<MethodReference, Item> cache = new HashMap<>();
     private Set<MethodReference> newMethods = new HashSet<>();
 
     public DiskProgramCache(File directory, ReferenceCache referenceCache, SymbolTable symbolTable,
             SymbolTable fileTable, SymbolTable variableTable) {
-        this.directory = directory;
+        this(new DirectoryCacheStorage(directory), referenceCache, symbolTable, fileTable, variableTable);
+    }
+
+    public DiskProgramCache(CacheStorage storage, ReferenceCache referenceCache, SymbolTable symbolTable,
+            SymbolTable fileTable, SymbolTable variableTable) {
+        this.storage = storage;
         programIO = new ProgramIO(referenceCache, symbolTable, fileTable, variableTable);
+        arena = new ProgramArena(referenceCache, symbolTable, fileTable, variableTable);
     }
 
     @Override
@@ -55,9 +58,8 @@ public class DiskProgramCache implements ProgramCache {
         if (item == null) {
             item = new Item();
             cache.put(method, item);
-            File file = getMethodFile(method);
-            if (file.exists()) {
-                try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            try (InputStream stream = storage.read(getMethodKey(method))) {
+                if (stream != null) {
                     DataInput input = new DataInputStream(stream);
                     int depCount = input.readShort();
                     boolean dependenciesChanged = false;
@@ -69,21 +71,23 @@ public class DiskProgramCache implements ProgramCache {
                         }
                     }
                     if (!dependenciesChanged) {
-                        item.program = programIO.read(stream);
+                        Program program = programIO.read(stream);
+                        item.program = arena.compact(program);
+                        return program;
                     }
-                } catch (IOException e) {
-                    // we could not read program, just leave it empty
                 }
+            } catch (IOException e) {
+                // we could not read program, just leave it empty
             }
         }
-        return item.program;
+        return item.program != null ? item.program.inflate() : null;
     }
 
     @Override
     public void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
         Item item = new Item();
         cache.put(method, item);
-        item.program = program;
+        item.program = arena.compact(program);
         item.dependencies = dependencies.get().clone();
         newMethods.add(method);
     }
@@ -91,28 +95,25 @@ public class DiskProgramCache implements ProgramCache {
     public void flush() throws IOException {
         for (MethodReference method : newMethods) {
             Item item = cache.get(method);
-            File file = getMethodFile(method);
-            file.getParentFile().mkdirs();
-
-            try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file))) {
+            try (OutputStream stream = storage.write(getMethodKey(method))) {
                 DataOutput output = new DataOutputStream(stream);
 
                 output.writeShort(item.dependencies.length);
                 for (String dep : item.dependencies) {
                     output.writeUTF(dep);
                 }
-                programIO.write(item.program, stream);
+                programIO.write(item.program.inflate(), stream);
             }
         }
     }
 
-    private File getMethodFile(MethodReference method) {
-        File dir = new File(directory, method.getClassName().replace('.', '/'));
-        return new File(dir, FileNameEncoder.encodeFileName(method.getDescriptor().toString()) + ".teavm-opt");
+    private static String getMethodKey(MethodReference method) {
+        return method.getClassName().replace('.', '/') + "/"
+                + FileNameEncoder.encodeFileName(method.getDescriptor().toString()) + ".teavm-opt";
     }
 
     static class Item {
-        Program program;
+        CompactProgram program;
         String[] dependencies;
     }
 }
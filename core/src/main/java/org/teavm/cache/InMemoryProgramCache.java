@@ -15,9 +15,6 @@
  */
 package org.teavm.cache;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,11 +27,11 @@ import org.teavm.model.ReferenceCache;
 public class InMemoryProgramCache implements ProgramCache {
     private Map<MethodReference, Item> cache = new HashMap<>();
     private Map<MethodReference, Item> newItems = new HashMap<>();
-    private ProgramIO io;
+    private ProgramArena arena;
 
     public InMemoryProgramCache(ReferenceCache referenceCache, InMemorySymbolTable symbolTable,
             InMemorySymbolTable fileSymbolTable, InMemorySymbolTable variableSymbolTable) {
-        io = new ProgramIO(referenceCache, symbolTable, fileSymbolTable, variableSymbolTable);
+        arena = new ProgramArena(referenceCache, symbolTable, fileSymbolTable, variableSymbolTable);
     }
 
     @Override
@@ -47,23 +44,12 @@ public class InMemoryProgramCache implements ProgramCache {
         if (Arrays.stream(item.dependencies).anyMatch(cacheStatus::isStaleClass)) {
             return null;
         }
-        try {
-            ByteArrayInputStream input = new ByteArrayInputStream(item.program);
-            return io.read(input);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return item.program.inflate();
     }
 
     @Override
     public void store(MethodReference method, Program program, Supplier<String[]> dependencies) {
-        try {
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            io.write(program, output);
-            newItems.put(method, new Item(output.toByteArray(), dependencies.get().clone()));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        newItems.put(method, new Item(arena.compact(program), dependencies.get().clone()));
     }
 
     public void commit() {
@@ -85,10 +71,10 @@ public class InMemoryProgramCache implements ProgramCache {
     }
 
     static final class Item {
-        final byte[] program;
+        final CompactProgram program;
         final String[] dependencies;
 
-        Item(byte[] program, String[] dependencies) {
+        Item(CompactProgram program, String[] dependencies) {
             this.program = program;
             this.dependencies = dependencies;
         }
@@ -0,0 +1,476 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Cache storage that keeps all entries in a single append-only file, which is memory-mapped for reading.</p>
+ *
+ * <p>The file starts with a header which contains the length of committed data, followed by records of the
+ * form <code>(timestamp, key length, data length, key, data)</code>. Later records replace earlier ones with
+ * the same key. Written entries are streamed to a side file until {@link #commit()}, which appends them to the
+ * pack file, forces them to disk and only then updates the committed length in the header. Records past
+ * the committed length are ignored on open, so a build that crashed in the middle of a commit leaves previous
+ * state intact.</p>
+ *
+ * <p>When replaced records take more space than live ones, commit copies live records into a temporary file
+ * and moves it over the pack file.</p>
+ *
+ * <p>Streams returned by {@link #read(String)} are only valid until the next commit. Reading them after
+ * commit throws {@link IOException}.</p>
+ */
+public class PackFile implements CacheStorage, Closeable {
+    private static final int MAGIC = 0x54564D50;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int COMMITTED_SIZE_OFFSET = 8;
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final int RECORD_PREFETCH_SIZE = 512;
+    private static final long MIN_COMPACTION_GARBAGE = 1 << 20;
+    private File file;
+    private File pendingFile;
+    private FileChannel channel;
+    private FileChannel pendingChannel;
+    private MappedByteBuffer buffer;
+    private long committedSize;
+    private long garbageSize;
+    private long pendingSize;
+    private boolean writing;
+    private int generation;
+    private Map<String, Entry> index = new HashMap<>();
+    private Map<String, Entry> pending = new LinkedHashMap<>();
+
+    public PackFile(File file) throws IOException {
+        this.file = file;
+        pendingFile = new File(file.getPath() + ".pending");
+        open();
+    }
+
+    private void open() throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        index.clear();
+        garbageSize = 0;
+        committedSize = 0;
+        buffer = null;
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return;
+        }
+        long committed = header.getLong(COMMITTED_SIZE_OFFSET);
+        if (committed < HEADER_SIZE || committed > size) {
+            return;
+        }
+        try {
+            readIndex(HEADER_SIZE, committed);
+            committedSize = committed;
+        } catch (IOException e) {
+            // Pack file is corrupted, start from scratch
+            index.clear();
+            garbageSize = 0;
+            return;
+        }
+        map();
+    }
+
+    private void map() throws IOException {
+        buffer = committedSize <= Integer.MAX_VALUE
+                ? channel.map(FileChannel.MapMode.READ_ONLY, 0, committedSize)
+                : null;
+    }
+
+    private void readIndex(long start, long end) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_PREFETCH_SIZE);
+        long position = start;
+        while (position < end) {
+            if (end - position < RECORD_HEADER_SIZE) {
+                throw new IOException("Truncated record at " + position);
+            }
+            record.clear();
+            record.limit((int) Math.min(record.capacity(), end - position));
+            readFully(channel, record, position);
+            long timestamp = record.getLong(0);
+            int keyLength = record.getInt(8);
+            int length = record.getInt(12);
+            long offset = position + RECORD_HEADER_SIZE + keyLength;
+            if (keyLength < 0 || length < 0 || offset > end || length > end - offset) {
+                throw new IOException("Invalid record at " + position);
+            }
+
+            byte[] keyBytes = new byte[keyLength];
+            if (RECORD_HEADER_SIZE + keyLength <= record.limit()) {
+                record.position(RECORD_HEADER_SIZE);
+                record.get(keyBytes);
+            } else {
+                readFully(channel, ByteBuffer.wrap(keyBytes), position + RECORD_HEADER_SIZE);
+            }
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+
+            Entry previous = index.put(key, new Entry(timestamp, position, offset, length));
+            if (previous != null) {
+                garbageSize += previous.recordSize();
+            }
+            position = offset + length;
+        }
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        Entry pendingEntry = pending.get(key);
+        if (pendingEntry != null) {
+            byte[] data = new byte[pendingEntry.length];
+            readFully(pendingChannel, ByteBuffer.wrap(data), pendingEntry.offset);
+            return new ByteArrayInputStream(data);
+        }
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer view;
+        if (buffer != null) {
+            view = buffer.duplicate();
+            view.position((int) entry.offset);
+            view.limit((int) entry.offset + entry.length);
+        } else {
+            view = channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+        }
+        return new ByteBufferInputStream(view);
+    }
+
+    @Override
+    public long lastModified(String key) {
+        Entry entry = pending.get(key);
+        if (entry == null) {
+            entry = index.get(key);
+        }
+        return entry != null ? entry.timestamp : 0;
+    }
+
+    @Override
+    public OutputStream write(String key) throws IOException {
+        if (writing) {
+            throw new IllegalStateException("Another entry is being written to " + file);
+        }
+        if (pendingChannel == null) {
+            pendingChannel = FileChannel.open(pendingFile.toPath(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        writing = true;
+        return new PendingOutputStream(key);
+    }
+
+    public void commit() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long liveSize = committedSize - HEADER_SIZE - garbageSize;
+        if (garbageSize > Math.max(MIN_COMPACTION_GARBAGE, liveSize)) {
+            compact();
+        } else {
+            append();
+        }
+        pending.clear();
+        pendingSize = 0;
+        pendingChannel.truncate(0);
+    }
+
+    private void append() throws IOException {
+        long position = committedSize;
+        if (position == 0) {
+            channel.truncate(0);
+            writeFully(channel, createHeader(HEADER_SIZE), 0);
+            position = HEADER_SIZE;
+        }
+        transferFully(pendingChannel, 0, pendingSize, channel, position);
+        long newSize = position + pendingSize;
+        channel.force(false);
+        writeFully(channel, createHeader(newSize), 0);
+        channel.force(false);
+        channel.truncate(newSize);
+
+        unmap();
+        readIndex(position, newSize);
+        committedSize = newSize;
+        map();
+    }
+
+    private void compact() throws IOException {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_SIZE;
+            for (Map.Entry<String, Entry> mapEntry : index.entrySet()) {
+                if (!pending.containsKey(mapEntry.getKey())) {
+                    position = copyRecord(channel, mapEntry.getValue(), tmpChannel, position);
+                }
+            }
+            for (Entry entry : pending.values()) {
+                position = copyRecord(pendingChannel, entry, tmpChannel, position);
+            }
+            writeFully(tmpChannel, createHeader(position), 0);
+            tmpChannel.force(false);
+        }
+
+        // The pack file must not stay mapped or open while it is being replaced
+        closeChannel();
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private static long copyRecord(FileChannel source, Entry entry, FileChannel target, long position)
+            throws IOException {
+        transferFully(source, entry.recordStart, entry.recordSize(), target, position);
+        return position + entry.recordSize();
+    }
+
+    private static ByteBuffer createHeader(long committedSize) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(committedSize);
+        header.flip();
+        return header;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            int bytesRead = channel.read(data, position);
+            if (bytesRead < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += bytesRead;
+        }
+        data.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+    }
+
+    private static void transferFully(FileChannel source, long position, long count, FileChannel target,
+            long targetPosition) throws IOException {
+        target.position(targetPosition);
+        while (count > 0) {
+            long transferred = source.transferTo(position, count, target);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+    private void unmap() {
+        // Streams may still reference the mapping, make them fail instead of accessing unmapped memory
+        generation++;
+        if (buffer == null) {
+            return;
+        }
+        MappedByteBuffer mapping = buffer;
+        buffer = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(field.get(null), mapping);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Mapping gets released when the buffer is garbage collected
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        unmap();
+        index.clear();
+        channel.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+        pending.clear();
+        if (pendingChannel != null) {
+            pendingChannel.close();
+            pendingChannel = null;
+            Files.deleteIfExists(pendingFile.toPath());
+        }
+    }
+
+    static class Entry {
+        final long timestamp;
+        final long recordStart;
+        final long offset;
+        final int length;
+
+        Entry(long timestamp, long recordStart, long offset, int length) {
+            this.timestamp = timestamp;
+            this.recordStart = recordStart;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        long recordSize() {
+            return offset + length - recordStart;
+        }
+    }
+
+    class PendingOutputStream extends OutputStream {
+        private final String key;
+        private final byte[] keyBytes;
+        private final long timestamp = System.currentTimeMillis();
+        private final long recordStart = pendingSize;
+        private final ByteBuffer chunk = ByteBuffer.allocate(8192);
+        private long length;
+        private boolean closed;
+
+        PendingOutputStream(String key) {
+            this.key = key;
+            keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!chunk.hasRemaining()) {
+                flushChunk();
+            }
+            chunk.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (!chunk.hasRemaining()) {
+                    flushChunk();
+                }
+                int count = Math.min(len, chunk.remaining());
+                chunk.put(b, off, count);
+                off += count;
+                len -= count;
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            chunk.flip();
+            long position = recordStart + RECORD_HEADER_SIZE + keyBytes.length + length;
+            length += chunk.remaining();
+            writeFully(pendingChannel, chunk, position);
+            chunk.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writing = false;
+            flushChunk();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Cache entry is too large: " + key);
+            }
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length);
+            header.putLong(timestamp);
+            header.putInt(keyBytes.length);
+            header.putInt((int) length);
+            header.put(keyBytes);
+            header.flip();
+            writeFully(pendingChannel, header, recordStart);
+            long dataOffset = recordStart + RECORD_HEADER_SIZE + keyBytes.length;
+            pendingSize = dataOffset + length;
+            pending.put(key, new Entry(timestamp, recordStart, dataOffset, (int) length));
+        }
+    }
+
+    class ByteBufferInputStream extends InputStream {
+        private ByteBuffer buffer;
+        private final int streamGeneration = generation;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private void checkValid() throws IOException {
+            if (streamGeneration != generation) {
+                throw new IOException("Stream was invalidated by commit of " + file);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkValid();
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkValid();
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            checkValid();
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkValid();
+            return buffer.remaining();
+        }
+    }
+}
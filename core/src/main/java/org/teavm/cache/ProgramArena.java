@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.teavm.model.Program;
+import org.teavm.model.ProgramReader;
+import org.teavm.model.ReferenceCache;
+import org.teavm.model.Variable;
+import org.teavm.model.VariableReader;
+
+/**
+ * <p>Keeps programs in compact form while they are not being transformed. Programs are encoded into
+ * byte arrays using the same format as {@link ProgramIO}, while strings, references and file names are
+ * shared between all programs of an arena via symbol tables. Unlike persistent caches, variable labels
+ * are preserved, so that inflated program is indistinguishable from a copy made by
+ * {@link org.teavm.model.util.ProgramUtils#copy(ProgramReader)}.</p>
+ *
+ * <p>Compaction and inflation are synchronized on the arena, so programs can be inflated from several threads,
+ * as long as the reference cache and symbol tables are not modified by anyone else at the same time.</p>
+ */
+public class ProgramArena {
+    private ProgramIO io;
+    private SymbolTable variableTable;
+    private ReferenceCache referenceCache;
+
+    public ProgramArena(ReferenceCache referenceCache) {
+        this(referenceCache, new InMemorySymbolTable(), new InMemorySymbolTable(), new InMemorySymbolTable());
+    }
+
+    public ProgramArena(ReferenceCache referenceCache, SymbolTable symbolTable, SymbolTable fileTable,
+            SymbolTable variableTable) {
+        this.referenceCache = referenceCache;
+        this.variableTable = variableTable;
+        io = new ProgramIO(referenceCache, symbolTable, fileTable, variableTable);
+    }
+
+    public synchronized CompactProgram compact(ProgramReader program) {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            VarDataOutput data = new VarDataOutput(output);
+            io.write(program, data);
+            writeLabels(program, data);
+            return new CompactProgram(this, output.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    synchronized Program inflate(byte[] bytes) {
+        try {
+            VarDataInput data = new VarDataInput(new ByteArrayInputStream(bytes));
+            Program program = io.read(data);
+            readLabels(program, data);
+            return program;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeLabels(ProgramReader program, VarDataOutput data) throws IOException {
+        int labelCount = 0;
+        for (int i = 0; i < program.variableCount(); ++i) {
+            if (program.variableAt(i).getLabel() != null) {
+                labelCount++;
+            }
+        }
+        data.writeUnsigned(labelCount);
+        for (int i = 0; i < program.variableCount(); ++i) {
+            VariableReader var = program.variableAt(i);
+            if (var.getLabel() != null) {
+                data.writeUnsigned(i);
+                data.writeUnsigned(variableTable.lookup(var.getLabel()));
+            }
+        }
+    }
+
+    private void readLabels(Program program, VarDataInput data) throws IOException {
+        int labelCount = data.readUnsigned();
+        for (int i = 0; i < labelCount; ++i) {
+            Variable var = program.variableAt(data.readUnsigned());
+            var.setLabel(referenceCache.getCached(variableTable.at(data.readUnsigned())));
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.dependency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.teavm.common.ServiceRepository;
+import org.teavm.diagnostics.Diagnostics;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ReferenceCache;
+
+/**
+ * <p>Dependency analyzer that produces the same result as {@link PreciseDependencyAnalyzer}, but filters
+ * pending node-to-node transitions in parallel.</p>
+ *
+ * <p>When the queue of pending transitions grows large enough, it is drained in batches. For every transition
+ * in a batch, types that are already known to the destination node or rejected by type filters are dropped
+ * by worker threads. Only the surviving types are then propagated on the analyzer thread, without evaluating
+ * filters again, so listeners, plugins and graph construction never observe concurrent access.</p>
+ *
+ * <p>Super class filters are wrapped so that their results are cached per filter. The cache is read and
+ * written without locking; only cache misses, which query class hierarchy, are evaluated under a single
+ * lock.</p>
+ *
+ * <p>Type propagation itself still runs on the analyzer thread, so speedup is limited to builds where filtering
+ * dominates. Build tools don't select this analyzer automatically, it should be installed explicitly
+ * via {@link org.teavm.vm.TeaVMBuilder#setDependencyAnalyzerFactory(DependencyAnalyzerFactory)}.</p>
+ */
+public class ConcurrentDependencyAnalyzer extends PreciseDependencyAnalyzer {
+    private static final int PARALLEL_THRESHOLD = 256;
+    private static final int MAX_BATCH_SIZE = 8192;
+    private static final int TASK_SIZE = 64;
+    private final Object hierarchyLock = new Object();
+    private final int threadCount;
+    private Map<String, DependencyTypeFilter> concurrentFilters = new HashMap<>();
+    private List<ConcurrentTypeFilter> cachingFilters = new ArrayList<>();
+    private int cachedTypeCount;
+    private ForkJoinPool pool;
+    int parallelThreshold = PARALLEL_THRESHOLD;
+    int batchCount;
+
+    public ConcurrentDependencyAnalyzer(ClassReaderSource classSource, ClassLoader classLoader,
+            ServiceRepository services, Diagnostics diagnostics, ReferenceCache referenceCache,
+            String[] platformTags, int threadCount) {
+        super(classSource, classLoader, services, diagnostics, referenceCache, platformTags);
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive, actual value is " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    public static DependencyAnalyzerFactory factory(int threadCount) {
+        return (classSource, classLoader, services, diagnostics, referenceCache, platformTags) ->
+                new ConcurrentDependencyAnalyzer(classSource, classLoader, services, diagnostics, referenceCache,
+                        platformTags, threadCount);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    @Override
+    public void processDependencies() {
+        try {
+            super.processDependencies();
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+                pool = null;
+            }
+        }
+    }
+
+    @Override
+    void processNodeToNodeTransitionQueue() {
+        while (!pendingTransitions.isEmpty()) {
+            if (pendingTransitions.size() < parallelThreshold || threadCount < 2) {
+                Transition transition = pendingTransitions.remove();
+                consumePendingTypes(transition, takePendingTypes(transition));
+            } else {
+                processBatch();
+            }
+        }
+    }
+
+    private void processBatch() {
+        batchCount++;
+        int size = Math.min(pendingTransitions.size(), MAX_BATCH_SIZE);
+        Transition[] batch = new Transition[size];
+        DependencyType[][] batchTypes = new DependencyType[size][];
+        for (int i = 0; i < size; ++i) {
+            Transition transition = pendingTransitions.remove();
+            batch[i] = transition;
+            batchTypes[i] = takePendingTypes(transition);
+            transition.destination.getFilter();
+        }
+
+        if (cachedTypeCount < types.size()) {
+            cachedTypeCount = types.size();
+            for (ConcurrentTypeFilter filter : cachingFilters) {
+                filter.ensureCapacity(cachedTypeCount);
+            }
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(threadCount);
+        }
+        pool.invoke(new FilterTask(batch, batchTypes, 0, size));
+
+        for (int i = 0; i < size; ++i) {
+            batch[i].consumeFiltered(batchTypes[i]);
+        }
+    }
+
+    private static DependencyType[] filterTypes(Transition transition, DependencyType[] types) {
+        int j = 0;
+        for (DependencyType type : types) {
+            if (!transition.destination.hasType(type) && transition.filterType(type)
+                    && transition.destination.filter(type)) {
+                types[j++] = type;
+            }
+        }
+        return j == types.length ? types : Arrays.copyOf(types, j);
+    }
+
+    @Override
+    DependencyTypeFilter getSuperClassFilter(String superClass) {
+        DependencyTypeFilter result = concurrentFilters.get(superClass);
+        if (result == null) {
+            result = super.getSuperClassFilter(superClass);
+            if (result instanceof SuperClassFilter || result instanceof SuperArrayFilter) {
+                var cachingFilter = new ConcurrentTypeFilter(result, hierarchyLock);
+                cachingFilter.ensureCapacity(cachedTypeCount);
+                cachingFilters.add(cachingFilter);
+                result = cachingFilter;
+            }
+            concurrentFilters.put(superClass, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void cleanup(ClassSourcePacker classSourcePacker) {
+        concurrentFilters.clear();
+        cachingFilters.clear();
+        super.cleanup(classSourcePacker);
+    }
+
+    static class FilterTask extends RecursiveAction {
+        private Transition[] batch;
+        private DependencyType[][] batchTypes;
+        private int start;
+        private int end;
+
+        FilterTask(Transition[] batch, DependencyType[][] batchTypes, int start, int end) {
+            this.batch = batch;
+            this.batchTypes = batchTypes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= TASK_SIZE) {
+                for (int i = start; i < end; ++i) {
+                    batchTypes[i] = filterTypes(batch[i], batchTypes[i]);
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new FilterTask(batch, batchTypes, start, middle),
+                        new FilterTask(batch, batchTypes, middle, end));
+            }
+        }
+    }
+
+    static class ConcurrentTypeFilter implements DependencyTypeFilter {
+        private static final byte UNKNOWN = 0;
+        private static final byte REJECTED = 1;
+        private static final byte ACCEPTED = 2;
+        private DependencyTypeFilter filter;
+        private Object hierarchyLock;
+        private byte[] cache = new byte[0];
+
+        ConcurrentTypeFilter(DependencyTypeFilter filter, Object hierarchyLock) {
+            this.filter = filter;
+            this.hierarchyLock = hierarchyLock;
+        }
+
+        // Only called on analyzer thread while no batch is being filtered
+        void ensureCapacity(int typeCount) {
+            if (cache.length < typeCount) {
+                cache = Arrays.copyOf(cache, Math.max(typeCount, cache.length * 2));
+            }
+        }
+
+        @Override
+        public boolean match(DependencyType type) {
+            // Racy reads and writes are fine here: filter result for a type never changes, so concurrent
+            // threads can at worst evaluate it twice and store the same value
+            byte[] cache = this.cache;
+            int index = type.index;
+            if (index < cache.length && cache[index] != UNKNOWN) {
+                return cache[index] == ACCEPTED;
+            }
+            boolean result;
+            synchronized (hierarchyLock) {
+                result = filter.match(type);
+            }
+            if (index < cache.length) {
+                cache[index] = result ? ACCEPTED : REJECTED;
+            }
+            return result;
+        }
+
+        @Override
+        public int[] tryExtract(BitSet types) {
+            synchronized (hierarchyLock) {
+                return filter.tryExtract(types);
+            }
+        }
+    }
+}
@@ -84,7 +84,7 @@ public abstract class DependencyAnalyzer implements DependencyInfo {
     private CachedFunction<String, ClassDependency> classCache;
     private List<DependencyListener> listeners = new ArrayList<>();
     private ServiceRepository services;
-    private Deque<Transition> pendingTransitions = new ArrayDeque<>();
+    Deque<Transition> pendingTransitions = new ArrayDeque<>();
     private Deque<Runnable> tasks = new ArrayDeque<>();
     private Queue<Runnable> deferredTasks = new ArrayDeque<>();
     List<DependencyType> types = new ArrayList<>();
@@ -645,22 +645,29 @@ public abstract class DependencyAnalyzer implements DependencyInfo {
         }
     }
 
-    private void processNodeToNodeTransitionQueue() {
+    void processNodeToNodeTransitionQueue() {
         while (!pendingTransitions.isEmpty()) {
             Transition transition = pendingTransitions.remove();
-            IntSet pendingTypes = transition.pendingTypes;
-            transition.pendingTypes = null;
-            if (pendingTypes.size() == 1) {
-                DependencyType type = types.get(pendingTypes.iterator().next().value);
-                transition.consume(type);
-            } else {
-                DependencyType[] typesToPropagate = new DependencyType[pendingTypes.size()];
-                int index = 0;
-                for (IntCursor cursor : pendingTypes) {
-                    typesToPropagate[index++] = types.get(cursor.value);
-                }
-                transition.consume(typesToPropagate);
-            }
+            consumePendingTypes(transition, takePendingTypes(transition));
+        }
+    }
+
+    final DependencyType[] takePendingTypes(Transition transition) {
+        IntSet pendingTypes = transition.pendingTypes;
+        transition.pendingTypes = null;
+        DependencyType[] result = new DependencyType[pendingTypes.size()];
+        int index = 0;
+        for (IntCursor cursor : pendingTypes) {
+            result[index++] = types.get(cursor.value);
+        }
+        return result;
+    }
+
+    static void consumePendingTypes(Transition transition, DependencyType[] typesToPropagate) {
+        if (typesToPropagate.length == 1) {
+            transition.consume(typesToPropagate[0]);
+        } else if (typesToPropagate.length > 1) {
+            transition.consume(typesToPropagate);
         }
     }
 
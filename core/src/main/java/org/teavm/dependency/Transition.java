@@ -151,6 +151,21 @@ class Transition {
         }
     }
 
+    void consumeFiltered(DependencyType[] types) {
+        int j = 0;
+        for (DependencyType type : types) {
+            if (!destination.hasType(type)) {
+                types[j++] = type;
+            }
+        }
+
+        if (j == 1) {
+            propagate(types[0]);
+        } else if (j > 1) {
+            propagate(j < types.length ? Arrays.copyOf(types, j) : types);
+        }
+    }
+
     boolean filterType(DependencyType type) {
         if (pendingTypes != null && pendingTypes.contains(type.index)) {
             return false;
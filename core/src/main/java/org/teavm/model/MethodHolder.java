@@ -24,8 +24,9 @@ public class MethodHolder extends MemberHolder implements MethodReader {
     private GenericValueType genericReturnType;
     private GenericValueType[] genericParameterTypes;
     private ClassHolder owner;
-    private Program program;
+    private volatile Program program;
     private Function<MethodHolder, Program> programSupplier;
+    private boolean programSupplierReusable;
     private AnnotationValue annotationDefault;
     private AnnotationContainer[] parameterAnnotations;
     private MethodReference reference;
@@ -151,25 +152,83 @@ public class MethodHolder extends MemberHolder implements MethodReader {
 
     @Override
     public Program getProgram() {
+        Program result = program;
+        if (result == null) {
+            result = supplyProgram();
+        }
+        return result;
+    }
+
+    private synchronized Program supplyProgram() {
         if (program == null && programSupplier != null) {
             program = programSupplier.apply(this);
-            programSupplier = null;
+            if (!programSupplierReusable) {
+                programSupplier = null;
+            }
         }
         return program;
     }
 
-    public void setProgram(Program program) {
+    /**
+     * Returns program of this method for read-only access. Unlike {@link #getProgram()}, when program
+     * is produced by reusable supplier, it is not retained by this method, so callers that only inspect
+     * programs don't keep all of them in memory at once.
+     */
+    public ProgramReader readProgram() {
+        Program result = program;
+        if (result != null) {
+            return result;
+        }
+        Function<MethodHolder, Program> supplier;
+        synchronized (this) {
+            if (program != null) {
+                return program;
+            }
+            if (!programSupplierReusable) {
+                return supplyProgram();
+            }
+            supplier = programSupplier;
+        }
+        return supplier != null ? supplier.apply(this) : null;
+    }
+
+    /**
+     * Drops program previously produced by reusable supplier, so that next call to {@link #getProgram()}
+     * produces a new copy. Should only be called when nobody is going to modify the program anymore, since all
+     * changes made since the program was supplied are lost. Has no effect for other programs.
+     */
+    public synchronized void releaseProgram() {
+        if (programSupplier != null && programSupplierReusable) {
+            program = null;
+        }
+    }
+
+    public synchronized void setProgram(Program program) {
         this.program = program;
         this.programSupplier = null;
+        this.programSupplierReusable = false;
     }
 
-    public boolean hasProgram() {
+    public synchronized boolean hasProgram() {
         return program != null || programSupplier != null;
     }
 
-    public void setProgramSupplier(Function<MethodHolder, Program> programSupplier) {
+    public synchronized void setProgramSupplier(Function<MethodHolder, Program> programSupplier) {
+        this.program = null;
+        this.programSupplier = programSupplier;
+        this.programSupplierReusable = false;
+    }
+
+    /**
+     * Sets supplier that produces new independent copy of the program on each call, like
+     * {@link org.teavm.cache.CompactProgram#inflate()} does. Such supplier is kept after the program
+     * is supplied, which allows to {@link #releaseProgram() release} and to {@link #readProgram() read}
+     * programs without retaining them.
+     */
+    public synchronized void setReusableProgramSupplier(Function<MethodHolder, Program> programSupplier) {
         this.program = null;
         this.programSupplier = programSupplier;
+        this.programSupplierReusable = true;
     }
 
     @Override
@@ -0,0 +1,311 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AbstractInstructionVisitor;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.CastIntegerInstruction;
+import org.teavm.model.instructions.CastNumberInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NegateInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.util.DefinitionExtractor;
+
+/**
+ * <p>Computes, for every variable of a program, the number of bits sufficient to represent its value
+ * as a two's complement integer. The analysis is flow-insensitive, so it works both on SSA and on programs
+ * after register allocation, where a variable can be assigned several times.</p>
+ *
+ * <p>Based on these widths, long arithmetic instructions that can't overflow 64 bits are reported, so that
+ * backends can skip wrapping results to 64 bits. Variables and instructions whose values fit into 53 bits
+ * are reported as safe integers, so that backends can represent them with doubles.</p>
+ */
+public class LongBitWidthAnalysis {
+    private static final int MAX_WIDTH = 64;
+    private static final int SAFE_INTEGER_WIDTH = 53;
+    private Program program;
+    private int[] widths;
+    private int[] intConstants;
+    private boolean[] isIntConstant;
+    private Set<Instruction> overflowFreeInstructions = new HashSet<>();
+    private Set<Instruction> safeIntegerInstructions = new HashSet<>();
+
+    public LongBitWidthAnalysis(Program program) {
+        this.program = program;
+        widths = new int[program.variableCount()];
+        findIntConstants();
+        computeWidths();
+        findOverflowFreeInstructions();
+    }
+
+    public int getBitWidth(int variable) {
+        return widths[variable];
+    }
+
+    public boolean isOverflowFree(Instruction instruction) {
+        return overflowFreeInstructions.contains(instruction);
+    }
+
+    public boolean isSafeInteger(int variable) {
+        return widths[variable] <= SAFE_INTEGER_WIDTH;
+    }
+
+    /**
+     * Tells whether operands and result of the given long arithmetic instruction all fit into 53 bits.
+     */
+    public boolean isSafeInteger(Instruction instruction) {
+        return safeIntegerInstructions.contains(instruction);
+    }
+
+    private void findIntConstants() {
+        int[] definitionCount = new int[program.variableCount()];
+        intConstants = new int[program.variableCount()];
+        isIntConstant = new boolean[program.variableCount()];
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                definitionCount[phi.getReceiver().getIndex()]++;
+            }
+            for (Instruction insn : block) {
+                insn.acceptVisitor(defExtractor);
+                for (Variable var : defExtractor.getDefinedVariables()) {
+                    definitionCount[var.getIndex()]++;
+                }
+                if (insn instanceof IntegerConstantInstruction) {
+                    IntegerConstantInstruction constant = (IntegerConstantInstruction) insn;
+                    intConstants[constant.getReceiver().getIndex()] = constant.getConstant();
+                    isIntConstant[constant.getReceiver().getIndex()] = true;
+                }
+            }
+            if (block.getExceptionVariable() != null) {
+                definitionCount[block.getExceptionVariable().getIndex()]++;
+            }
+        }
+
+        for (int i = 0; i < definitionCount.length; ++i) {
+            if (definitionCount[i] != 1) {
+                isIntConstant[i] = false;
+            }
+            if (definitionCount[i] == 0) {
+                widths[i] = MAX_WIDTH;
+            }
+        }
+    }
+
+    private void computeWidths() {
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        WidthVisitor visitor = new WidthVisitor();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BasicBlock block : program.getBasicBlocks()) {
+                for (Phi phi : block.getPhis()) {
+                    int width = 0;
+                    for (Incoming incoming : phi.getIncomings()) {
+                        width = Math.max(width, widths[incoming.getValue().getIndex()]);
+                    }
+                    changed |= update(phi.getReceiver(), width);
+                }
+                if (block.getExceptionVariable() != null) {
+                    changed |= update(block.getExceptionVariable(), MAX_WIDTH);
+                }
+                for (Instruction insn : block) {
+                    visitor.width = -1;
+                    insn.acceptVisitor(visitor);
+                    int width = visitor.width >= 0 ? Math.min(visitor.width, MAX_WIDTH) : MAX_WIDTH;
+                    insn.acceptVisitor(defExtractor);
+                    for (Variable var : defExtractor.getDefinedVariables()) {
+                        changed |= update(var, width);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean update(Variable variable, int width) {
+        if (width <= widths[variable.getIndex()]) {
+            return false;
+        }
+        widths[variable.getIndex()] = width;
+        return true;
+    }
+
+    private void findOverflowFreeInstructions() {
+        WidthVisitor visitor = new WidthVisitor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (insn instanceof BinaryInstruction) {
+                    if (((BinaryInstruction) insn).getOperandType() != NumericOperandType.LONG) {
+                        continue;
+                    }
+                } else if (insn instanceof NegateInstruction) {
+                    if (((NegateInstruction) insn).getOperandType() != NumericOperandType.LONG) {
+                        continue;
+                    }
+                } else {
+                    continue;
+                }
+                visitor.width = -1;
+                insn.acceptVisitor(visitor);
+                if (visitor.width >= 0 && visitor.width <= MAX_WIDTH) {
+                    overflowFreeInstructions.add(insn);
+                }
+                // Widths of operands never exceed width of result of these operations
+                if (visitor.width >= 0 && visitor.width <= SAFE_INTEGER_WIDTH && isArithmetic(insn)) {
+                    safeIntegerInstructions.add(insn);
+                }
+            }
+        }
+    }
+
+    private static boolean isArithmetic(Instruction insn) {
+        if (insn instanceof NegateInstruction) {
+            return true;
+        }
+        switch (((BinaryInstruction) insn).getOperation()) {
+            case ADD:
+            case SUBTRACT:
+            case MULTIPLY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static int constantWidth(long value) {
+        if (value < 0) {
+            value = ~value;
+        }
+        return 65 - Long.numberOfLeadingZeros(value);
+    }
+
+    class WidthVisitor extends AbstractInstructionVisitor {
+        int width;
+
+        @Override
+        public void visit(IntegerConstantInstruction insn) {
+            width = constantWidth(insn.getConstant());
+        }
+
+        @Override
+        public void visit(LongConstantInstruction insn) {
+            width = constantWidth(insn.getConstant());
+        }
+
+        @Override
+        public void visit(AssignInstruction insn) {
+            width = widths[insn.getAssignee().getIndex()];
+        }
+
+        @Override
+        public void visit(CastIntegerInstruction insn) {
+            width = 32;
+        }
+
+        @Override
+        public void visit(CastNumberInstruction insn) {
+            if (insn.getSourceType() == NumericOperandType.INT) {
+                width = Math.min(32, widths[insn.getValue().getIndex()]);
+            } else if (insn.getTargetType() == NumericOperandType.INT) {
+                width = 32;
+            }
+        }
+
+        @Override
+        public void visit(NegateInstruction insn) {
+            if (insn.getOperandType() == NumericOperandType.INT) {
+                width = 32;
+            } else if (insn.getOperandType() == NumericOperandType.LONG) {
+                width = widths[insn.getOperand().getIndex()] + 1;
+            }
+        }
+
+        @Override
+        public void visit(BinaryInstruction insn) {
+            switch (insn.getOperation()) {
+                case COMPARE:
+                    width = 2;
+                    return;
+                default:
+                    break;
+            }
+            if (insn.getOperandType() == NumericOperandType.INT) {
+                width = 32;
+                return;
+            }
+            if (insn.getOperandType() != NumericOperandType.LONG) {
+                return;
+            }
+
+            int first = widths[insn.getFirstOperand().getIndex()];
+            int second = widths[insn.getSecondOperand().getIndex()];
+            switch (insn.getOperation()) {
+                case ADD:
+                case SUBTRACT:
+                    width = Math.max(first, second) + 1;
+                    break;
+                case MULTIPLY:
+                    width = first + second;
+                    break;
+                case DIVIDE:
+                    width = first + 1;
+                    break;
+                case MODULO:
+                    width = Math.min(first, second);
+                    break;
+                case AND:
+                case OR:
+                case XOR:
+                    width = Math.max(first, second);
+                    break;
+                case SHIFT_LEFT:
+                    if (isIntConstant[insn.getSecondOperand().getIndex()]) {
+                        width = first + (intConstants[insn.getSecondOperand().getIndex()] & 63);
+                    } else {
+                        width = MAX_WIDTH + 1;
+                    }
+                    break;
+                case SHIFT_RIGHT:
+                    if (isIntConstant[insn.getSecondOperand().getIndex()]) {
+                        width = Math.max(1, first - (intConstants[insn.getSecondOperand().getIndex()] & 63));
+                    } else {
+                        width = first;
+                    }
+                    break;
+                case SHIFT_RIGHT_UNSIGNED:
+                    if (isIntConstant[insn.getSecondOperand().getIndex()]) {
+                        int shift = intConstants[insn.getSecondOperand().getIndex()] & 63;
+                        width = shift == 0 ? first : MAX_WIDTH + 1 - shift;
+                    } else {
+                        width = MAX_WIDTH;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
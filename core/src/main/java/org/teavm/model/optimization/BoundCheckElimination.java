@@ -0,0 +1,574 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntHashSet;
+import java.util.Arrays;
+import org.teavm.common.DominatorTree;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphUtils;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AbstractInstructionVisitor;
+import org.teavm.model.instructions.ArrayLengthInstruction;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BoundCheckInstruction;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.CastIntegerInstruction;
+import org.teavm.model.instructions.ConstructArrayInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.IntegerSubtype;
+import org.teavm.model.instructions.NullCheckInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * <p>Removes bound checks that can be proven redundant. For every integer variable two facts are inferred:
+ * whether it's non-negative and whether it's less than length of some array. Facts are computed
+ * optimistically and refined until fixpoint, so induction variables of loops are recognized through
+ * their phis. Additionally, conditions of dominating branches (like <code>i &lt; a.length</code>)
+ * are taken into account.</p>
+ */
+public class BoundCheckElimination implements MethodOptimization {
+    private static final int UNKNOWN = -1;
+    private static final int OPTIMISTIC = -2;
+    private static final int ZERO = -1;
+
+    private Program program;
+    private DominatorTree domTree;
+    private int[] aliases;
+    private int[] constants;
+    private boolean[] constantDefined;
+    private int[] compareFirst;
+    private int[] compareSecond;
+    private IntHashSet[] lengthOf;
+    private Fact[] facts;
+    private boolean[] nonNegative;
+    private int[] lessThanLength;
+
+    @Override
+    public boolean optimize(MethodOptimizationContext context, Program program) {
+        if (!hasBoundChecks(program)) {
+            return false;
+        }
+
+        this.program = program;
+        collectDefinitions();
+        collectFacts();
+        computeRanges();
+        boolean changed = eliminate();
+
+        this.program = null;
+        domTree = null;
+        aliases = null;
+        constants = null;
+        constantDefined = null;
+        compareFirst = null;
+        compareSecond = null;
+        lengthOf = null;
+        facts = null;
+        nonNegative = null;
+        lessThanLength = null;
+
+        return changed;
+    }
+
+    private static boolean hasBoundChecks(Program program) {
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (insn instanceof BoundCheckInstruction) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void collectDefinitions() {
+        int count = program.variableCount();
+        aliases = new int[count];
+        for (int i = 0; i < count; ++i) {
+            aliases[i] = i;
+        }
+        constants = new int[count];
+        constantDefined = new boolean[count];
+        compareFirst = new int[count];
+        compareSecond = new int[count];
+        Arrays.fill(compareFirst, -1);
+        lengthOf = new IntHashSet[count];
+
+        DefinitionVisitor visitor = new DefinitionVisitor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                insn.acceptVisitor(visitor);
+            }
+        }
+
+        IntArrayList lengths = visitor.lengths;
+        for (int i = 0; i < lengths.size(); i += 2) {
+            int length = canonical(lengths.get(i));
+            IntHashSet arrays = lengthOf[length];
+            if (arrays == null) {
+                arrays = new IntHashSet();
+                lengthOf[length] = arrays;
+            }
+            arrays.add(canonical(lengths.get(i + 1)));
+        }
+    }
+
+    private int canonical(int variable) {
+        while (aliases[variable] != variable) {
+            variable = aliases[variable];
+        }
+        return variable;
+    }
+
+    private void collectFacts() {
+        Graph cfg = ProgramUtils.buildControlFlowGraph(program);
+        domTree = GraphUtils.buildDominatorTree(cfg);
+        facts = new Fact[program.basicBlockCount()];
+
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            if (cfg.incomingEdgesCount(i) != 1) {
+                continue;
+            }
+            BasicBlock predecessor = program.basicBlockAt(cfg.incomingEdges(i)[0]);
+            if (!(predecessor.getLastInstruction() instanceof BranchingInstruction)) {
+                continue;
+            }
+            BranchingInstruction branching = (BranchingInstruction) predecessor.getLastInstruction();
+            if (branching.getConsequent() == branching.getAlternative()) {
+                continue;
+            }
+            boolean taken = branching.getConsequent().getIndex() == i;
+
+            int operand = branching.getOperand().getIndex();
+            int first = operand;
+            int second = ZERO;
+            if (compareFirst[operand] >= 0) {
+                first = compareFirst[operand];
+                second = compareSecond[operand];
+            }
+
+            switch (branching.getCondition()) {
+                case LESS:
+                    facts[i] = taken ? new Fact(first, second, true) : new Fact(second, first, false);
+                    break;
+                case LESS_OR_EQUAL:
+                    facts[i] = taken ? new Fact(first, second, false) : new Fact(second, first, true);
+                    break;
+                case GREATER:
+                    facts[i] = taken ? new Fact(second, first, true) : new Fact(first, second, false);
+                    break;
+                case GREATER_OR_EQUAL:
+                    facts[i] = taken ? new Fact(second, first, false) : new Fact(first, second, true);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void computeRanges() {
+        int count = program.variableCount();
+        nonNegative = new boolean[count];
+        lessThanLength = new int[count];
+        Arrays.fill(lessThanLength, UNKNOWN);
+
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                initOptimistic(phi.getReceiver());
+            }
+            for (Instruction insn : block) {
+                insn.acceptVisitor(defExtractor);
+                for (Variable var : defExtractor.getDefinedVariables()) {
+                    initOptimistic(var);
+                }
+            }
+        }
+        for (BasicBlock block : program.getBasicBlocks()) {
+            if (block.getExceptionVariable() != null) {
+                int exception = block.getExceptionVariable().getIndex();
+                nonNegative[exception] = false;
+                lessThanLength[exception] = UNKNOWN;
+            }
+        }
+
+        RangeVisitor visitor = new RangeVisitor();
+        boolean changed;
+        do {
+            changed = false;
+            for (BasicBlock block : program.getBasicBlocks()) {
+                for (Phi phi : block.getPhis()) {
+                    boolean phiNonNegative = true;
+                    int phiBound = OPTIMISTIC;
+                    for (Incoming incoming : phi.getIncomings()) {
+                        int value = incoming.getValue().getIndex();
+                        phiNonNegative &= nonNegative[value];
+                        phiBound = meet(phiBound, lessThanLength[value]);
+                    }
+                    changed |= update(phi.getReceiver().getIndex(), phiNonNegative, phiBound);
+                }
+
+                visitor.block = block;
+                for (Instruction insn : block) {
+                    visitor.receiver = null;
+                    insn.acceptVisitor(visitor);
+                    if (visitor.receiver != null) {
+                        changed |= update(visitor.receiver.getIndex(), visitor.nonNegative, visitor.bound);
+                    } else {
+                        insn.acceptVisitor(defExtractor);
+                        for (Variable var : defExtractor.getDefinedVariables()) {
+                            changed |= update(var.getIndex(), false, UNKNOWN);
+                        }
+                    }
+                }
+            }
+        } while (changed);
+    }
+
+    private void initOptimistic(Variable variable) {
+        nonNegative[variable.getIndex()] = true;
+        lessThanLength[variable.getIndex()] = OPTIMISTIC;
+    }
+
+    private boolean update(int variable, boolean nonNegative, int bound) {
+        boolean changed = false;
+        if (this.nonNegative[variable] && !nonNegative) {
+            this.nonNegative[variable] = false;
+            changed = true;
+        }
+        int newBound = meet(lessThanLength[variable], bound);
+        if (newBound != lessThanLength[variable]) {
+            lessThanLength[variable] = newBound;
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static int meet(int a, int b) {
+        if (a == OPTIMISTIC) {
+            return b;
+        } else if (b == OPTIMISTIC || a == b) {
+            return a;
+        } else {
+            return UNKNOWN;
+        }
+    }
+
+    private boolean eliminate() {
+        boolean changed = false;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (!(insn instanceof BoundCheckInstruction)) {
+                    continue;
+                }
+                BoundCheckInstruction boundCheck = (BoundCheckInstruction) insn;
+                int index = boundCheck.getIndex().getIndex();
+                boolean lower = boundCheck.isLower() && !isNonNegative(index, block);
+                boolean upper = boundCheck.getArray() != null
+                        && !isLessThanLength(index, canonical(boundCheck.getArray().getIndex()), block);
+                if (!lower && !upper) {
+                    AssignInstruction assign = new AssignInstruction();
+                    assign.setAssignee(boundCheck.getIndex());
+                    assign.setReceiver(boundCheck.getReceiver());
+                    assign.setLocation(boundCheck.getLocation());
+                    boundCheck.replace(assign);
+                    changed = true;
+                } else {
+                    if (!lower && boundCheck.isLower()) {
+                        boundCheck.setLower(false);
+                        changed = true;
+                    }
+                    if (!upper && boundCheck.getArray() != null) {
+                        boundCheck.setArray(null);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean isNonNegative(int variable, BasicBlock block) {
+        if (nonNegative[variable]) {
+            return true;
+        }
+        int value = canonical(variable);
+        for (int i = block.getIndex(); i >= 0; i = domTree.immediateDominatorOf(i)) {
+            Fact fact = facts[i];
+            if (fact == null || fact.second == ZERO || canonical(fact.second) != value) {
+                continue;
+            }
+            if (fact.first == ZERO || nonNegative[fact.first]) {
+                return true;
+            }
+            if (constantDefined[fact.first] && constants[fact.first] >= (fact.strict ? -1 : 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLessThanLength(int variable, int array, BasicBlock block) {
+        if (lessThanLength[variable] == array) {
+            return true;
+        }
+        int value = canonical(variable);
+        for (int i = block.getIndex(); i >= 0; i = domTree.immediateDominatorOf(i)) {
+            Fact fact = facts[i];
+            if (fact == null || fact.first == ZERO || fact.second == ZERO || canonical(fact.first) != value) {
+                continue;
+            }
+            if (fact.strict && isLengthOf(fact.second, array)) {
+                return true;
+            }
+            if (lessThanLength[fact.second] == array) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBoundedAbove(int variable, BasicBlock block) {
+        if (lessThanLength[variable] != UNKNOWN) {
+            return true;
+        }
+        int value = canonical(variable);
+        for (int i = block.getIndex(); i >= 0; i = domTree.immediateDominatorOf(i)) {
+            Fact fact = facts[i];
+            if (fact != null && fact.strict && fact.first != ZERO && canonical(fact.first) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLengthOf(int variable, int array) {
+        IntHashSet arrays = lengthOf[canonical(variable)];
+        return arrays != null && arrays.contains(array);
+    }
+
+    private int singleArrayOf(int variable) {
+        IntHashSet arrays = lengthOf[canonical(variable)];
+        return arrays != null && arrays.size() == 1 ? arrays.iterator().next().value : UNKNOWN;
+    }
+
+    class DefinitionVisitor extends AbstractInstructionVisitor {
+        IntArrayList lengths = new IntArrayList();
+
+        @Override
+        public void visit(IntegerConstantInstruction insn) {
+            constants[insn.getReceiver().getIndex()] = insn.getConstant();
+            constantDefined[insn.getReceiver().getIndex()] = true;
+        }
+
+        @Override
+        public void visit(AssignInstruction insn) {
+            aliases[insn.getReceiver().getIndex()] = insn.getAssignee().getIndex();
+        }
+
+        @Override
+        public void visit(NullCheckInstruction insn) {
+            aliases[insn.getReceiver().getIndex()] = insn.getValue().getIndex();
+        }
+
+        @Override
+        public void visit(UnwrapArrayInstruction insn) {
+            aliases[insn.getReceiver().getIndex()] = insn.getArray().getIndex();
+        }
+
+        @Override
+        public void visit(BoundCheckInstruction insn) {
+            aliases[insn.getReceiver().getIndex()] = insn.getIndex().getIndex();
+        }
+
+        @Override
+        public void visit(BinaryInstruction insn) {
+            if (insn.getOperation() == BinaryOperation.COMPARE && insn.getOperandType() == NumericOperandType.INT) {
+                compareFirst[insn.getReceiver().getIndex()] = insn.getFirstOperand().getIndex();
+                compareSecond[insn.getReceiver().getIndex()] = insn.getSecondOperand().getIndex();
+            }
+        }
+
+        @Override
+        public void visit(ArrayLengthInstruction insn) {
+            lengths.add(insn.getReceiver().getIndex(), insn.getArray().getIndex());
+        }
+
+        @Override
+        public void visit(ConstructArrayInstruction insn) {
+            lengths.add(insn.getSize().getIndex(), insn.getReceiver().getIndex());
+        }
+    }
+
+    class RangeVisitor extends AbstractInstructionVisitor {
+        BasicBlock block;
+        Variable receiver;
+        boolean nonNegative;
+        int bound;
+
+        private void result(Variable receiver, boolean nonNegative, int bound) {
+            this.receiver = receiver;
+            this.nonNegative = nonNegative;
+            this.bound = bound;
+        }
+
+        @Override
+        public void visit(IntegerConstantInstruction insn) {
+            result(insn.getReceiver(), insn.getConstant() >= 0, UNKNOWN);
+        }
+
+        @Override
+        public void visit(ArrayLengthInstruction insn) {
+            result(insn.getReceiver(), true, UNKNOWN);
+        }
+
+        @Override
+        public void visit(AssignInstruction insn) {
+            int assignee = insn.getAssignee().getIndex();
+            result(insn.getReceiver(), BoundCheckElimination.this.nonNegative[assignee], lessThanLength[assignee]);
+        }
+
+        @Override
+        public void visit(CastIntegerInstruction insn) {
+            result(insn.getReceiver(), insn.getTargetType() == IntegerSubtype.CHAR, UNKNOWN);
+        }
+
+        @Override
+        public void visit(BoundCheckInstruction insn) {
+            int index = insn.getIndex().getIndex();
+            boolean indexNonNegative = insn.isLower() || isNonNegative(index, block);
+            int indexBound = insn.getArray() != null ? canonical(insn.getArray().getIndex()) : lessThanLength[index];
+            result(insn.getReceiver(), indexNonNegative, indexBound);
+        }
+
+        @Override
+        public void visit(BinaryInstruction insn) {
+            if (insn.getOperandType() != NumericOperandType.INT) {
+                return;
+            }
+            int first = insn.getFirstOperand().getIndex();
+            int second = insn.getSecondOperand().getIndex();
+            boolean firstNonNegative = isNonNegative(first, block);
+            boolean secondNonNegative = isNonNegative(second, block);
+
+            switch (insn.getOperation()) {
+                case ADD:
+                    if (constantDefined[first] && !constantDefined[second]) {
+                        addConstant(insn.getReceiver(), second, constants[first]);
+                    } else if (constantDefined[second]) {
+                        addConstant(insn.getReceiver(), first, constants[second]);
+                    } else {
+                        result(insn.getReceiver(), false, UNKNOWN);
+                    }
+                    break;
+                case SUBTRACT:
+                    if (constantDefined[second] && constants[second] != Integer.MIN_VALUE) {
+                        addConstant(insn.getReceiver(), first, -constants[second]);
+                    } else if (firstNonNegative && secondNonNegative) {
+                        result(insn.getReceiver(), false, lessThanLength[first]);
+                    } else {
+                        result(insn.getReceiver(), false, UNKNOWN);
+                    }
+                    break;
+                case DIVIDE:
+                case SHIFT_RIGHT:
+                case SHIFT_RIGHT_UNSIGNED: {
+                    boolean nonNegativeDivisor = insn.getOperation() != BinaryOperation.DIVIDE || secondNonNegative;
+                    if (firstNonNegative && nonNegativeDivisor) {
+                        result(insn.getReceiver(), true, lessThanLength[first]);
+                    } else {
+                        boolean shifted = insn.getOperation() == BinaryOperation.SHIFT_RIGHT_UNSIGNED
+                                && constantDefined[second] && (constants[second] & 31) != 0;
+                        result(insn.getReceiver(), shifted, UNKNOWN);
+                    }
+                    break;
+                }
+                case MODULO:
+                    if (firstNonNegative) {
+                        int bound = singleArrayOf(second);
+                        if (bound == UNKNOWN && secondNonNegative) {
+                            bound = lessThanLength[second];
+                        }
+                        if (bound == UNKNOWN) {
+                            bound = lessThanLength[first];
+                        }
+                        result(insn.getReceiver(), true, bound);
+                    } else {
+                        result(insn.getReceiver(), false, UNKNOWN);
+                    }
+                    break;
+                case AND:
+                    if (firstNonNegative && secondNonNegative) {
+                        int bound = lessThanLength[first] != UNKNOWN ? lessThanLength[first] : lessThanLength[second];
+                        result(insn.getReceiver(), true, bound);
+                    } else {
+                        result(insn.getReceiver(), firstNonNegative || secondNonNegative, UNKNOWN);
+                    }
+                    break;
+                case OR:
+                case XOR:
+                    result(insn.getReceiver(), firstNonNegative && secondNonNegative, UNKNOWN);
+                    break;
+                default:
+                    result(insn.getReceiver(), false, UNKNOWN);
+                    break;
+            }
+        }
+
+        private void addConstant(Variable receiver, int operand, int constant) {
+            boolean operandNonNegative = isNonNegative(operand, block);
+            if (constant <= 0) {
+                // x - c can't wrap around when x is non-negative, and it stays below anything x is below of
+                int bound = UNKNOWN;
+                if (operandNonNegative) {
+                    bound = constant < 0 ? singleArrayOf(operand) : UNKNOWN;
+                    if (bound == UNKNOWN) {
+                        bound = lessThanLength[operand];
+                    }
+                }
+                result(receiver, constant == 0 && operandNonNegative, bound);
+            } else {
+                // x + 1 can't overflow when x is known to be less than some other int
+                boolean noOverflow = constant == 1 && isBoundedAbove(operand, block);
+                result(receiver, operandNonNegative && noOverflow, UNKNOWN);
+            }
+        }
+    }
+
+    static class Fact {
+        final int first;
+        final int second;
+        final boolean strict;
+
+        Fact(int first, int second, boolean strict) {
+            this.first = first;
+            this.second = second;
+            this.strict = strict;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.carrotsearch.hppc.cursors.ObjectCursor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -30,6 +31,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphBuilder;
+import org.teavm.common.GraphUtils;
 import org.teavm.dependency.DependencyInfo;
 import org.teavm.model.BasicBlock;
 import org.teavm.model.BasicBlockReader;
@@ -40,6 +44,7 @@ import org.teavm.model.Incoming;
 import org.teavm.model.InliningInfo;
 import org.teavm.model.Instruction;
 import org.teavm.model.ListableClassReaderSource;
+import org.teavm.model.MethodDescriptor;
 import org.teavm.model.MethodReader;
 import org.teavm.model.MethodReference;
 import org.teavm.model.Phi;
@@ -75,6 +80,7 @@ public class Inlining {
     private boolean devirtualization;
     private ClassInference classInference;
     private InliningFilterFactory filterFactory;
+    private Inlining root = this;
 
     public Inlining(ClassHierarchy hierarchy, DependencyInfo dependencyInfo, InliningStrategy strategy,
             ListableClassReaderSource classes, Predicate<MethodReference> externalMethods,
@@ -107,6 +113,43 @@ public class Inlining {
         }
     }
 
+    private Inlining(Inlining parent, InliningStrategy strategy) {
+        root = parent.root;
+        hierarchy = root.hierarchy;
+        classes = root.classes;
+        dependencyInfo = root.dependencyInfo;
+        this.strategy = strategy;
+        devirtualization = root.devirtualization;
+        usageCounter = root.usageCounter;
+        methodsUsedOnce = root.methodsUsedOnce;
+        var rootFilterFactory = root.filterFactory;
+        filterFactory = methodRef -> {
+            InliningFilter filter;
+            synchronized (root) {
+                filter = rootFilterFactory.createFilter(methodRef);
+            }
+            return invokedMethod -> {
+                synchronized (root) {
+                    return filter.apply(invokedMethod);
+                }
+            };
+        };
+    }
+
+    /**
+     * Creates inlining instance that shares method usage information with this one, but has its own
+     * per-method state, so that it can be applied concurrently with this instance and with other forks.
+     * Usage counters, inlining filters and class inference are shared and accessed under a lock. It's only
+     * safe to apply forks concurrently to methods that don't call each other (directly or transitively),
+     * see {@link #getSchedule()}.
+     *
+     * @param strategy inlining strategy for the new instance. Strategies usually have caches, so it should not
+     * be shared with other instances.
+     */
+    public Inlining fork(InliningStrategy strategy) {
+        return new Inlining(this, strategy);
+    }
+
     public List<MethodReference> getOrder() {
         List<MethodReference> order = new ArrayList<>();
         Set<MethodReference> visited = new HashSet<>();
@@ -135,8 +178,117 @@ public class Inlining {
         order.add(method);
     }
 
+    /**
+     * Splits methods returned by {@link #getOrder()} into groups of mutually recursive methods and computes
+     * which groups must be processed before other groups. Groups that don't depend on each other can be
+     * inlined concurrently by {@link #fork(InliningStrategy) forks} of this instance.
+     */
+    public InliningSchedule getSchedule() {
+        List<MethodReference> order = getOrder();
+        ObjectIntMap<MethodReference> indexes = new ObjectIntHashMap<>();
+        for (int i = 0; i < order.size(); ++i) {
+            indexes.put(order.get(i), i);
+        }
+
+        GraphBuilder graphBuilder = new GraphBuilder(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            Set<MethodReference> invokedMethods = usageCounter.methodDependencies.get(order.get(i));
+            if (invokedMethods == null) {
+                continue;
+            }
+            for (MethodReference invokedMethod : invokedMethods) {
+                int index = indexes.getOrDefault(invokedMethod, -1);
+                if (index >= 0) {
+                    graphBuilder.addEdge(i, index);
+                }
+            }
+        }
+        if (devirtualization) {
+            addDevirtualizationEdges(order, indexes, graphBuilder);
+        }
+        Graph graph = graphBuilder.build();
+
+        int[] componentByMethod = new int[order.size()];
+        Arrays.fill(componentByMethod, -1);
+        for (int[] scc : GraphUtils.findStronglyConnectedComponents(graph)) {
+            int leader = scc[0];
+            for (int node : scc) {
+                leader = Math.min(leader, node);
+            }
+            for (int node : scc) {
+                componentByMethod[node] = leader;
+            }
+        }
+
+        List<List<MethodReference>> components = new ArrayList<>();
+        int[] componentIndexes = new int[order.size()];
+        for (int i = 0; i < order.size(); ++i) {
+            int leader = componentByMethod[i] >= 0 ? componentByMethod[i] : i;
+            if (leader == i) {
+                componentIndexes[i] = components.size();
+                components.add(new ArrayList<>());
+            }
+            components.get(componentIndexes[leader]).add(order.get(i));
+            componentIndexes[i] = componentIndexes[leader];
+        }
+
+        List<Set<Integer>> successors = new ArrayList<>();
+        for (int i = 0; i < components.size(); ++i) {
+            successors.add(new LinkedHashSet<>());
+        }
+        for (int i = 0; i < order.size(); ++i) {
+            for (int j : graph.outgoingEdges(i)) {
+                if (componentIndexes[i] != componentIndexes[j]) {
+                    successors.get(componentIndexes[i]).add(componentIndexes[j]);
+                }
+            }
+        }
+
+        return new InliningSchedule(components, successors);
+    }
+
+    /*
+     * Devirtualization, which runs between inlining steps, turns virtual calls into special ones. The callee
+     * can be any implementation that overrides the invoked method, or the one it inherits, so all of them
+     * are added as edges, to make sure they are never inlined concurrently with the caller.
+     */
+    private void addDevirtualizationEdges(List<MethodReference> order, ObjectIntMap<MethodReference> indexes,
+            GraphBuilder graphBuilder) {
+        Map<MethodDescriptor, List<MethodReference>> implementationsByDescriptor = new HashMap<>();
+        for (MethodReference method : order) {
+            implementationsByDescriptor.computeIfAbsent(method.getDescriptor(), k -> new ArrayList<>()).add(method);
+        }
+
+        for (int i = 0; i < order.size(); ++i) {
+            Set<MethodReference> virtualMethods = usageCounter.virtualDependencies.get(order.get(i));
+            if (virtualMethods == null) {
+                continue;
+            }
+            for (MethodReference virtualMethod : virtualMethods) {
+                MethodReader inherited = hierarchy.resolve(virtualMethod);
+                if (inherited != null) {
+                    int index = indexes.getOrDefault(inherited.getReference(), -1);
+                    if (index >= 0) {
+                        graphBuilder.addEdge(i, index);
+                    }
+                }
+                List<MethodReference> candidates = implementationsByDescriptor.get(virtualMethod.getDescriptor());
+                if (candidates == null) {
+                    continue;
+                }
+                for (MethodReference candidate : candidates) {
+                    if (hierarchy.isSuperType(virtualMethod.getClassName(), candidate.getClassName(), true)) {
+                        graphBuilder.addEdge(i, indexes.get(candidate));
+                    }
+                }
+            }
+        }
+    }
+
     public boolean hasUsages(MethodReference method) {
-        return usageCounter.methodUsageCount.getOrDefault(method, -1) != 0;
+        synchronized (usageCounter) {
+            return usageCounter.methodUsageCount.getOrDefault(method, -1) != 0;
+        }
     }
 
     public void removeUsages(Program program) {
@@ -151,10 +303,16 @@ public class Inlining {
                     continue;
                 }
 
-                int usageCount = usageCounter.methodUsageCount.getOrDefault(invoke.getMethod(), -1);
-                if (usageCount > 0) {
-                    usageCounter.methodUsageCount.put(invoke.getMethod(), usageCount - 1);
-                }
+                updateUsageCount(invoke.getMethod(), -1);
+            }
+        }
+    }
+
+    private void updateUsageCount(MethodReference method, int delta) {
+        synchronized (usageCounter) {
+            int usageCount = usageCounter.methodUsageCount.getOrDefault(method, -1);
+            if (usageCount >= 0 && usageCount + delta >= 0) {
+                usageCounter.methodUsageCount.put(method, usageCount + delta);
             }
         }
     }
@@ -168,7 +326,9 @@ public class Inlining {
 
         if (devirtualization) {
             while (applyOnce(program, method)) {
-                devirtualize(program, method, dependencyInfo);
+                synchronized (root) {
+                    root.devirtualize(program, method, dependencyInfo);
+                }
             }
         } else {
             applyOnce(program, method);
@@ -200,10 +360,7 @@ public class Inlining {
     }
 
     private void execPlanEntry(Program program, PlanEntry planEntry, int offset) {
-        int usageCount = usageCounter.methodUsageCount.getOrDefault(planEntry.method, -1);
-        if (usageCount > 0) {
-            usageCounter.methodUsageCount.put(planEntry.method, usageCount - 1);
-        }
+        updateUsageCount(planEntry.method, -1);
 
         BasicBlock block = program.basicBlockAt(planEntry.targetBlock + offset);
         InvokeInstruction invoke = (InvokeInstruction) planEntry.targetInstruction;
@@ -247,10 +404,7 @@ public class Inlining {
                 if (insn instanceof InvokeInstruction) {
                     InvokeInstruction invokeInsn = (InvokeInstruction) insn;
                     if (invokeInsn.getType() == InvocationType.SPECIAL) {
-                        usageCount = usageCounter.methodUsageCount.getOrDefault(invokeInsn.getMethod(), -1);
-                        if (usageCount >= 0) {
-                            usageCounter.methodUsageCount.put(invokeInsn.getMethod(), usageCount + 1);
-                        }
+                        updateUsageCount(invokeInsn.getMethod(), 1);
                     }
                 }
 
@@ -490,6 +644,7 @@ public class Inlining {
     static class MethodUsageCounter extends AbstractInstructionReader {
         ObjectIntMap<MethodReference> methodUsageCount = new ObjectIntHashMap<>();
         Map<MethodReference, Set<MethodReference>> methodDependencies = new LinkedHashMap<>();
+        Map<MethodReference, Set<MethodReference>> virtualDependencies = new HashMap<>();
         Predicate<MethodReference> externalMethods;
         MethodReference currentMethod;
 
@@ -503,6 +658,8 @@ public class Inlining {
             if (type == InvocationType.SPECIAL && !externalMethods.test(method)) {
                 methodUsageCount.put(method, methodUsageCount.get(method) + 1);
                 methodDependencies.computeIfAbsent(currentMethod, k -> new LinkedHashSet<>()).add(method);
+            } else if (type == InvocationType.VIRTUAL) {
+                virtualDependencies.computeIfAbsent(currentMethod, k -> new LinkedHashSet<>()).add(method);
             }
         }
     }
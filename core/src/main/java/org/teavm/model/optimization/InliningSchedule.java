@@ -0,0 +1,60 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.List;
+import java.util.Set;
+import org.teavm.model.MethodReference;
+
+/**
+ * Order in which methods should be inlined, represented as a graph of strongly connected components
+ * of the call graph. A component should be processed only after all of its predecessors (i.e. components
+ * that call methods of this component) were processed. Components are numbered in the order they appear
+ * in {@link Inlining#getOrder()}.
+ */
+public class InliningSchedule {
+    private List<? extends List<MethodReference>> components;
+    private int[][] successors;
+    private int[] predecessorCount;
+
+    InliningSchedule(List<? extends List<MethodReference>> components, List<? extends Set<Integer>> successors) {
+        this.components = components;
+        this.successors = new int[components.size()][];
+        predecessorCount = new int[components.size()];
+        for (int i = 0; i < components.size(); ++i) {
+            this.successors[i] = successors.get(i).stream().mapToInt(Integer::intValue).toArray();
+            for (int successor : this.successors[i]) {
+                predecessorCount[successor]++;
+            }
+        }
+    }
+
+    public int componentCount() {
+        return components.size();
+    }
+
+    public List<MethodReference> getMethods(int component) {
+        return components.get(component);
+    }
+
+    public int[] getSuccessors(int component) {
+        return successors[component].clone();
+    }
+
+    public int getPredecessorCount(int component) {
+        return predecessorCount[component];
+    }
+}
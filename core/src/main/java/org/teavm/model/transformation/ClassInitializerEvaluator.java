@@ -0,0 +1,1296 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.teavm.dependency.DependencyAnalyzer;
+import org.teavm.model.AnnotationReader;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.BasicBlockReader;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderSource;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
+import org.teavm.model.FieldReader;
+import org.teavm.model.FieldReference;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHandle;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+import org.teavm.model.PhiReader;
+import org.teavm.model.PrimitiveType;
+import org.teavm.model.Program;
+import org.teavm.model.ProgramReader;
+import org.teavm.model.RuntimeConstant;
+import org.teavm.model.TextLocation;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.VariableReader;
+import org.teavm.model.analysis.ClassInitializerInfo;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.BinaryBranchingCondition;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.CastIntegerDirection;
+import org.teavm.model.instructions.ConstructArrayInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.DoubleConstantInstruction;
+import org.teavm.model.instructions.ExitInstruction;
+import org.teavm.model.instructions.FloatConstantInstruction;
+import org.teavm.model.instructions.GetFieldInstruction;
+import org.teavm.model.instructions.InstructionReader;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.IntegerSubtype;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NullConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.PutElementInstruction;
+import org.teavm.model.instructions.PutFieldInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+import org.teavm.model.instructions.SwitchTableEntryReader;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.runtime.ClassInitializerData;
+
+/**
+ * <p>Runs static initializers at build time and replaces them with code that rebuilds the resulting
+ * state. Only classes that {@link ClassInitializerInfo} considers free of side effects outside of their
+ * own static fields are evaluated. Initializers are interpreted over a simulated heap, so nothing from the
+ * class library of the compiler itself is involved.</p>
+ *
+ * <p>After successful evaluation primitive and string values of static fields become initial values of
+ * these fields, while arrays and objects are constructed by the new initializer directly, without calling
+ * constructors. Large primitive arrays are packed into string constants and unpacked by
+ * {@link ClassInitializerData}. Evaluation gives up, leaving the initializer intact, as soon as it meets
+ * something it can't reproduce precisely: native methods, exceptions, reflection, class literals,
+ * dynamically initialized classes, writes to state of other classes or too much work.</p>
+ *
+ * <p>Classes should be evaluated in their initialization order, since evaluation of an initializer may
+ * read static fields of classes that were evaluated previously.</p>
+ */
+public class ClassInitializerEvaluator {
+    private static final MethodDescriptor CLINIT = new MethodDescriptor("<clinit>", void.class);
+    private static final int MAX_STEPS = 1_000_000;
+    private static final int MAX_CALL_DEPTH = 100;
+    private static final int MAX_HEAP_SIZE = 1 << 20;
+    private static final int MAX_GENERATED_INSTRUCTIONS = 16384;
+    private static final int MIN_PACKED_ARRAY_LENGTH = 16;
+    private static final String[] EXCLUDED_PACKAGES = {
+            "org.teavm.backend.", "org.teavm.interop.", "org.teavm.jso.", "org.teavm.platform.", "org.teavm.runtime."
+    };
+    private static final String[] EXCLUDED_ANNOTATIONS = {
+            "org.teavm.backend.", "org.teavm.jso.", "org.teavm.platform.", "org.teavm.interop.c.",
+            "org.teavm.interop.Async", "org.teavm.interop.DelegateTo", "org.teavm.interop.Export",
+            "org.teavm.interop.Import", "org.teavm.interop.PlatformMarker"
+    };
+    private static final MethodReference UNPACK_BOOLEANS = new MethodReference(ClassInitializerData.class,
+            "booleans", String.class, int.class, boolean[].class);
+    private static final MethodReference UNPACK_BYTES = new MethodReference(ClassInitializerData.class,
+            "bytes", String.class, int.class, byte[].class);
+    private static final MethodReference UNPACK_SHORTS = new MethodReference(ClassInitializerData.class,
+            "shorts", String.class, int.class, short[].class);
+    private static final MethodReference UNPACK_CHARS = new MethodReference(ClassInitializerData.class,
+            "chars", String.class, int.class, char[].class);
+    private static final MethodReference UNPACK_INTS = new MethodReference(ClassInitializerData.class,
+            "ints", String.class, int.class, int[].class);
+
+    private ClassHolderSource classes;
+    private ClassHierarchy hierarchy;
+    private ClassInitializerInfo classInitializerInfo;
+    private Map<String, Map<String, Object>> evaluatedClasses = new HashMap<>();
+    private Set<String> skippedClasses = new HashSet<>();
+    private String currentClass;
+    private Map<String, Object> currentStaticFields;
+    private int steps;
+    private int heapSize;
+    private int callDepth;
+
+    public ClassInitializerEvaluator(ClassHolderSource classes, ClassInitializerInfo classInitializerInfo) {
+        this.classes = classes;
+        this.classInitializerInfo = classInitializerInfo;
+        hierarchy = new ClassHierarchy(classes);
+    }
+
+    /**
+     * Makes methods used by generated initializers reachable. Should be called during dependency analysis
+     * of any build that later runs evaluation.
+     */
+    public static void contributeDependencies(DependencyAnalyzer dependencyAnalyzer) {
+        var unpackMethods = List.of(UNPACK_BOOLEANS, UNPACK_BYTES, UNPACK_SHORTS, UNPACK_CHARS, UNPACK_INTS);
+        for (var methodRef : unpackMethods) {
+            var method = dependencyAnalyzer.linkMethod(methodRef);
+            method.getVariable(1).propagate(dependencyAnalyzer.getType("java.lang.String"));
+            method.use();
+        }
+    }
+
+    /**
+     * Evaluates static initializer of a class and, on success, replaces it with code that reproduces its
+     * effect.
+     *
+     * @return whether initializer was replaced.
+     */
+    public boolean evaluate(String className) {
+        ClassHolder cls = classes.get(className);
+        MethodHolder clinit = cls != null ? cls.getMethod(CLINIT) : null;
+        if (clinit == null || clinit.getProgram() == null || classInitializerInfo.isDynamicInitializer(className)) {
+            skippedClasses.add(className);
+            return false;
+        }
+
+        currentClass = className;
+        currentStaticFields = new LinkedHashMap<>();
+        for (FieldHolder field : cls.getFields()) {
+            if (field.hasModifier(ElementModifier.STATIC)) {
+                currentStaticFields.put(field.getName(), initialValue(field));
+            }
+        }
+        steps = 0;
+        heapSize = 0;
+        callDepth = 0;
+
+        var staticFields = currentStaticFields;
+        var initialValues = new HashMap<String, Object>();
+        Program program;
+        try {
+            call(clinit, new Object[1]);
+            program = new Materializer().materialize(cls, initialValues);
+        } catch (EvaluationFailedException e) {
+            skippedClasses.add(className);
+            return false;
+        } finally {
+            currentClass = null;
+            currentStaticFields = null;
+        }
+
+        for (var entry : initialValues.entrySet()) {
+            cls.getField(entry.getKey()).setInitialValue(entry.getValue());
+        }
+        clinit.setProgram(program);
+        for (var entry : staticFields.entrySet()) {
+            if (entry.getValue() instanceof HeapNode) {
+                var node = (HeapNode) entry.getValue();
+                if (node.origin == null) {
+                    node.origin = new FieldReference(className, entry.getKey());
+                }
+            }
+        }
+        evaluatedClasses.put(className, staticFields);
+        return true;
+    }
+
+    private Object call(MethodReader method, Object[] arguments) {
+        if (++callDepth > MAX_CALL_DEPTH) {
+            throw new EvaluationFailedException();
+        }
+        var result = new Frame(method.getProgram(), arguments).run();
+        --callDepth;
+        return result;
+    }
+
+    private boolean isInterpretable(MethodReader method) {
+        if (method.getProgram() == null || method.hasModifier(ElementModifier.NATIVE)) {
+            return false;
+        }
+        for (var prefix : EXCLUDED_PACKAGES) {
+            if (method.getOwnerName().startsWith(prefix)) {
+                return false;
+            }
+        }
+        for (AnnotationReader annotation : method.getAnnotations().all()) {
+            for (var prefix : EXCLUDED_ANNOTATIONS) {
+                if (annotation.getType().startsWith(prefix)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void checkClassAccess(String className) {
+        if (!className.equals(currentClass) && classInitializerInfo.isDynamicInitializer(className)) {
+            throw new EvaluationFailedException();
+        }
+    }
+
+    private Object readStaticField(FieldReference fieldRef) {
+        FieldReader field = classes.resolve(fieldRef);
+        if (field == null || !field.hasModifier(ElementModifier.STATIC)) {
+            throw new EvaluationFailedException();
+        }
+        var owner = field.getOwnerName();
+        if (owner.equals(currentClass)) {
+            return currentStaticFields.get(field.getName());
+        }
+        var evaluatedFields = evaluatedClasses.get(owner);
+        if (evaluatedFields != null) {
+            return evaluatedFields.get(field.getName());
+        }
+        checkClassAccess(owner);
+        ClassReader ownerClass = classes.get(owner);
+        if (skippedClasses.contains(owner) || ownerClass.getMethod(CLINIT) != null) {
+            throw new EvaluationFailedException();
+        }
+        return initialValue(field);
+    }
+
+    private void allocate(int size) {
+        heapSize += size + 1;
+        if (heapSize > MAX_HEAP_SIZE) {
+            throw new EvaluationFailedException();
+        }
+    }
+
+    private HeapArray createArray(ValueType itemType, int size) {
+        if (size < 0) {
+            throw new EvaluationFailedException();
+        }
+        allocate(size);
+        var array = new HeapArray(currentClass, itemType, size);
+        Arrays.fill(array.data, defaultValue(itemType));
+        return array;
+    }
+
+    private HeapArray createArray(ValueType arrayType, List<Integer> dimensions, int index) {
+        var itemType = ((ValueType.Array) arrayType).getItemType();
+        var array = createArray(itemType, dimensions.get(index));
+        if (index + 1 < dimensions.size()) {
+            for (var i = 0; i < array.data.length; ++i) {
+                array.data[i] = createArray(itemType, dimensions, index + 1);
+            }
+        }
+        return array;
+    }
+
+    private boolean isInstance(Object value, ValueType type) {
+        ValueType valueType;
+        if (value instanceof String) {
+            valueType = ValueType.object("java.lang.String");
+        } else if (value instanceof HeapObject) {
+            valueType = ValueType.object(((HeapObject) value).className);
+        } else if (value instanceof HeapArray) {
+            if (type.isObject("java.lang.Cloneable") || type.isObject("java.io.Serializable")) {
+                return true;
+            }
+            valueType = ValueType.arrayOf(((HeapArray) value).itemType);
+        } else {
+            throw new EvaluationFailedException();
+        }
+        return hierarchy.isSuperType(type, valueType, false);
+    }
+
+    private static Object initialValue(FieldReader field) {
+        var value = field.getInitialValue();
+        return value != null ? value : defaultValue(field.getType());
+    }
+
+    private static Object defaultValue(ValueType type) {
+        if (type instanceof ValueType.Primitive) {
+            switch (((ValueType.Primitive) type).getKind()) {
+                case LONG:
+                    return 0L;
+                case FLOAT:
+                    return 0F;
+                case DOUBLE:
+                    return 0.0;
+                default:
+                    return 0;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDefaultValue(Object value) {
+        if (value == null) {
+            return true;
+        } else if (value instanceof Integer) {
+            return (Integer) value == 0;
+        } else if (value instanceof Long) {
+            return (Long) value == 0;
+        } else if (value instanceof Float) {
+            return Float.floatToRawIntBits((Float) value) == 0;
+        } else if (value instanceof Double) {
+            return Double.doubleToRawLongBits((Double) value) == 0;
+        }
+        return false;
+    }
+
+    private static ArrayElementType elementType(ValueType type) {
+        if (type instanceof ValueType.Primitive) {
+            switch (((ValueType.Primitive) type).getKind()) {
+                case BOOLEAN:
+                case BYTE:
+                    return ArrayElementType.BYTE;
+                case SHORT:
+                    return ArrayElementType.SHORT;
+                case CHARACTER:
+                    return ArrayElementType.CHAR;
+                case INTEGER:
+                    return ArrayElementType.INT;
+                case LONG:
+                    return ArrayElementType.LONG;
+                case FLOAT:
+                    return ArrayElementType.FLOAT;
+                case DOUBLE:
+                    return ArrayElementType.DOUBLE;
+            }
+        }
+        return ArrayElementType.OBJECT;
+    }
+
+    private class Frame implements InstructionReader {
+        private ProgramReader program;
+        private Object[] variables;
+        private BasicBlockReader nextBlock;
+        private Object result;
+        private boolean exited;
+
+        Frame(ProgramReader program, Object[] arguments) {
+            this.program = program;
+            variables = new Object[program.variableCount()];
+            System.arraycopy(arguments, 0, variables, 0, arguments.length);
+        }
+
+        Object run() {
+            var block = program.basicBlockAt(0);
+            while (true) {
+                steps += block.instructionCount();
+                if (steps > MAX_STEPS) {
+                    throw new EvaluationFailedException();
+                }
+                nextBlock = null;
+                block.readAllInstructions(this);
+                if (exited) {
+                    return result;
+                }
+                if (nextBlock == null) {
+                    throw new EvaluationFailedException();
+                }
+                enter(block, nextBlock);
+                block = nextBlock;
+            }
+        }
+
+        private void enter(BasicBlockReader source, BasicBlockReader target) {
+            var phis = target.readPhis();
+            if (phis.isEmpty()) {
+                return;
+            }
+            var values = new Object[phis.size()];
+            for (var i = 0; i < phis.size(); ++i) {
+                var found = false;
+                for (var incoming : phis.get(i).readIncomings()) {
+                    if (incoming.getSource().getIndex() == source.getIndex()) {
+                        values[i] = variables[incoming.getValue().getIndex()];
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    throw new EvaluationFailedException();
+                }
+            }
+            for (var i = 0; i < phis.size(); ++i) {
+                PhiReader phi = phis.get(i);
+                variables[phi.getReceiver().getIndex()] = values[i];
+            }
+        }
+
+        private Object get(VariableReader variable) {
+            return variables[variable.getIndex()];
+        }
+
+        private void set(VariableReader variable, Object value) {
+            variables[variable.getIndex()] = value;
+        }
+
+        private int getInt(VariableReader variable) {
+            var value = get(variable);
+            if (!(value instanceof Integer)) {
+                throw new EvaluationFailedException();
+            }
+            return (Integer) value;
+        }
+
+        private Number getNumber(VariableReader variable) {
+            var value = get(variable);
+            if (!(value instanceof Number)) {
+                throw new EvaluationFailedException();
+            }
+            return (Number) value;
+        }
+
+        private Object getReference(VariableReader variable) {
+            var value = get(variable);
+            if (value instanceof Number) {
+                throw new EvaluationFailedException();
+            }
+            return value;
+        }
+
+        private HeapArray getArray(VariableReader variable) {
+            var value = get(variable);
+            if (!(value instanceof HeapArray)) {
+                throw new EvaluationFailedException();
+            }
+            return (HeapArray) value;
+        }
+
+        private HeapObject getObject(VariableReader variable) {
+            var value = get(variable);
+            if (!(value instanceof HeapObject)) {
+                throw new EvaluationFailedException();
+            }
+            return (HeapObject) value;
+        }
+
+        private void checkOwned(HeapNode node) {
+            if (!currentClass.equals(node.owner)) {
+                throw new EvaluationFailedException();
+            }
+        }
+
+        @Override
+        public void location(TextLocation location) {
+        }
+
+        @Override
+        public void nop() {
+        }
+
+        @Override
+        public void classConstant(VariableReader receiver, ValueType cst) {
+            throw new EvaluationFailedException();
+        }
+
+        @Override
+        public void nullConstant(VariableReader receiver) {
+            set(receiver, null);
+        }
+
+        @Override
+        public void integerConstant(VariableReader receiver, int cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void longConstant(VariableReader receiver, long cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void floatConstant(VariableReader receiver, float cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void doubleConstant(VariableReader receiver, double cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void stringConstant(VariableReader receiver, String cst) {
+            set(receiver, cst);
+        }
+
+        @Override
+        public void binary(BinaryOperation op, VariableReader receiver, VariableReader first, VariableReader second,
+                NumericOperandType type) {
+            switch (type) {
+                case INT:
+                    set(receiver, binaryInt(op, getInt(first), getInt(second)));
+                    break;
+                case LONG:
+                    set(receiver, binaryLong(op, getNumber(first).longValue(), getNumber(second)));
+                    break;
+                case FLOAT:
+                    set(receiver, binaryFloat(op, getNumber(first).floatValue(), getNumber(second).floatValue()));
+                    break;
+                case DOUBLE:
+                    set(receiver, binaryDouble(op, getNumber(first).doubleValue(),
+                            getNumber(second).doubleValue()));
+                    break;
+            }
+        }
+
+        private Object binaryInt(BinaryOperation op, int a, int b) {
+            switch (op) {
+                case ADD:
+                    return a + b;
+                case SUBTRACT:
+                    return a - b;
+                case MULTIPLY:
+                    return a * b;
+                case DIVIDE:
+                    if (b == 0) {
+                        throw new EvaluationFailedException();
+                    }
+                    return a / b;
+                case MODULO:
+                    if (b == 0) {
+                        throw new EvaluationFailedException();
+                    }
+                    return a % b;
+                case COMPARE:
+                    return Integer.compare(a, b);
+                case AND:
+                    return a & b;
+                case OR:
+                    return a | b;
+                case XOR:
+                    return a ^ b;
+                case SHIFT_LEFT:
+                    return a << b;
+                case SHIFT_RIGHT:
+                    return a >> b;
+                case SHIFT_RIGHT_UNSIGNED:
+                    return a >>> b;
+            }
+            throw new EvaluationFailedException();
+        }
+
+        private Object binaryLong(BinaryOperation op, long a, Number second) {
+            switch (op) {
+                case SHIFT_LEFT:
+                    return a << second.intValue();
+                case SHIFT_RIGHT:
+                    return a >> second.intValue();
+                case SHIFT_RIGHT_UNSIGNED:
+                    return a >>> second.intValue();
+                default:
+                    break;
+            }
+            long b = second.longValue();
+            switch (op) {
+                case ADD:
+                    return a + b;
+                case SUBTRACT:
+                    return a - b;
+                case MULTIPLY:
+                    return a * b;
+                case DIVIDE:
+                    if (b == 0) {
+                        throw new EvaluationFailedException();
+                    }
+                    return a / b;
+                case MODULO:
+                    if (b == 0) {
+                        throw new EvaluationFailedException();
+                    }
+                    return a % b;
+                case COMPARE:
+                    return Long.compare(a, b);
+                case AND:
+                    return a & b;
+                case OR:
+                    return a | b;
+                case XOR:
+                    return a ^ b;
+                default:
+                    throw new EvaluationFailedException();
+            }
+        }
+
+        private Object binaryFloat(BinaryOperation op, float a, float b) {
+            switch (op) {
+                case ADD:
+                    return a + b;
+                case SUBTRACT:
+                    return a - b;
+                case MULTIPLY:
+                    return a * b;
+                case DIVIDE:
+                    return a / b;
+                case MODULO:
+                    return a % b;
+                case COMPARE:
+                    if (Float.isNaN(a) || Float.isNaN(b)) {
+                        throw new EvaluationFailedException();
+                    }
+                    return a > b ? 1 : a < b ? -1 : 0;
+                default:
+                    throw new EvaluationFailedException();
+            }
+        }
+
+        private Object binaryDouble(BinaryOperation op, double a, double b) {
+            switch (op) {
+                case ADD:
+                    return a + b;
+                case SUBTRACT:
+                    return a - b;
+                case MULTIPLY:
+                    return a * b;
+                case DIVIDE:
+                    return a / b;
+                case MODULO:
+                    return a % b;
+                case COMPARE:
+                    if (Double.isNaN(a) || Double.isNaN(b)) {
+                        throw new EvaluationFailedException();
+                    }
+                    return a > b ? 1 : a < b ? -1 : 0;
+                default:
+                    throw new EvaluationFailedException();
+            }
+        }
+
+        @Override
+        public void negate(VariableReader receiver, VariableReader operand, NumericOperandType type) {
+            var value = getNumber(operand);
+            switch (type) {
+                case INT:
+                    set(receiver, -value.intValue());
+                    break;
+                case LONG:
+                    set(receiver, -value.longValue());
+                    break;
+                case FLOAT:
+                    set(receiver, -value.floatValue());
+                    break;
+                case DOUBLE:
+                    set(receiver, -value.doubleValue());
+                    break;
+            }
+        }
+
+        @Override
+        public void assign(VariableReader receiver, VariableReader assignee) {
+            set(receiver, get(assignee));
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, ValueType targetType, boolean weak) {
+            var object = getReference(value);
+            if (!weak && object != null && !ClassInitializerEvaluator.this.isInstance(object, targetType)) {
+                throw new EvaluationFailedException();
+            }
+            set(receiver, object);
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, NumericOperandType sourceType,
+                NumericOperandType targetType) {
+            var number = getNumber(value);
+            if (sourceType == NumericOperandType.FLOAT || sourceType == NumericOperandType.DOUBLE) {
+                // conversion of NaN and out-of-range values is not consistent across backends
+                var d = number.doubleValue();
+                if ((targetType == NumericOperandType.INT && !(d >= Integer.MIN_VALUE && d <= Integer.MAX_VALUE))
+                        || (targetType == NumericOperandType.LONG && !(d >= Long.MIN_VALUE && d < 0x1p63))) {
+                    throw new EvaluationFailedException();
+                }
+            }
+            switch (targetType) {
+                case INT:
+                    set(receiver, number.intValue());
+                    break;
+                case LONG:
+                    set(receiver, number.longValue());
+                    break;
+                case FLOAT:
+                    set(receiver, number.floatValue());
+                    break;
+                case DOUBLE:
+                    set(receiver, number.doubleValue());
+                    break;
+            }
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, IntegerSubtype type,
+                CastIntegerDirection targetType) {
+            var number = getInt(value);
+            if (targetType == CastIntegerDirection.FROM_INTEGER) {
+                switch (type) {
+                    case BYTE:
+                        number = (byte) number;
+                        break;
+                    case SHORT:
+                        number = (short) number;
+                        break;
+                    case CHAR:
+                        number = (char) number;
+                        break;
+                }
+            }
+            set(receiver, number);
+        }
+
+        @Override
+        public void jumpIf(BranchingCondition cond, VariableReader operand, BasicBlockReader consequent,
+                BasicBlockReader alternative) {
+            boolean condition;
+            switch (cond) {
+                case NULL:
+                    condition = getReference(operand) == null;
+                    break;
+                case NOT_NULL:
+                    condition = getReference(operand) != null;
+                    break;
+                case EQUAL:
+                    condition = getInt(operand) == 0;
+                    break;
+                case NOT_EQUAL:
+                    condition = getInt(operand) != 0;
+                    break;
+                case LESS:
+                    condition = getInt(operand) < 0;
+                    break;
+                case LESS_OR_EQUAL:
+                    condition = getInt(operand) <= 0;
+                    break;
+                case GREATER:
+                    condition = getInt(operand) > 0;
+                    break;
+                case GREATER_OR_EQUAL:
+                    condition = getInt(operand) >= 0;
+                    break;
+                default:
+                    throw new EvaluationFailedException();
+            }
+            nextBlock = condition ? consequent : alternative;
+        }
+
+        @Override
+        public void jumpIf(BinaryBranchingCondition cond, VariableReader first, VariableReader second,
+                BasicBlockReader consequent, BasicBlockReader alternative) {
+            boolean condition;
+            switch (cond) {
+                case EQUAL:
+                    condition = getInt(first) == getInt(second);
+                    break;
+                case NOT_EQUAL:
+                    condition = getInt(first) != getInt(second);
+                    break;
+                case REFERENCE_EQUAL:
+                    condition = sameReference(getReference(first), getReference(second));
+                    break;
+                case REFERENCE_NOT_EQUAL:
+                    condition = !sameReference(getReference(first), getReference(second));
+                    break;
+                default:
+                    throw new EvaluationFailedException();
+            }
+            nextBlock = condition ? consequent : alternative;
+        }
+
+        private boolean sameReference(Object a, Object b) {
+            // string constants are interned by all backends
+            return a instanceof String ? a.equals(b) : a == b;
+        }
+
+        @Override
+        public void jump(BasicBlockReader target) {
+            nextBlock = target;
+        }
+
+        @Override
+        public void choose(VariableReader condition, List<? extends SwitchTableEntryReader> table,
+                BasicBlockReader defaultTarget) {
+            var value = getInt(condition);
+            nextBlock = defaultTarget;
+            for (var entry : table) {
+                if (entry.getCondition() == value) {
+                    nextBlock = entry.getTarget();
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void exit(VariableReader valueToReturn) {
+            result = valueToReturn != null ? get(valueToReturn) : null;
+            exited = true;
+        }
+
+        @Override
+        public void raise(VariableReader exception) {
+            throw new EvaluationFailedException();
+        }
+
+        @Override
+        public void createArray(VariableReader receiver, ValueType itemType, VariableReader size) {
+            set(receiver, ClassInitializerEvaluator.this.createArray(itemType, getInt(size)));
+        }
+
+        @Override
+        public void createArray(VariableReader receiver, ValueType itemType,
+                List<? extends VariableReader> dimensions) {
+            var sizes = new ArrayList<Integer>();
+            for (var dimension : dimensions) {
+                sizes.add(getInt(dimension));
+            }
+            set(receiver, ClassInitializerEvaluator.this.createArray(itemType, sizes, 0));
+        }
+
+        @Override
+        public void create(VariableReader receiver, String type) {
+            ClassReader cls = classes.get(type);
+            if (cls == null || cls.hasModifier(ElementModifier.ABSTRACT)
+                    || cls.hasModifier(ElementModifier.INTERFACE) || type.equals("java.lang.String")) {
+                throw new EvaluationFailedException();
+            }
+            checkClassAccess(type);
+            allocate(0);
+            set(receiver, new HeapObject(currentClass, type));
+        }
+
+        @Override
+        public void getField(VariableReader receiver, VariableReader instance, FieldReference field,
+                ValueType fieldType) {
+            if (instance == null) {
+                set(receiver, readStaticField(field));
+                return;
+            }
+            var object = getObject(instance);
+            FieldReader fieldReader = classes.resolve(field);
+            if (fieldReader == null) {
+                throw new EvaluationFailedException();
+            }
+            var value = object.fields.get(fieldReader.getReference());
+            set(receiver, value != null || object.fields.containsKey(fieldReader.getReference())
+                    ? value
+                    : defaultValue(fieldReader.getType()));
+        }
+
+        @Override
+        public void putField(VariableReader instance, FieldReference field, VariableReader value,
+                ValueType fieldType) {
+            FieldReader fieldReader = classes.resolve(field);
+            if (fieldReader == null) {
+                throw new EvaluationFailedException();
+            }
+            if (instance == null) {
+                if (!fieldReader.getOwnerName().equals(currentClass)) {
+                    throw new EvaluationFailedException();
+                }
+                currentStaticFields.put(fieldReader.getName(), get(value));
+            } else {
+                var object = getObject(instance);
+                checkOwned(object);
+                object.fields.put(fieldReader.getReference(), get(value));
+            }
+        }
+
+        @Override
+        public void arrayLength(VariableReader receiver, VariableReader array) {
+            set(receiver, getArray(array).data.length);
+        }
+
+        @Override
+        public void cloneArray(VariableReader receiver, VariableReader array) {
+            var original = getArray(array);
+            var copy = ClassInitializerEvaluator.this.createArray(original.itemType, original.data.length);
+            System.arraycopy(original.data, 0, copy.data, 0, original.data.length);
+            set(receiver, copy);
+        }
+
+        @Override
+        public void unwrapArray(VariableReader receiver, VariableReader array, ArrayElementType elementType) {
+            set(receiver, getArray(array));
+        }
+
+        @Override
+        public void getElement(VariableReader receiver, VariableReader array, VariableReader index,
+                ArrayElementType elementType) {
+            var data = getArray(array).data;
+            var i = getInt(index);
+            if (i < 0 || i >= data.length) {
+                throw new EvaluationFailedException();
+            }
+            set(receiver, data[i]);
+        }
+
+        @Override
+        public void putElement(VariableReader array, VariableReader index, VariableReader value,
+                ArrayElementType elementType) {
+            var heapArray = getArray(array);
+            checkOwned(heapArray);
+            var i = getInt(index);
+            if (i < 0 || i >= heapArray.data.length) {
+                throw new EvaluationFailedException();
+            }
+            heapArray.data[i] = get(value);
+        }
+
+        @Override
+        public void invoke(VariableReader receiver, VariableReader instance, MethodReference method,
+                List<? extends VariableReader> arguments, InvocationType type) {
+            Object instanceValue = null;
+            MethodReader callee;
+            if (instance != null) {
+                instanceValue = getObject(instance);
+            }
+            if (type == InvocationType.VIRTUAL) {
+                callee = classes.resolveImplementation(((HeapObject) instanceValue).className,
+                        method.getDescriptor());
+            } else {
+                callee = classes.resolve(method);
+                if (callee != null && callee.hasModifier(ElementModifier.STATIC)) {
+                    checkClassAccess(callee.getOwnerName());
+                }
+            }
+            if (callee == null || !isInterpretable(callee)) {
+                throw new EvaluationFailedException();
+            }
+
+            var actualArguments = new Object[arguments.size() + 1];
+            actualArguments[0] = instanceValue;
+            for (var i = 0; i < arguments.size(); ++i) {
+                actualArguments[i + 1] = get(arguments.get(i));
+            }
+            var result = call(callee, actualArguments);
+            if (receiver != null) {
+                set(receiver, result);
+            }
+        }
+
+        @Override
+        public void invokeDynamic(VariableReader receiver, VariableReader instance, MethodDescriptor method,
+                List<? extends VariableReader> arguments, MethodHandle bootstrapMethod,
+                List<RuntimeConstant> bootstrapArguments) {
+            throw new EvaluationFailedException();
+        }
+
+        @Override
+        public void isInstance(VariableReader receiver, VariableReader value, ValueType type) {
+            var object = getReference(value);
+            set(receiver, object != null && ClassInitializerEvaluator.this.isInstance(object, type) ? 1 : 0);
+        }
+
+        @Override
+        public void initClass(String className) {
+            checkClassAccess(className);
+        }
+
+        @Override
+        public void nullCheck(VariableReader receiver, VariableReader value) {
+            var object = getReference(value);
+            if (object == null) {
+                throw new EvaluationFailedException();
+            }
+            set(receiver, object);
+        }
+
+        @Override
+        public void monitorEnter(VariableReader objectRef) {
+        }
+
+        @Override
+        public void monitorExit(VariableReader objectRef) {
+        }
+
+        @Override
+        public void boundCheck(VariableReader receiver, VariableReader index, VariableReader array, boolean lower) {
+            var i = getInt(index);
+            if ((lower && i < 0) || (array != null && i >= getArray(array).data.length)) {
+                throw new EvaluationFailedException();
+            }
+            set(receiver, i);
+        }
+    }
+
+    private class Materializer {
+        private Program program = new Program();
+        private BasicBlock block;
+        private Map<HeapNode, Variable> nodeVariables = new IdentityHashMap<>();
+        private Queue<HeapNode> queue = new ArrayDeque<>();
+
+        Program materialize(ClassHolder cls, Map<String, Object> initialValues) {
+            program.createVariable();
+            block = program.createBasicBlock();
+
+            var fieldsToStore = new ArrayList<FieldHolder>();
+            for (FieldHolder field : cls.getFields()) {
+                if (!field.hasModifier(ElementModifier.STATIC)) {
+                    continue;
+                }
+                var value = currentStaticFields.get(field.getName());
+                if (value instanceof HeapNode) {
+                    nodeVariable((HeapNode) value);
+                    fieldsToStore.add(field);
+                    initialValues.put(field.getName(), null);
+                } else {
+                    initialValues.put(field.getName(), isDefaultValue(value) ? null : value);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                var node = queue.remove();
+                if (node instanceof HeapArray) {
+                    fillArray((HeapArray) node);
+                } else {
+                    fillObject((HeapObject) node);
+                }
+            }
+
+            for (var field : fieldsToStore) {
+                var insn = new PutFieldInstruction();
+                insn.setField(field.getReference());
+                insn.setFieldType(field.getType());
+                insn.setValue(nodeVariables.get((HeapNode) currentStaticFields.get(field.getName())));
+                add(insn);
+            }
+            add(new ExitInstruction());
+            return program;
+        }
+
+        private void fillArray(HeapArray array) {
+            Variable data = null;
+            var elementType = elementType(array.itemType);
+            for (var i = 0; i < array.data.length; ++i) {
+                var value = array.data[i];
+                if (isDefaultValue(value)) {
+                    continue;
+                }
+                if (data == null) {
+                    var unwrap = new UnwrapArrayInstruction(elementType);
+                    unwrap.setArray(nodeVariables.get(array));
+                    unwrap.setReceiver(program.createVariable());
+                    add(unwrap);
+                    data = unwrap.getReceiver();
+                }
+                var insn = new PutElementInstruction(elementType);
+                insn.setArray(data);
+                insn.setIndex(constant(i));
+                insn.setValue(value(value));
+                add(insn);
+            }
+        }
+
+        private void fillObject(HeapObject object) {
+            for (var entry : object.fields.entrySet()) {
+                if (isDefaultValue(entry.getValue())) {
+                    continue;
+                }
+                var insn = new PutFieldInstruction();
+                insn.setInstance(nodeVariables.get(object));
+                insn.setField(entry.getKey());
+                insn.setFieldType(classes.resolve(entry.getKey()).getType());
+                insn.setValue(value(entry.getValue()));
+                add(insn);
+            }
+        }
+
+        private Variable value(Object value) {
+            if (value instanceof HeapNode) {
+                return nodeVariable((HeapNode) value);
+            }
+
+            var receiver = program.createVariable();
+            if (value == null) {
+                var insn = new NullConstantInstruction();
+                insn.setReceiver(receiver);
+                add(insn);
+            } else if (value instanceof Integer) {
+                var insn = new IntegerConstantInstruction();
+                insn.setConstant((Integer) value);
+                insn.setReceiver(receiver);
+                add(insn);
+            } else if (value instanceof Long) {
+                var insn = new LongConstantInstruction();
+                insn.setConstant((Long) value);
+                insn.setReceiver(receiver);
+                add(insn);
+            } else if (value instanceof Float) {
+                var insn = new FloatConstantInstruction();
+                insn.setConstant((Float) value);
+                insn.setReceiver(receiver);
+                add(insn);
+            } else if (value instanceof Double) {
+                var insn = new DoubleConstantInstruction();
+                insn.setConstant((Double) value);
+                insn.setReceiver(receiver);
+                add(insn);
+            } else {
+                var insn = new StringConstantInstruction();
+                insn.setConstant((String) value);
+                insn.setReceiver(receiver);
+                add(insn);
+            }
+            return receiver;
+        }
+
+        private Variable constant(int value) {
+            return value((Object) value);
+        }
+
+        private Variable nodeVariable(HeapNode node) {
+            var variable = nodeVariables.get(node);
+            if (variable != null) {
+                return variable;
+            }
+
+            if (!currentClass.equals(node.owner)) {
+                // objects created by other initializers can only be shared by reading them from
+                // static fields, otherwise the copy would have a different identity
+                if (node.origin == null) {
+                    throw new EvaluationFailedException();
+                }
+                var insn = new GetFieldInstruction();
+                insn.setField(node.origin);
+                insn.setFieldType(classes.resolve(node.origin).getType());
+                insn.setReceiver(program.createVariable());
+                add(insn);
+                variable = insn.getReceiver();
+            } else if (node instanceof HeapArray) {
+                var array = (HeapArray) node;
+                variable = unpackArray(array);
+                if (variable == null) {
+                    var insn = new ConstructArrayInstruction();
+                    insn.setItemType(array.itemType);
+                    insn.setSize(constant(array.data.length));
+                    insn.setReceiver(program.createVariable());
+                    add(insn);
+                    variable = insn.getReceiver();
+                    queue.add(node);
+                }
+            } else {
+                var insn = new ConstructInstruction();
+                insn.setType(((HeapObject) node).className);
+                insn.setReceiver(program.createVariable());
+                add(insn);
+                variable = insn.getReceiver();
+                queue.add(node);
+            }
+
+            nodeVariables.put(node, variable);
+            return variable;
+        }
+
+        private Variable unpackArray(HeapArray array) {
+            if (array.data.length < MIN_PACKED_ARRAY_LENGTH || !(array.itemType instanceof ValueType.Primitive)) {
+                return null;
+            }
+            MethodReference method;
+            int bits;
+            switch (((ValueType.Primitive) array.itemType).getKind()) {
+                case BOOLEAN:
+                    method = UNPACK_BOOLEANS;
+                    bits = 1;
+                    break;
+                case BYTE:
+                    method = UNPACK_BYTES;
+                    bits = 8;
+                    break;
+                case SHORT:
+                    method = UNPACK_SHORTS;
+                    bits = 16;
+                    break;
+                case CHARACTER:
+                    method = UNPACK_CHARS;
+                    bits = 16;
+                    break;
+                case INTEGER:
+                    method = UNPACK_INTS;
+                    bits = 32;
+                    break;
+                default:
+                    return null;
+            }
+
+            var insn = new InvokeInstruction();
+            insn.setType(InvocationType.SPECIAL);
+            insn.setMethod(method);
+            insn.setArguments(value(pack(array.data, bits)), constant(array.data.length));
+            insn.setReceiver(program.createVariable());
+            add(insn);
+            return insn.getReceiver();
+        }
+
+        private void add(Instruction instruction) {
+            if (block.instructionCount() >= MAX_GENERATED_INSTRUCTIONS) {
+                throw new EvaluationFailedException();
+            }
+            block.add(instruction);
+        }
+    }
+
+    static String pack(Object[] data, int bits) {
+        var sb = new StringBuilder();
+        long buffer = 0;
+        var bufferSize = 0;
+        var unitBits = Math.min(bits, 16);
+        var unitMask = (1L << unitBits) - 1;
+        for (var value : data) {
+            var intValue = (Integer) value;
+            for (var shift = 0; shift < bits; shift += unitBits) {
+                buffer |= ((intValue >>> shift) & unitMask) << bufferSize;
+                bufferSize += unitBits;
+                while (bufferSize >= ClassInitializerData.BITS_PER_CHAR) {
+                    sb.append((char) ((buffer & 0x7FFF) + ClassInitializerData.OFFSET));
+                    buffer >>>= ClassInitializerData.BITS_PER_CHAR;
+                    bufferSize -= ClassInitializerData.BITS_PER_CHAR;
+                }
+            }
+        }
+        if (bufferSize > 0) {
+            sb.append((char) (buffer + ClassInitializerData.OFFSET));
+        }
+        return sb.toString();
+    }
+
+    static abstract class HeapNode {
+        final String owner;
+        FieldReference origin;
+
+        HeapNode(String owner) {
+            this.owner = owner;
+        }
+    }
+
+    static class HeapObject extends HeapNode {
+        final String className;
+        final Map<FieldReference, Object> fields = new LinkedHashMap<>();
+
+        HeapObject(String owner, String className) {
+            super(owner);
+            this.className = className;
+        }
+    }
+
+    static class HeapArray extends HeapNode {
+        final ValueType itemType;
+        final Object[] data;
+
+        HeapArray(String owner, ValueType itemType, int size) {
+            super(owner);
+            this.itemType = itemType;
+            data = new Object[size];
+        }
+    }
+
+    static class EvaluationFailedException extends RuntimeException {
+        EvaluationFailedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.teavm.model.ClassReader;
 import org.teavm.model.ElementModifier;
 import org.teavm.model.ListableClassReaderSource;
 import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
 import org.teavm.model.MethodReader;
 import org.teavm.model.MethodReference;
 import org.teavm.model.ProgramReader;
@@ -81,7 +82,7 @@ public class AsyncMethodFinder {
                 ClassReader cls = classSource.get(clsName);
                 for (MethodReader method : cls.getMethods()) {
                     if (!dependency.getReachableMethods().contains(method.getReference())
-                            || asyncMethods.contains(method.getReference()) || method.getProgram() == null) {
+                            || asyncMethods.contains(method.getReference()) || !hasProgram(method)) {
                         continue;
                     }
                     if (hasMonitor(method)) {
@@ -111,7 +112,7 @@ public class AsyncMethodFinder {
         loop: for (String clsName : classSource.getClassNames()) {
             ClassReader cls = classSource.get(clsName);
             for (MethodReader method : cls.getMethods()) {
-                if (!asyncMethods.contains(method.getReference()) || method.getProgram() == null) {
+                if (!asyncMethods.contains(method.getReference()) || !hasProgram(method)) {
                     continue;
                 }
                 if (hasMonitor(method)) {
@@ -125,6 +126,10 @@ public class AsyncMethodFinder {
         return result && hasThreads;
     }
 
+    private static boolean hasProgram(MethodReader method) {
+        return method instanceof MethodHolder ? ((MethodHolder) method).hasProgram() : method.getProgram() != null;
+    }
+
     public boolean hasAsyncMethods() {
         return hasAsyncMethods;
     }
@@ -133,7 +138,9 @@ public class AsyncMethodFinder {
         if (method.hasModifier(ElementModifier.SYNCHRONIZED)) {
             return true;
         }
-        ProgramReader program = method.getProgram();
+        ProgramReader program = method instanceof MethodHolder
+                ? ((MethodHolder) method).readProgram()
+                : method.getProgram();
         AsyncInstructionReader insnReader = new AsyncInstructionReader();
         for (int i = 0; i < program.basicBlockCount(); ++i) {
             program.basicBlockAt(i).readAllInstructions(insnReader);
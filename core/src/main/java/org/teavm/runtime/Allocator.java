@@ -29,7 +29,7 @@ public final class Allocator {
     public static Address allocate(RuntimeClass tag) {
         RuntimeObject object = GC.alloc(tag.size);
         fillZero(object.toAddress(), tag.size);
-        object.classReference = tag.pack();
+        object.classReference = tag.pack() | GC.allocationFlags;
         return object.toAddress();
     }
 
@@ -42,7 +42,7 @@ public final class Allocator {
         fillZero(result, sizeInBytes);
 
         RuntimeArray array = result.toStructure();
-        array.classReference = tag.pack();
+        array.classReference = tag.pack() | GC.allocationFlags;
         array.size = size;
 
         return result;
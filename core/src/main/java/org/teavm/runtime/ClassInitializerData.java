@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.runtime;
+
+/**
+ * Decodes primitive arrays that were computed by class initializers at build time and packed into string
+ * constants. Each character carries 15 bits of data, offset by {@link #OFFSET} so that neither control
+ * characters below space nor surrogates appear in the string.
+ */
+public final class ClassInitializerData {
+    public static final int OFFSET = 0x20;
+    public static final int BITS_PER_CHAR = 15;
+
+    private String data;
+    private int position;
+    private int buffer;
+    private int bufferSize;
+
+    private ClassInitializerData(String data) {
+        this.data = data;
+    }
+
+    public static boolean[] booleans(String data, int length) {
+        var reader = new ClassInitializerData(data);
+        var result = new boolean[length];
+        for (var i = 0; i < length; ++i) {
+            result[i] = reader.next(1) != 0;
+        }
+        return result;
+    }
+
+    public static byte[] bytes(String data, int length) {
+        var reader = new ClassInitializerData(data);
+        var result = new byte[length];
+        for (var i = 0; i < length; ++i) {
+            result[i] = (byte) reader.next(8);
+        }
+        return result;
+    }
+
+    public static short[] shorts(String data, int length) {
+        var reader = new ClassInitializerData(data);
+        var result = new short[length];
+        for (var i = 0; i < length; ++i) {
+            result[i] = (short) reader.next(16);
+        }
+        return result;
+    }
+
+    public static char[] chars(String data, int length) {
+        var reader = new ClassInitializerData(data);
+        var result = new char[length];
+        for (var i = 0; i < length; ++i) {
+            result[i] = (char) reader.next(16);
+        }
+        return result;
+    }
+
+    public static int[] ints(String data, int length) {
+        var reader = new ClassInitializerData(data);
+        var result = new int[length];
+        for (var i = 0; i < length; ++i) {
+            var low = reader.next(16);
+            result[i] = low | (reader.next(16) << 16);
+        }
+        return result;
+    }
+
+    private int next(int bits) {
+        while (bufferSize < bits) {
+            buffer |= (data.charAt(position++) - OFFSET) << bufferSize;
+            bufferSize += BITS_PER_CHAR;
+        }
+        var result = buffer & ((1 << bits) - 1);
+        buffer >>>= bits;
+        bufferSize -= bits;
+        return result;
+    }
+}
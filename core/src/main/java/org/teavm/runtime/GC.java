@@ -33,6 +33,18 @@ public final class GC {
     private static final byte CARD_GAP = 4;
     private static final byte CARD_RELOCATABLE = 8;
     private static final int MIN_CHUNK_SIZE = 8;
+    private static final int MIN_MARK_STEP_INTERVAL = 4096;
+    private static final int MIN_REGIONS_PER_SWEEP_THREAD = 64;
+    private static final int SIZE_CLASS_GRANULE = 4;
+    private static final int SIZE_CLASS_COUNT = 64;
+
+    private static final int HEAP_SIZING_OCCUPANCY = 0;
+    private static final int HEAP_SIZING_GC_OVERHEAD = 1;
+    private static final int HEAP_SIZING_PAUSE_TIME = 2;
+
+    private static final int MARKING_NONE = 0;
+    private static final int MARKING_INCREMENTAL = 1;
+    private static final int MARKING_REMARK = 2;
 
     static Address currentChunkLimit;
     static FreeChunk currentChunk;
@@ -47,6 +59,23 @@ public final class GC {
     static boolean isFullGC = true;
     private static int youngGCCount;
 
+    static int allocationFlags;
+    private static int markingPhase;
+    private static int markStepThreshold = Integer.MIN_VALUE;
+    private static int markStepInterval;
+    private static int precleanRegion;
+    private static int markedObjects;
+    private static int liveObjects;
+    private static SweepRange sweepRanges;
+    private static MarkStack markStacks;
+    private static Address markLocks;
+    private static Address idleMarkWorkers;
+    private static int markRootCount;
+    private static FreeChunkHolder sizeClasses;
+    private static long lastCollectionEnd;
+    private static long averagePauseTime;
+    private static long averageCycleTime;
+
     static native Address gcStorageAddress();
 
     static native int gcStorageSize();
@@ -71,6 +100,30 @@ public final class GC {
 
     private static native int regionSize();
 
+    private static native int markStepBudget();
+
+    private static native int sweepThreadCount();
+
+    private static native void sweepInParallel();
+
+    private static native int markThreadCount();
+
+    private static native void markInParallel();
+
+    private static native int atomicGetInt(Address address);
+
+    private static native boolean atomicCompareAndSwapInt(Address address, int expected, int value);
+
+    private static native boolean atomicCompareAndSwapShort(Address address, short expected, short value);
+
+    private static native int atomicOrInt(Address address, int value);
+
+    private static native void atomicOrByte(Address address, byte value);
+
+    private static native int heapSizingPolicy();
+
+    private static native int heapSizingTarget();
+
     public static native void writeBarrier(RuntimeObject object);
 
     @Import(name = "teavm_outOfMemory")
@@ -92,6 +145,8 @@ public final class GC {
 
         int regionCount = getRegionCount();
         Allocator.fill(cardTable(), CARD_VALID, regionCount);
+        buildSizeClasses();
+        scheduleIncrementalMarking();
     }
 
     private static int getRegionCount() {
@@ -99,31 +154,145 @@ public final class GC {
     }
 
     public static RuntimeObject alloc(int size) {
+        if (freeMemory < markStepThreshold) {
+            doIncrementalMarkingStep();
+        }
         FreeChunk current = currentChunk;
         Address next = current.toAddress().add(size);
         if (!next.add(Structure.sizeOf(FreeChunk.class)).isLessThan(currentChunkLimit)) {
-            getNextChunk(size);
-            current = currentChunk;
-            next = current.toAddress().add(size);
+            current = takeFromSizeClass(size);
+            if (current == null) {
+                current = getNextChunk(size);
+            }
+        } else {
+            currentChunk = next.toStructure();
         }
-        currentChunk = next.toStructure();
         freeMemory -= size;
+        if (markingPhase == MARKING_INCREMENTAL) {
+            RuntimeObject object = current.toAddress().toStructure();
+            registerMarkedObject(object);
+            makeInvalid(object);
+        }
         MemoryTrace.allocate(current.toAddress(), size);
         return current.toAddress().toStructure();
     }
 
-    private static void getNextChunk(int size) {
+    private static FreeChunk takeFromSizeClass(int size) {
+        int index = size / SIZE_CLASS_GRANULE;
+        if (index >= SIZE_CLASS_COUNT) {
+            return null;
+        }
+        FreeChunk chunk = popSizeClass(index);
+        if (chunk != null) {
+            return chunk;
+        }
+
+        // No chunk of exact size, so split a larger one. Remainder must be large enough
+        // to keep heap walkable
+        for (index = (size + MIN_CHUNK_SIZE) / SIZE_CLASS_GRANULE; index < SIZE_CLASS_COUNT; ++index) {
+            chunk = popSizeClass(index);
+            if (chunk != null) {
+                int remainingSize = chunk.size - size;
+                FreeChunk remainder = chunk.toAddress().add(size).toStructure();
+                remainder.classReference = 0;
+                remainder.size = remainingSize;
+                if (isSizeClassChunk(remainingSize)) {
+                    pushSizeClass(remainder);
+                } else {
+                    freeMemory -= remainingSize;
+                }
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    private static FreeChunk popSizeClass(int index) {
+        FreeChunkHolder head = Structure.add(FreeChunkHolder.class, sizeClasses, index);
+        FreeChunk chunk = head.value;
+        if (chunk != null) {
+            FreeListEntry entry = chunk.toAddress().toStructure();
+            head.value = entry.next;
+        }
+        return chunk;
+    }
+
+    private static void pushSizeClass(FreeChunk chunk) {
+        FreeChunkHolder head = Structure.add(FreeChunkHolder.class, sizeClasses, chunk.size / SIZE_CLASS_GRANULE);
+        FreeListEntry entry = chunk.toAddress().toStructure();
+        entry.next = head.value;
+        head.value = chunk;
+    }
+
+    private static boolean isSizeClassChunk(int size) {
+        return size >= Structure.sizeOf(FreeListEntry.class) && size < SIZE_CLASS_COUNT * SIZE_CLASS_GRANULE;
+    }
+
+    private static void buildSizeClasses() {
+        // Small chunks are taken out of the list used by bump allocator and put to per-size lists,
+        // stored right after the chunk list. They are kept in the chunk list though, after chunks
+        // available to bump allocator, since young GC needs all of them to find gaps.
+        int chunkCount = freeChunks;
+        sizeClasses = Structure.add(FreeChunkHolder.class, currentChunkPointer, chunkCount);
+        Allocator.fill(sizeClasses.toAddress(), (byte) 0, SIZE_CLASS_COUNT * Structure.sizeOf(FreeChunkHolder.class));
+
+        // The first chunk is already used by bump allocator
+        FreeChunkHolder target = Structure.add(FreeChunkHolder.class, currentChunkPointer, 1);
+        FreeChunkHolder source = target;
+        int bumpChunks = 1;
+        for (int i = 1; i < chunkCount; ++i) {
+            FreeChunk chunk = source.value;
+            if (isSizeClassChunk(chunk.size)) {
+                pushSizeClass(chunk);
+            } else {
+                target.value = chunk;
+                target = Structure.add(FreeChunkHolder.class, target, 1);
+                bumpChunks++;
+            }
+            source = Structure.add(FreeChunkHolder.class, source, 1);
+        }
+        for (int i = 0; i < SIZE_CLASS_COUNT; ++i) {
+            FreeChunk chunk = Structure.add(FreeChunkHolder.class, sizeClasses, i).value;
+            while (chunk != null) {
+                target.value = chunk;
+                target = Structure.add(FreeChunkHolder.class, target, 1);
+                FreeListEntry entry = chunk.toAddress().toStructure();
+                chunk = entry.next;
+            }
+        }
+
+        freeChunks = bumpChunks;
+        totalChunks = chunkCount;
+    }
+
+    private static FreeChunk getNextChunk(int size) {
         if (getNextChunkIfPossible(size)) {
-            return;
+            return takeFromCurrentChunk(size);
         }
         collectGarbageImpl(size);
-        if (!hasAvailableMemory(size)) {
-            collectGarbageFullImpl(size);
-            if (!hasAvailableMemory(size)) {
-                ExceptionHandling.printStack();
-                outOfMemory();
-            }
+        if (hasAvailableMemory(size)) {
+            return takeFromCurrentChunk(size);
+        }
+        FreeChunk chunk = takeFromSizeClass(size);
+        if (chunk != null) {
+            return chunk;
         }
+        collectGarbageFullImpl(size);
+        if (hasAvailableMemory(size)) {
+            return takeFromCurrentChunk(size);
+        }
+        chunk = takeFromSizeClass(size);
+        if (chunk == null) {
+            ExceptionHandling.printStack();
+            outOfMemory();
+        }
+        return chunk;
+    }
+
+    private static FreeChunk takeFromCurrentChunk(int size) {
+        FreeChunk chunk = currentChunk;
+        currentChunk = chunk.toAddress().add(size).toStructure();
+        return chunk;
     }
 
     private static boolean hasAvailableMemory(int size) {
@@ -170,6 +339,9 @@ public final class GC {
     }
 
     private static void triggerFullGC() {
+        if (markingPhase != MARKING_NONE) {
+            return;
+        }
         isFullGC = true;
         int regionsCount = getRegionCount();
         Allocator.fill(cardTable(), (byte) 0, getRegionCount());
@@ -177,6 +349,8 @@ public final class GC {
     }
 
     private static void collectGarbageImpl(int size) {
+        long startTime = GCStatistics.time();
+        int event = isFullGC ? GCStatistics.EVENT_FULL_COLLECTION : GCStatistics.EVENT_YOUNG_COLLECTION;
         doCollectGarbage();
 
         long minRequestedSize = 0;
@@ -190,31 +364,47 @@ public final class GC {
                 triggerFullGC();
                 doCollectGarbage();
                 youngGCCount = 0;
+                event = GCStatistics.EVENT_FULL_COLLECTION;
             }
         } else {
             youngGCCount = 0;
         }
         isFullGC = false;
 
+        recordCollectionCost(startTime);
         resizeHeapIfNecessary(minRequestedSize);
         currentChunk = currentChunkPointer.value;
         currentChunkLimit = currentChunk.toAddress().add(currentChunk.size);
 
         Allocator.fill(cardTable(), CARD_VALID, getRegionCount());
+        buildSizeClasses();
+        scheduleIncrementalMarking();
+        GCStatistics.pauseCompleted(event, startTime);
     }
 
     private static void doCollectGarbage() {
+        long startTime = GCStatistics.time();
         MemoryTrace.gcStarted(isFullGC);
         if (!isFullGC) {
             storeGapsInCardTable();
         }
-        mark();
+        boolean full = isFullGC;
+        if (markingPhase != MARKING_NONE) {
+            finishIncrementalMarking();
+        } else {
+            markedObjects = 0;
+            mark();
+        }
+        if (full) {
+            liveObjects = markedObjects;
+        }
         processReferences();
         sweep();
         defragment();
         updateFreeMemory();
         MemoryTrace.gcCompleted();
         totalChunks = freeChunks;
+        GCStatistics.collectionCompleted(full, startTime);
     }
 
     private static boolean hasAvailableChunk(int size) {
@@ -259,6 +449,12 @@ public final class GC {
         MemoryTrace.markStarted();
         firstWeakReference = null;
 
+        int threads = markThreadCount();
+        boolean parallel = isFullGC && threads > 1;
+        if (parallel) {
+            initMarkStacks(threads);
+        }
+
         markFromStaticFields();
         markFromClasses();
         markFromStack();
@@ -266,6 +462,10 @@ public final class GC {
             markFromOldGeneration();
         }
 
+        if (parallel) {
+            parallelMark(threads);
+        }
+
         MemoryTrace.markCompleted();
     }
 
@@ -382,6 +582,16 @@ public final class GC {
         if (object == null || isMarked(object)) {
             return;
         }
+        if (markingPhase == MARKING_INCREMENTAL) {
+            doEnqueueMark(object);
+            return;
+        }
+        if (markStacks != null) {
+            // Roots are only collected here, they are traced by workers of parallel marking
+            object.classReference |= RuntimeObject.GC_MARKED | RuntimeObject.GC_OLD_GENERATION;
+            pushMarkedObject(markRootCount++ % markThreadCount(), object);
+            return;
+        }
         MarkQueue.init();
         enqueueMark(object);
         doProcessMarkQueue();
@@ -396,20 +606,38 @@ public final class GC {
 
     private static void doProcessMarkQueue() {
         while (!MarkQueue.isEmpty()) {
-            RuntimeObject object = MarkQueue.dequeue();
-            MemoryTrace.mark(object.toAddress());
+            processMarkedObject(MarkQueue.dequeue());
+        }
+    }
 
-            long offset = object.toAddress().toLong() - heapAddress().toLong();
-            Region region = Structure.add(Region.class, regionsAddress(), (int) (offset /  regionSize()));
-            short relativeOffset = (short) (offset % regionSize() + 1);
-            if (region.start == 0 || region.start > relativeOffset) {
-                region.start = relativeOffset;
-            }
-            Address cardTableItem = cardTable().add(offset / regionSize());
-            cardTableItem.putByte((byte) (cardTableItem.getByte() | CARD_YOUNG_GEN));
+    private static int doProcessMarkQueue(int budget) {
+        while (budget > 0 && !MarkQueue.isEmpty()) {
+            processMarkedObject(MarkQueue.dequeue());
+            budget--;
+        }
+        return budget;
+    }
 
-            markObjectData(object);
+    private static void processMarkedObject(RuntimeObject object) {
+        MemoryTrace.mark(object.toAddress());
+        markedObjects++;
+        if (!isFullGC) {
+            FreeChunk chunk = object.toAddress().toStructure();
+            GCStatistics.objectPromoted(objectSize(chunk));
         }
+        registerMarkedObject(object);
+        markObjectData(object);
+    }
+
+    private static void registerMarkedObject(RuntimeObject object) {
+        long offset = object.toAddress().toLong() - heapAddress().toLong();
+        Region region = Structure.add(Region.class, regionsAddress(), (int) (offset /  regionSize()));
+        short relativeOffset = (short) (offset % regionSize() + 1);
+        if (region.start == 0 || region.start > relativeOffset) {
+            region.start = relativeOffset;
+        }
+        Address cardTableItem = cardTable().add(offset / regionSize());
+        cardTableItem.putByte((byte) (cardTableItem.getByte() | CARD_YOUNG_GEN));
     }
 
     private static boolean markObjectData(RuntimeObject object) {
@@ -427,7 +655,11 @@ public final class GC {
             int type = (cls.flags >> RuntimeClass.VM_TYPE_SHIFT) & RuntimeClass.VM_TYPE_MASK;
             switch (type) {
                 case RuntimeClass.VM_TYPE_WEAKREFERENCE:
-                    hasObjectsFromYoungGen |= markWeakReference((RuntimeReference) object);
+                    if (markingPhase != MARKING_NONE) {
+                        markWeakReferenceDeferred((RuntimeReference) object);
+                    } else {
+                        hasObjectsFromYoungGen |= markWeakReference((RuntimeReference) object);
+                    }
                     break;
 
                 case RuntimeClass.VM_TYPE_REFERENCEQUEUE:
@@ -460,6 +692,22 @@ public final class GC {
         return hasObjectsFromYoungGen;
     }
 
+    private static void markWeakReferenceDeferred(RuntimeReference object) {
+        // The list of weak references is threaded through the 'next' field, which is visible to the running
+        // program. So only mark strong parts now and leave the card dirty, so that the reference gets linked
+        // after the program is paused for the final pass of incremental marking.
+        if (object.queue != null) {
+            enqueueMark(object.queue);
+            if (object.next != null && object.object != null) {
+                enqueueMark(object.object);
+            }
+        }
+        if (object.next != null) {
+            enqueueMark(object.next);
+        }
+        makeInvalid(object);
+    }
+
     private static boolean markReferenceQueue(RuntimeReferenceQueue object) {
         RuntimeReference reference = object.first;
         boolean hasObjectsFromYoungGen = false;
@@ -517,7 +765,395 @@ public final class GC {
         } else {
             object.classReference |= RuntimeObject.GC_MARKED;
         }
-        MarkQueue.enqueue(object);
+        if (markingPhase == MARKING_INCREMENTAL && MarkQueue.isFull()) {
+            // Instead of failing on overflow, make the object reachable from the dirty card,
+            // it will be scanned either by precleaning or by the final pass
+            registerMarkedObject(object);
+            makeInvalid(object);
+        } else {
+            MarkQueue.enqueue(object);
+        }
+    }
+
+    private static void initMarkStacks(int threads) {
+        // GC storage starts with a lock word per worker and a counter of idle workers, then stack headers,
+        // then items of stacks, which are packed the same way as in MarkQueue
+        markLocks = gcStorageAddress();
+        Allocator.fill(markLocks, (byte) 0, (threads + 1) * 4);
+        idleMarkWorkers = markLocks.add(threads * 4);
+        markStacks = Address.align(idleMarkWorkers.add(4), Address.sizeOf()).toStructure();
+        Address items = markStacks.toAddress().add(MarkStack.class, threads);
+        int capacity = (int) ((gcStorageSize() - (items.toLong() - gcStorageAddress().toLong())) / 4 / threads);
+        for (int i = 0; i < threads; ++i) {
+            MarkStack stack = Structure.add(MarkStack.class, markStacks, i);
+            stack.items = items.add(capacity * 4 * i);
+            stack.capacity = capacity;
+            stack.size = 0;
+            stack.markedObjects = 0;
+            stack.firstWeakReference = null;
+        }
+        markRootCount = 0;
+    }
+
+    private static void parallelMark(int threads) {
+        markInParallel();
+
+        for (int i = 0; i < threads; ++i) {
+            MarkStack stack = Structure.add(MarkStack.class, markStacks, i);
+            markedObjects += stack.markedObjects;
+            RuntimeReference reference = stack.firstWeakReference;
+            if (reference != null) {
+                while (reference.next != null) {
+                    reference = reference.next;
+                }
+                reference.next = firstWeakReference;
+                firstWeakReference = stack.firstWeakReference;
+            }
+        }
+        markStacks = null;
+    }
+
+    @Export(name = "teavm_gc_markWorker")
+    public static void markWorker(int index) {
+        int threads = markThreadCount();
+        MarkStack stack = Structure.add(MarkStack.class, markStacks, index);
+        while (true) {
+            RuntimeObject object = popMarkedObject(index);
+            if (object != null) {
+                stack.markedObjects++;
+                registerMarkedObjectAtomically(object);
+                markObjectDataInParallel(index, object);
+                continue;
+            }
+            if (stealMarkedObjects(index, threads)) {
+                continue;
+            }
+
+            // Marking is over when every worker is idle and no stack has objects. Workers only become idle
+            // with their own stacks empty, but objects may still be pushed to stacks of idle workers on overflow,
+            // so look at stacks as well
+            atomicAdd(idleMarkWorkers, 1);
+            while (!hasMarkedObjects(threads)) {
+                if (atomicGetInt(idleMarkWorkers) == threads && !hasMarkedObjects(threads)) {
+                    return;
+                }
+            }
+            atomicAdd(idleMarkWorkers, -1);
+        }
+    }
+
+    private static void markObjectDataInParallel(int index, RuntimeObject object) {
+        RuntimeClass cls = RuntimeClass.getClass(object);
+        if (cls.itemType != null) {
+            if ((cls.itemType.flags & RuntimeClass.PRIMITIVE) != 0) {
+                return;
+            }
+            RuntimeArray array = (RuntimeArray) object;
+            Address base = Address.align(array.toAddress().add(RuntimeArray.class, 1), Address.sizeOf());
+            for (int i = 0; i < array.size; ++i) {
+                markInParallel(index, base.getAddress().toStructure());
+                base = base.add(Address.sizeOf());
+            }
+            return;
+        }
+
+        while (cls != null) {
+            int type = (cls.flags >> RuntimeClass.VM_TYPE_SHIFT) & RuntimeClass.VM_TYPE_MASK;
+            switch (type) {
+                case RuntimeClass.VM_TYPE_WEAKREFERENCE: {
+                    RuntimeReference reference = (RuntimeReference) object;
+                    if (reference.queue != null) {
+                        markInParallel(index, reference.queue);
+                        if (reference.next != null && reference.object != null) {
+                            markInParallel(index, reference.object);
+                        }
+                    }
+                    if (reference.next != null) {
+                        markInParallel(index, reference.next);
+                    } else if (reference.object != null) {
+                        // Each worker links weak references it found into its own list, lists are joined
+                        // after marking is over
+                        MarkStack stack = Structure.add(MarkStack.class, markStacks, index);
+                        reference.next = stack.firstWeakReference;
+                        stack.firstWeakReference = reference;
+                    }
+                    break;
+                }
+
+                case RuntimeClass.VM_TYPE_REFERENCEQUEUE:
+                    markInParallel(index, ((RuntimeReferenceQueue) object).first);
+                    break;
+
+                default: {
+                    Address layout = cls.layout;
+                    if (layout != null) {
+                        short fieldCount = layout.getShort();
+                        while (fieldCount-- > 0) {
+                            layout = layout.add(2);
+                            int fieldOffset = layout.getShort();
+                            markInParallel(index, object.toAddress().add(fieldOffset).getAddress().toStructure());
+                        }
+                    }
+                    break;
+                }
+            }
+            cls = cls.parent;
+        }
+    }
+
+    private static void markInParallel(int index, RuntimeObject object) {
+        if (object == null || (object.classReference & RuntimeObject.GC_MARKED) != 0) {
+            return;
+        }
+        int header = atomicOrInt(object.toAddress(), RuntimeObject.GC_MARKED | RuntimeObject.GC_OLD_GENERATION);
+        if ((header & RuntimeObject.GC_MARKED) == 0) {
+            pushMarkedObject(index, object);
+        }
+    }
+
+    private static void registerMarkedObjectAtomically(RuntimeObject object) {
+        long offset = object.toAddress().toLong() - heapAddress().toLong();
+        int regionIndex = (int) (offset / regionSize());
+        Address start = Structure.add(Region.class, regionsAddress(), regionIndex).toAddress();
+        short relativeOffset = (short) (offset % regionSize() + 1);
+        while (true) {
+            short current = start.getShort();
+            if ((current != 0 && current <= relativeOffset)
+                    || atomicCompareAndSwapShort(start, current, relativeOffset)) {
+                break;
+            }
+        }
+        atomicOrByte(cardTable().add(regionIndex), CARD_YOUNG_GEN);
+    }
+
+    private static void pushMarkedObject(int index, RuntimeObject object) {
+        int threads = markThreadCount();
+        for (int i = 0; i < threads; ++i) {
+            // When own stack is full, put object to any other stack, it will be stolen from there
+            int target = (index + i) % threads;
+            MarkStack stack = Structure.add(MarkStack.class, markStacks, target);
+            lockMarkStack(target);
+            if (stack.size < stack.capacity) {
+                stack.items.add(stack.size++ * 4).putInt(packMarkedObject(object));
+                unlockMarkStack(target);
+                return;
+            }
+            unlockMarkStack(target);
+        }
+        ExceptionHandling.printStack();
+        outOfMemory();
+    }
+
+    private static RuntimeObject popMarkedObject(int index) {
+        MarkStack stack = Structure.add(MarkStack.class, markStacks, index);
+        lockMarkStack(index);
+        RuntimeObject result = null;
+        if (stack.size > 0) {
+            result = unpackMarkedObject(stack.items.add(--stack.size * 4).getInt());
+        }
+        unlockMarkStack(index);
+        return result;
+    }
+
+    private static boolean stealMarkedObjects(int index, int threads) {
+        MarkStack stack = Structure.add(MarkStack.class, markStacks, index);
+        for (int i = 1; i < threads; ++i) {
+            int victimIndex = (index + i) % threads;
+            MarkStack victim = Structure.add(MarkStack.class, markStacks, victimIndex);
+            if (atomicGetInt(victim.toAddress()) == 0) {
+                continue;
+            }
+
+            // Take locks in the same order in all workers to avoid deadlock
+            int firstLock = index < victimIndex ? index : victimIndex;
+            int secondLock = index < victimIndex ? victimIndex : index;
+            lockMarkStack(firstLock);
+            lockMarkStack(secondLock);
+            int count = (victim.size + 1) / 2;
+            if (count > stack.capacity - stack.size) {
+                count = stack.capacity - stack.size;
+            }
+            victim.size -= count;
+            Allocator.moveMemoryBlock(victim.items.add(victim.size * 4), stack.items.add(stack.size * 4), count * 4);
+            stack.size += count;
+            unlockMarkStack(secondLock);
+            unlockMarkStack(firstLock);
+            if (count > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasMarkedObjects(int threads) {
+        for (int i = 0; i < threads; ++i) {
+            MarkStack stack = Structure.add(MarkStack.class, markStacks, i);
+            if (atomicGetInt(stack.toAddress()) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void lockMarkStack(int index) {
+        Address lock = markLocks.add(index * 4);
+        while (!atomicCompareAndSwapInt(lock, 0, 1)) {
+            // spin
+        }
+    }
+
+    private static void unlockMarkStack(int index) {
+        atomicCompareAndSwapInt(markLocks.add(index * 4), 1, 0);
+    }
+
+    private static void atomicAdd(Address address, int delta) {
+        while (true) {
+            int value = atomicGetInt(address);
+            if (atomicCompareAndSwapInt(address, value, value + delta)) {
+                break;
+            }
+        }
+    }
+
+    private static int packMarkedObject(RuntimeObject object) {
+        return (int) ((object.toAddress().toLong() - heapAddress().toLong()) >>> 2);
+    }
+
+    private static RuntimeObject unpackMarkedObject(int packed) {
+        return heapAddress().add((long) packed << 2).toStructure();
+    }
+
+    private static void scheduleIncrementalMarking() {
+        int budget = markStepBudget();
+        if (budget <= 0) {
+            markStepThreshold = Integer.MIN_VALUE;
+            return;
+        }
+
+        // Start a new cycle when a half of free memory is consumed and try to complete marking
+        // before another quarter is consumed, estimating amount of work from the previous full collection
+        long work = liveObjects > 0 ? liveObjects : (availableBytes() - freeMemory) / 32;
+        long steps = work / budget + 1;
+        markStepInterval = (int) max(MIN_MARK_STEP_INTERVAL, freeMemory / 4 / steps);
+        markStepThreshold = freeMemory / 2;
+    }
+
+    private static void doIncrementalMarkingStep() {
+        long startTime = GCStatistics.time();
+        MemoryTrace.markStepStarted();
+        fixHeap();
+        int budget = markStepBudget();
+        if (markingPhase == MARKING_NONE) {
+            startIncrementalMarking();
+        } else {
+            budget = doProcessMarkQueue(budget);
+            if (budget > 0 && MarkQueue.isEmpty()) {
+                precleanCards(budget);
+                if (MarkQueue.isEmpty() && precleanRegion >= getRegionCount()) {
+                    MemoryTrace.markStepCompleted();
+                    collectGarbageImpl(0);
+                    return;
+                }
+            }
+        }
+        markStepThreshold = freeMemory - markStepInterval;
+        MemoryTrace.markStepCompleted();
+        GCStatistics.pauseCompleted(GCStatistics.EVENT_MARK_STEP, startTime);
+    }
+
+    private static void startIncrementalMarking() {
+        MemoryTrace.markStarted();
+        isFullGC = true;
+        int regionsCount = getRegionCount();
+        Allocator.fill(cardTable(), CARD_VALID, regionsCount);
+        Allocator.fill(regionsAddress().toAddress(), (byte) 0, regionsCount * Structure.sizeOf(Region.class));
+
+        // Free chunk list and size classes are still in use by allocator, so put mark queue after them
+        MarkQueue.init((totalChunks + SIZE_CLASS_COUNT) * Structure.sizeOf(FreeChunkHolder.class));
+        markingPhase = MARKING_INCREMENTAL;
+        allocationFlags = RuntimeObject.GC_MARKED | RuntimeObject.GC_OLD_GENERATION;
+        precleanRegion = 0;
+        markedObjects = 0;
+
+        markFromStaticFields();
+        markFromClasses();
+        markFromStack();
+    }
+
+    private static void precleanCards(int budget) {
+        int regionsCount = getRegionCount();
+        while (budget > 0 && precleanRegion < regionsCount) {
+            Address card = cardTable().add(precleanRegion);
+            if ((card.getByte() & CARD_VALID) == 0) {
+                budget -= rescanRegion(precleanRegion, false);
+            }
+            precleanRegion++;
+        }
+    }
+
+    private static void finishIncrementalMarking() {
+        markingPhase = MARKING_REMARK;
+        doProcessMarkQueue();
+        MarkQueue.init();
+
+        markFromStaticFields();
+        markFromClasses();
+        markFromStack();
+
+        int regionsCount = getRegionCount();
+        for (int i = 0; i < regionsCount; ++i) {
+            if ((cardTable().add(i).getByte() & CARD_VALID) == 0) {
+                rescanRegion(i, true);
+            }
+        }
+
+        // At this point all reachable objects are marked and only cards containing weak references
+        // are left dirty. Scan them once again to link weak references for processReferences
+        markingPhase = MARKING_NONE;
+        allocationFlags = 0;
+        firstWeakReference = null;
+        for (int i = 0; i < regionsCount; ++i) {
+            if ((cardTable().add(i).getByte() & CARD_VALID) == 0) {
+                rescanRegion(i, true);
+            }
+        }
+
+        MemoryTrace.markCompleted();
+    }
+
+    private static int rescanRegion(int regionIndex, boolean processQueue) {
+        Address card = cardTable().add(regionIndex);
+        card.putByte((byte) (card.getByte() | CARD_VALID));
+        int regionOffset = Structure.add(Region.class, regionsAddress(), regionIndex).start;
+        if (regionOffset == 0) {
+            return 1;
+        }
+        regionOffset--;
+
+        int regionSize = regionSize();
+        Address regionStart = heapAddress().add(regionIndex * regionSize);
+        MemoryTrace.reportDirtyRegion(regionStart);
+        Address regionEnd = regionStart.add(regionSize);
+        FreeChunk object = regionStart.add(regionOffset).toStructure();
+        Address heapLimit = heapAddress().add(availableBytes());
+        if (heapLimit.isLessThan(regionEnd)) {
+            regionEnd = heapLimit;
+        }
+
+        int work = 1;
+        while (object.toAddress().isLessThan(regionEnd)) {
+            int header = object.classReference;
+            if (header != 0 && (header & RuntimeObject.GC_MARKED) != 0) {
+                if (processQueue) {
+                    doMarkOldGeneration(object.toAddress().toStructure());
+                } else {
+                    markObjectData(object.toAddress().toStructure());
+                }
+                work++;
+            }
+            object = object.toAddress().add(objectSize(object)).toStructure();
+        }
+        return work;
     }
 
     private static void processReferences() {
@@ -552,6 +1188,18 @@ public final class GC {
     private static void sweep() {
         MemoryTrace.sweepStarted();
 
+        int threads = sweepThreadCount();
+        if (isFullGC && threads > 1 && getRegionCount() >= threads * MIN_REGIONS_PER_SWEEP_THREAD) {
+            parallelSweep(threads);
+        } else {
+            sequentialSweep();
+        }
+
+        currentChunkPointer = gcStorageAddress().toStructure();
+        MemoryTrace.sweepCompleted();
+    }
+
+    private static void sequentialSweep() {
         currentChunkPointer = gcStorageAddress().toStructure();
         freeChunks = 0;
         totalChunks = 0;
@@ -651,9 +1299,148 @@ public final class GC {
         if (lastFreeSpace != null) {
             freeMemory(lastFreeSpace, object);
         }
+    }
 
-        currentChunkPointer = gcStorageAddress().toStructure();
-        MemoryTrace.sweepCompleted();
+    private static void parallelSweep(int threads) {
+        // Each worker gets its own segment of GC storage to put free chunks to. Segments are joined
+        // into a single list afterwards, so the resulting list is the same as sequential sweep produces.
+        int holderSize = Structure.sizeOf(FreeChunkHolder.class);
+        int capacity = (gcStorageSize() - threads * Structure.sizeOf(SweepRange.class)) / threads / holderSize;
+        FreeChunkHolder holders = gcStorageAddress().toStructure();
+        sweepRanges = gcStorageAddress().add(capacity * threads * holderSize).toStructure();
+        for (int i = 0; i < threads; ++i) {
+            SweepRange range = Structure.add(SweepRange.class, sweepRanges, i);
+            range.chunks = Structure.add(FreeChunkHolder.class, holders, capacity * i);
+            range.chunkCapacity = capacity;
+        }
+
+        sweepInParallel();
+
+        currentChunkPointer = holders;
+        freeChunks = 0;
+        totalChunks = 0;
+        for (int i = 0; i < threads; ++i) {
+            SweepRange range = Structure.add(SweepRange.class, sweepRanges, i);
+            if (range.chunkCount > range.chunkCapacity) {
+                // Worker could not store all chunks it found, so find chunks of this and all subsequent workers
+                // by walking the heap. Ranges of workers are adjacent, and the list of free chunks may grow
+                // over the ranges themselves, so read bounds before walking. Chunks are already coalesced
+                // at this point, so this only requires visiting surviving objects
+                Address start = range.start;
+                Address end = Structure.add(SweepRange.class, sweepRanges, threads - 1).end;
+                FreeChunk object = start.toStructure();
+                while (object.toAddress().isLessThan(end)) {
+                    if (object.classReference == 0) {
+                        MemoryTrace.free(object.toAddress(), object.size);
+                        addFreeChunk(object);
+                    }
+                    object = object.toAddress().add(objectSize(object)).toStructure();
+                }
+                break;
+            }
+            // Segments are copied towards the beginning of GC storage, and all previous segments
+            // together are not larger than the space before this segment, so nothing is overwritten
+            FreeChunkHolder source = range.chunks;
+            for (int j = 0; j < range.chunkCount; ++j) {
+                FreeChunk chunk = source.value;
+                MemoryTrace.free(chunk.toAddress(), chunk.size);
+                addFreeChunk(chunk);
+                source = Structure.add(FreeChunkHolder.class, source, 1);
+            }
+        }
+    }
+
+    private static void addFreeChunk(FreeChunk chunk) {
+        currentChunkPointer.value = chunk;
+        currentChunkPointer = Structure.add(FreeChunkHolder.class, currentChunkPointer, 1);
+        freeChunks++;
+        totalChunks++;
+    }
+
+    @Export(name = "teavm_gc_sweepWorker")
+    public static void sweepWorker(int index) {
+        SweepRange range = Structure.add(SweepRange.class, sweepRanges, index);
+        int threads = sweepThreadCount();
+        int regionsCount = getRegionCount();
+        int regionSize = regionSize();
+        int regionFrom = (int) ((long) regionsCount * index / threads);
+        int regionTo = (int) ((long) regionsCount * (index + 1) / threads);
+        Address limit = heapAddress().add(availableBytes());
+        Address rangeEnd = heapAddress().add(regionTo * regionSize);
+        if (limit.isLessThan(rangeEnd)) {
+            rangeEnd = limit;
+        }
+
+        // Worker owns objects that start within its regions, except for free space in the beginning,
+        // which is coalesced with the last free chunk of the previous worker
+        Address end = findSurvivingObject(regionTo);
+        FreeChunk object = index == 0
+                ? heapAddress().toStructure()
+                : findSurvivingObject(regionFrom).toStructure();
+        if (end.isLessThan(object.toAddress())) {
+            object = end.toStructure();
+        }
+        range.start = object.toAddress();
+        range.end = end;
+
+        FreeChunkHolder chunks = range.chunks;
+        int capacity = range.chunkCapacity;
+        int count = 0;
+        FreeChunk lastFreeSpace = null;
+        Address currentRegionEnd = null;
+        while (object.toAddress().isLessThan(rangeEnd)) {
+            int tag = object.classReference;
+            if (tag != 0 && (tag & RuntimeObject.GC_MARKED) != 0) {
+                object.classReference = tag & ~RuntimeObject.GC_MARKED;
+                if (lastFreeSpace != null) {
+                    count = storeFreeChunk(chunks, count, capacity, lastFreeSpace, object);
+                    lastFreeSpace = null;
+                }
+            } else {
+                if (lastFreeSpace == null) {
+                    lastFreeSpace = object;
+                }
+                if (!object.toAddress().isLessThan(currentRegionEnd)) {
+                    int currentRegionIndex = (int) ((object.toAddress().toLong() - heapAddress().toLong())
+                            / regionSize);
+                    currentRegionEnd = heapAddress().add((currentRegionIndex + 1) * regionSize);
+                    if (Structure.add(Region.class, regionsAddress(), currentRegionIndex).start == 0) {
+                        object = findSurvivingObject(currentRegionIndex + 1).toStructure();
+                        continue;
+                    }
+                }
+            }
+            object = object.toAddress().add(objectSize(object)).toStructure();
+        }
+
+        if (lastFreeSpace == null && object.toAddress().isLessThan(end)) {
+            lastFreeSpace = object;
+        }
+        if (lastFreeSpace != null) {
+            count = storeFreeChunk(chunks, count, capacity, lastFreeSpace, end.toStructure());
+        }
+        range.chunkCount = count;
+    }
+
+    private static int storeFreeChunk(FreeChunkHolder chunks, int count, int capacity, FreeChunk from,
+            FreeChunk to) {
+        from.classReference = 0;
+        from.size = (int) (to.toAddress().toLong() - from.toAddress().toLong());
+        if (count < capacity) {
+            Structure.add(FreeChunkHolder.class, chunks, count).value = from;
+        }
+        return count + 1;
+    }
+
+    private static Address findSurvivingObject(int regionIndex) {
+        int regionsCount = getRegionCount();
+        for (; regionIndex < regionsCount; ++regionIndex) {
+            int start = Structure.add(Region.class, regionsAddress(), regionIndex).start;
+            if (start != 0) {
+                return heapAddress().add(regionIndex * regionSize() + start - 1);
+            }
+        }
+        return heapAddress().add(availableBytes());
     }
 
     private static void storeGapsInCardTable() {
@@ -1373,6 +2160,7 @@ public final class GC {
         if (newSize > oldSize) {
             int previousRegionCount = getRegionCount();
             resizeHeap(newSize);
+            GCStatistics.heapResized();
             currentChunkPointer = gcStorageAddress().toStructure();
             int newRegionCount = getRegionCount();
             for (int i = previousRegionCount; i < newRegionCount; ++i) {
@@ -1408,16 +2196,25 @@ public final class GC {
                 lastChunk.size -= (int) (oldSize - newSize);
             }
             resizeHeap(newSize);
+            GCStatistics.heapResized();
 
             currentChunkPointer = gcStorageAddress().toStructure();
         }
     }
 
+    private static void recordCollectionCost(long startTime) {
+        long endTime = GCStatistics.time();
+        long pauseTime = endTime - startTime;
+        long cycleTime = lastCollectionEnd != 0 ? endTime - lastCollectionEnd : pauseTime;
+        lastCollectionEnd = endTime;
+        averagePauseTime = (averagePauseTime * 3 + pauseTime) / 4;
+        averageCycleTime = (averageCycleTime * 3 + cycleTime) / 4;
+    }
+
     private static void resizeHeapIfNecessary(long requestedSize) {
         long availableBytes = availableBytes();
-        long occupiedMemory = availableBytes - freeMemory;
-        if (isAboutToExpand(requestedSize)) {
-            long newSize = max(requestedSize, (availableBytes - freeMemory) * 2);
+        long newSize = computeHeapSize(requestedSize);
+        if (newSize > availableBytes) {
             newSize = min(newSize, maxAvailableBytes());
             if (newSize != availableBytes) {
                 if (newSize % 8 != 0) {
@@ -1425,8 +2222,7 @@ public final class GC {
                 }
                 resizeHeapConsistent(newSize);
             }
-        } else if (occupiedMemory < availableBytes / 4) {
-            long newSize = occupiedMemory * 3;
+        } else if (newSize < availableBytes) {
             newSize = max(newSize, minAvailableBytes());
             if (newSize % 8 != 0) {
                 newSize -= newSize % 8;
@@ -1435,6 +2231,48 @@ public final class GC {
         }
     }
 
+    private static long computeHeapSize(long requestedSize) {
+        long availableBytes = availableBytes();
+        long occupiedMemory = availableBytes - freeMemory;
+        if (requestedSize > availableBytes) {
+            return max(requestedSize, occupiedMemory * 2);
+        }
+
+        switch (heapSizingPolicy()) {
+            case HEAP_SIZING_GC_OVERHEAD: {
+                long overhead = averageCycleTime > 0 ? averagePauseTime * 100 / averageCycleTime : 0;
+                int target = heapSizingTarget();
+                if (overhead > target || occupiedMemory > availableBytes - availableBytes / 8) {
+                    return max(availableBytes + availableBytes / 2, occupiedMemory * 2);
+                } else if (overhead * 4 < target && occupiedMemory < availableBytes / 4) {
+                    return occupiedMemory * 3;
+                }
+                return availableBytes;
+            }
+            case HEAP_SIZING_PAUSE_TIME:
+                if (averagePauseTime > heapSizingTarget() * 1000000L) {
+                    // Sweep time is proportional to heap size, so keep heap small, but leave
+                    // some space to avoid collecting on each allocation
+                    long newSize = occupiedMemory + occupiedMemory / 2;
+                    if (newSize < availableBytes || occupiedMemory > availableBytes - availableBytes / 8) {
+                        return newSize;
+                    }
+                    return availableBytes;
+                }
+                break;
+            case HEAP_SIZING_OCCUPANCY:
+            default:
+                break;
+        }
+
+        if (occupiedMemory > availableBytes / 2) {
+            return occupiedMemory * 2;
+        } else if (occupiedMemory < availableBytes / 4) {
+            return occupiedMemory * 3;
+        }
+        return availableBytes;
+    }
+
     private static boolean isAboutToExpand(long requestedSize) {
         long availableBytes = availableBytes();
         long occupiedMemory = availableBytes - freeMemory;
@@ -1482,4 +2320,27 @@ public final class GC {
     static class Region extends Structure {
         short start;
     }
+
+    static class FreeListEntry extends Structure {
+        int classReference;
+        int size;
+        FreeChunk next;
+    }
+
+    static class MarkStack extends Structure {
+        // Stealing workers read this without taking a lock, so it must stay the first field
+        int size;
+        int capacity;
+        Address items;
+        int markedObjects;
+        RuntimeReference firstWeakReference;
+    }
+
+    static class SweepRange extends Structure {
+        Address start;
+        Address end;
+        FreeChunkHolder chunks;
+        int chunkCount;
+        int chunkCapacity;
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.runtime;
+
+import org.teavm.backend.c.intrinsic.RuntimeInclude;
+import org.teavm.classlib.PlatformDetector;
+import org.teavm.interop.Import;
+import org.teavm.interop.StaticInit;
+import org.teavm.interop.Unmanaged;
+
+/**
+ * Counters maintained by garbage collector of low-level targets (C and WebAssembly). Counters are cheap to update,
+ * so they are always on. All times are in nanoseconds. On C target every pause and heap resize can additionally
+ * be written to a ring buffer, see {@code teavm_gc_copyEvents} in {@code heaptrace.h}.
+ */
+@Unmanaged
+@StaticInit
+public final class GCStatistics {
+    public static final int EVENT_YOUNG_COLLECTION = 0;
+    public static final int EVENT_FULL_COLLECTION = 1;
+    public static final int EVENT_MARK_STEP = 2;
+    public static final int EVENT_HEAP_RESIZE = 3;
+
+    public static final int PAUSE_HISTOGRAM_SIZE = 8;
+
+    private static int youngCollectionCount;
+    private static int fullCollectionCount;
+    private static long youngCollectionTime;
+    private static long fullCollectionTime;
+    private static int pauseCount;
+    private static long totalPauseTime;
+    private static long maxPauseTime;
+    private static long promotedBytes;
+    private static int heapResizeCount;
+
+    private static int pauses0;
+    private static int pauses1;
+    private static int pauses2;
+    private static int pauses3;
+    private static int pauses4;
+    private static int pauses5;
+    private static int pauses6;
+    private static int pauses7;
+
+    private GCStatistics() {
+    }
+
+    public static int getYoungCollectionCount() {
+        return youngCollectionCount;
+    }
+
+    public static int getFullCollectionCount() {
+        return fullCollectionCount;
+    }
+
+    public static long getYoungCollectionTime() {
+        return youngCollectionTime;
+    }
+
+    public static long getFullCollectionTime() {
+        return fullCollectionTime;
+    }
+
+    /**
+     * Number of times the program was paused by GC. Apart from collections this includes steps
+     * of incremental marking.
+     */
+    public static int getPauseCount() {
+        return pauseCount;
+    }
+
+    public static long getTotalPauseTime() {
+        return totalPauseTime;
+    }
+
+    public static long getMaxPauseTime() {
+        return maxPauseTime;
+    }
+
+    /**
+     * Total size of objects that survived young collections and therefore were moved to old generation.
+     */
+    public static long getPromotedBytes() {
+        return promotedBytes;
+    }
+
+    public static int getHeapResizeCount() {
+        return heapResizeCount;
+    }
+
+    /**
+     * Upper bound of pause histogram bucket, exclusive. The last bucket is unbounded.
+     *
+     * @param index bucket index, from 0 to {@link #PAUSE_HISTOGRAM_SIZE} - 1.
+     * @return maximum pause time that falls into given bucket, or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getPauseHistogramLimit(int index) {
+        switch (index) {
+            case 0:
+                return 100_000L;
+            case 1:
+                return 500_000L;
+            case 2:
+                return 1_000_000L;
+            case 3:
+                return 5_000_000L;
+            case 4:
+                return 10_000_000L;
+            case 5:
+                return 50_000_000L;
+            case 6:
+                return 100_000_000L;
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
+    public static int getPauseHistogramCount(int index) {
+        switch (index) {
+            case 0:
+                return pauses0;
+            case 1:
+                return pauses1;
+            case 2:
+                return pauses2;
+            case 3:
+                return pauses3;
+            case 4:
+                return pauses4;
+            case 5:
+                return pauses5;
+            case 6:
+                return pauses6;
+            case 7:
+                return pauses7;
+            default:
+                return 0;
+        }
+    }
+
+    static long time() {
+        if (PlatformDetector.isWebAssembly()) {
+            return (long) (nanoTimeWasm() * 1000000);
+        } else {
+            return nanoTimeC();
+        }
+    }
+
+    static void collectionCompleted(boolean full, long startTime) {
+        long duration = time() - startTime;
+        if (full) {
+            fullCollectionCount++;
+            fullCollectionTime += duration;
+        } else {
+            youngCollectionCount++;
+            youngCollectionTime += duration;
+        }
+    }
+
+    static void pauseCompleted(int event, long startTime) {
+        long duration = time() - startTime;
+        pauseCount++;
+        totalPauseTime += duration;
+        if (duration > maxPauseTime) {
+            maxPauseTime = duration;
+        }
+
+        int bucket = 0;
+        while (bucket < PAUSE_HISTOGRAM_SIZE - 1 && duration >= getPauseHistogramLimit(bucket)) {
+            bucket++;
+        }
+        switch (bucket) {
+            case 0:
+                pauses0++;
+                break;
+            case 1:
+                pauses1++;
+                break;
+            case 2:
+                pauses2++;
+                break;
+            case 3:
+                pauses3++;
+                break;
+            case 4:
+                pauses4++;
+                break;
+            case 5:
+                pauses5++;
+                break;
+            case 6:
+                pauses6++;
+                break;
+            default:
+                pauses7++;
+                break;
+        }
+
+        logEvent(event, startTime, duration);
+    }
+
+    static void objectPromoted(int size) {
+        promotedBytes += size;
+    }
+
+    static void heapResized() {
+        heapResizeCount++;
+        logEvent(EVENT_HEAP_RESIZE, time(), 0);
+    }
+
+    private static void logEvent(int event, long time, long duration) {
+        if (PlatformDetector.isC()) {
+            logEventC(event, time, duration, GC.availableBytes(), GC.getFreeMemory());
+        }
+    }
+
+    @Import(module = "teavm", name = "nanoTime")
+    private static native double nanoTimeWasm();
+
+    @Import(name = "teavm_currentTimeNano")
+    @RuntimeInclude("time.h")
+    private static native long nanoTimeC();
+
+    @Import(name = "teavm_gc_logEvent")
+    @RuntimeInclude("heaptrace.h")
+    private static native void logEventC(int event, long time, long duration, long heapSize, long freeMemory);
+}
@@ -25,18 +25,24 @@ final class MarkQueue {
     private MarkQueue() {
     }
 
+    private static int base;
     private static int head;
     private static int tail;
     private static int limit;
 
     static void init() {
+        init(0);
+    }
+
+    static void init(int offset) {
+        base = offset;
         head = 0;
         tail = 0;
-        limit = GC.gcStorageSize() / 4;
+        limit = (GC.gcStorageSize() - offset) / 4;
     }
 
     static void enqueue(RuntimeObject object) {
-        GC.gcStorageAddress().add(4 * tail).putInt(pack(object.toAddress()));
+        GC.gcStorageAddress().add(base + 4 * tail).putInt(pack(object.toAddress()));
         if (++tail >= limit) {
             tail = 0;
         }
@@ -47,7 +53,7 @@ final class MarkQueue {
     }
 
     static RuntimeObject dequeue() {
-        Address result = unpack(GC.gcStorageAddress().add(4 * head).getInt());
+        Address result = unpack(GC.gcStorageAddress().add(base + 4 * head).getInt());
         if (++head >= limit) {
             head = 0;
         }
@@ -65,4 +71,12 @@ final class MarkQueue {
     static boolean isEmpty() {
         return head == tail;
     }
+
+    static boolean isFull() {
+        int next = tail + 1;
+        if (next >= limit) {
+            next = 0;
+        }
+        return next == head;
+    }
 }
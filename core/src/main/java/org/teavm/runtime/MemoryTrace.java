@@ -46,6 +46,12 @@ public class MemoryTrace {
     @Import(name = "markCompleted", module = "teavmHeapTrace")
     public static native void markCompleted();
 
+    @Import(name = "markStepStarted", module = "teavmHeapTrace")
+    public static native void markStepStarted();
+
+    @Import(name = "markStepCompleted", module = "teavmHeapTrace")
+    public static native void markStepCompleted();
+
     @Import(name = "move", module = "teavmHeapTrace")
     public static native void move(Address from, Address to, int size);
 
@@ -0,0 +1,259 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Collects wall time and allocation statistics of a build. Phases (dependency analysis, linking, inlining,
+ * rendering, etc.) are recorded as individual events, while fine-grained stages which run many times,
+ * like {@link org.teavm.model.MethodOptimization}s, are only aggregated by name.</p>
+ *
+ * <p>Allocations are measured per thread, so they are only available on JVMs that support
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}. Time and allocations of nested stages
+ * are included into the enclosing ones.</p>
+ *
+ * <p>The collected data is written in Chrome trace event format, which can be opened by
+ * {@code chrome://tracing} or Perfetto. Aggregated statistics are stored in the {@code stats} property
+ * of the same JSON object.</p>
+ */
+public class BuildProfiler {
+    public static final BuildProfiler DISABLED = new BuildProfiler(false);
+    private static final Scope EMPTY_SCOPE = new Scope(null, null, false, 0, 0);
+
+    private final boolean enabled;
+    private final long startTime = System.nanoTime();
+    private final List<Event> events = new ArrayList<>();
+    private final ConcurrentMap<String, Stat> stats = new ConcurrentHashMap<>();
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    public BuildProfiler() {
+        this(true);
+    }
+
+    private BuildProfiler(boolean enabled) {
+        this.enabled = enabled;
+        com.sun.management.ThreadMXBean threadBean = null;
+        if (enabled) {
+            try {
+                var bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    threadBean = (com.sun.management.ThreadMXBean) bean;
+                    if (!threadBean.isThreadAllocatedMemorySupported()) {
+                        threadBean = null;
+                    } else if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+                        threadBean.setThreadAllocatedMemoryEnabled(true);
+                    }
+                }
+            } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+                threadBean = null;
+            }
+        }
+        this.threadBean = threadBean;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a phase. Phase is recorded both as an individual event and in aggregated statistics.
+     *
+     * @param name name of the phase.
+     * @return scope that should be closed when phase ends.
+     */
+    public Scope phase(String name) {
+        return enabled ? new Scope(this, name, true, System.nanoTime(), allocatedBytes()) : EMPTY_SCOPE;
+    }
+
+    /**
+     * Starts a stage that contributes to aggregated statistics only.
+     *
+     * @param name name of the stage. All stages with the same name are aggregated together.
+     * @return scope that should be closed when stage ends.
+     */
+    public Scope measure(String name) {
+        return enabled ? new Scope(this, name, false, System.nanoTime(), allocatedBytes()) : EMPTY_SCOPE;
+    }
+
+    private long allocatedBytes() {
+        return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private void complete(Scope scope) {
+        var duration = System.nanoTime() - scope.start;
+        var allocated = threadBean != null ? allocatedBytes() - scope.startAllocated : -1;
+        var stat = stats.computeIfAbsent(scope.name, k -> new Stat());
+        stat.count.increment();
+        stat.time.add(duration);
+        if (allocated >= 0) {
+            stat.allocated.add(allocated);
+        }
+        if (scope.changed) {
+            stat.changed.increment();
+        }
+        if (scope.recordEvent) {
+            var runtime = Runtime.getRuntime();
+            var event = new Event(scope.name, scope.start - startTime, duration, allocated,
+                    runtime.totalMemory() - runtime.freeMemory(), Thread.currentThread().getId());
+            synchronized (events) {
+                events.add(event);
+            }
+        }
+    }
+
+    public void writeChromeTrace(Writer writer) throws IOException {
+        List<Event> events;
+        synchronized (this.events) {
+            events = new ArrayList<>(this.events);
+        }
+        events.sort(Comparator.comparingLong(e -> e.start));
+
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        var first = true;
+        for (var event : events) {
+            if (!first) {
+                writer.write(",");
+            }
+            first = false;
+            writer.write("\n{\"name\":");
+            writeString(writer, event.name);
+            writer.write(",\"cat\":\"phase\",\"ph\":\"X\",\"pid\":1,\"tid\":" + event.thread
+                    + ",\"ts\":" + micros(event.start) + ",\"dur\":" + micros(event.duration) + ",\"args\":{");
+            if (event.allocated >= 0) {
+                writer.write("\"allocatedBytes\":" + event.allocated + ",");
+            }
+            writer.write("\"heapUsedBytes\":" + event.heapUsed + "}}");
+            writer.write(",\n{\"name\":\"heap\",\"ph\":\"C\",\"pid\":1,\"ts\":" + micros(event.start + event.duration)
+                    + ",\"args\":{\"used\":" + event.heapUsed + "}}");
+        }
+        writer.write("\n],\"stats\":[");
+
+        var names = new ArrayList<>(stats.keySet());
+        names.sort(Comparator.naturalOrder());
+        first = true;
+        for (var name : names) {
+            var stat = stats.get(name);
+            if (!first) {
+                writer.write(",");
+            }
+            first = false;
+            writer.write("\n{\"name\":");
+            writeString(writer, name);
+            writer.write(",\"count\":" + stat.count.sum() + ",\"changed\":" + stat.changed.sum()
+                    + ",\"timeMicros\":" + micros(stat.time.sum()));
+            if (threadBean != null) {
+                writer.write(",\"allocatedBytes\":" + stat.allocated.sum());
+            }
+            writer.write("}");
+        }
+        writer.write("\n]}\n");
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1000;
+    }
+
+    private static void writeString(Writer writer, String s) throws IOException {
+        writer.write('"');
+        for (var i = 0; i < s.length(); ++i) {
+            var c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                default:
+                    if (c < ' ') {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                    break;
+            }
+        }
+        writer.write('"');
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final BuildProfiler profiler;
+        private final String name;
+        private final boolean recordEvent;
+        private final long start;
+        private final long startAllocated;
+        private boolean changed;
+
+        private Scope(BuildProfiler profiler, String name, boolean recordEvent, long start, long startAllocated) {
+            this.profiler = profiler;
+            this.name = name;
+            this.recordEvent = recordEvent;
+            this.start = start;
+            this.startAllocated = startAllocated;
+        }
+
+        /**
+         * Marks that the stage changed something, e.g. an optimization modified a program.
+         */
+        public void markChanged() {
+            changed = true;
+        }
+
+        @Override
+        public void close() {
+            if (profiler != null) {
+                profiler.complete(this);
+            }
+        }
+    }
+
+    private static class Stat {
+        final LongAdder count = new LongAdder();
+        final LongAdder changed = new LongAdder();
+        final LongAdder time = new LongAdder();
+        final LongAdder allocated = new LongAdder();
+    }
+
+    private static class Event {
+        final String name;
+        final long start;
+        final long duration;
+        final long allocated;
+        final long heapUsed;
+        final long thread;
+
+        Event(String name, long start, long duration, long allocated, long heapUsed, long thread) {
+            this.name = name;
+            this.start = start;
+            this.duration = duration;
+            this.allocated = allocated;
+            this.heapUsed = heapUsed;
+            this.thread = thread;
+        }
+    }
+}
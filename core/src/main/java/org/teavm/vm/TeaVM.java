@@ -17,10 +17,12 @@ package org.teavm.vm;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -29,13 +31,19 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.teavm.cache.AlwaysStaleCacheStatus;
 import org.teavm.cache.AnnotationAwareCacheStatus;
 import org.teavm.cache.CacheStatus;
+import org.teavm.cache.CompactProgram;
 import org.teavm.cache.EmptyProgramCache;
+import org.teavm.cache.ProgramArena;
 import org.teavm.cache.ProgramDependencyExtractor;
 import org.teavm.common.ServiceRepository;
 import org.teavm.dependency.BootstrapMethodSubstitutor;
@@ -69,6 +77,7 @@ import org.teavm.model.MethodReference;
 import org.teavm.model.MutableClassHolderSource;
 import org.teavm.model.Program;
 import org.teavm.model.ProgramCache;
+import org.teavm.model.ReferenceCache;
 import org.teavm.model.ValueType;
 import org.teavm.model.analysis.ClassInitializerAnalysis;
 import org.teavm.model.analysis.ClassInitializerInfo;
@@ -76,12 +85,14 @@ import org.teavm.model.instructions.ExitInstruction;
 import org.teavm.model.instructions.InitClassInstruction;
 import org.teavm.model.instructions.InvokeInstruction;
 import org.teavm.model.optimization.ArrayUnwrapMotion;
+import org.teavm.model.optimization.BoundCheckElimination;
 import org.teavm.model.optimization.ClassInitElimination;
 import org.teavm.model.optimization.ConstantConditionElimination;
 import org.teavm.model.optimization.DefaultInliningStrategy;
 import org.teavm.model.optimization.Devirtualization;
 import org.teavm.model.optimization.GlobalValueNumbering;
 import org.teavm.model.optimization.Inlining;
+import org.teavm.model.optimization.InliningSchedule;
 import org.teavm.model.optimization.InliningStrategy;
 import org.teavm.model.optimization.LoopInvariantMotion;
 import org.teavm.model.optimization.MethodOptimization;
@@ -95,6 +106,7 @@ import org.teavm.model.optimization.SystemArrayCopyOptimization;
 import org.teavm.model.optimization.UnreachableBasicBlockElimination;
 import org.teavm.model.optimization.UnusedVariableElimination;
 import org.teavm.model.text.ListingBuilder;
+import org.teavm.model.transformation.ClassInitializerEvaluator;
 import org.teavm.model.transformation.ClassInitializerInsertionTransformer;
 import org.teavm.model.util.ModelUtils;
 import org.teavm.model.util.ProgramUtils;
@@ -149,6 +161,12 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
     private ProgramCache programCache = EmptyProgramCache.INSTANCE;
     private CacheStatus rawCacheStatus = AlwaysStaleCacheStatus.INSTANCE;
     private TeaVMOptimizationLevel optimizationLevel = TeaVMOptimizationLevel.SIMPLE;
+    private int optimizationThreads = 1;
+    private boolean classInitializerEvaluation;
+    private boolean programCompaction;
+    private ProgramArena programArena;
+    private Set<MethodReference> evaluatedInitializers = new HashSet<>();
+    private BuildProfiler profiler = BuildProfiler.DISABLED;
     private TeaVMProgressListener progressListener;
     private boolean cancelled;
     private ListableClassHolderSource writtenClasses;
@@ -265,6 +283,82 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         this.optimizationLevel = optimizationLevel;
     }
 
+    public int getOptimizationThreads() {
+        return optimizationThreads;
+    }
+
+    /**
+     * <p>Specifies how many threads should be used to run inlining and per-method optimizations. By default
+     * all methods are processed on the calling thread.</p>
+     *
+     * <p>When more than one thread is requested, optimization passes run on a fork-join pool, while
+     * target callbacks, program cache access and progress reporting stay on the calling thread. Methods are
+     * committed in the same order as in sequential mode, so the output does not depend on the number
+     * of threads. Inlining processes strongly connected components of the call graph concurrently,
+     * starting each component only after all of its callers were processed.</p>
+     *
+     * <p>Targets may use the same number of threads for their own per-method work, for example
+     * the JavaScript and WebAssembly GC backends decompile method bodies concurrently.</p>
+     *
+     * @param optimizationThreads number of worker threads, 1 to disable parallel optimization.
+     */
+    public void setOptimizationThreads(int optimizationThreads) {
+        if (optimizationThreads < 1) {
+            throw new IllegalArgumentException("Number of optimization threads should be positive: "
+                    + optimizationThreads);
+        }
+        this.optimizationThreads = optimizationThreads;
+    }
+
+    public boolean isClassInitializerEvaluation() {
+        return classInitializerEvaluation;
+    }
+
+    /**
+     * <p>Specifies whether static initializers should be run at build time. Only initializers that
+     * {@link ClassInitializerAnalysis} proves to be free of side effects are evaluated, and only when the
+     * optimization level is higher than {@link TeaVMOptimizationLevel#SIMPLE}. Evaluated initializers are
+     * replaced by code that rebuilds the resulting state of static fields. Disabled by default.</p>
+     *
+     * <p>Replaced initializers are never taken from or put to the program cache, since their
+     * bodies depend on other classes.</p>
+     *
+     * @param classInitializerEvaluation whether to evaluate initializers at build time.
+     */
+    public void setClassInitializerEvaluation(boolean classInitializerEvaluation) {
+        this.classInitializerEvaluation = classInitializerEvaluation;
+    }
+
+    public boolean isProgramCompaction() {
+        return programCompaction;
+    }
+
+    /**
+     * <p>Specifies whether optimized programs should be kept in compact form until a target requests them.
+     * Compact programs are encoded into byte arrays sharing common symbol tables, which considerably reduces
+     * memory consumed by the intermediate representation of large projects, at the cost of decoding each
+     * program once more during rendering. Disabled by default.</p>
+     *
+     * @param programCompaction whether to compact optimized programs.
+     */
+    public void setProgramCompaction(boolean programCompaction) {
+        this.programCompaction = programCompaction;
+    }
+
+    public BuildProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Specifies profiler which collects timings and allocations of build phases and optimizations.
+     * By default, nothing is collected.
+     *
+     * @param profiler profiler to use, {@code null} to disable profiling.
+     */
+    public void setProfiler(BuildProfiler profiler) {
+        this.profiler = profiler != null ? profiler : BuildProfiler.DISABLED;
+    }
+
     public TeaVMProgressListener getProgressListener() {
         return progressListener;
     }
@@ -388,19 +482,26 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             cancelled |= progressListener.progressReached(progress) != TeaVMProgressFeedback.CONTINUE;
             return !cancelled;
         });
-        target.contributeDependencies(dependencyAnalyzer);
-        dependencyAnalyzer.initDependencies();
-        processEntryPoint();
-        if (target.needsSystemArrayCopyOptimization()) {
-            dependencyAnalyzer.addDependencyListener(new StdlibDependencyListener());
+        try (var phase = profiler.phase("dependency analysis")) {
+            target.contributeDependencies(dependencyAnalyzer);
+            dependencyAnalyzer.initDependencies();
+            processEntryPoint();
+            if (classInitializerEvaluation && optimizationLevel != TeaVMOptimizationLevel.SIMPLE) {
+                dependencyAnalyzer.defer(() -> ClassInitializerEvaluator.contributeDependencies(dependencyAnalyzer));
+            }
+            if (target.needsSystemArrayCopyOptimization()) {
+                dependencyAnalyzer.addDependencyListener(new StdlibDependencyListener());
+            }
+            dependencyAnalyzer.processDependencies();
         }
-        dependencyAnalyzer.processDependencies();
         if (wasCancelled() || !diagnostics.getSevereProblems().isEmpty()) {
             return;
         }
 
         dependencyAnalyzer.setInterruptor(null);
-        dependencyAnalyzer.cleanup(classSourcePacker);
+        try (var phase = profiler.phase("dependency cleanup")) {
+            dependencyAnalyzer.cleanup(classSourcePacker);
+        }
         cacheStatus = new AnnotationAwareCacheStatus(rawCacheStatus, dependencyAnalyzer.getIncrementalDependencies(),
                 dependencyAnalyzer.getClassSource());
         cacheStatus.addSynthesizedClasses(dependencyAnalyzer::isSynthesizedClass);
@@ -437,7 +538,9 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
                 compileProgressReportStart = 0;
                 compileProgressReportLimit = 1000;
             }
-            target.emit(classSet, buildTarget, outputName);
+            try (var phase = profiler.phase("render")) {
+                target.emit(classSet, buildTarget, outputName);
+            }
         } catch (IOException e) {
             throw new RuntimeException("Error generating output files", e);
         }
@@ -458,24 +561,36 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             compileProgressLimit *= 2;
         }
 
-        var classSet = link(dependencyAnalyzer);
+        ListableClassHolderSource classSet;
+        try (var phase = profiler.phase("link")) {
+            classSet = link(dependencyAnalyzer);
+        }
         writtenClasses = classSet;
         if (wasCancelled()) {
             return null;
         }
 
         if (optimizationLevel != TeaVMOptimizationLevel.SIMPLE) {
-            devirtualize(classSet);
+            try (var phase = profiler.phase("devirtualization")) {
+                devirtualize(classSet);
+            }
             if (wasCancelled()) {
                 return null;
             }
 
-            var classInitializerAnalysis = new ClassInitializerAnalysis(classSet,
-                    dependencyAnalyzer.getClassHierarchy(), entryPoint);
-            classInitializerAnalysis.analyze(dependencyAnalyzer);
-            classInitializerInfo = classInitializerAnalysis;
-            insertClassInit(classSet);
-            eliminateClassInit(classSet);
+            try (var phase = profiler.phase("class initializer analysis")) {
+                var classInitializerAnalysis = new ClassInitializerAnalysis(classSet,
+                        dependencyAnalyzer.getClassHierarchy(), entryPoint);
+                classInitializerAnalysis.analyze(dependencyAnalyzer);
+                classInitializerInfo = classInitializerAnalysis;
+                insertClassInit(classSet);
+                eliminateClassInit(classSet);
+            }
+            if (classInitializerEvaluation) {
+                try (var phase = profiler.phase("class initializer evaluation")) {
+                    evaluateClassInit(classSet);
+                }
+            }
         } else {
             insertClassInit(classSet);
             classInitializerInfo = ClassInitializerInfo.EMPTY;
@@ -493,7 +608,9 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
                 }
             }
         }
-        inline(classSet);
+        try (var phase = profiler.phase("inlining")) {
+            inline(classSet);
+        }
         if (wasCancelled()) {
             return null;
         }
@@ -503,7 +620,9 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
                 new LinkedHashSet<>(dependencyAnalyzer.getReachableClasses())));
 
         // Optimize and allocate registers
-        optimize(classSet);
+        try (var phase = profiler.phase("optimization")) {
+            optimize(classSet);
+        }
         if (wasCancelled()) {
             return null;
         }
@@ -562,6 +681,15 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         }
     }
 
+    private void evaluateClassInit(ListableClassHolderSource classes) {
+        var evaluator = new ClassInitializerEvaluator(classes, classInitializerInfo);
+        for (var className : classInitializerInfo.getInitializationOrder()) {
+            if (target.filterClassInitializer(className) && evaluator.evaluate(className)) {
+                evaluatedInitializers.add(new MethodReference(className, CLINIT_DESC));
+            }
+        }
+    }
+
     private void addInitializersToEntryPoint(ClassHolderSource classes, MethodReference methodRef) {
         ClassHolder cls = classes.get(methodRef.getClassName());
         if (cls == null) {
@@ -665,41 +793,19 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             return;
         }
 
-        InliningStrategy inliningStrategy;
-        if (optimizationLevel == TeaVMOptimizationLevel.FULL) {
-            inliningStrategy = new DefaultInliningStrategy(20, 7, 3000, false);
-        } else {
-            inliningStrategy = new DefaultInliningStrategy(100, 7, 300, true);
-        }
-
-        Inlining inlining = new Inlining(new ClassHierarchy(classes), dependencyAnalyzer, inliningStrategy,
+        Inlining inlining = new Inlining(new ClassHierarchy(classes), dependencyAnalyzer, createInliningStrategy(),
                 classes, this::isExternal, optimizationLevel == TeaVMOptimizationLevel.FULL,
                 target.getInliningFilter());
+        if (optimizationThreads > 1) {
+            new ParallelInliner(classes, inlining).run();
+            return;
+        }
+
         var methodReferences = inlining.getOrder();
         int classCount = classes.getClassNames().size();
         int initialValue = compileProgressValue;
         for (int i = 0; i < methodReferences.size(); i++) {
-            MethodReference methodReference = methodReferences.get(i);
-            ClassHolder cls = classes.get(methodReference.getClassName());
-            if (cls == null) {
-                continue;
-            }
-            MethodHolder method = cls.getMethod(methodReference.getDescriptor());
-            if (method == null) {
-                continue;
-            }
-
-            if (method.getProgram() != null) {
-                if (!inlining.hasUsages(methodReference)) {
-                    inlining.removeUsages(method.getProgram());
-                    method.setProgram(null);
-                } else {
-                    Program program = method.getProgram();
-                    var context = new MethodOptimizationContextImpl(method);
-                    inlining.apply(program, method.getReference());
-                    new UnusedVariableElimination().optimize(context, program);
-                }
-            }
+            inlineMethod(classes, inlining, methodReferences.get(i));
 
             int newProgress = initialValue + classCount * i / methodReferences.size();
             if (newProgress > compileProgressValue) {
@@ -712,7 +818,125 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         }
     }
 
+    private InliningStrategy createInliningStrategy() {
+        if (optimizationLevel == TeaVMOptimizationLevel.FULL) {
+            return new DefaultInliningStrategy(20, 7, 3000, false);
+        } else {
+            return new DefaultInliningStrategy(100, 7, 300, true);
+        }
+    }
+
+    private void inlineMethod(ListableClassHolderSource classes, Inlining inlining, MethodReference methodReference) {
+        ClassHolder cls = classes.get(methodReference.getClassName());
+        if (cls == null) {
+            return;
+        }
+        MethodHolder method = cls.getMethod(methodReference.getDescriptor());
+        if (method == null) {
+            return;
+        }
+
+        if (method.getProgram() != null) {
+            if (!inlining.hasUsages(methodReference)) {
+                inlining.removeUsages(method.getProgram());
+                method.setProgram(null);
+            } else {
+                Program program = method.getProgram();
+                var context = new MethodOptimizationContextImpl(method);
+                try (var stage = profiler.measure("Inlining")) {
+                    inlining.apply(program, method.getReference());
+                }
+                new UnusedVariableElimination().optimize(context, program);
+            }
+        }
+    }
+
+    class ParallelInliner {
+        private final ListableClassHolderSource classes;
+        private final InliningSchedule schedule;
+        private final ThreadLocal<Inlining> forks;
+
+        ParallelInliner(ListableClassHolderSource classes, Inlining inlining) {
+            this.classes = classes;
+            schedule = inlining.getSchedule();
+            forks = ThreadLocal.withInitial(() -> inlining.fork(createInliningStrategy()));
+        }
+
+        void run() {
+            var pool = new ForkJoinPool(optimizationThreads);
+            var completion = new ExecutorCompletionService<Integer>(pool);
+            int componentCount = schedule.componentCount();
+            int[] remainingPredecessors = new int[componentCount];
+            int methodCount = 0;
+            int running = 0;
+            for (int i = 0; i < componentCount; ++i) {
+                methodCount += schedule.getMethods(i).size();
+                remainingPredecessors[i] = schedule.getPredecessorCount(i);
+                if (remainingPredecessors[i] == 0) {
+                    submit(completion, i);
+                    running++;
+                }
+            }
+
+            int classCount = classes.getClassNames().size();
+            int initialValue = compileProgressValue;
+            int processedMethods = 0;
+            try {
+                while (running > 0) {
+                    int component = completion.take().get();
+                    running--;
+                    processedMethods += schedule.getMethods(component).size();
+
+                    int newProgress = initialValue + classCount * processedMethods / methodCount;
+                    if (newProgress > compileProgressValue) {
+                        compileProgressValue = newProgress;
+                        reportCompileProgress(++compileProgressValue);
+                        if (wasCancelled()) {
+                            break;
+                        }
+                    }
+
+                    for (int successor : schedule.getSuccessors(component)) {
+                        if (--remainingPredecessors[successor] == 0) {
+                            submit(completion, successor);
+                            running++;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        private void submit(ExecutorCompletionService<Integer> completion, int component) {
+            completion.submit(() -> {
+                var fork = forks.get();
+                for (MethodReference methodReference : schedule.getMethods(component)) {
+                    inlineMethod(classes, fork, methodReference);
+                }
+                return component;
+            });
+        }
+    }
+
     private void optimize(ListableClassHolderSource classSource) {
+        if (programCompaction) {
+            programArena = new ProgramArena(new ReferenceCache());
+        }
+        if (optimizationThreads > 1) {
+            new ParallelOptimizer(classSource).run();
+            return;
+        }
         for (String className : classSource.getClassNames()) {
             ClassHolder cls = classSource.get(className);
             for (MethodHolder method : cls.getMethods()) {
@@ -730,16 +954,32 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             return;
         }
 
-        Program optimizedProgram = !cacheStatus.isStaleMethod(method.getReference())
+        Program optimizedProgram = isCached(method)
                 ? programCache.get(method.getReference(), cacheStatus)
                 : null;
         if (optimizedProgram == null) {
             optimizedProgram = optimizeMethodCacheMiss(method, ProgramUtils.copy(method.getProgram()));
             Program finalProgram = optimizedProgram;
-            programCache.store(method.getReference(), finalProgram,
-                    () -> programDependencyExtractor.extractDependencies(finalProgram));
+            if (!evaluatedInitializers.contains(method.getReference())) {
+                programCache.store(method.getReference(), finalProgram,
+                        () -> programDependencyExtractor.extractDependencies(finalProgram));
+            }
         }
-        method.setProgram(optimizedProgram);
+        setOptimizedProgram(method, optimizedProgram);
+    }
+
+    private void setOptimizedProgram(MethodHolder method, Program program) {
+        if (programArena != null) {
+            CompactProgram compactProgram = programArena.compact(program);
+            method.setReusableProgramSupplier(m -> compactProgram.inflate());
+        } else {
+            method.setProgram(program);
+        }
+    }
+
+    private boolean isCached(MethodHolder method) {
+        return !cacheStatus.isStaleMethod(method.getReference())
+                && !evaluatedInitializers.contains(method.getReference());
     }
 
     private Program optimizeMethodCacheMiss(MethodHolder method, Program optimizedProgram) {
@@ -747,37 +987,179 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
 
         if (optimizedProgram.basicBlockCount() > 0) {
             var context = new MethodOptimizationContextImpl(method);
-            boolean changed;
-            do {
-                changed = false;
-                for (MethodOptimization optimization : getOptimizations()) {
+            applyOptimizations(context, optimizedProgram);
+            finishOptimizations(method, optimizedProgram);
+        }
+
+        return optimizedProgram;
+    }
+
+    private void applyOptimizations(MethodOptimizationContext context, Program optimizedProgram) {
+        boolean changed;
+        do {
+            changed = false;
+            for (MethodOptimization optimization : getOptimizations()) {
+                try (var stage = profiler.measure(optimization.getClass().getSimpleName())) {
+                    if (optimization.optimize(context, optimizedProgram)) {
+                        stage.markChanged();
+                        changed = true;
+                    }
+                } catch (Exception | AssertionError e) {
+                    var methodRef = context.getMethod().getReference();
+                    ListingBuilder listingBuilder = new ListingBuilder();
                     try {
-                        changed |= optimization.optimize(context, optimizedProgram);
-                    } catch (Exception | AssertionError e) {
-                        ListingBuilder listingBuilder = new ListingBuilder();
-                        try {
-                            String listing = listingBuilder.buildListing(optimizedProgram, "");
-                            System.err.println("Error optimizing program for method " + method.getReference()
-                                    + ":\n" + listing);
-                        } catch (RuntimeException e2) {
-                            System.err.println("Error optimizing program for method " + method.getReference());
-                            // do nothing
-                        }
-                        throw new RuntimeException(e);
+                        String listing = listingBuilder.buildListing(optimizedProgram, "");
+                        System.err.println("Error optimizing program for method " + methodRef + ":\n" + listing);
+                    } catch (RuntimeException e2) {
+                        System.err.println("Error optimizing program for method " + methodRef);
+                        // do nothing
                     }
+                    throw new RuntimeException(e);
                 }
-            } while (changed);
+            }
+        } while (changed);
+    }
 
-            target.afterOptimizations(optimizedProgram, method);
-            var categoryProvider = target.variableCategoryProvider();
-            if (categoryProvider != null) {
+    private void finishOptimizations(MethodHolder method, Program optimizedProgram) {
+        target.afterOptimizations(optimizedProgram, method);
+        var categoryProvider = target.variableCategoryProvider();
+        if (categoryProvider != null) {
+            try (var stage = profiler.measure("register allocation")) {
                 var allocator = new RegisterAllocator(categoryProvider);
                 allocator.allocateRegisters(method.getReference(), optimizedProgram,
                         optimizationLevel == TeaVMOptimizationLevel.SIMPLE);
             }
         }
+    }
 
-        return optimizedProgram;
+    class ParallelOptimizer {
+        private final ListableClassHolderSource classSource;
+        private final ForkJoinPool pool = new ForkJoinPool(optimizationThreads);
+        private final Deque<PendingMethod> pending = new ArrayDeque<>();
+        private final int maxPending = optimizationThreads * 16;
+        private final ClassReaderSource sharedClassSource;
+        private final ThreadLocal<ClassHierarchy> hierarchy;
+
+        ParallelOptimizer(ListableClassHolderSource classSource) {
+            this.classSource = classSource;
+            var underlyingClassSource = dependencyAnalyzer.getClassSource();
+            var reachableClasses = new HashMap<String, ClassReader>();
+            for (String className : dependencyAnalyzer.getReachableClasses()) {
+                ClassReader cls = underlyingClassSource.get(className);
+                if (cls != null) {
+                    reachableClasses.put(className, cls);
+                }
+            }
+            sharedClassSource = name -> {
+                ClassReader cls = reachableClasses.get(name);
+                if (cls == null) {
+                    synchronized (underlyingClassSource) {
+                        cls = underlyingClassSource.get(name);
+                    }
+                }
+                return cls;
+            };
+            hierarchy = ThreadLocal.withInitial(() -> new ClassHierarchy(sharedClassSource));
+        }
+
+        void run() {
+            try {
+                for (String className : classSource.getClassNames()) {
+                    ClassHolder cls = classSource.get(className);
+                    for (MethodHolder method : cls.getMethods()) {
+                        submit(method);
+                    }
+                    pending.add(new PendingMethod(null, null, null, false));
+                    commit(maxPending);
+                    if (wasCancelled()) {
+                        for (PendingMethod item : pending) {
+                            if (item.task != null) {
+                                item.task.cancel(false);
+                            }
+                        }
+                        return;
+                    }
+                }
+                commit(0);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        private void submit(MethodHolder method) {
+            if (method.getProgram() == null) {
+                return;
+            }
+
+            Program program = isCached(method)
+                    ? programCache.get(method.getReference(), cacheStatus)
+                    : null;
+            if (program != null) {
+                pending.add(new PendingMethod(method, program, null, true));
+                return;
+            }
+
+            Program optimizedProgram = ProgramUtils.copy(method.getProgram());
+            target.beforeOptimizations(optimizedProgram, method);
+            ForkJoinTask<?> task = null;
+            if (optimizedProgram.basicBlockCount() > 0) {
+                var context = new ParallelMethodOptimizationContext(method);
+                task = pool.submit(() -> applyOptimizations(context, optimizedProgram));
+            }
+            pending.add(new PendingMethod(method, optimizedProgram, task, false));
+        }
+
+        private void commit(int limit) {
+            while (pending.size() > limit) {
+                var item = pending.remove();
+                if (item.method == null) {
+                    reportCompileProgress(++compileProgressValue);
+                    continue;
+                }
+                if (!item.fromCache) {
+                    if (item.task != null) {
+                        item.task.join();
+                        finishOptimizations(item.method, item.program);
+                    }
+                    Program finalProgram = item.program;
+                    if (!evaluatedInitializers.contains(item.method.getReference())) {
+                        programCache.store(item.method.getReference(), finalProgram,
+                                () -> programDependencyExtractor.extractDependencies(finalProgram));
+                    }
+                }
+                setOptimizedProgram(item.method, item.program);
+            }
+        }
+
+        class ParallelMethodOptimizationContext extends MethodOptimizationContextImpl {
+            ParallelMethodOptimizationContext(MethodReader method) {
+                super(method);
+            }
+
+            @Override
+            public ClassReaderSource getClassSource() {
+                return sharedClassSource;
+            }
+
+            @Override
+            public ClassHierarchy getHierarchy() {
+                return hierarchy.get();
+            }
+        }
+    }
+
+    static class PendingMethod {
+        final MethodHolder method;
+        final Program program;
+        final ForkJoinTask<?> task;
+        final boolean fromCache;
+
+        PendingMethod(MethodHolder method, Program program, ForkJoinTask<?> task, boolean fromCache) {
+            this.method = method;
+            this.program = program;
+            this.task = task;
+            this.fromCache = fromCache;
+        }
     }
 
     class MethodOptimizationContextImpl implements MethodOptimizationContext {
@@ -822,6 +1204,7 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         }
         optimizations.add(new GlobalValueNumbering(optimizationLevel == TeaVMOptimizationLevel.SIMPLE));
         optimizations.add(new RedundantNullCheckElimination());
+        optimizations.add(new BoundCheckElimination());
         if (optimizationLevel.ordinal() >= TeaVMOptimizationLevel.ADVANCED.ordinal()) {
             optimizations.add(new ConstantConditionElimination());
             optimizations.add(new RedundantJumpElimination());
@@ -914,7 +1297,22 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
 
         @Override
         public CacheStatus getCacheStatus() {
-            return cacheStatus;
+            if (!classInitializerEvaluation || optimizationLevel == TeaVMOptimizationLevel.SIMPLE) {
+                return cacheStatus;
+            }
+            // An evaluated initializer depends on every class its interpreter visited, and whether it gets
+            // evaluated may change between builds, so cached ASTs of initializers can't be trusted
+            return new CacheStatus() {
+                @Override
+                public boolean isStaleClass(String className) {
+                    return cacheStatus.isStaleClass(className);
+                }
+
+                @Override
+                public boolean isStaleMethod(MethodReference method) {
+                    return method.getDescriptor().equals(CLINIT_DESC) || cacheStatus.isStaleMethod(method);
+                }
+            };
         }
 
         @Override
@@ -983,6 +1381,16 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         public TeaVMOptimizationLevel getOptimizationLevel() {
             return optimizationLevel;
         }
+
+        @Override
+        public BuildProfiler getProfiler() {
+            return profiler;
+        }
+
+        @Override
+        public int getOptimizationThreads() {
+            return optimizationThreads;
+        }
     };
 
     class PostProcessingClassHolderSource implements ListableClassHolderSource {
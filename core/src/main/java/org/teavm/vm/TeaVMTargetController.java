@@ -60,4 +60,8 @@ public interface TeaVMTargetController {
     void addVirtualMethods(Predicate<MethodReference> methods);
 
     ClassInitializerInfo getClassInitializerInfo();
+
+    BuildProfiler getProfiler();
+
+    int getOptimizationThreads();
 }
@@ -30,10 +30,35 @@ let setGlobalName = function(name, value) {
     new Function("value", name + " = value;")(value);
 }
 
+let jsStringBuiltinsOptions = { builtins: ["js-string"] };
+let jsStringBuiltinsSupported = null;
+function hasJsStringBuiltins() {
+    if (jsStringBuiltinsSupported === null) {
+        jsStringBuiltinsSupported = false;
+        try {
+            // (module (import "wasm:js-string" "length" (func (param externref) (result i32))) (export "f" (func 0)))
+            let bytes = new Uint8Array([
+                0x00, 0x61, 0x73, 0x6d, 0x01, 0x00, 0x00, 0x00,
+                0x01, 0x06, 0x01, 0x60, 0x01, 0x6f, 0x01, 0x7f,
+                0x02, 0x19, 0x01, 0x0e, 0x77, 0x61, 0x73, 0x6d, 0x3a, 0x6a, 0x73, 0x2d, 0x73, 0x74, 0x72, 0x69,
+                0x6e, 0x67, 0x06, 0x6c, 0x65, 0x6e, 0x67, 0x74, 0x68, 0x00, 0x00,
+                0x07, 0x05, 0x01, 0x01, 0x66, 0x00, 0x00
+            ]);
+            let module = new WebAssembly.Module(bytes, jsStringBuiltinsOptions);
+            let instance = new WebAssembly.Instance(module, { "wasm:js-string": { length: () => -1 } });
+            jsStringBuiltinsSupported = instance.exports.f("ab") === 2;
+        } catch (e) {
+            // engine does not support compile options, builtins are unavailable
+        }
+    }
+    return jsStringBuiltinsSupported;
+}
+
 function defaults(imports) {
     let context = {
         exports: null,
-        stackDeobfuscator: null
+        stackDeobfuscator: null,
+        stringBuiltins: false
     };
     dateImports(imports);
     consoleImports(imports, context);
@@ -46,6 +71,9 @@ function defaults(imports) {
         },
         supplyStackDeobfuscator(deobfuscator) {
             context.stackDeobfuscator = deobfuscator;
+        },
+        supplyStringBuiltins(supported) {
+            context.stringBuiltins = supported;
         }
     }
 }
@@ -102,24 +130,59 @@ function dateImports(imports) {
 function consoleImports(imports) {
     let stderr = "";
     let stdout = "";
-    imports.teavmConsole = {
-        putcharStderr(c) {
-            if (c === 10) {
-                console.error(stderr);
-                stderr = "";
+    function putcharStderr(c) {
+        if (c === 10) {
+            console.error(stderr);
+            stderr = "";
+        } else {
+            stderr += String.fromCharCode(c);
+        }
+    }
+    function putcharStdout(c) {
+        if (c === 10) {
+            console.log(stdout);
+            stdout = "";
+        } else {
+            stdout += String.fromCharCode(c);
+        }
+    }
+    function writeLines(buffer, str, output) {
+        let start = 0;
+        while (true) {
+            let index = str.indexOf("\n", start);
+            if (index < 0) {
+                break;
+            }
+            output(buffer + str.substring(start, index));
+            buffer = "";
+            start = index + 1;
+        }
+        return buffer + str.substring(start);
+    }
+    function putChars(str, putchar) {
+        for (let i = 0; i < str.length; ++i) {
+            putchar(str.charCodeAt(i));
+        }
+    }
+    let consoleObj = {
+        putcharStderr: putcharStderr,
+        putcharStdout: putcharStdout,
+        putStringStderr(str) {
+            if (consoleObj.putcharStderr !== putcharStderr) {
+                putChars(str, consoleObj.putcharStderr);
             } else {
-                stderr += String.fromCharCode(c);
+                stderr = writeLines(stderr, str, line => console.error(line));
             }
         },
-        putcharStdout(c) {
-            if (c === 10) {
-                console.log(stdout);
-                stdout = "";
+        putStringStdout(str) {
+            if (consoleObj.putcharStdout !== putcharStdout) {
+                putChars(str, consoleObj.putcharStdout);
             } else {
-                stdout += String.fromCharCode(c);
+                stdout = writeLines(stdout, str, line => console.log(line));
             }
-        },
+        }
     };
+    imports.teavmConsole = consoleObj;
 }
 
 function coreImports(imports, context) {
@@ -301,12 +364,69 @@ function jsoImports(imports, context) {
             `}\n`
         )(c);
     }
+    function charsToString(count, c0, c1, c2, c3, c4, c5, c6, c7) {
+        let result = String.fromCharCode(c0, c1, c2, c3, c4, c5, c6, c7);
+        return count < 8 ? result.substring(0, count) : result;
+    }
+    let typedArrayTypes = [Int8Array, Int16Array, Uint16Array, Int32Array, Float32Array, Float64Array];
+    function setTypedArrayWord(array, index, word) {
+        array[index] = word;
+        array[index + 1] = word >> 8;
+        array[index + 2] = word >> 16;
+        array[index + 3] = word >> 24;
+    }
+    if (!("wasm:js-string" in imports)) {
+        // Only called when module was compiled with JS String Builtins, which replace these functions
+        let unsupported = () => {
+            throw new Error("JS String Builtins are not available");
+        };
+        imports["wasm:js-string"] = {
+            fromCharCodeArray: unsupported,
+            intoCharCodeArray: unsupported
+        };
+    }
     imports.teavmJso = {
         emptyString: () => "",
+        stringBuiltinsSupported: () => context.stringBuiltins ? 1 : 0,
         stringFromCharCode: code => String.fromCharCode(code),
         concatStrings: (a, b) => a + b,
+        charsToString: charsToString,
+        appendChars(builder, count, c0, c1, c2, c3, c4, c5, c6, c7) {
+            builder.push(charsToString(count, c0, c1, c2, c3, c4, c5, c6, c7));
+        },
+        joinStrings: builder => builder.join(""),
         stringLength: s => s.length,
         charAt: (s, index) => s.charCodeAt(index),
+        charPairAt: (s, index) => s.charCodeAt(index) | (s.charCodeAt(index + 1) << 16),
+        createTypedArray: (type, length) => new typedArrayTypes[type](length),
+        typedArrayLength: array => array.length,
+        setTypedArrayItem(array, index, value) {
+            array[index] = value;
+        },
+        setTypedArrayItems(array, index, v0, v1, v2, v3, v4, v5, v6, v7) {
+            array[index] = v0;
+            array[index + 1] = v1;
+            array[index + 2] = v2;
+            array[index + 3] = v3;
+            array[index + 4] = v4;
+            array[index + 5] = v5;
+            array[index + 6] = v6;
+            array[index + 7] = v7;
+        },
+        setTypedArrayBytes(array, index, w0, w1, w2, w3, w4, w5, w6, w7) {
+            setTypedArrayWord(array, index, w0);
+            setTypedArrayWord(array, index + 4, w1);
+            setTypedArrayWord(array, index + 8, w2);
+            setTypedArrayWord(array, index + 12, w3);
+            setTypedArrayWord(array, index + 16, w4);
+            setTypedArrayWord(array, index + 20, w5);
+            setTypedArrayWord(array, index + 24, w6);
+            setTypedArrayWord(array, index + 28, w7);
+        },
+        typedArrayItem: (array, index) => array[index],
+        typedArrayBytes: (array, index) => (array[index] & 255) | ((array[index + 1] & 255) << 8)
+            | ((array[index + 2] & 255) << 16) | (array[index + 3] << 24),
+        typedArrayShorts: (array, index) => (array[index] & 65535) | (array[index + 1] << 16),
         emptyArray: () => [],
         appendToArray: (array, e) => array.push(e),
         unwrapBoolean: value => value ? 1 : 0,
@@ -647,7 +767,7 @@ async function load(path, options) {
     let debugInfoLocation = deobfuscatorOptions.infoLocation || "auto";
     let [deobfuscatorFactory, module, debugInfo] = await Promise.all([
         deobfuscatorOptions.enabled ? getDeobfuscator(path, deobfuscatorOptions) : Promise.resolve(null),
-        WebAssembly.compileStreaming(fetch(path)),
+        WebAssembly.compileStreaming(fetch(path), jsStringBuiltinsOptions),
         fetchExternalDebugInfo(path, debugInfoLocation, deobfuscatorOptions)
     ]);
 
@@ -659,6 +779,7 @@ async function load(path, options) {
     if (!options.noAutoImports) {
         await wrapImports(module, importObj);
     }
+    defaultsResult.supplyStringBuiltins(hasJsStringBuiltins());
     let instance = new WebAssembly.Instance(module, importObj);
 
     defaultsResult.supplyExports(instance.exports);
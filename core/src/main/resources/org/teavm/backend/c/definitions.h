@@ -67,6 +67,22 @@
     #define TEAVM_GC_STATS 0
 #endif
 
+#ifndef TEAVM_GC_EVENT_LOG
+    #define TEAVM_GC_EVENT_LOG 0
+#endif
+
+#ifndef TEAVM_GC_THREADS
+    #define TEAVM_GC_THREADS 1
+#endif
+
+#ifndef TEAVM_GC_HEAP_POLICY
+    #define TEAVM_GC_HEAP_POLICY 0
+#endif
+
+#ifndef TEAVM_GC_HEAP_TARGET
+    #define TEAVM_GC_HEAP_TARGET 0
+#endif
+
 #ifndef TEAVM_OBFUSCATED
     #define TEAVM_OBFUSCATED 0
 #endif
\ No newline at end of file
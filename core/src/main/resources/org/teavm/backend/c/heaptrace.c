@@ -45,12 +45,16 @@ static wchar_t* teavm_gc_dumpDirectory = NULL;
     static int32_t teavm_gc_dirtyRegionCount = 0;
     static int32_t teavm_gc_relocatedBlocks = 0;
     static int32_t teavm_gc_relocatedBytes = 0;
+    static int32_t teavm_gc_markStepCount = 0;
+    static int64_t teavm_gc_markStepTotalTime = 0;
+    static int64_t teavm_gc_markStepMaxTime = 0;
 
     static int64_t teavm_gc_startTimeMillis;
     static int64_t teavm_gc_startTime;
     static int64_t teavm_gc_endTime;
     static int64_t teavm_gc_markStartTime;
     static int64_t teavm_gc_markEndTime;
+    static int64_t teavm_gc_markStepStartTime;
     static int64_t teavm_gc_sweepStartTime;
     static int64_t teavm_gc_sweepEndTime;
     static int64_t teavm_gc_defragStartTime;
@@ -164,6 +168,23 @@ void teavm_gc_markCompleted() {
     #endif
 }
 
+void teavm_gc_markStepStarted() {
+    #if TEAVM_GC_STATS
+        teavm_gc_markStepStartTime = teavm_currentTimeNano();
+    #endif
+}
+
+void teavm_gc_markStepCompleted() {
+    #if TEAVM_GC_STATS
+        int64_t time = teavm_currentTimeNano() - teavm_gc_markStepStartTime;
+        teavm_gc_markStepCount++;
+        teavm_gc_markStepTotalTime += time;
+        if (time > teavm_gc_markStepMaxTime) {
+            teavm_gc_markStepMaxTime = time;
+        }
+    #endif
+}
+
 int32_t teavm_gc_objectSize(void* address) {
     TeaVM_Class* cls = TEAVM_CLASS_OF(address);
     if (cls->itemType == NULL) {
@@ -466,6 +487,13 @@ void teavm_gc_defragCompleted() {
                 " objects reached\n", teavm_gc_markEndTime - teavm_gc_markStartTime, teavm_gc_markCount);
         teavm_gc_print(buffer);
 
+        if (teavm_gc_markStepCount > 0) {
+            swprintf(buffer, TEAVM_GC_LOG_BUFFER_SIZE, L"[GC]     Incremental marking steps: %" PRIu32 ", took %"
+                    PRIu64 " ns, longest step %" PRIu64 " ns\n", teavm_gc_markStepCount, teavm_gc_markStepTotalTime,
+                    teavm_gc_markStepMaxTime);
+            teavm_gc_print(buffer);
+        }
+
         if (!teavm_gc_full) {
             swprintf(buffer, TEAVM_GC_LOG_BUFFER_SIZE, L"[GC]     Regions scanned from remembered set: %" PRIu32 "\n",
                     teavm_gc_dirtyRegionCount);
@@ -494,6 +522,9 @@ void teavm_gc_defragCompleted() {
         teavm_gc_freeByteCount = 0;
         teavm_gc_relocatedBlocks = 0;
         teavm_gc_relocatedBytes = 0;
+        teavm_gc_markStepCount = 0;
+        teavm_gc_markStepTotalTime = 0;
+        teavm_gc_markStepMaxTime = 0;
     }
 #endif
 
@@ -529,3 +560,36 @@ void teavm_gc_setDumpDirectory(const wchar_t* path) {
     teavm_gc_dumpDirectory = malloc(bytesLen);
     memcpy(teavm_gc_dumpDirectory, path, bytesLen);
 }
+
+#if TEAVM_GC_EVENT_LOG > 0
+    static TeaVM_GCEvent teavm_gc_eventLog[TEAVM_GC_EVENT_LOG];
+    static int64_t teavm_gc_eventCount = 0;
+#endif
+
+void teavm_gc_logEvent(int32_t type, int64_t time, int64_t duration, int64_t heapSize, int64_t freeMemory) {
+    #if TEAVM_GC_EVENT_LOG > 0
+        TeaVM_GCEvent* event = &teavm_gc_eventLog[teavm_gc_eventCount++ % TEAVM_GC_EVENT_LOG];
+        event->type = type;
+        event->time = time;
+        event->duration = duration;
+        event->heapSize = heapSize;
+        event->freeMemory = freeMemory;
+    #endif
+}
+
+int32_t teavm_gc_copyEvents(TeaVM_GCEvent* target, int32_t capacity, int64_t* sequence) {
+    #if TEAVM_GC_EVENT_LOG > 0
+        int64_t first = *sequence;
+        if (first < teavm_gc_eventCount - TEAVM_GC_EVENT_LOG) {
+            first = teavm_gc_eventCount - TEAVM_GC_EVENT_LOG;
+        }
+        int32_t count = 0;
+        while (first < teavm_gc_eventCount && count < capacity) {
+            target[count++] = teavm_gc_eventLog[first++ % TEAVM_GC_EVENT_LOG];
+        }
+        *sequence = first;
+        return count;
+    #else
+        return 0;
+    #endif
+}
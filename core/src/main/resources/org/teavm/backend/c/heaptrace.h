@@ -17,6 +17,8 @@ extern void teavm_gc_move(void* from, void* to, int32_t size);
 extern void teavm_gc_gcStarted(int32_t full);
 extern void teavm_gc_markStarted();
 extern void teavm_gc_markCompleted();
+extern void teavm_gc_markStepStarted();
+extern void teavm_gc_markStepCompleted();
 extern void teavm_gc_sweepStarted();
 extern void teavm_gc_sweepCompleted();
 extern void teavm_gc_defragStarted();
@@ -28,4 +30,15 @@ extern void teavm_gc_setDumpDirectory(const wchar_t* path);
 extern void teavm_gc_fixHeap();
 extern void teavm_gc_writeHeapDump();
 extern FILE* teavm_gc_openDumpFile(wchar_t* name);
-extern int32_t teavm_gc_objectSize(void* address);
\ No newline at end of file
+extern int32_t teavm_gc_objectSize(void* address);
+
+typedef struct {
+    int32_t type;
+    int64_t time;
+    int64_t duration;
+    int64_t heapSize;
+    int64_t freeMemory;
+} TeaVM_GCEvent;
+
+extern void teavm_gc_logEvent(int32_t type, int64_t time, int64_t duration, int64_t heapSize, int64_t freeMemory);
+extern int32_t teavm_gc_copyEvents(TeaVM_GCEvent* target, int32_t capacity, int64_t* sequence);
@@ -7,6 +7,9 @@
 #if TEAVM_UNIX
     #include <unistd.h>
     #include <sys/mman.h>
+    #if TEAVM_GC_THREADS > 1
+        #include <pthread.h>
+    #endif
 #endif
 
 #if TEAVM_WINDOWS
@@ -26,6 +29,7 @@ int32_t teavm_gc_regionMaxCount;
 int64_t teavm_gc_availableBytes;
 int64_t teavm_gc_minAvailableBytes;
 int64_t teavm_gc_maxAvailableBytes;
+int32_t teavm_gc_markStepBudget = INT32_C(0);
 static int64_t teavm_gc_pageSize;
 
 #if TEAVM_UNIX
@@ -94,6 +98,79 @@ static int64_t teavm_gc_pageSize;
     }
 #endif
 
+#if TEAVM_GC_THREADS > 1
+    typedef void (*teavm_gc_Worker)(int32_t);
+
+    typedef struct {
+        teavm_gc_Worker worker;
+        int32_t index;
+    } teavm_gc_WorkerTask;
+
+    #if TEAVM_UNIX
+        static void* teavm_gc_workerThread(void* arg) {
+            teavm_gc_WorkerTask* task = (teavm_gc_WorkerTask*) arg;
+            task->worker(task->index);
+            return NULL;
+        }
+
+        static void teavm_gc_runInParallel(teavm_gc_Worker worker) {
+            pthread_t threads[TEAVM_GC_THREADS - 1];
+            teavm_gc_WorkerTask tasks[TEAVM_GC_THREADS - 1];
+            int32_t started = 0;
+            for (int32_t i = 1; i < TEAVM_GC_THREADS; ++i) {
+                tasks[started].worker = worker;
+                tasks[started].index = i;
+                if (pthread_create(&threads[started], NULL, teavm_gc_workerThread, &tasks[started]) == 0) {
+                    started++;
+                } else {
+                    worker(i);
+                }
+            }
+            worker(0);
+            for (int32_t i = 0; i < started; ++i) {
+                pthread_join(threads[i], NULL);
+            }
+        }
+    #endif
+
+    #if TEAVM_WINDOWS
+        static DWORD WINAPI teavm_gc_workerThread(LPVOID arg) {
+            teavm_gc_WorkerTask* task = (teavm_gc_WorkerTask*) arg;
+            task->worker(task->index);
+            return 0;
+        }
+
+        static void teavm_gc_runInParallel(teavm_gc_Worker worker) {
+            HANDLE threads[TEAVM_GC_THREADS - 1];
+            teavm_gc_WorkerTask tasks[TEAVM_GC_THREADS - 1];
+            DWORD started = 0;
+            for (int32_t i = 1; i < TEAVM_GC_THREADS; ++i) {
+                tasks[started].worker = worker;
+                tasks[started].index = i;
+                HANDLE thread = CreateThread(NULL, 0, teavm_gc_workerThread, &tasks[started], 0, NULL);
+                if (thread != NULL) {
+                    threads[started++] = thread;
+                } else {
+                    worker(i);
+                }
+            }
+            worker(0);
+            WaitForMultipleObjects(started, threads, TRUE, INFINITE);
+            for (DWORD i = 0; i < started; ++i) {
+                CloseHandle(threads[i]);
+            }
+        }
+    #endif
+
+    void teavm_gc_sweepInParallel() {
+        teavm_gc_runInParallel(teavm_gc_sweepWorker);
+    }
+
+    void teavm_gc_markInParallel() {
+        teavm_gc_runInParallel(teavm_gc_markWorker);
+    }
+#endif
+
 static int64_t teavm_pageCount(int64_t size) {
     return (int64_t) ((size + teavm_gc_pageSize - 1) / teavm_gc_pageSize * teavm_gc_pageSize);
 }
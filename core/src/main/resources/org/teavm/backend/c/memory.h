@@ -1,5 +1,6 @@
 #pragma once
 #include <stdint.h>
+#include "definitions.h"
 
 extern void* teavm_gc_heapAddress;
 extern void* teavm_gc_gcStorageAddress;
@@ -11,10 +12,75 @@ extern int32_t teavm_gc_regionMaxCount;
 extern int64_t teavm_gc_availableBytes;
 extern int64_t teavm_gc_minAvailableBytes;
 extern int64_t teavm_gc_maxAvailableBytes;
+extern int32_t teavm_gc_markStepBudget;
+#define teavm_gc_sweepThreadCount INT32_C(TEAVM_GC_THREADS)
+#define teavm_gc_heapSizingPolicy INT32_C(TEAVM_GC_HEAP_POLICY)
+#define teavm_gc_heapSizingTarget INT32_C(TEAVM_GC_HEAP_TARGET)
 extern void*** teavm_gc_staticRoots;
 
 extern void teavm_initHeap(int64_t minHeap, int64_t maxHeap);
 extern void teavm_gc_resizeHeap(int64_t newSize);
+#if TEAVM_GC_THREADS > 1
+    extern void teavm_gc_sweepInParallel();
+    extern void teavm_gc_sweepWorker(int32_t index);
+    extern void teavm_gc_markInParallel();
+    extern void teavm_gc_markWorker(int32_t index);
+#else
+    #define teavm_gc_sweepInParallel() ((void) 0)
+    #define teavm_gc_markInParallel() ((void) 0)
+#endif
+
+#if TEAVM_GC_THREADS > 1 && !TEAVM_MEMORY_TRACE
+    #define teavm_gc_markThreadCount INT32_C(TEAVM_GC_THREADS)
+#else
+    #define teavm_gc_markThreadCount INT32_C(1)
+#endif
+
+#if TEAVM_WINDOWS
+    #include <intrin.h>
+
+    static inline int32_t teavm_gc_atomicGetInt(void* address) {
+        return (int32_t) _InterlockedOr((volatile long*) address, 0);
+    }
+
+    static inline int32_t teavm_gc_atomicCompareAndSwapInt(void* address, int32_t expected, int32_t value) {
+        return _InterlockedCompareExchange((volatile long*) address, value, expected) == expected;
+    }
+
+    static inline int32_t teavm_gc_atomicCompareAndSwapShort(void* address, int16_t expected, int16_t value) {
+        return _InterlockedCompareExchange16((volatile short*) address, value, expected) == expected;
+    }
+
+    static inline int32_t teavm_gc_atomicOrInt(void* address, int32_t value) {
+        return (int32_t) _InterlockedOr((volatile long*) address, value);
+    }
+
+    static inline void teavm_gc_atomicOrByte(void* address, int8_t value) {
+        _InterlockedOr8((volatile char*) address, value);
+    }
+#else
+    static inline int32_t teavm_gc_atomicGetInt(void* address) {
+        return __atomic_load_n((int32_t*) address, __ATOMIC_SEQ_CST);
+    }
+
+    static inline int32_t teavm_gc_atomicCompareAndSwapInt(void* address, int32_t expected, int32_t value) {
+        return __atomic_compare_exchange_n((int32_t*) address, &expected, value, 0,
+                __ATOMIC_SEQ_CST, __ATOMIC_SEQ_CST);
+    }
+
+    static inline int32_t teavm_gc_atomicCompareAndSwapShort(void* address, int16_t expected, int16_t value) {
+        return __atomic_compare_exchange_n((int16_t*) address, &expected, value, 0,
+                __ATOMIC_SEQ_CST, __ATOMIC_SEQ_CST);
+    }
+
+    static inline int32_t teavm_gc_atomicOrInt(void* address, int32_t value) {
+        return __atomic_fetch_or((int32_t*) address, value, __ATOMIC_SEQ_CST);
+    }
+
+    static inline void teavm_gc_atomicOrByte(void* address, int8_t value) {
+        __atomic_fetch_or((int8_t*) address, value, __ATOMIC_SEQ_CST);
+    }
+#endif
 
 extern void teavm_registerStaticGcRoots(void***, int);
 extern void teavm_initStaticGcRoots();
\ No newline at end of file
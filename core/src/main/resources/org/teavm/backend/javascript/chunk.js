@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+"use strict";
+
+let $rt_chunks = teavm_globals.Object.create(null);
+let $rt_isChunkLoaded = name => $rt_chunks[name] === true;
+let $rt_loadChunk = name => {
+    let state = $rt_chunks[name];
+    if (state === true) {
+        return teavm_globals.Promise.resolve();
+    }
+    if (typeof state === 'undefined') {
+        if ($rt_chunkBase === void 0) {
+            return teavm_globals.Promise.reject(new teavm_globals.Error("Could not load chunk " + name
+                + ": base URL is unknown outside of browser"));
+        }
+        let url = new teavm_globals.URL($rt_chunkPrefix + name + ".js", $rt_chunkBase);
+        state = teavm_globals.fetch(url)
+            .then(response => {
+                if (!response.ok) {
+                    throw new teavm_globals.Error("Could not load chunk " + name + " from " + url
+                        + ": HTTP status " + response.status);
+                }
+                return response.text();
+            })
+            .then(source => {
+                $rt_evalChunk(source);
+                $rt_chunks[name] = true;
+            }, e => {
+                delete $rt_chunks[name];
+                throw e;
+            });
+        $rt_chunks[name] = state;
+    }
+    return state;
+}
+function $rt_evalChunk() {
+    eval(arguments[0]);
+}
@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+function load(name) {
+    let thread = $rt_nativeThread();
+    if (thread.isResuming()) {
+        thread.status = 0;
+        let result = thread.attribute;
+        if (result instanceof teavm_globals.Error) {
+            throw result;
+        }
+        return;
+    }
+    let chunk = $rt_ustr(name);
+    if ($rt_isChunkLoaded(chunk)) {
+        return;
+    }
+    let javaThread = $rt_getThread();
+    thread.suspend(() => {
+        $rt_loadChunk(chunk).then(() => {
+            thread.attribute = null;
+            $rt_setThread(javaThread);
+            thread.resume();
+        }, e => {
+            thread.attribute = e instanceof teavm_globals.Error ? e : new teavm_globals.Error(teavm_globals.String(e));
+            $rt_setThread(javaThread);
+            thread.resume();
+        });
+    });
+}
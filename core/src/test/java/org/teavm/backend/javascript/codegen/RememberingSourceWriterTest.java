@@ -0,0 +1,67 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.codegen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class RememberingSourceWriterTest {
+    private static final int LINES = 100_000;
+
+    @Test
+    public void releaseFreesBuffers() {
+        var writer = new RememberingSourceWriter(false);
+        writeLines(writer);
+        writer.save();
+        writer.clear();
+        int textSize = LINES * "var x0;".length();
+        assertTrue("clear() is expected to keep buffers", writer.bufferSize() >= textSize);
+
+        writer.release();
+        assertTrue("Writer holds " + writer.bufferSize() + " bytes after release",
+                writer.bufferSize() < textSize / 100);
+    }
+
+    @Test
+    public void savedSourceSurvivesRelease() {
+        var writer = new RememberingSourceWriter(false);
+        writeLines(writer);
+        var source = writer.save();
+        writer.release();
+
+        writer.append("after").append(";").newLine();
+        var next = writer.save();
+
+        var expected = new StringBuilder();
+        var expectedWriter = new OutputSourceWriterBuilder(null).build(expected);
+        writeLines(expectedWriter);
+        expectedWriter.append("after").append(";").newLine();
+
+        var actual = new StringBuilder();
+        var actualWriter = new OutputSourceWriterBuilder(null).build(actual);
+        source.write(actualWriter, 0);
+        next.write(actualWriter, 0);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private static void writeLines(SourceWriter writer) {
+        for (int i = 0; i < LINES; ++i) {
+            writer.append("var").ws().append("x").append(i % 10).append(";").newLine();
+        }
+    }
+}
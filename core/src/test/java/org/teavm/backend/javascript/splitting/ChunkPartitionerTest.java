@@ -0,0 +1,319 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.splitting;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.teavm.callgraph.CallGraph;
+import org.teavm.callgraph.CallGraphNode;
+import org.teavm.callgraph.CallSite;
+import org.teavm.callgraph.FieldAccessSite;
+import org.teavm.interop.SplitPoint;
+import org.teavm.model.AnnotationHolder;
+import org.teavm.model.AnnotationValue;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.Program;
+import org.teavm.model.TextLocation;
+import org.teavm.model.ValueType;
+
+public class ChunkPartitionerTest {
+    private MutableClassHolderSource classes = new MutableClassHolderSource();
+    private TestCallGraph callGraph = new TestCallGraph();
+    private Set<MethodReference> virtualMethods = new HashSet<>();
+    private Set<MethodReference> externalMethods = new HashSet<>();
+
+    @Test
+    public void methodsReachableOnlyFromSplitPointMoved() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var helper = method("app.Lazy", "helper");
+        call(main, lazy);
+        call(lazy, compute);
+        call(compute, helper);
+
+        assertEquals(Map.of(compute, "a", helper, "a"), partition(main));
+    }
+
+    @Test
+    public void movableSeedKeepsCalleesInCore() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var helper = method("app.Lazy", "helper");
+        var orphan = method("app.Other", "orphan");
+        call(main, lazy);
+        call(lazy, compute);
+        call(compute, helper);
+        call(orphan, helper);
+
+        assertEquals(Map.of(compute, "a"), partition(main));
+    }
+
+    @Test
+    public void nonMovableSeedKeepsCalleesInCore() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var helper = method("app.Lazy", "helper");
+        var nativeMethod = nativeMethod("app.Main", "nativeMethod");
+        call(main, lazy);
+        call(main, nativeMethod);
+        call(lazy, compute);
+        call(compute, helper);
+        call(nativeMethod, helper);
+
+        assertEquals(Map.of(compute, "a"), partition(main));
+    }
+
+    @Test
+    public void methodSharedByTwoChunksStaysInCore() {
+        var main = method("app.Main", "main");
+        var first = splitPoint("app.Main", "first", "a");
+        var second = splitPoint("app.Main", "second", "b");
+        var firstCompute = method("app.First", "compute");
+        var secondCompute = method("app.Second", "compute");
+        var shared = method("app.Shared", "shared");
+        var sharedHelper = method("app.Shared", "helper");
+        call(main, first);
+        call(main, second);
+        call(first, firstCompute);
+        call(second, secondCompute);
+        call(firstCompute, shared);
+        call(secondCompute, shared);
+        call(shared, sharedHelper);
+
+        assertEquals(Map.of(firstCompute, "a", secondCompute, "b"), partition(main));
+    }
+
+    @Test
+    public void splitPointsOfSameChunkShareIt() {
+        var main = method("app.Main", "main");
+        var first = splitPoint("app.Main", "first", "a");
+        var second = splitPoint("app.Main", "second", "a");
+        var shared = method("app.Shared", "shared");
+        call(main, first);
+        call(main, second);
+        call(first, shared);
+        call(second, shared);
+
+        assertEquals(Map.of(shared, "a"), partition(main));
+    }
+
+    @Test
+    public void classInitializerStaysInCore() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var clinit = method("app.Lazy", "<clinit>");
+        var initHelper = method("app.Lazy", "initHelper");
+        call(main, lazy);
+        call(lazy, compute);
+        call(lazy, clinit);
+        call(clinit, initHelper);
+
+        assertEquals(Map.of(compute, "a"), partition(main));
+    }
+
+    @Test
+    public void virtualMethodStaysInCore() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var run = method("app.Lazy", "run");
+        var runHelper = method("app.Lazy", "runHelper");
+        virtualMethods.add(run);
+        call(main, lazy);
+        call(lazy, compute);
+        call(compute, run);
+        call(run, runHelper);
+
+        assertEquals(Map.of(compute, "a"), partition(main));
+    }
+
+    @Test
+    public void externallyReferencedMethodStaysInCore() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var callback = method("app.Lazy", "callback");
+        externalMethods.add(callback);
+        call(main, lazy);
+        call(lazy, compute);
+        call(compute, callback);
+
+        assertEquals(Map.of(compute, "a"), partition(main));
+    }
+
+    @Test
+    public void systemClassesStayInCore() {
+        var main = method("app.Main", "main");
+        var lazy = splitPoint("app.Main", "lazy", "a");
+        var compute = method("app.Lazy", "compute");
+        var library = method("java.util.Library", "compute");
+        call(main, lazy);
+        call(lazy, compute);
+        call(compute, library);
+
+        assertEquals(Map.of(compute, "a"), partition(main));
+    }
+
+    @Test
+    public void noSplitPoints() {
+        var main = method("app.Main", "main");
+        var compute = method("app.Lazy", "compute");
+        call(main, compute);
+
+        assertEquals(Map.of(), partition(main));
+    }
+
+    private Map<MethodReference, String> partition(MethodReference entryPoint) {
+        var partitioner = new ChunkPartitioner(classes, callGraph, virtualMethods::contains, m -> false,
+                externalMethods::contains);
+        partitioner.pin(entryPoint);
+        return partitioner.partition();
+    }
+
+    private MethodReference method(String className, String name) {
+        var method = createMethod(className, name);
+        method.setProgram(new Program());
+        return method.getReference();
+    }
+
+    private MethodReference nativeMethod(String className, String name) {
+        var method = createMethod(className, name);
+        method.getModifiers().add(ElementModifier.NATIVE);
+        return method.getReference();
+    }
+
+    private MethodReference splitPoint(String className, String name, String chunk) {
+        var method = createMethod(className, name);
+        method.setProgram(new Program());
+        var annot = new AnnotationHolder(SplitPoint.class.getName());
+        annot.getValues().put("value", new AnnotationValue(chunk));
+        method.getAnnotations().add(annot);
+        return method.getReference();
+    }
+
+    private MethodHolder createMethod(String className, String name) {
+        var cls = classes.get(className);
+        if (cls == null) {
+            cls = new ClassHolder(className);
+            classes.putClassHolder(cls);
+        }
+        var method = new MethodHolder(name, ValueType.VOID);
+        method.getModifiers().add(ElementModifier.STATIC);
+        cls.addMethod(method);
+        return method;
+    }
+
+    private void call(MethodReference caller, MethodReference callee) {
+        var callerNode = callGraph.getNode(caller);
+        var calleeNode = callGraph.getNode(callee);
+        var site = new TestCallSite(callerNode, calleeNode);
+        callerNode.callSites.add(site);
+        calleeNode.callerCallSites.add(site);
+    }
+
+    static class TestCallGraph implements CallGraph {
+        private Map<MethodReference, TestCallGraphNode> nodes = new HashMap<>();
+
+        @Override
+        public TestCallGraphNode getNode(MethodReference method) {
+            return nodes.computeIfAbsent(method, m -> new TestCallGraphNode(this, m));
+        }
+
+        @Override
+        public Collection<? extends FieldAccessSite> getFieldAccess(FieldReference reference) {
+            return Collections.emptyList();
+        }
+    }
+
+    static class TestCallGraphNode implements CallGraphNode {
+        private TestCallGraph graph;
+        private MethodReference method;
+        List<TestCallSite> callSites = new ArrayList<>();
+        List<TestCallSite> callerCallSites = new ArrayList<>();
+
+        TestCallGraphNode(TestCallGraph graph, MethodReference method) {
+            this.graph = graph;
+            this.method = method;
+        }
+
+        @Override
+        public CallGraph getGraph() {
+            return graph;
+        }
+
+        @Override
+        public MethodReference getMethod() {
+            return method;
+        }
+
+        @Override
+        public Collection<? extends CallSite> getCallSites() {
+            return callSites;
+        }
+
+        @Override
+        public Collection<? extends CallSite> getCallerCallSites() {
+            return callerCallSites;
+        }
+
+        @Override
+        public Collection<? extends FieldAccessSite> getFieldAccessSites() {
+            return Collections.emptyList();
+        }
+    }
+
+    static class TestCallSite implements CallSite {
+        private TestCallGraphNode caller;
+        private TestCallGraphNode callee;
+
+        TestCallSite(TestCallGraphNode caller, TestCallGraphNode callee) {
+            this.caller = caller;
+            this.callee = callee;
+        }
+
+        @Override
+        public Collection<? extends TextLocation> getLocations(CallGraphNode caller) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<? extends CallGraphNode> getCalledMethods() {
+            return List.of(callee);
+        }
+
+        @Override
+        public Collection<? extends CallGraphNode> getCallers() {
+            return List.of(caller);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodReference;
+import org.teavm.model.ReferenceCache;
+import org.teavm.parsing.ClassHashProvider;
+import org.teavm.parsing.ClasspathClassHolderSource;
+
+public class DiskCachedClassReaderSourceTest {
+    private static final String CLASS_NAME = "org.teavm.cache.data.Foo";
+    private static final String CLASS_FILE = CLASS_NAME.replace('.', '/') + ".class";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ReferenceCache referenceCache = new ReferenceCache();
+    private SymbolTable symbolTable = new InMemorySymbolTable();
+    private SymbolTable fileTable = new InMemorySymbolTable();
+    private SymbolTable variableTable = new InMemorySymbolTable();
+
+    @Test
+    public void touchedClassStaysCached() throws IOException {
+        var classes = folder.newFolder("classes");
+        var cache = folder.newFolder("cache");
+        var classFile = writeClass(classes, "first");
+
+        var firstBuild = createSource(classes, cache);
+        assertTrue(firstBuild.isStaleClass(CLASS_NAME));
+        firstBuild.flush();
+
+        assertTrue(classFile.setLastModified(System.currentTimeMillis() + 3_600_000));
+        var secondBuild = createSource(classes, cache);
+        assertFalse(secondBuild.isStaleClass(CLASS_NAME));
+        assertNotNull(secondBuild.get(CLASS_NAME).getMethod(new MethodDescriptor("first", int.class)));
+    }
+
+    @Test
+    public void changedClassIsReparsed() throws IOException {
+        var classes = folder.newFolder("classes");
+        var cache = folder.newFolder("cache");
+        var classFile = writeClass(classes, "first");
+
+        var firstBuild = createSource(classes, cache);
+        assertTrue(firstBuild.isStaleClass(CLASS_NAME));
+        firstBuild.flush();
+
+        var lastModified = classFile.lastModified();
+        writeClass(classes, "second");
+        assertTrue(classFile.setLastModified(lastModified));
+        var secondBuild = createSource(classes, cache);
+        assertTrue(secondBuild.isStaleClass(CLASS_NAME));
+        var cls = secondBuild.get(CLASS_NAME);
+        assertNull(cls.getMethod(new MethodDescriptor("first", int.class)));
+        assertNotNull(cls.getMethod(new MethodDescriptor("second", int.class)));
+    }
+
+    @Test
+    public void staleInterfaceMakesImplementationStale() {
+        Map<String, ClassHolder> classes = new HashMap<>();
+        var itf = new ClassHolder("Itf");
+        classes.put(itf.getName(), itf);
+        var impl = new ClassHolder("Impl");
+        impl.setParent("java.lang.Object");
+        impl.getInterfaces().add("Itf");
+        classes.put(impl.getName(), impl);
+        var other = new ClassHolder("Other");
+        other.setParent("java.lang.Object");
+        classes.put(other.getName(), other);
+
+        var staleClasses = Set.of("Itf");
+        var underlyingStatus = new CacheStatus() {
+            @Override
+            public boolean isStaleClass(String className) {
+                return staleClasses.contains(className);
+            }
+
+            @Override
+            public boolean isStaleMethod(MethodReference method) {
+                return isStaleClass(method.getClassName());
+            }
+        };
+        var status = new AnnotationAwareCacheStatus(underlyingStatus, new NoDependencies(), classes::get);
+
+        assertTrue(status.isStaleClass("Impl"));
+        assertFalse(status.isStaleClass("Other"));
+    }
+
+    private DiskCachedClassReaderSource createSource(File classes, File cache) throws IOException {
+        var classLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, null);
+        var innerSource = new ClasspathClassHolderSource(classLoader, referenceCache);
+        return new DiskCachedClassReaderSource(new DirectoryCacheStorage(cache), referenceCache, symbolTable,
+                fileTable, variableTable, innerSource, (ClassHashProvider) innerSource);
+    }
+
+    private static File writeClass(File directory, String methodName) throws IOException {
+        var writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, CLASS_NAME.replace('.', '/'), null, "java/lang/Object",
+                null);
+        var method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, methodName, "()I", null, null);
+        method.visitCode();
+        method.visitInsn(Opcodes.ICONST_1);
+        method.visitInsn(Opcodes.IRETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+
+        var file = new File(directory, CLASS_FILE);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), writer.toByteArray());
+        return file;
+    }
+
+    private static class NoDependencies implements IncrementalDependencyProvider {
+        @Override
+        public boolean isNoCache(String className) {
+            return false;
+        }
+
+        @Override
+        public boolean isNoCache(MethodReference method) {
+            return false;
+        }
+
+        @Override
+        public String[] getDependencies(String className) {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getDependencies(MethodReference method) {
+            return new String[0];
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PackFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsPendingAndCommittedEntries() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "first");
+            write(pack, "b", "second");
+            assertEquals("first", read(pack, "a"));
+            assertTrue(pack.lastModified("a") > 0);
+            pack.commit();
+            assertEquals("first", read(pack, "a"));
+            assertEquals("second", read(pack, "b"));
+            assertNull(pack.read("c"));
+            assertEquals(0, pack.lastModified("c"));
+        }
+    }
+
+    @Test
+    public void entriesSurviveReopen() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "1");
+            write(pack, "b", "2");
+            pack.commit();
+            write(pack, "a", "3");
+            pack.commit();
+        }
+        try (var pack = new PackFile(file)) {
+            assertEquals("3", read(pack, "a"));
+            assertEquals("2", read(pack, "b"));
+        }
+    }
+
+    @Test
+    public void uncommittedEntriesAreDiscarded() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "1");
+            pack.commit();
+            write(pack, "a", "2");
+            write(pack, "b", "3");
+        }
+        try (var pack = new PackFile(file)) {
+            assertEquals("1", read(pack, "a"));
+            assertNull(pack.read("b"));
+        }
+    }
+
+    @Test
+    public void compactsReplacedEntries() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        var large = new byte[600 * 1024];
+        try (var pack = new PackFile(file)) {
+            write(pack, "small", "x");
+            for (var i = 0; i < 4; ++i) {
+                large[0] = (byte) i;
+                write(pack, "large", large);
+                pack.commit();
+            }
+            assertTrue("File was not compacted: " + file.length(), file.length() < 2 * large.length);
+            assertEquals("x", read(pack, "small"));
+            assertArrayEquals(large, readBytes(pack, "large"));
+        }
+        try (var pack = new PackFile(file)) {
+            assertEquals("x", read(pack, "small"));
+            assertArrayEquals(large, readBytes(pack, "large"));
+        }
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void ignoresDataPastCommittedLength() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "1");
+            pack.commit();
+        }
+        try (var raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13 });
+        }
+        try (var pack = new PackFile(file)) {
+            assertEquals("1", read(pack, "a"));
+            write(pack, "b", "2");
+            pack.commit();
+        }
+        try (var pack = new PackFile(file)) {
+            assertEquals("1", read(pack, "a"));
+            assertEquals("2", read(pack, "b"));
+        }
+    }
+
+    @Test
+    public void recoversFromTruncatedFile() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "some data");
+            pack.commit();
+        }
+        try (var raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        try (var pack = new PackFile(file)) {
+            assertNull(pack.read("a"));
+            write(pack, "a", "new data");
+            pack.commit();
+        }
+        try (var pack = new PackFile(file)) {
+            assertEquals("new data", read(pack, "a"));
+        }
+    }
+
+    @Test
+    public void recoversFromCorruptedRecord() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "some data");
+            pack.commit();
+        }
+        try (var raf = new RandomAccessFile(file, "rw")) {
+            // Key length of the first record
+            raf.seek(16 + 8);
+            raf.writeInt(Integer.MAX_VALUE);
+        }
+        try (var pack = new PackFile(file)) {
+            assertNull(pack.read("a"));
+            write(pack, "b", "other data");
+            pack.commit();
+        }
+        try (var pack = new PackFile(file)) {
+            assertNull(pack.read("a"));
+            assertEquals("other data", read(pack, "b"));
+        }
+    }
+
+    @Test
+    public void streamsFailAfterCommit() throws IOException {
+        var file = new File(folder.getRoot(), "cache.pack");
+        try (var pack = new PackFile(file)) {
+            write(pack, "a", "first");
+            pack.commit();
+            var input = pack.read("a");
+            assertEquals('f', input.read());
+
+            write(pack, "b", "second");
+            pack.commit();
+            try {
+                input.read();
+                fail("Stream should be invalidated by commit");
+            } catch (IOException e) {
+                // expected
+            }
+            assertEquals("first", read(pack, "a"));
+        }
+    }
+
+    private static void write(PackFile pack, String key, String data) throws IOException {
+        write(pack, key, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(PackFile pack, String key, byte[] data) throws IOException {
+        try (OutputStream output = pack.write(key)) {
+            output.write(data);
+        }
+    }
+
+    private static String read(PackFile pack, String key) throws IOException {
+        return new String(readBytes(pack, key), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(PackFile pack, String key) throws IOException {
+        try (InputStream input = pack.read(key)) {
+            return input.readAllBytes();
+        }
+    }
+}
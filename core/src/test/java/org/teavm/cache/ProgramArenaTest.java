@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.cache;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.ReferenceCache;
+import org.teavm.model.TextLocation;
+import org.teavm.model.TryCatchBlock;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ExitInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+
+public class ProgramArenaTest {
+    private static final MethodReference BAR = new MethodReference("Foo", "bar", ValueType.VOID);
+
+    @Test
+    public void variablesPreserved() {
+        Program program = createProgram();
+
+        Program inflated = new ProgramArena(new ReferenceCache()).compact(program).inflate();
+
+        assertThat(inflated.variableCount(), is(2));
+        assertThat(inflated.variableAt(1).getDebugName(), is("x"));
+        assertThat(inflated.variableAt(1).getLabel(), is("x_1"));
+        assertThat(inflated.variableAt(0).getLabel(), nullValue());
+        BasicBlock block = inflated.basicBlockAt(0);
+        assertThat(block.instructionCount(), is(2));
+        assertThat(block.getFirstInstruction(), instanceOf(IntegerConstantInstruction.class));
+        assertThat(((IntegerConstantInstruction) block.getFirstInstruction()).getConstant(), is(42));
+    }
+
+    @Test
+    public void inflatesIndependentCopies() {
+        CompactProgram compactProgram = new ProgramArena(new ReferenceCache()).compact(createProgram());
+
+        Program first = compactProgram.inflate();
+        Program second = compactProgram.inflate();
+        assertThat(first, not(sameInstance(second)));
+
+        first.basicBlockAt(0).getFirstInstruction().delete();
+        assertThat(first.basicBlockAt(0).instructionCount(), is(1));
+        assertThat(second.basicBlockAt(0).instructionCount(), is(2));
+        assertThat(compactProgram.inflate().basicBlockAt(0).instructionCount(), is(2));
+    }
+
+    @Test
+    public void controlFlowPreserved() {
+        Program inflated = new ProgramArena(new ReferenceCache()).compact(createControlFlowProgram()).inflate();
+
+        assertThat(inflated.basicBlockCount(), is(3));
+        BasicBlock protectedBlock = inflated.basicBlockAt(0);
+        assertThat(protectedBlock.getTryCatchBlocks().size(), is(1));
+        TryCatchBlock tryCatch = protectedBlock.getTryCatchBlocks().get(0);
+        assertThat(tryCatch.getExceptionType(), is("java.lang.IllegalStateException"));
+        assertThat(tryCatch.getHandler().getIndex(), is(1));
+        assertThat(inflated.basicBlockAt(1).getExceptionVariable().getIndex(), is(2));
+
+        BasicBlock joint = inflated.basicBlockAt(2);
+        assertThat(joint.getPhis().size(), is(1));
+        Phi phi = joint.getPhis().get(0);
+        assertThat(phi.getReceiver().getIndex(), is(4));
+        assertThat(phi.getIncomings().size(), is(2));
+        assertThat(phi.getIncomings().get(0).getSource().getIndex(), is(0));
+        assertThat(phi.getIncomings().get(0).getValue().getIndex(), is(1));
+        assertThat(phi.getIncomings().get(1).getSource().getIndex(), is(1));
+        assertThat(phi.getIncomings().get(1).getValue().getIndex(), is(3));
+
+        Instruction constant = protectedBlock.getFirstInstruction();
+        assertThat(constant.getLocation(), is(new TextLocation("Foo.java", 10)));
+        Instruction invoke = constant.getNext();
+        assertThat(invoke, instanceOf(InvokeInstruction.class));
+        assertThat(invoke.getLocation(), is(new TextLocation("Foo.java", 11)));
+        assertThat(((InvokeInstruction) invoke).getMethod(), is(BAR));
+        assertThat(joint.getLastInstruction().getLocation().isEmpty(), is(true));
+    }
+
+    @Test
+    public void symbolsSharedBetweenPrograms() {
+        ProgramArena arena = new ProgramArena(new ReferenceCache());
+        CompactProgram first = arena.compact(createControlFlowProgram());
+        CompactProgram second = arena.compact(createControlFlowProgram());
+
+        Program firstInflated = first.inflate();
+        Program secondInflated = second.inflate();
+
+        InvokeInstruction firstInvoke = (InvokeInstruction) firstInflated.basicBlockAt(0).getLastInstruction()
+                .getPrevious();
+        InvokeInstruction secondInvoke = (InvokeInstruction) secondInflated.basicBlockAt(0).getLastInstruction()
+                .getPrevious();
+        assertThat(firstInvoke.getMethod(), is(BAR));
+        assertThat(secondInvoke.getMethod(), sameInstance(firstInvoke.getMethod()));
+        assertThat(secondInvoke.getLocation(), is(firstInvoke.getLocation()));
+        assertThat(secondInflated.basicBlockAt(0).getTryCatchBlocks().get(0).getExceptionType(),
+                is("java.lang.IllegalStateException"));
+        assertThat(second.size(), is(first.size()));
+    }
+
+    private Program createControlFlowProgram() {
+        Program program = new Program();
+        program.createVariable();
+        Variable x = program.createVariable();
+        Variable exception = program.createVariable();
+        Variable y = program.createVariable();
+        Variable z = program.createVariable();
+        BasicBlock protectedBlock = program.createBasicBlock();
+        BasicBlock handler = program.createBasicBlock();
+        BasicBlock joint = program.createBasicBlock();
+
+        IntegerConstantInstruction constant = new IntegerConstantInstruction();
+        constant.setConstant(1);
+        constant.setReceiver(x);
+        constant.setLocation(new TextLocation("Foo.java", 10));
+        protectedBlock.add(constant);
+
+        InvokeInstruction invoke = new InvokeInstruction();
+        invoke.setType(InvocationType.SPECIAL);
+        invoke.setMethod(BAR);
+        invoke.setLocation(new TextLocation("Foo.java", 11));
+        protectedBlock.add(invoke);
+
+        JumpInstruction jump = new JumpInstruction();
+        jump.setTarget(joint);
+        protectedBlock.add(jump);
+
+        TryCatchBlock tryCatch = new TryCatchBlock();
+        tryCatch.setExceptionType("java.lang.IllegalStateException");
+        tryCatch.setHandler(handler);
+        protectedBlock.getTryCatchBlocks().add(tryCatch);
+
+        handler.setExceptionVariable(exception);
+        constant = new IntegerConstantInstruction();
+        constant.setConstant(2);
+        constant.setReceiver(y);
+        handler.add(constant);
+        jump = new JumpInstruction();
+        jump.setTarget(joint);
+        handler.add(jump);
+
+        Phi phi = new Phi();
+        phi.setReceiver(z);
+        Incoming incoming = new Incoming();
+        incoming.setSource(protectedBlock);
+        incoming.setValue(x);
+        phi.getIncomings().add(incoming);
+        incoming = new Incoming();
+        incoming.setSource(handler);
+        incoming.setValue(y);
+        phi.getIncomings().add(incoming);
+        joint.getPhis().add(phi);
+
+        ExitInstruction exit = new ExitInstruction();
+        exit.setValueToReturn(z);
+        joint.add(exit);
+
+        return program;
+    }
+
+    private Program createProgram() {
+        Program program = new Program();
+        program.createVariable();
+        Variable var = program.createVariable();
+        var.setDebugName("x");
+        var.setLabel("x_1");
+        BasicBlock block = program.createBasicBlock();
+
+        IntegerConstantInstruction constant = new IntegerConstantInstruction();
+        constant.setConstant(42);
+        constant.setReceiver(var);
+        block.add(constant);
+
+        ExitInstruction exit = new ExitInstruction();
+        exit.setValueToReturn(var);
+        block.add(exit);
+
+        return program;
+    }
+}
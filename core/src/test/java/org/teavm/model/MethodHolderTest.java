@@ -0,0 +1,139 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import java.util.function.Function;
+import org.junit.Test;
+import org.teavm.cache.CompactProgram;
+import org.teavm.cache.ProgramArena;
+import org.teavm.model.instructions.ExitInstruction;
+
+public class MethodHolderTest {
+    private int supplied;
+
+    @Test
+    public void readProgramDoesNotRetainReusableProgram() {
+        MethodHolder method = createMethod(true);
+
+        ProgramReader first = method.readProgram();
+        ProgramReader second = method.readProgram();
+
+        assertThat(supplied, is(2));
+        assertThat(first, not(sameInstance(second)));
+        assertThat(method.hasProgram(), is(true));
+    }
+
+    @Test
+    public void getProgramRetainsProgramUntilReleased() {
+        MethodHolder method = createMethod(true);
+
+        Program program = method.getProgram();
+        assertThat(method.getProgram(), sameInstance(program));
+        assertThat(method.readProgram(), sameInstance(program));
+        assertThat(supplied, is(1));
+
+        method.releaseProgram();
+        Program reinflated = method.getProgram();
+        assertThat(supplied, is(2));
+        assertThat(reinflated, not(sameInstance(program)));
+        assertThat(reinflated.basicBlockCount(), is(1));
+    }
+
+    @Test
+    public void releasedProgramsNotRetained() {
+        MethodHolder[] methods = new MethodHolder[10];
+        Program[] programs = new Program[methods.length];
+        for (int i = 0; i < methods.length; ++i) {
+            methods[i] = createMethod(true);
+            programs[i] = methods[i].getProgram();
+            methods[i].releaseProgram();
+        }
+        assertThat(supplied, is(methods.length));
+
+        for (int i = 0; i < methods.length; ++i) {
+            assertThat(methods[i].getProgram(), not(sameInstance(programs[i])));
+        }
+        assertThat(supplied, is(methods.length * 2));
+    }
+
+    @Test
+    public void nonReusableProgramSuppliedOnce() {
+        MethodHolder method = createMethod(false);
+
+        ProgramReader program = method.readProgram();
+        method.releaseProgram();
+
+        assertThat(method.getProgram(), sameInstance(program));
+        assertThat(method.readProgram(), sameInstance(program));
+        assertThat(supplied, is(1));
+    }
+
+    @Test
+    public void setProgramOverridesSupplier() {
+        MethodHolder method = createMethod(true);
+        Program program = createProgram();
+
+        method.setProgram(program);
+        method.releaseProgram();
+
+        assertThat(method.getProgram(), sameInstance(program));
+        assertThat(method.readProgram(), sameInstance(program));
+        assertThat(supplied, is(0));
+
+        method.setProgram(null);
+        assertThat(method.hasProgram(), is(false));
+        assertThat(method.readProgram(), nullValue());
+    }
+
+    @Test
+    public void compactProgramInflatedOnDemand() {
+        CompactProgram compactProgram = new ProgramArena(new ReferenceCache()).compact(createProgram());
+        MethodHolder method = new MethodHolder("foo", ValueType.VOID);
+        method.setReusableProgramSupplier(m -> compactProgram.inflate());
+
+        Program program = method.getProgram();
+        program.basicBlockAt(0).getFirstInstruction().delete();
+        method.releaseProgram();
+
+        assertThat(method.getProgram().basicBlockAt(0).instructionCount(), is(1));
+    }
+
+    private MethodHolder createMethod(boolean reusable) {
+        MethodHolder method = new MethodHolder("foo", ValueType.VOID);
+        Function<MethodHolder, Program> supplier = m -> {
+            supplied++;
+            return createProgram();
+        };
+        if (reusable) {
+            method.setReusableProgramSupplier(supplier);
+        } else {
+            method.setProgramSupplier(supplier);
+        }
+        return method;
+    }
+
+    private Program createProgram() {
+        Program program = new Program();
+        program.createVariable();
+        program.createBasicBlock().add(new ExitInstruction());
+        return program;
+    }
+}
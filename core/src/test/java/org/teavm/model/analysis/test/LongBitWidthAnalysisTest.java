@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Instruction;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.analysis.LongBitWidthAnalysis;
+import org.teavm.model.util.DefinitionExtractor;
+
+public class LongBitWidthAnalysisTest {
+    @Rule
+    public TestName name = new TestName();
+
+    private static final String WIDTH_DIRECTIVE = "// WIDTH ";
+    private static final String OVERFLOW_FREE_DIRECTIVE = "// OVERFLOW_FREE ";
+    private static final String OVERFLOWING_DIRECTIVE = "// OVERFLOWING ";
+    private static final String SAFE_INTEGER_DIRECTIVE = "// SAFE_INTEGER ";
+    private static final String UNSAFE_INTEGER_DIRECTIVE = "// UNSAFE_INTEGER ";
+
+    @Test
+    public void widenedArithmetic() {
+        test();
+    }
+
+    @Test
+    public void parameters() {
+        test();
+    }
+
+    @Test
+    public void division() {
+        test();
+    }
+
+    @Test
+    public void loop() {
+        test();
+    }
+
+    @Test
+    public void phi() {
+        test();
+    }
+
+    @Test
+    public void shifts() {
+        test();
+    }
+
+    @Test
+    public void safeIntegers() {
+        test();
+    }
+
+    private void test() {
+        String resourceName = "model/analysis/long-bit-width/" + name.getMethodName() + ".txt";
+        Program program = ListingParseUtils.parseFromResource(resourceName);
+        LongBitWidthAnalysis analysis = new LongBitWidthAnalysis(program);
+
+        Map<String, Variable> variablesByLabel = new HashMap<>();
+        for (int i = 0; i < program.variableCount(); ++i) {
+            Variable var = program.variableAt(i);
+            if (var.getLabel() != null) {
+                variablesByLabel.put(var.getLabel(), var);
+            }
+        }
+        Map<Variable, Instruction> definitions = new HashMap<>();
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                insn.acceptVisitor(defExtractor);
+                for (Variable var : defExtractor.getDefinedVariables()) {
+                    definitions.put(var, insn);
+                }
+            }
+        }
+
+        for (String line : readLines(resourceName)) {
+            if (line.startsWith(WIDTH_DIRECTIVE)) {
+                String[] parts = line.substring(WIDTH_DIRECTIVE.length()).trim().split(" +");
+                Variable var = variablesByLabel.get(parts[0]);
+                assertNotNull("Variable " + parts[0] + " is missing", var);
+                assertEquals("Width of " + parts[0], Integer.parseInt(parts[1]),
+                        analysis.getBitWidth(var.getIndex()));
+            } else if (line.startsWith(OVERFLOW_FREE_DIRECTIVE)) {
+                String varName = line.substring(OVERFLOW_FREE_DIRECTIVE.length()).trim();
+                Instruction insn = definitions.get(variablesByLabel.get(varName));
+                assertNotNull("Definition of " + varName + " is missing", insn);
+                assertTrue("Definition of " + varName + " must be overflow free", analysis.isOverflowFree(insn));
+            } else if (line.startsWith(OVERFLOWING_DIRECTIVE)) {
+                String varName = line.substring(OVERFLOWING_DIRECTIVE.length()).trim();
+                Instruction insn = definitions.get(variablesByLabel.get(varName));
+                assertNotNull("Definition of " + varName + " is missing", insn);
+                assertFalse("Definition of " + varName + " may overflow", analysis.isOverflowFree(insn));
+            } else if (line.startsWith(SAFE_INTEGER_DIRECTIVE)) {
+                String varName = line.substring(SAFE_INTEGER_DIRECTIVE.length()).trim();
+                Variable var = variablesByLabel.get(varName);
+                Instruction insn = definitions.get(var);
+                assertNotNull("Definition of " + varName + " is missing", insn);
+                assertTrue(varName + " must be safe integer", analysis.isSafeInteger(var.getIndex()));
+                assertTrue("Definition of " + varName + " must be safe integer", analysis.isSafeInteger(insn));
+            } else if (line.startsWith(UNSAFE_INTEGER_DIRECTIVE)) {
+                String varName = line.substring(UNSAFE_INTEGER_DIRECTIVE.length()).trim();
+                Instruction insn = definitions.get(variablesByLabel.get(varName));
+                assertNotNull("Definition of " + varName + " is missing", insn);
+                assertFalse("Definition of " + varName + " is not safe integer", analysis.isSafeInteger(insn));
+            }
+        }
+    }
+
+    private String[] readLines(String name) {
+        ClassLoader classLoader = LongBitWidthAnalysisTest.class.getClassLoader();
+        try (InputStream input = classLoader.getResourceAsStream(name);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return reader.lines().toArray(String[]::new);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
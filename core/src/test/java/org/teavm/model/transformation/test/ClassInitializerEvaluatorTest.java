@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.analysis.ClassInitializerInfo;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+import org.teavm.model.text.ListingBuilder;
+import org.teavm.model.transformation.ClassInitializerEvaluator;
+import org.teavm.runtime.ClassInitializerData;
+
+public class ClassInitializerEvaluatorTest {
+    private static final String PREFIX = "model/transformation/class-initializer-evaluation/";
+    private static final MethodDescriptor CLINIT = new MethodDescriptor("<clinit>", void.class);
+    @Rule
+    public TestName name = new TestName();
+    private MutableClassHolderSource classes;
+    private ClassHolder testClass;
+
+    @Before
+    public void setup() {
+        classes = new MutableClassHolderSource();
+
+        testClass = new ClassHolder("Test");
+        testClass.setParent("java.lang.Object");
+        addStaticField(testClass, "answer", ValueType.INTEGER);
+        addStaticField(testClass, "greeting", ValueType.object("java.lang.String"));
+        addStaticField(testClass, "table", ValueType.arrayOf(ValueType.INTEGER));
+        addStaticField(testClass, "items", ValueType.arrayOf(ValueType.object("TestItem")));
+        var nativeMethod = new MethodHolder("nativeMethod", ValueType.INTEGER);
+        nativeMethod.getModifiers().add(ElementModifier.STATIC);
+        nativeMethod.getModifiers().add(ElementModifier.NATIVE);
+        testClass.addMethod(nativeMethod);
+        var clinit = new MethodHolder(CLINIT);
+        clinit.getModifiers().add(ElementModifier.STATIC);
+        testClass.addMethod(clinit);
+        classes.putClassHolder(testClass);
+
+        var itemClass = new ClassHolder("TestItem");
+        itemClass.setParent("java.lang.Object");
+        itemClass.addField(new FieldHolder("value"));
+        itemClass.getField("value").setType(ValueType.INTEGER);
+        classes.putClassHolder(itemClass);
+
+        var otherClass = new ClassHolder("Other");
+        otherClass.setParent("java.lang.Object");
+        addStaticField(otherClass, "value", ValueType.INTEGER);
+        classes.putClassHolder(otherClass);
+
+        classes.putClassHolder(new ClassHolder("java.lang.Object"));
+    }
+
+    private static void addStaticField(ClassHolder cls, String name, ValueType type) {
+        var field = new FieldHolder(name);
+        field.setType(type);
+        field.getModifiers().add(ElementModifier.STATIC);
+        cls.addField(field);
+    }
+
+    @Test
+    public void primitiveFields() {
+        assertTrue(evaluate());
+        assertEquals(42, testClass.getField("answer").getInitialValue());
+        assertEquals("hello", testClass.getField("greeting").getInitialValue());
+        assertProgram();
+    }
+
+    @Test
+    public void computedTable() {
+        assertTrue(evaluate());
+        var program = clinitProgram();
+        var data = findInstruction(program, StringConstantInstruction.class).getConstant();
+        var length = findInstruction(program, IntegerConstantInstruction.class).getConstant();
+        var invoke = findInstruction(program, InvokeInstruction.class);
+        assertEquals("ints", invoke.getMethod().getName());
+
+        var expected = new int[20];
+        for (var i = 0; i < expected.length; ++i) {
+            expected[i] = i * i;
+        }
+        assertArrayEquals(expected, ClassInitializerData.ints(data, length));
+        assertNull(testClass.getField("table").getInitialValue());
+    }
+
+    @Test
+    public void objectGraph() {
+        assertTrue(evaluate());
+        assertProgram();
+    }
+
+    @Test
+    public void nativeCall() {
+        var original = new ListingBuilder().buildListing(load(), "");
+        assertFalse(evaluate());
+        assertEquals(original, new ListingBuilder().buildListing(clinitProgram(), ""));
+        assertNull(testClass.getField("answer").getInitialValue());
+    }
+
+    @Test
+    public void foreignWrite() {
+        assertFalse(evaluate());
+    }
+
+    private boolean evaluate() {
+        testClass.getMethod(CLINIT).setProgram(load());
+        var evaluator = new ClassInitializerEvaluator(classes, new ClassInitializerInfo() {
+            @Override
+            public boolean isDynamicInitializer(String className) {
+                return false;
+            }
+
+            @Override
+            public List<? extends String> getInitializationOrder() {
+                return List.of("Test");
+            }
+        });
+        return evaluator.evaluate("Test");
+    }
+
+    private Program load() {
+        return ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + ".txt");
+    }
+
+    private Program clinitProgram() {
+        return testClass.getMethod(CLINIT).getProgram();
+    }
+
+    private void assertProgram() {
+        var expected = ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + ".expected.txt");
+        assertEquals(new ListingBuilder().buildListing(expected, ""),
+                new ListingBuilder().buildListing(clinitProgram(), ""));
+    }
+
+    private static <T> T findInstruction(Program program, Class<T> type) {
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (var instruction : block) {
+                if (type.isInstance(instruction)) {
+                    return type.cast(instruction);
+                }
+            }
+        }
+        throw new AssertionError("Instruction not found: " + type.getSimpleName());
+    }
+}
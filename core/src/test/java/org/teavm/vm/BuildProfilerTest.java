@@ -0,0 +1,135 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Test;
+
+public class BuildProfilerTest {
+    private static final String INNER_NAME = "inner \"phase\"\nwith escapes";
+
+    @Test
+    public void writesNestedPhases() throws IOException {
+        var profiler = new BuildProfiler();
+        try (var outer = profiler.phase("outer")) {
+            try (var inner = profiler.phase(INNER_NAME)) {
+                consumeTime();
+            }
+            consumeTime();
+        }
+
+        var trace = writeTrace(profiler);
+        assertEquals("ms", trace.get("displayTimeUnit").asText());
+
+        var outer = findEvent(trace, "outer", "X");
+        var inner = findEvent(trace, INNER_NAME, "X");
+        assertNotNull(outer);
+        assertNotNull(inner);
+        assertEquals("phase", outer.get("cat").asText());
+        assertTrue(outer.get("args").has("heapUsedBytes"));
+
+        var outerStart = outer.get("ts").asLong();
+        var outerEnd = outerStart + outer.get("dur").asLong();
+        var innerStart = inner.get("ts").asLong();
+        var innerEnd = innerStart + inner.get("dur").asLong();
+        assertTrue(innerStart >= outerStart);
+        // Timestamps are truncated to microseconds, so allow error of rounding both ts and dur
+        assertTrue(innerEnd <= outerEnd + 2);
+
+        assertNotNull(findEvent(trace, "heap", "C"));
+    }
+
+    @Test
+    public void aggregatesMeasuredStages() throws IOException {
+        var profiler = new BuildProfiler();
+        try (var phase = profiler.phase("optimize")) {
+            for (var i = 0; i < 3; ++i) {
+                try (var stage = profiler.measure("opt")) {
+                    if (i == 1) {
+                        stage.markChanged();
+                    }
+                }
+            }
+        }
+
+        var trace = writeTrace(profiler);
+        assertNull(findEvent(trace, "opt", "X"));
+        assertNotNull(findEvent(trace, "optimize", "X"));
+
+        var stat = findStat(trace, "opt");
+        assertNotNull(stat);
+        assertEquals(3, stat.get("count").asInt());
+        assertEquals(1, stat.get("changed").asInt());
+        assertTrue(stat.get("timeMicros").asLong() >= 0);
+
+        var phaseStat = findStat(trace, "optimize");
+        assertNotNull(phaseStat);
+        assertEquals(1, phaseStat.get("count").asInt());
+        assertEquals(0, phaseStat.get("changed").asInt());
+    }
+
+    @Test
+    public void disabledProfilerWritesEmptyTrace() throws IOException {
+        var profiler = BuildProfiler.DISABLED;
+        try (var phase = profiler.phase("phase")) {
+            try (var stage = profiler.measure("stage")) {
+                stage.markChanged();
+            }
+        }
+
+        var trace = writeTrace(profiler);
+        assertEquals(0, trace.get("traceEvents").size());
+        assertEquals(0, trace.get("stats").size());
+    }
+
+    private static JsonNode writeTrace(BuildProfiler profiler) throws IOException {
+        var writer = new StringWriter();
+        profiler.writeChromeTrace(writer);
+        return new ObjectMapper().readTree(writer.toString());
+    }
+
+    private static JsonNode findEvent(JsonNode trace, String name, String type) {
+        for (var event : trace.get("traceEvents")) {
+            if (event.get("name").asText().equals(name) && event.get("ph").asText().equals(type)) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode findStat(JsonNode trace, String name) {
+        for (var stat : trace.get("stats")) {
+            if (stat.get("name").asText().equals(name)) {
+                return stat;
+            }
+        }
+        return null;
+    }
+
+    private static void consumeTime() {
+        var start = System.nanoTime();
+        while (System.nanoTime() - start < 2_000_000) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -15,9 +15,13 @@
  */
 package org.teavm.jso.core;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import org.teavm.interop.NoSideEffects;
 import org.teavm.jso.JSBody;
 import org.teavm.jso.JSClass;
+import org.teavm.jso.JSExceptions;
 import org.teavm.jso.JSFunctor;
 import org.teavm.jso.JSMethod;
 import org.teavm.jso.JSObject;
@@ -75,6 +79,53 @@ public class JSPromise<T> implements JSObject {
     @NoSideEffects
     public static native <V> JSPromise<V> reject(Object reason);
 
+    /**
+     * Creates a promise that settles when the given stage completes. A failed stage rejects the promise with
+     * the JavaScript error that corresponds to the Java exception, so that {@link #toCompletableFuture(JSPromise)}
+     * gets the original exception back.
+     */
+    public static <V> JSPromise<V> fromCompletionStage(CompletionStage<V> stage) {
+        return new JSPromise<>((resolve, reject) -> stage.whenComplete((value, error) -> {
+            if (error == null) {
+                resolve.accept(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                JSObject jsError = JSExceptions.getJSException(cause);
+                reject.accept(jsError != null ? jsError : cause);
+            }
+        }));
+    }
+
+    /**
+     * Creates a future that completes when the given promise settles. Continuations of the future run on
+     * the event loop, right in the promise callback.
+     */
+    public static <V> CompletableFuture<V> toCompletableFuture(JSPromise<V> promise) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        promise.then(value -> {
+            future.complete(value);
+            return null;
+        }, reason -> {
+            future.completeExceptionally(rejectionToException(reason));
+            return null;
+        });
+        return future;
+    }
+
+    private static Throwable rejectionToException(Object reason) {
+        if (reason instanceof Throwable) {
+            return (Throwable) reason;
+        }
+        if (reason instanceof JSError) {
+            JSError error = (JSError) reason;
+            Throwable javaException = JSExceptions.getJavaException(error);
+            return javaException != null ? javaException : new RuntimeException(error.getMessage());
+        }
+        return new RuntimeException(String.valueOf(reason));
+    }
+
     /** Call {@code onFulfilled} with the success value, resolving with its return value. */
     public native <V> JSPromise<V> then(JSMapping<T, V> onFulfilled);
 
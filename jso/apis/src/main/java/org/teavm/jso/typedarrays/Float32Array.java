@@ -16,6 +16,7 @@
 package org.teavm.jso.typedarrays;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSClass;
 import org.teavm.jso.JSIndexer;
 
@@ -42,6 +43,13 @@ public class Float32Array extends ArrayBufferView {
     @JSIndexer
     public native void set(int index, float value);
 
+    @JSBody(params = "array", script = "return array;")
+    public static native Float32Array fromJavaArray(@JSByRef float[] array);
+
+    @JSByRef
+    @JSBody(script = "return this;")
+    public native float[] toJavaArray();
+
     @JSBody(params = "length", script = "return new Float32Array(length);")
     @Deprecated
     public static native Float32Array create(int length);
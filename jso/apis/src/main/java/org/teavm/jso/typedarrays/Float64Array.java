@@ -16,6 +16,7 @@
 package org.teavm.jso.typedarrays;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSClass;
 import org.teavm.jso.JSIndexer;
 
@@ -42,6 +43,13 @@ public class Float64Array extends ArrayBufferView {
     @JSIndexer
     public native void set(int index, double value);
 
+    @JSBody(params = "array", script = "return array;")
+    public static native Float64Array fromJavaArray(@JSByRef double[] array);
+
+    @JSByRef
+    @JSBody(script = "return this;")
+    public native double[] toJavaArray();
+
     @JSBody(params = "length", script = "return new Float64Array(length);")
     @Deprecated
     public static native Float64Array create(int length);
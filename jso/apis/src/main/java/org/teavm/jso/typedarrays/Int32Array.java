@@ -49,6 +49,13 @@ public class Int32Array extends ArrayBufferView {
     @Override
     public native void set(@JSByRef int[] data);
 
+    @JSBody(params = "array", script = "return array;")
+    public static native Int32Array fromJavaArray(@JSByRef int[] array);
+
+    @JSByRef
+    @JSBody(script = "return this;")
+    public native int[] toJavaArray();
+
     @JSBody(params = "length", script = "return new Int32Array(length);")
     @Deprecated
     public static native Int32Array create(int length);
@@ -16,6 +16,7 @@
 package org.teavm.jso.typedarrays;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSClass;
 import org.teavm.jso.JSIndexer;
 
@@ -42,6 +43,13 @@ public class Int8Array extends ArrayBufferView {
     @JSIndexer
     public native void set(int index, byte value);
 
+    @JSBody(params = "array", script = "return array;")
+    public static native Int8Array fromJavaArray(@JSByRef byte[] array);
+
+    @JSByRef
+    @JSBody(script = "return this;")
+    public native byte[] toJavaArray();
+
     @JSBody(params = "length", script = "return new Int8Array(length);")
     @Deprecated
     public static native Int8Array create(int length);
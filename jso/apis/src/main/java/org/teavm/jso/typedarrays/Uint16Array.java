@@ -16,6 +16,7 @@
 package org.teavm.jso.typedarrays;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSClass;
 import org.teavm.jso.JSIndexer;
 
@@ -42,6 +43,13 @@ public class Uint16Array extends ArrayBufferView {
     @JSIndexer
     public native void set(int index, int value);
 
+    @JSBody(params = "array", script = "return array;")
+    public static native Uint16Array fromJavaArray(@JSByRef char[] array);
+
+    @JSByRef
+    @JSBody(script = "return this;")
+    public native char[] toJavaArray();
+
     @JSBody(params = "length", script = "return new Uint16Array(length);")
     @Deprecated
     public static native Uint16Array create(int length);
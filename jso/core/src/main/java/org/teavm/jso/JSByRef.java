@@ -24,6 +24,15 @@ import java.lang.annotation.Target;
  * <p>Marks parameters of JavaScript methods that should be passed by reference.
  * This annotation is only applicable to parameters of array type. More specifically:
  * to: byte[], short[], char[], int[], float[], double[].</p>
+ *
+ * <p>When applied to a method, marks that the returned JavaScript typed array should be
+ * converted to the Java array by reference.</p>
+ *
+ * <p>In the JavaScript backend Java primitive arrays are backed by typed arrays, so no copying
+ * happens and both sides see each other's writes. The WebAssembly GC backend can't share array storage
+ * with JavaScript, so there a parameter is copied to a typed array before the call and copied back
+ * after the call returns, which makes output parameters work. Writes made after the call by JavaScript code
+ * that kept the typed array, or by Java code to the array, are not visible on the other side.</p>
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.PARAMETER, ElementType.METHOD })
@@ -801,4 +801,6 @@ public final class JS {
 
     @NoSideEffects
     public static native Object jsArrayItem(Object array, int index);
+
+    public static native void writeArrayData(Object array, JSObject data);
 }
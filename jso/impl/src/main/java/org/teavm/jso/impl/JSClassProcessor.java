@@ -973,6 +973,8 @@ class JSClassProcessor {
         }
         newInvoke.setArguments(newArgs.toArray(new Variable[0]));
         replacement.add(newInvoke);
+        writeBackByRefArguments(invoke, byRefParams, newArgs.subList(newArgs.size() - byRefParams.length,
+                newArgs.size()));
         if (result != null) {
             result = marshaller.unwrapReturnValue(callLocation, result, method.getResultType(), returnByRef,
                     canBeOnlyJava(invoke.getReceiver()));
@@ -1150,6 +1152,7 @@ class JSClassProcessor {
         newInvoke.setArguments(newArguments.toArray(new Variable[0]));
 
         replacement.add(newInvoke);
+        writeBackByRefArguments(invoke, byRefParams, callArguments);
         if (result != null) {
             result = marshaller.unwrapReturnValue(callLocation, result, method.getResultType(), false,
                     canBeOnlyJava(invoke.getReceiver()));
@@ -1204,6 +1207,7 @@ class JSClassProcessor {
         }
         newInvoke.setArguments(newArguments.toArray(new Variable[0]));
         replacement.add(newInvoke);
+        writeBackByRefArguments(invoke, byRefParams, newArguments.subList(1, newArguments.size()));
 
         return true;
     }
@@ -1454,6 +1458,23 @@ class JSClassProcessor {
         replacement.add(insn);
     }
 
+    private void writeBackByRefArguments(InvokeInstruction invoke, boolean[] byRefParams,
+            List<Variable> wrappedArguments) {
+        if (!wasmGC) {
+            return;
+        }
+        for (var i = 0; i < invoke.getArguments().size(); ++i) {
+            if (byRefParams[i]) {
+                var writeBack = new InvokeInstruction();
+                writeBack.setType(InvocationType.SPECIAL);
+                writeBack.setMethod(JSMethods.WRITE_ARRAY_DATA);
+                writeBack.setArguments(invoke.getArguments().get(i), wrappedArguments.get(i));
+                writeBack.setLocation(invoke.getLocation());
+                replacement.add(writeBack);
+            }
+        }
+    }
+
     private void copyVar(Variable a, Variable b, TextLocation location) {
         AssignInstruction insn = new AssignInstruction();
         insn.setAssignee(a);
@@ -38,6 +38,8 @@ public final class JSMethods {
             JSObject.class, JSObject.class);
     public static final MethodReference ARRAY_DATA = new MethodReference(JS.class, "arrayData",
             Object.class, JSObject.class);
+    public static final MethodReference WRITE_ARRAY_DATA = new MethodReference(JS.class, "writeArrayData",
+            Object.class, JSObject.class, void.class);
     public static final MethodReference CONCAT_ARRAY = new MethodReference(JS.class, "concatArray",
             JSObject.class, JSObject.class, JSObject.class);
     public static final MethodReference ARRAY_MAPPER = new MethodReference(JS.class, "arrayMapper",
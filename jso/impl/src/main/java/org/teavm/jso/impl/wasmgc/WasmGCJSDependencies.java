@@ -50,6 +50,23 @@ class WasmGCJSDependencies extends AbstractDependencyListener {
                 case "global":
                     method.getThrown().propagate(agent.getType(WasmGCExceptionWrapper.class.getName()));
                     break;
+                case "arrayData":
+                case "writeArrayData": {
+                    var runtimeMethod = agent.linkMethod(new MethodReference(WasmGCJSRuntime.class.getName(),
+                            methodReader.getDescriptor()));
+                    method.getVariable(1).connect(runtimeMethod.getVariable(1));
+                    runtimeMethod.use();
+                    break;
+                }
+                case "dataToByteArray":
+                case "dataToShortArray":
+                case "dataToCharArray":
+                case "dataToIntArray":
+                case "dataToFloatArray":
+                case "dataToDoubleArray":
+                    agent.linkMethod(new MethodReference(WasmGCJSRuntime.class.getName(),
+                            methodReader.getDescriptor())).use();
+                    break;
             }
         } else if (methodReader.getOwnerName().equals(JSWrapper.class.getName())) {
             if (methodReader.getName().equals("wrap")) {
@@ -74,6 +74,23 @@ class WasmGCJSIntrinsic implements WasmGCIntrinsic {
                 return getProperty(invocation, context);
             case "importModule":
                 return importModule(invocation, context);
+            case "arrayData":
+            case "dataToByteArray":
+            case "dataToShortArray":
+            case "dataToCharArray":
+            case "dataToIntArray":
+            case "dataToFloatArray":
+            case "dataToDoubleArray": {
+                var function = context.functions().forStaticMethod(new MethodReference(
+                        WasmGCJSRuntime.class.getName(), invocation.getMethod().getDescriptor()));
+                return new WasmCall(function, context.generate(invocation.getArguments().get(0)));
+            }
+            case "writeArrayData": {
+                var function = context.functions().forStaticMethod(new MethodReference(
+                        WasmGCJSRuntime.class.getName(), invocation.getMethod().getDescriptor()));
+                return new WasmCall(function, context.generate(invocation.getArguments().get(0)),
+                        context.generate(invocation.getArguments().get(1)));
+            }
             default:
                 throw new IllegalArgumentException();
         }
@@ -19,6 +19,14 @@ import org.teavm.interop.Import;
 import org.teavm.jso.JSObject;
 
 final class WasmGCJSRuntime {
+    private static final int CHUNK_SIZE = 8;
+    private static final int INT8_ARRAY = 0;
+    private static final int INT16_ARRAY = 1;
+    private static final int UINT16_ARRAY = 2;
+    private static final int INT32_ARRAY = 3;
+    private static final int FLOAT32_ARRAY = 4;
+    private static final int FLOAT64_ARRAY = 5;
+
     private WasmGCJSRuntime() {
     }
 
@@ -26,14 +34,28 @@ final class WasmGCJSRuntime {
         if (str == null) {
             return null;
         }
-        if (str.isEmpty()) {
+        var length = str.length();
+        if (length == 0) {
             return emptyString();
         }
-        var jsStr = stringFromCharCode(str.charAt(0));
-        for (var i = 1; i < str.length(); ++i) {
-            jsStr = concatStrings(jsStr, stringFromCharCode(str.charAt(i)));
+        if (stringBuiltinsSupported()) {
+            return charArrayToString(str.toCharArray(), 0, length);
+        }
+        if (length <= CHUNK_SIZE) {
+            return charsToString(length, str.charAt(0), charOrZero(str, 1), charOrZero(str, 2), charOrZero(str, 3),
+                    charOrZero(str, 4), charOrZero(str, 5), charOrZero(str, 6), charOrZero(str, 7));
         }
-        return jsStr;
+        var builder = emptyArray();
+        for (var i = 0; i < length; i += CHUNK_SIZE) {
+            appendChars(builder, Math.min(CHUNK_SIZE, length - i), str.charAt(i), charOrZero(str, i + 1),
+                    charOrZero(str, i + 2), charOrZero(str, i + 3), charOrZero(str, i + 4), charOrZero(str, i + 5),
+                    charOrZero(str, i + 6), charOrZero(str, i + 7));
+        }
+        return joinStrings(builder);
+    }
+
+    private static char charOrZero(String str, int index) {
+        return index < str.length() ? str.charAt(index) : '\0';
     }
 
     static String jsToString(JSObject obj) {
@@ -45,12 +67,180 @@ final class WasmGCJSRuntime {
             return "";
         }
         var chars = new char[length];
-        for (var i = 0; i < length; ++i) {
+        if (stringBuiltinsSupported()) {
+            stringToCharArray(obj, chars, 0);
+            return new String(chars);
+        }
+        var i = 0;
+        for (; i + 1 < length; i += 2) {
+            var pair = charPairAt(obj, i);
+            chars[i] = (char) pair;
+            chars[i + 1] = (char) (pair >>> 16);
+        }
+        if (i < length) {
             chars[i] = charAt(obj, i);
         }
         return new String(chars);
     }
 
+    static JSObject arrayData(Object array) {
+        if (array instanceof byte[]) {
+            var data = (byte[]) array;
+            return toTypedArray(INT8_ARRAY, data.length, i -> data[i]);
+        } else if (array instanceof short[]) {
+            var data = (short[]) array;
+            return toTypedArray(INT16_ARRAY, data.length, i -> data[i]);
+        } else if (array instanceof char[]) {
+            var data = (char[]) array;
+            return toTypedArray(UINT16_ARRAY, data.length, i -> data[i]);
+        } else if (array instanceof int[]) {
+            var data = (int[]) array;
+            return toTypedArray(INT32_ARRAY, data.length, i -> data[i]);
+        } else if (array instanceof float[]) {
+            var data = (float[]) array;
+            return toTypedArray(FLOAT32_ARRAY, data.length, i -> data[i]);
+        } else if (array instanceof double[]) {
+            var data = (double[]) array;
+            return toTypedArray(FLOAT64_ARRAY, data.length, i -> data[i]);
+        }
+        return null;
+    }
+
+    static void writeArrayData(Object array, JSObject data) {
+        if (array instanceof byte[]) {
+            var target = (byte[]) array;
+            fromTypedArray(data, INT8_ARRAY, target.length, (i, value) -> target[i] = (byte) value);
+        } else if (array instanceof short[]) {
+            var target = (short[]) array;
+            fromTypedArray(data, INT16_ARRAY, target.length, (i, value) -> target[i] = (short) value);
+        } else if (array instanceof char[]) {
+            var target = (char[]) array;
+            fromTypedArray(data, UINT16_ARRAY, target.length, (i, value) -> target[i] = (char) value);
+        } else if (array instanceof int[]) {
+            var target = (int[]) array;
+            fromTypedArray(data, INT32_ARRAY, target.length, (i, value) -> target[i] = (int) value);
+        } else if (array instanceof float[]) {
+            var target = (float[]) array;
+            fromTypedArray(data, FLOAT32_ARRAY, target.length, (i, value) -> target[i] = (float) value);
+        } else if (array instanceof double[]) {
+            var target = (double[]) array;
+            fromTypedArray(data, FLOAT64_ARRAY, target.length, (i, value) -> target[i] = value);
+        }
+    }
+
+    static byte[] dataToByteArray(JSObject obj) {
+        if (obj == null) {
+            return null;
+        }
+        var result = new byte[typedArrayLength(obj)];
+        fromTypedArray(obj, INT8_ARRAY, result.length, (i, value) -> result[i] = (byte) value);
+        return result;
+    }
+
+    static short[] dataToShortArray(JSObject obj) {
+        if (obj == null) {
+            return null;
+        }
+        var result = new short[typedArrayLength(obj)];
+        fromTypedArray(obj, INT16_ARRAY, result.length, (i, value) -> result[i] = (short) value);
+        return result;
+    }
+
+    static char[] dataToCharArray(JSObject obj) {
+        if (obj == null) {
+            return null;
+        }
+        var result = new char[typedArrayLength(obj)];
+        fromTypedArray(obj, UINT16_ARRAY, result.length, (i, value) -> result[i] = (char) value);
+        return result;
+    }
+
+    static int[] dataToIntArray(JSObject obj) {
+        if (obj == null) {
+            return null;
+        }
+        var result = new int[typedArrayLength(obj)];
+        fromTypedArray(obj, INT32_ARRAY, result.length, (i, value) -> result[i] = (int) value);
+        return result;
+    }
+
+    static float[] dataToFloatArray(JSObject obj) {
+        if (obj == null) {
+            return null;
+        }
+        var result = new float[typedArrayLength(obj)];
+        fromTypedArray(obj, FLOAT32_ARRAY, result.length, (i, value) -> result[i] = (float) value);
+        return result;
+    }
+
+    static double[] dataToDoubleArray(JSObject obj) {
+        if (obj == null) {
+            return null;
+        }
+        var result = new double[typedArrayLength(obj)];
+        fromTypedArray(obj, FLOAT64_ARRAY, result.length, (i, value) -> result[i] = value);
+        return result;
+    }
+
+    private static JSObject toTypedArray(int type, int length, ElementReader elements) {
+        var result = createTypedArray(type, length);
+        var i = 0;
+        if (type == INT8_ARRAY) {
+            var chunkBytes = CHUNK_SIZE * 4;
+            for (; i + chunkBytes <= length; i += chunkBytes) {
+                setTypedArrayBytes(result, i, packBytes(elements, i), packBytes(elements, i + 4),
+                        packBytes(elements, i + 8), packBytes(elements, i + 12), packBytes(elements, i + 16),
+                        packBytes(elements, i + 20), packBytes(elements, i + 24), packBytes(elements, i + 28));
+            }
+        } else {
+            for (; i + CHUNK_SIZE <= length; i += CHUNK_SIZE) {
+                setTypedArrayItems(result, i, elements.get(i), elements.get(i + 1), elements.get(i + 2),
+                        elements.get(i + 3), elements.get(i + 4), elements.get(i + 5), elements.get(i + 6),
+                        elements.get(i + 7));
+            }
+        }
+        for (; i < length; ++i) {
+            setTypedArrayItem(result, i, elements.get(i));
+        }
+        return result;
+    }
+
+    private static int packBytes(ElementReader elements, int index) {
+        return ((int) elements.get(index) & 0xFF) | (((int) elements.get(index + 1) & 0xFF) << 8)
+                | (((int) elements.get(index + 2) & 0xFF) << 16) | ((int) elements.get(index + 3) << 24);
+    }
+
+    private static void fromTypedArray(JSObject data, int type, int length, ElementWriter elements) {
+        length = Math.min(length, typedArrayLength(data));
+        var i = 0;
+        if (type == INT8_ARRAY) {
+            for (; i + 4 <= length; i += 4) {
+                var bytes = typedArrayBytes(data, i);
+                elements.set(i, (byte) bytes);
+                elements.set(i + 1, (byte) (bytes >> 8));
+                elements.set(i + 2, (byte) (bytes >> 16));
+                elements.set(i + 3, (byte) (bytes >> 24));
+            }
+        } else if (type == INT16_ARRAY || type == UINT16_ARRAY) {
+            for (; i + 2 <= length; i += 2) {
+                var pair = typedArrayShorts(data, i);
+                elements.set(i, type == INT16_ARRAY ? (short) pair : (char) pair);
+                elements.set(i + 1, type == INT16_ARRAY ? (short) (pair >> 16) : (char) (pair >>> 16));
+            }
+        }
+        for (; i < length; ++i) {
+            elements.set(i, typedArrayItem(data, i));
+        }
+    }
+
+    private interface ElementReader {
+        double get(int index);
+    }
+
+    private interface ElementWriter {
+        void set(int index, double value);
+    }
+
     @Import(name = "emptyString", module = "teavmJso")
     static native JSObject emptyString();
 
@@ -60,6 +250,24 @@ final class WasmGCJSRuntime {
     @Import(name = "concatStrings", module = "teavmJso")
     static native JSObject concatStrings(JSObject a, JSObject b);
 
+    @Import(name = "charsToString", module = "teavmJso")
+    static native JSObject charsToString(int count, char c0, char c1, char c2, char c3, char c4, char c5, char c6,
+            char c7);
+
+    @Import(name = "appendChars", module = "teavmJso")
+    static native void appendChars(JSObject builder, int count, char c0, char c1, char c2, char c3, char c4,
+            char c5, char c6, char c7);
+
+    @Import(name = "joinStrings", module = "teavmJso")
+    static native JSObject joinStrings(JSObject builder);
+
+    @Import(name = "stringBuiltinsSupported", module = "teavmJso")
+    static native boolean stringBuiltinsSupported();
+
+    static native JSObject charArrayToString(char[] array, int start, int end);
+
+    static native int stringToCharArray(JSObject str, char[] array, int start);
+
     @Import(name = "emptyArray", module = "teavmJso")
     static native JSObject emptyArray();
 
@@ -72,6 +280,35 @@ final class WasmGCJSRuntime {
     @Import(name = "charAt", module = "teavmJso")
     static native char charAt(JSObject str, int index);
 
+    @Import(name = "charPairAt", module = "teavmJso")
+    static native int charPairAt(JSObject str, int index);
+
+    @Import(name = "createTypedArray", module = "teavmJso")
+    static native JSObject createTypedArray(int type, int length);
+
+    @Import(name = "typedArrayLength", module = "teavmJso")
+    static native int typedArrayLength(JSObject array);
+
+    @Import(name = "setTypedArrayItem", module = "teavmJso")
+    static native void setTypedArrayItem(JSObject array, int index, double value);
+
+    @Import(name = "setTypedArrayItems", module = "teavmJso")
+    static native void setTypedArrayItems(JSObject array, int index, double v0, double v1, double v2, double v3,
+            double v4, double v5, double v6, double v7);
+
+    @Import(name = "setTypedArrayBytes", module = "teavmJso")
+    static native void setTypedArrayBytes(JSObject array, int index, int w0, int w1, int w2, int w3, int w4, int w5,
+            int w6, int w7);
+
+    @Import(name = "typedArrayItem", module = "teavmJso")
+    static native double typedArrayItem(JSObject array, int index);
+
+    @Import(name = "typedArrayBytes", module = "teavmJso")
+    static native int typedArrayBytes(JSObject array, int index);
+
+    @Import(name = "typedArrayShorts", module = "teavmJso")
+    static native int typedArrayShorts(JSObject array, int index);
+
     static native JSObject wrapObject(Object obj);
 
     static Throwable wrapException(JSObject obj) {
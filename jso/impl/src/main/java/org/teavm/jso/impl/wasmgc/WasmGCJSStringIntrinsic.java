@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.jso.impl.wasmgc;
+
+import org.teavm.ast.InvocationExpr;
+import org.teavm.backend.wasm.generate.gc.classes.WasmGCClassInfoProvider;
+import org.teavm.backend.wasm.intrinsics.gc.WasmGCIntrinsic;
+import org.teavm.backend.wasm.intrinsics.gc.WasmGCIntrinsicContext;
+import org.teavm.backend.wasm.model.WasmArray;
+import org.teavm.backend.wasm.model.WasmFunction;
+import org.teavm.backend.wasm.model.WasmType;
+import org.teavm.backend.wasm.model.expression.WasmCall;
+import org.teavm.backend.wasm.model.expression.WasmExpression;
+import org.teavm.backend.wasm.model.expression.WasmStructGet;
+import org.teavm.model.ValueType;
+
+/**
+ * Calls functions of JS String Builtins (<code>wasm:js-string</code>) that copy characters between JS strings
+ * and <code>char[]</code> data arrays. Builtins require exact import types, so these imports can't be declared
+ * with {@link org.teavm.interop.Import}, which passes Java arrays rather than underlying Wasm arrays.
+ */
+class WasmGCJSStringIntrinsic implements WasmGCIntrinsic {
+    private WasmFunction fromCharCodeArrayFunction;
+    private WasmFunction intoCharCodeArrayFunction;
+
+    @Override
+    public WasmExpression apply(InvocationExpr invocation, WasmGCIntrinsicContext context) {
+        switch (invocation.getMethod().getName()) {
+            case "charArrayToString": {
+                var array = unwrapCharArray(context.generate(invocation.getArguments().get(0)), context);
+                return new WasmCall(getFromCharCodeArrayFunction(context), array,
+                        context.generate(invocation.getArguments().get(1)),
+                        context.generate(invocation.getArguments().get(2)));
+            }
+            case "stringToCharArray": {
+                var array = unwrapCharArray(context.generate(invocation.getArguments().get(1)), context);
+                return new WasmCall(getIntoCharCodeArrayFunction(context),
+                        context.generate(invocation.getArguments().get(0)), array,
+                        context.generate(invocation.getArguments().get(2)));
+            }
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    private WasmExpression unwrapCharArray(WasmExpression array, WasmGCIntrinsicContext context) {
+        var classInfo = context.classInfoProvider().getClassInfo(ValueType.arrayOf(ValueType.CHARACTER));
+        return new WasmStructGet(classInfo.getStructure(), array, WasmGCClassInfoProvider.ARRAY_DATA_FIELD_OFFSET);
+    }
+
+    private WasmArray charDataArray(WasmGCIntrinsicContext context) {
+        return context.classInfoProvider().getClassInfo(ValueType.arrayOf(ValueType.CHARACTER)).getArray();
+    }
+
+    private WasmFunction getFromCharCodeArrayFunction(WasmGCIntrinsicContext context) {
+        if (fromCharCodeArrayFunction == null) {
+            fromCharCodeArrayFunction = new WasmFunction(context.functionTypes().of(
+                    WasmType.SpecialReferenceKind.EXTERN.asNonNullType(),
+                    charDataArray(context).getReference(), WasmType.INT32, WasmType.INT32));
+            fromCharCodeArrayFunction.setName(context.names().topLevel("teavm@fromCharCodeArray"));
+            fromCharCodeArrayFunction.setImportModule("wasm:js-string");
+            fromCharCodeArrayFunction.setImportName("fromCharCodeArray");
+            context.module().functions.add(fromCharCodeArrayFunction);
+        }
+        return fromCharCodeArrayFunction;
+    }
+
+    private WasmFunction getIntoCharCodeArrayFunction(WasmGCIntrinsicContext context) {
+        if (intoCharCodeArrayFunction == null) {
+            intoCharCodeArrayFunction = new WasmFunction(context.functionTypes().of(WasmType.INT32,
+                    WasmType.Reference.EXTERN, charDataArray(context).getReference(), WasmType.INT32));
+            intoCharCodeArrayFunction.setName(context.names().topLevel("teavm@intoCharCodeArray"));
+            intoCharCodeArrayFunction.setImportModule("wasm:js-string");
+            intoCharCodeArrayFunction.setImportName("intoCharCodeArray");
+            context.module().functions.add(intoCharCodeArrayFunction);
+        }
+        return intoCharCodeArrayFunction;
+    }
+}
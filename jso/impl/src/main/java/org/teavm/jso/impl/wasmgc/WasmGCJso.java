@@ -59,6 +59,22 @@ public final class WasmGCJso {
                 JSObject.class), jsIntrinsic);
         wasmGCHost.addIntrinsic(new MethodReference(JS.class, "importModule", String.class, JSObject.class),
                 jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "arrayData", Object.class, JSObject.class),
+                jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "writeArrayData", Object.class, JSObject.class,
+                void.class), jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "dataToByteArray", JSObject.class, byte[].class),
+                jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "dataToShortArray", JSObject.class, short[].class),
+                jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "dataToCharArray", JSObject.class, char[].class),
+                jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "dataToIntArray", JSObject.class, int[].class),
+                jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "dataToFloatArray", JSObject.class, float[].class),
+                jsIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(JS.class, "dataToDoubleArray", JSObject.class, double[].class),
+                jsIntrinsic);
 
         var wrapperIntrinsic = new WasmGCJSWrapperIntrinsic();
         wasmGCHost.addIntrinsic(new MethodReference(JSWrapper.class, "wrap", JSObject.class, Object.class),
@@ -68,5 +84,11 @@ public final class WasmGCJso {
 
         wasmGCHost.addIntrinsic(new MethodReference(WasmGCJSRuntime.class, "wrapObject", Object.class,
                 JSObject.class), new WasmGCJSRuntimeIntrinsic(commonGen));
+
+        var stringIntrinsic = new WasmGCJSStringIntrinsic();
+        wasmGCHost.addIntrinsic(new MethodReference(WasmGCJSRuntime.class, "charArrayToString", char[].class,
+                int.class, int.class, JSObject.class), stringIntrinsic);
+        wasmGCHost.addIntrinsic(new MethodReference(WasmGCJSRuntime.class, "stringToCharArray", JSObject.class,
+                char[].class, int.class, int.class), stringIntrinsic);
     }
 }
@@ -73,6 +73,8 @@ tasks.test {
     systemProperty("teavm.junit.c", providers.gradleProperty("teavm.tests.c").orElse("true").get())
     systemProperty("teavm.junit.c.compiler", providers.gradleProperty("teavm.tests.c.compiler")
             .orElse("compile-c-unix-fast.sh").get())
+    systemProperty("teavm.junit.c.gcModes", providers.gradleProperty("teavm.tests.c.gcModes")
+            .orElse("true").get())
 
     val dependencies = configurations.testRuntimeClasspath.get()
             .incoming.resolutionResult.allDependencies
@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.console;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.OnlyPlatform;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@SkipJVM
+@OnlyPlatform(TestPlatform.WEBASSEMBLY_GC)
+@EachTestCompiledSeparately
+public class WasmGCConsoleBufferTest {
+    private List<String> written = new ArrayList<>();
+    private WasmGCConsoleBuffer buffer = new WasmGCConsoleBuffer(written::add);
+
+    @Test
+    public void writesCompleteLinesAtOnce() {
+        buffer.print("foo\nbar\n");
+        assertEquals(List.of("foo\nbar\n"), written);
+    }
+
+    @Test
+    public void keepsTailUntilNewLine() {
+        buffer.print("foo\nba");
+        assertEquals(List.of("foo\n"), written);
+
+        buffer.print("r");
+        assertEquals(List.of("foo\n"), written);
+
+        buffer.print("\nbaz");
+        assertEquals(List.of("foo\n", "bar\n"), written);
+    }
+
+    @Test
+    public void flushesPendingText() {
+        buffer.print("foo");
+        buffer.flush();
+        assertEquals(List.of("foo"), written);
+
+        buffer.flush();
+        assertEquals(List.of("foo"), written);
+    }
+
+    @Test
+    public void writesBytes() {
+        var data = "xxfoo\nbarxx".getBytes();
+        buffer.print(data, 2, 7);
+        buffer.flush();
+        assertEquals(List.of("foo\n", "bar"), written);
+    }
+
+    @Test
+    public void limitsPendingTextWithoutNewLine() {
+        var longText = "a".repeat(WasmGCConsoleBuffer.MAX_PENDING);
+        buffer.print(longText.substring(1));
+        assertEquals(List.of(), written);
+
+        buffer.print("a");
+        assertEquals(List.of(longText), written);
+    }
+
+    @Test
+    public void limitsPendingTextAfterNewLine() {
+        var longText = "a".repeat(WasmGCConsoleBuffer.MAX_PENDING);
+        buffer.print("foo\n" + longText);
+        assertEquals(List.of("foo\n", longText), written);
+
+        buffer.print("bar");
+        buffer.flush();
+        assertEquals(List.of("foo\n", longText, "bar"), written);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.lang.management;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.OnlyPlatform;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+public class ManagementFactoryTest {
+    @Test
+    public void heapUsageConsistent() {
+        MemoryUsage usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        assertNotNull(usage);
+        assertTrue(usage.getUsed() <= usage.getCommitted());
+        assertTrue(usage.getMax() < 0 || usage.getCommitted() <= usage.getMax());
+    }
+
+    @Test
+    public void garbageCollectorsReported() {
+        var collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        assertFalse(collectors.isEmpty());
+        for (var collector : collectors) {
+            assertNotNull(collector.getName());
+            assertTrue(collector.isValid());
+        }
+    }
+
+    @Test
+    @OnlyPlatform({ TestPlatform.C, TestPlatform.WEBASSEMBLY })
+    public void fullCollectionCounted() {
+        GarbageCollectorMXBean full = null;
+        for (var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector.getName().equals("Full")) {
+                full = collector;
+            }
+        }
+        assertNotNull(full);
+        long count = full.getCollectionCount();
+        System.gc();
+        assertEquals(count + 1, full.getCollectionCount());
+    }
+}
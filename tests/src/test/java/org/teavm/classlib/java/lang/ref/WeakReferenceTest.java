@@ -15,10 +15,13 @@
  */
 package org.teavm.classlib.java.lang.ref;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import org.junit.Test;
@@ -98,6 +101,68 @@ public class WeakReferenceTest {
         return ref;
     }
 
+    @Test
+    public void survivesAllocationPressure() {
+        // Enough garbage to start several GC cycles, so that with incremental marking some references
+        // and stores into retained objects happen while marking is in progress
+        var retained = new ArrayList<Node>();
+        var refs = new ArrayList<WeakReference<Node>>();
+        for (var i = 0; i < 20000; ++i) {
+            var node = new Node(i);
+            refs.add(new WeakReference<>(node));
+            if (i % 10 == 0) {
+                retained.add(node);
+            }
+            var garbage = new Node(-1);
+            for (var j = 0; j < 8; ++j) {
+                var next = new Node(-1);
+                next.next = garbage;
+                garbage = next;
+            }
+            var target = retained.get((i * 7) % retained.size());
+            var child = new Node(i);
+            child.next = target.next;
+            target.next = child;
+        }
+
+        GCSupport.tryToTriggerGC();
+        GCSupport.tryToTriggerGC();
+
+        var childCount = 0;
+        for (var i = 0; i < refs.size(); ++i) {
+            var node = refs.get(i).get();
+            if (i % 10 == 0) {
+                assertSame(retained.get(i / 10), node);
+            } else if (node != null) {
+                assertEquals(i, node.value);
+            } else {
+                continue;
+            }
+            for (var child = node.next; child != null; child = child.next) {
+                assertTrue(child.value >= node.value);
+                childCount++;
+            }
+        }
+        assertEquals(20000, childCount);
+
+        if (PlatformDetector.isLowLevel()) {
+            for (var i = 0; i < refs.size(); ++i) {
+                if (i % 10 != 0) {
+                    assertNull(refs.get(i).get());
+                }
+            }
+        }
+    }
+
+    private static class Node {
+        final int value;
+        Node next;
+
+        Node(int value) {
+            this.value = value;
+        }
+    }
+
     @Test
     public void clear() {
         var obj = new Object();
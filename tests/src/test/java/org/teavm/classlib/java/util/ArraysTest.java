@@ -73,6 +73,54 @@ public class ArraysTest {
                 Arrays.equals(fSpecials2, fSorted));
     }
 
+    @Test
+    public void primitiveRangeSorted() {
+        int[] ints = { 9, 8, 7, 6, 5, 4, 3, 2, 1 };
+        Arrays.sort(ints, 2, 7);
+        assertTrue(Arrays.toString(ints), Arrays.equals(new int[] { 9, 8, 3, 4, 5, 6, 7, 2, 1 }, ints));
+
+        double[] doubles = { 3, Double.NaN, 0d, -0d, -1, 2 };
+        Arrays.sort(doubles, 1, 5);
+        assertTrue(Arrays.toString(doubles), Arrays.equals(new double[] { 3, -1, -0d, 0d, Double.NaN, 2 }, doubles));
+
+        byte[] bytes = new byte[300];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) (i * 37);
+        }
+        Arrays.sort(bytes, 10, bytes.length);
+        for (int i = 11; i < bytes.length; ++i) {
+            assertTrue(bytes[i - 1] <= bytes[i]);
+        }
+    }
+
+    @Test
+    public void largePrimitiveArraysSorted() {
+        int[] ints = new int[10000];
+        char[] chars = new char[10000];
+        long[] longs = new long[10000];
+        int seed = 1;
+        for (int i = 0; i < ints.length; ++i) {
+            seed = seed * 1103515245 + 12345;
+            ints[i] = i % 3 == 0 ? seed % 7 : seed;
+            chars[i] = (char) seed;
+            longs[i] = (long) seed * seed;
+        }
+        int[] expectedInts = ints.clone();
+        Arrays.sort(ints);
+        Arrays.sort(chars);
+        Arrays.sort(longs);
+        for (int i = 1; i < ints.length; ++i) {
+            assertTrue(ints[i - 1] <= ints[i]);
+            assertTrue(chars[i - 1] <= chars[i]);
+            assertTrue(longs[i - 1] <= longs[i]);
+        }
+        long sum = 0;
+        for (int i = 0; i < ints.length; ++i) {
+            sum += (long) ints[i] - expectedInts[i];
+        }
+        assertEquals(0, sum);
+    }
+
     @Test
     public void binarySearchWorks() {
         Integer[] array = { 2, 4, 6, 8, 10, 12, 14, 16 };
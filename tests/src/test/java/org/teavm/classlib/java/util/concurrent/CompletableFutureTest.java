@@ -0,0 +1,200 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.SkipPlatform;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@EachTestCompiledSeparately
+@SkipPlatform({TestPlatform.WASI, TestPlatform.WEBASSEMBLY_GC})
+public class CompletableFutureTest {
+    @Test
+    public void runsDependentStages() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<String> result = source
+                .thenApply(x -> x * 2)
+                .thenCompose(x -> CompletableFuture.completedFuture(x + 1))
+                .thenCombine(CompletableFuture.completedFuture("!"), (x, y) -> x + y);
+        assertFalse(result.isDone());
+        assertEquals(1, source.getNumberOfDependents());
+
+        assertTrue(source.complete(20));
+        assertFalse(source.complete(30));
+        assertTrue(result.isDone());
+        assertEquals("41!", result.join());
+    }
+
+    @Test
+    public void combinesFutures() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        CompletableFuture<Void> all = CompletableFuture.allOf(first, second);
+        CompletableFuture<Object> any = CompletableFuture.anyOf(first, second);
+        CompletableFuture<String> either = first.applyToEither(second, s -> s + "!");
+
+        second.complete("b");
+        assertFalse(all.isDone());
+        assertEquals("b", any.join());
+        assertEquals("b!", either.join());
+
+        first.complete("a");
+        assertTrue(all.isDone());
+        assertFalse(all.isCompletedExceptionally());
+    }
+
+    @Test
+    public void propagatesExceptions() throws InterruptedException {
+        IllegalStateException error = new IllegalStateException("failed");
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Integer> dependent = source.thenApply(x -> x + 1);
+        List<Throwable> errors = new ArrayList<>();
+        CompletableFuture<Integer> recovered = dependent.exceptionally(e -> {
+            errors.add(e);
+            return -1;
+        });
+        CompletableFuture<String> handled = source.handle((x, e) -> e == error ? "handled" : "unexpected");
+
+        source.completeExceptionally(error);
+
+        assertTrue(dependent.isCompletedExceptionally());
+        assertEquals(-1, recovered.join().intValue());
+        assertEquals("handled", handled.join());
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof CompletionException);
+        assertSame(error, errors.get(0).getCause());
+
+        try {
+            dependent.join();
+            fail("CompletionException expected");
+        } catch (CompletionException e) {
+            assertSame(error, e.getCause());
+        }
+        try {
+            source.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+    }
+
+    @Test
+    public void reportsExceptionFromFunction() {
+        CompletableFuture<Integer> result = CompletableFuture.completedFuture(1).thenApply(x -> {
+            throw new IllegalArgumentException("bad");
+        });
+        try {
+            result.join();
+            fail("CompletionException expected");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+            assertEquals("bad", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void cancels() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Integer> dependent = source.thenApply(x -> x + 1);
+        assertTrue(source.cancel(false));
+        assertTrue(source.isCancelled());
+        assertFalse(dependent.isCancelled());
+        assertTrue(dependent.isCompletedExceptionally());
+        try {
+            source.join();
+            fail("CancellationException expected");
+        } catch (CancellationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void completesAsynchronously() throws Exception {
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> 2)
+                .thenApplyAsync(x -> x * 3)
+                .thenCombineAsync(CompletableFuture.supplyAsync(() -> 4), Integer::sum);
+        assertEquals(10, future.get().intValue());
+    }
+
+    @Test
+    @SkipJVM
+    public void batchesAsyncCallbacksOnSingleWorker() {
+        Set<String> threads = new HashSet<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            futures.add(CompletableFuture.runAsync(() -> threads.add(Thread.currentThread().getName()))
+                    .thenRunAsync(() -> threads.add(Thread.currentThread().getName())));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        assertEquals(1, threads.size());
+    }
+
+    @Test
+    public void waitsForCompletionFromAnotherThread() throws Exception {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                // Do nothing
+            }
+            future.complete("done");
+        }).start();
+        assertEquals("done", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void timesOut() throws InterruptedException {
+        CompletableFuture<String> future = new CompletableFuture<String>().orTimeout(50, TimeUnit.MILLISECONDS);
+        try {
+            future.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        CompletableFuture<String> fallback = new CompletableFuture<String>()
+                .completeOnTimeout("fallback", 50, TimeUnit.MILLISECONDS);
+        assertEquals("fallback", fallback.join());
+
+        try {
+            new CompletableFuture<String>().get(50, TimeUnit.MILLISECONDS);
+            fail("TimeoutException expected");
+        } catch (ExecutionException | TimeoutException e) {
+            assertTrue(e instanceof TimeoutException);
+        }
+    }
+}
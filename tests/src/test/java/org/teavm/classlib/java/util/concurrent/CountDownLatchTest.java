@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.SkipPlatform;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@EachTestCompiledSeparately
+@SkipPlatform({TestPlatform.WASI, TestPlatform.WEBASSEMBLY_GC})
+public class CountDownLatchTest {
+    @Test
+    public void awaitsCountDown() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        for (int i = 0; i < 3; ++i) {
+            new Thread(latch::countDown).start();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, latch.getCount());
+        latch.countDown();
+        assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void timesOut() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+        assertEquals(1, latch.getCount());
+    }
+
+    @Test
+    public void semaphoreBlocksUntilRelease() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(1);
+        assertTrue(semaphore.tryAcquire());
+        assertFalse(semaphore.tryAcquire());
+        assertFalse(semaphore.tryAcquire(50, TimeUnit.MILLISECONDS));
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                // Do nothing
+            }
+            semaphore.release(2);
+        }).start();
+        semaphore.acquire(2);
+        assertEquals(0, semaphore.availablePermits());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.SkipPlatform;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@EachTestCompiledSeparately
+@SkipPlatform({TestPlatform.WASI, TestPlatform.WEBASSEMBLY_GC})
+public class ExecutorsTest {
+    @Test
+    public void submitsTasks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Integer> first = executor.submit(() -> 2 + 3);
+        Future<String> second = executor.submit(() -> { }, "done");
+        assertEquals(5, first.get().intValue());
+        assertEquals("done", second.get());
+        assertTrue(first.isDone());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    public void reportsTaskException() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> future = executor.submit(() -> {
+            throw new IllegalStateException("failed");
+        });
+        try {
+            future.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void runsTasksInOrderOnSingleThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Integer> order = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            int index = i;
+            futures.add(executor.submit(() -> order.add(index)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), order);
+        executor.shutdown();
+    }
+
+    @Test
+    public void blockedTaskDoesNotStallOtherWorkers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        FutureTask<String> gate = new FutureTask<>(() -> "open");
+        Future<String> waiting = executor.submit(() -> gate.get() + "!");
+        Future<?> opener = executor.submit(gate);
+        opener.get(1, TimeUnit.SECONDS);
+        assertEquals("open!", waiting.get(1, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void invokesAll() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        List<Callable<Integer>> tasks = Arrays.asList(() -> 1, () -> 2, () -> 3);
+        int sum = 0;
+        for (Future<Integer> future : executor.invokeAll(tasks)) {
+            sum += future.get();
+        }
+        assertEquals(6, sum);
+
+        List<Callable<Integer>> failingFirst = Arrays.asList(() -> {
+            throw new IllegalStateException();
+        }, () -> 42);
+        assertEquals(42, executor.invokeAny(failingFirst).intValue());
+        executor.shutdown();
+    }
+
+    @Test
+    public void rejectsAfterShutdown() {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        executor.shutdown();
+        assertTrue(executor.isShutdown());
+        try {
+            executor.execute(() -> { });
+            fail("RejectedExecutionException expected");
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void cancelsFutureTask() throws Exception {
+        FutureTask<String> task = new FutureTask<>(() -> "result");
+        assertTrue(task.cancel(false));
+        assertTrue(task.isCancelled());
+        assertTrue(task.isDone());
+        task.run();
+        try {
+            task.get();
+            fail("CancellationException expected");
+        } catch (CancellationException e) {
+            // Expected
+        }
+        assertFalse(task.cancel(false));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.SkipPlatform;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@EachTestCompiledSeparately
+@SkipPlatform({TestPlatform.WASI, TestPlatform.WEBASSEMBLY_GC})
+public class ForkJoinPoolTest {
+    @Test
+    public void computesRecursiveTask() {
+        assertEquals(6765, ForkJoinPool.commonPool().invoke(new Fibonacci(20)).intValue());
+        assertEquals(610, new ForkJoinPool(4).invoke(new Fibonacci(15)).intValue());
+    }
+
+    @Test
+    public void runsRecursiveAction() {
+        int[] array = new int[1000];
+        new Increment(array, 0, array.length).invoke();
+        for (int value : array) {
+            assertEquals(1, value);
+        }
+    }
+
+    @Test
+    public void submitsTasks() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ForkJoinTask<Integer> task = pool.submit(() -> 23);
+        assertEquals(23, task.get().intValue());
+        assertTrue(task.isCompletedNormally());
+    }
+
+    @Test
+    public void rethrowsException() {
+        ForkJoinTask<Integer> task = ForkJoinTask.adapt(() -> {
+            throw new IllegalStateException("failed");
+        });
+        ForkJoinPool.commonPool().execute(task);
+        try {
+            task.join();
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertTrue(task.isCompletedAbnormally());
+        }
+    }
+
+    static class Fibonacci extends RecursiveTask<Integer> {
+        private final int n;
+
+        Fibonacci(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (n <= 1) {
+                return n;
+            }
+            Fibonacci first = new Fibonacci(n - 1);
+            first.fork();
+            Fibonacci second = new Fibonacci(n - 2);
+            return second.compute() + first.join();
+        }
+    }
+
+    static class Increment extends RecursiveAction {
+        private final int[] array;
+        private final int from;
+        private final int to;
+
+        Increment(int[] array, int from, int to) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 16) {
+                for (int i = from; i < to; ++i) {
+                    array[i]++;
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Increment(array, from, mid), new Increment(array, mid, to));
+            }
+        }
+    }
+}
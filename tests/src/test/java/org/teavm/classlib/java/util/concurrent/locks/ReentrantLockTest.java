@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.concurrent.locks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.SkipPlatform;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@EachTestCompiledSeparately
+@SkipPlatform({TestPlatform.WASI, TestPlatform.WEBASSEMBLY_GC})
+public class ReentrantLockTest {
+    @Test
+    public void reenters() {
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock();
+        lock.lock();
+        assertEquals(2, lock.getHoldCount());
+        assertTrue(lock.isHeldByCurrentThread());
+        lock.unlock();
+        lock.unlock();
+        assertFalse(lock.isLocked());
+        try {
+            lock.unlock();
+            fail("IllegalMonitorStateException expected");
+        } catch (IllegalMonitorStateException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void excludesOtherThreads() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        List<String> events = new ArrayList<>();
+        lock.lock();
+        Thread thread = new Thread(() -> {
+            lock.lock();
+            events.add("locked");
+            lock.unlock();
+        });
+        thread.start();
+        Thread.sleep(50);
+        events.add("unlocking");
+        lock.unlock();
+        thread.join();
+        assertEquals(Arrays.asList("unlocking", "locked"), events);
+        assertTrue(lock.tryLock(1, TimeUnit.SECONDS));
+        lock.unlock();
+    }
+
+    @Test
+    public void signalsCondition() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        Condition condition = lock.newCondition();
+        boolean[] ready = new boolean[1];
+        new Thread(() -> {
+            lock.lock();
+            try {
+                ready[0] = true;
+                condition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }).start();
+
+        lock.lock();
+        try {
+            while (!ready[0]) {
+                assertTrue(condition.await(5, TimeUnit.SECONDS));
+            }
+            assertTrue(lock.isHeldByCurrentThread());
+        } finally {
+            lock.unlock();
+        }
+        lock.lock();
+        try {
+            assertFalse(condition.await(50, TimeUnit.MILLISECONDS));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
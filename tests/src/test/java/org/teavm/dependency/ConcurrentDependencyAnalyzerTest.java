@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.dependency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.model.MethodReference;
+import org.teavm.vm.TeaVM;
+import org.teavm.vm.TeaVMBuilder;
+import org.teavm.vm.TeaVMPhase;
+import org.teavm.vm.TeaVMProgressFeedback;
+import org.teavm.vm.TeaVMProgressListener;
+
+public class ConcurrentDependencyAnalyzerTest {
+    @Test
+    public void sameResultAsPreciseAnalyzer() {
+        var expected = analyze(PreciseDependencyAnalyzer::new);
+
+        var analyzers = new ArrayList<ConcurrentDependencyAnalyzer>();
+        var actual = analyze((classSource, classLoader, services, diagnostics, referenceCache, platformTags) -> {
+            var analyzer = new ConcurrentDependencyAnalyzer(classSource, classLoader, services, diagnostics,
+                    referenceCache, platformTags, 4);
+            analyzer.parallelThreshold = 1;
+            analyzers.add(analyzer);
+            return analyzer;
+        });
+
+        assertEquals(1, analyzers.size());
+        assertTrue("Parallel filtering was not used", analyzers.get(0).batchCount > 0);
+        assertEquals(expected.keySet(), actual.keySet());
+        assertEquals(expected, actual);
+    }
+
+    private Map<String, String> analyze(DependencyAnalyzerFactory factory) {
+        TeaVM vm = new TeaVMBuilder(new JavaScriptTarget())
+                .setClassLoader(ConcurrentDependencyAnalyzerTest.class.getClassLoader())
+                .setDependencyAnalyzerFactory(factory)
+                .build();
+        vm.setProgressListener(new TeaVMProgressListener() {
+            @Override
+            public TeaVMProgressFeedback phaseStarted(TeaVMPhase phase, int count) {
+                return phase == TeaVMPhase.DEPENDENCY_ANALYSIS
+                        ? TeaVMProgressFeedback.CONTINUE
+                        : TeaVMProgressFeedback.CANCEL;
+            }
+
+            @Override
+            public TeaVMProgressFeedback progressReached(int progress) {
+                return TeaVMProgressFeedback.CONTINUE;
+            }
+        });
+        vm.add(new DependencyTestPatcher(ConcurrentDependencyAnalyzerTest.class.getName(), "workload"));
+        vm.installPlugins();
+        vm.setEntryPoint(ConcurrentDependencyAnalyzerTest.class.getName());
+        vm.build(fileName -> new ByteArrayOutputStream(), "out");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+
+        DependencyInfo info = vm.getDependencyInfo();
+        Map<String, String> result = new TreeMap<>();
+        result.put("classes", new TreeSet<>(info.getReachableClasses()).toString());
+        result.put("fields", info.getReachableFields().stream().map(Object::toString)
+                .collect(Collectors.toCollection(TreeSet::new)).toString());
+        for (MethodReference method : info.getReachableMethods()) {
+            MethodDependencyInfo methodDep = info.getMethod(method);
+            var sb = new StringBuilder();
+            if (methodDep.getVariables() != null) {
+                for (ValueDependencyInfo variable : methodDep.getVariables()) {
+                    sb.append(types(variable)).append(';');
+                }
+            }
+            sb.append(" result: ").append(types(methodDep.getResult()));
+            sb.append(" thrown: ").append(types(methodDep.getThrown()));
+            result.put(method.toString(), sb.toString());
+        }
+        return result;
+    }
+
+    private static String types(ValueDependencyInfo value) {
+        if (value == null) {
+            return "-";
+        }
+        String[] types = value.getTypes();
+        Arrays.sort(types);
+        return String.join(",", types);
+    }
+
+    private static void workload() {
+        List<Object> items = new ArrayList<>();
+        items.add("a");
+        items.add(1);
+        items.add(2.5);
+        items.add(new int[] { 1 });
+        items.add(List.of("b", "c"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Object item : items) {
+            counts.merge(item.getClass().getName(), item.hashCode(), Integer::sum);
+        }
+        String text = counts.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> String.format("%s=%d", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining(", "));
+        System.out.println(text);
+    }
+}
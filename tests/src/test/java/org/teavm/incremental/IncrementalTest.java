@@ -77,6 +77,7 @@ public class IncrementalTest {
     private String[] updatedMethods;
     private String oldResult;
     private String newResult;
+    private boolean classInitializerEvaluation;
 
     @Rule
     public TestName name = new TestName();
@@ -130,6 +131,14 @@ public class IncrementalTest {
         assertEquals("meta: ok", newResult);
     }
 
+    @Test
+    public void evaluatedInitializer() {
+        classInitializerEvaluation = true;
+        run();
+        assertEquals("1:2", oldResult);
+        assertEquals("3:4", newResult);
+    }
+
     private void checkUpdatedMethods(String... methods) {
         assertEquals("Unexpected set of updated methods", new HashSet<>(Arrays.asList(methods)),
                 new HashSet<>(Arrays.asList(updatedMethods)));
@@ -138,6 +147,7 @@ public class IncrementalTest {
     private void run() {
         String entryPoint = "org.teavm.incremental.data." + name.getMethodName().toLowerCase() + ".Main";
         Builder builder = new Builder(entryPoint);
+        builder.classInitializerEvaluation = classInitializerEvaluation;
 
         ClassHolderSourceImpl newClassSource = new ClassHolderSourceImpl(oldClassSource, true);
         ClassHolderSourceImpl refreshedClassSource = new ClassHolderSourceImpl(oldClassSource, false);
@@ -180,6 +190,7 @@ public class IncrementalTest {
         CapturingMethodNodeCache astCache = new CapturingMethodNodeCache();
         CapturingProgramCache programCache = new CapturingProgramCache();
         BuildTargetImpl buildTarget = new BuildTargetImpl();
+        boolean classInitializerEvaluation;
 
         Builder(String entryPoint) {
             this.entryPoint = entryPoint;
@@ -198,7 +209,12 @@ public class IncrementalTest {
                     .setDependencyAnalyzerFactory(FastDependencyAnalyzer::new)
                     .build();
             vm.setCacheStatus(cacheStatus);
-            vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+            if (classInitializerEvaluation) {
+                vm.setOptimizationLevel(TeaVMOptimizationLevel.ADVANCED);
+                vm.setClassInitializerEvaluation(true);
+            } else {
+                vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+            }
             vm.setProgramCache(programCache);
             target.setAstCache(astCache);
             target.setObfuscated(false);
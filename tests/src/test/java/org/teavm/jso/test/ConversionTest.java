@@ -26,6 +26,12 @@ import org.teavm.jso.JSByRef;
 import org.teavm.jso.JSObject;
 import org.teavm.jso.JSProperty;
 import org.teavm.jso.core.JSString;
+import org.teavm.jso.typedarrays.Float32Array;
+import org.teavm.jso.typedarrays.Float64Array;
+import org.teavm.jso.typedarrays.Int16Array;
+import org.teavm.jso.typedarrays.Int32Array;
+import org.teavm.jso.typedarrays.Int8Array;
+import org.teavm.jso.typedarrays.Uint16Array;
 import org.teavm.junit.EachTestCompiledSeparately;
 import org.teavm.junit.OnlyPlatform;
 import org.teavm.junit.SkipJVM;
@@ -145,6 +151,58 @@ public class ConversionTest {
                 .stringValue());
     }
 
+    @Test
+    public void convertsStringsOfDifferentLengths() {
+        for (var length : new int[] { 0, 1, 7, 8, 9, 17 }) {
+            var chars = new char[length];
+            for (var i = 0; i < length; ++i) {
+                chars[i] = (char) (i % 2 == 0 ? 'a' + i : '\u0430' + i);
+            }
+            var str = new String(chars);
+            assertEquals("length " + length, describeChars(str), charCodes(str));
+            assertEquals("length " + length, str, concatWithEmpty(str));
+            assertEquals("length " + length, str, fromCharCodes(codesOf(str)));
+        }
+    }
+
+    @Test
+    public void convertsSurrogatePairsAcrossChunks() {
+        var emoji = "\uD83D\uDE00";
+        var strings = new String[] {
+            "a" + emoji,
+            "abcdefg" + emoji,
+            "abcdefg" + emoji + "hijklm" + emoji + "n",
+            emoji + emoji + emoji + emoji + emoji,
+            "abcdefghijklmno" + emoji
+        };
+        for (var str : strings) {
+            assertEquals(describeChars(str), charCodes(str));
+            assertEquals(str, concatWithEmpty(str));
+            assertEquals(str, fromCharCodes(codesOf(str)));
+            assertEquals(str.codePointCount(0, str.length()), codePointCount(str));
+        }
+    }
+
+    private static String describeChars(String str) {
+        var sb = new StringBuilder();
+        sb.append(str.length()).append(':');
+        for (var i = 0; i < str.length(); ++i) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append((int) str.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    private static int[] codesOf(String str) {
+        var codes = new int[str.length()];
+        for (var i = 0; i < codes.length; ++i) {
+            codes[i] = str.charAt(i);
+        }
+        return codes;
+    }
+
     @Test
     public void copiesArray() {
         int[] array = { 23 };
@@ -153,7 +211,6 @@ public class ConversionTest {
     }
 
     @Test
-    @SkipPlatform(TestPlatform.WEBASSEMBLY_GC)
     public void passesArrayByRef() {
         int[] array = { 23, 42 };
 
@@ -176,6 +233,79 @@ public class ConversionTest {
         assertEquals(99, first[0]);
     }
 
+    @Test
+    public void convertsPrimitiveArraysToTypedArrays() {
+        var bytes = new byte[37];
+        var chars = new char[19];
+        var ints = new int[11];
+        var doubles = new double[9];
+        for (var i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) (i * 7 - 100);
+        }
+        for (var i = 0; i < chars.length; ++i) {
+            chars[i] = (char) (i * 4001);
+        }
+        for (var i = 0; i < ints.length; ++i) {
+            ints[i] = i * -123456789;
+        }
+        for (var i = 0; i < doubles.length; ++i) {
+            doubles[i] = i / 3.0;
+        }
+
+        var byteView = Int8Array.fromJavaArray(bytes);
+        assertEquals(bytes.length, byteView.getLength());
+        assertEquals(bytes[36], byteView.get(36));
+        assertArrayEquals(bytes, byteView.toJavaArray());
+
+        var charView = Uint16Array.fromJavaArray(chars);
+        assertEquals(chars[18], charView.get(18));
+        assertArrayEquals(chars, charView.toJavaArray());
+
+        var intView = Int32Array.fromJavaArray(ints);
+        assertEquals(ints[10], intView.get(10));
+        assertArrayEquals(ints, intView.toJavaArray());
+
+        assertArrayEquals(doubles, Float64Array.fromJavaArray(doubles).toJavaArray(), 0);
+    }
+
+    @Test
+    public void roundTripsShortAndFloatArrays() {
+        for (var length : new int[] { 0, 1, 7, 8, 9, 17 }) {
+            var shorts = new short[length];
+            var floats = new float[length];
+            for (var i = 0; i < length; ++i) {
+                shorts[i] = (short) (i * 4001 - 30000);
+                floats[i] = i / 4f - 1;
+            }
+            assertArrayEquals(shorts, Int16Array.fromJavaArray(shorts).toJavaArray());
+            assertArrayEquals(floats, Float32Array.fromJavaArray(floats).toJavaArray(), 0);
+        }
+    }
+
+    @Test
+    public void writesByRefArgumentsBack() {
+        var shorts = new short[] { 1, -2, 3, -4, 5, -6, 7, -8, 9 };
+        negateShorts(shorts);
+        assertArrayEquals(new short[] { -1, 2, -3, 4, -5, 6, -7, 8, -9 }, shorts);
+
+        var floats = new float[] { 0.5f, -1.5f, 2.5f };
+        negateFloats(floats);
+        assertArrayEquals(new float[] { -0.5f, 1.5f, -2.5f }, floats, 0);
+    }
+
+    @Test
+    @SkipPlatform(TestPlatform.WEBASSEMBLY_GC)
+    public void typedArraySharesJavaArrayStorage() {
+        var array = new float[] { 1, 2, 3 };
+        var view = Float32Array.fromJavaArray(array);
+        view.set(1, 5);
+        assertEquals(5, array[1], 0);
+
+        var copy = view.toJavaArray();
+        copy[2] = 7;
+        assertEquals(7, array[2], 0);
+    }
+
     @JSBody(params = { "a", "b", "c", "d", "e", "f", "g", "h" }, script = ""
             + "return '' + a + ':' + b + ':' + c + ':' + d + ':' + e + ':' + f.toFixed(1) + ':'"
                     + "+ g.toFixed(1) + ':' + h;")
@@ -332,6 +462,23 @@ public class ConversionTest {
     @JSBody(params = "str", script = "return [[[['(' + str[0][0][0][0] + ')']]]];")
     private static native JSString[][][][] surround(JSString[][][][] str);
 
+    @JSBody(params = "str", script = ""
+            + "var codes = [];"
+            + "for (var i = 0; i < str.length; ++i) {"
+                + "codes.push(str.charCodeAt(i));"
+            + "}"
+            + "return str.length + ':' + codes.join(',');")
+    private static native String charCodes(String str);
+
+    @JSBody(params = "str", script = "return '' + str;")
+    private static native String concatWithEmpty(String str);
+
+    @JSBody(params = "codes", script = "return String.fromCharCode.apply(null, codes);")
+    private static native String fromCharCodes(int[] codes);
+
+    @JSBody(params = "str", script = "return Array.from(str).length;")
+    private static native int codePointCount(String str);
+
     @JSBody(params = "array", script = "array[0]++; return array[0];")
     private static native int mutate(int[] array);
 
@@ -341,6 +488,18 @@ public class ConversionTest {
             + "}")
     private static native void mutateByRef(@JSByRef int[] array);
 
+    @JSBody(params = "array", script = ""
+            + "for (var i = 0; i < array.length; ++i) {"
+                + "array[i] = -array[i];"
+            + "}")
+    private static native void negateShorts(@JSByRef short[] array);
+
+    @JSBody(params = "array", script = ""
+            + "for (var i = 0; i < array.length; ++i) {"
+                + "array[i] = -array[i];"
+            + "}")
+    private static native void negateFloats(@JSByRef float[] array);
+
     private interface ByRefMutator extends JSObject {
         void mutate(@JSByRef int[] array);
     }
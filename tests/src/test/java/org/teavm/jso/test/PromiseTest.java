@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.jso.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.jso.core.JSPromise;
+import org.teavm.jso.core.JSString;
+import org.teavm.junit.EachTestCompiledSeparately;
+import org.teavm.junit.OnlyPlatform;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.TeaVMTestRunner;
+import org.teavm.junit.TestPlatform;
+
+@RunWith(TeaVMTestRunner.class)
+@SkipJVM
+@OnlyPlatform(TestPlatform.JAVASCRIPT)
+@EachTestCompiledSeparately
+public class PromiseTest {
+    @Test
+    public void convertsPromiseToFuture() throws Exception {
+        CompletableFuture<JSString> future = JSPromise.toCompletableFuture(JSPromise.resolve(JSString.valueOf("foo")))
+                .thenApply(s -> JSString.valueOf(s.stringValue() + "bar"));
+        assertEquals("foobar", future.get().stringValue());
+    }
+
+    @Test
+    public void convertsFutureToPromise() throws Exception {
+        CompletableFuture<JSString> source = new CompletableFuture<>();
+        JSPromise<JSString> promise = JSPromise.fromCompletionStage(source);
+        CompletableFuture<JSString> result = JSPromise.toCompletableFuture(promise);
+        source.complete(JSString.valueOf("baz"));
+        assertEquals("baz", result.get().stringValue());
+    }
+
+    @Test
+    public void passesExceptionsThroughPromise() throws InterruptedException {
+        IllegalStateException error = new IllegalStateException("not thrown");
+        CompletableFuture<JSString> failed = new CompletableFuture<>();
+        failed.completeExceptionally(error);
+        try {
+            JSPromise.toCompletableFuture(JSPromise.fromCompletionStage(failed)).get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+
+        CompletableFuture<JSString> thrown = CompletableFuture.completedFuture(JSString.valueOf("x"))
+                .thenApply(s -> {
+                    throw new IllegalArgumentException("thrown");
+                });
+        try {
+            JSPromise.toCompletableFuture(JSPromise.fromCompletionStage(thrown)).get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+            assertEquals("thrown", e.getCause().getMessage());
+        }
+    }
+}
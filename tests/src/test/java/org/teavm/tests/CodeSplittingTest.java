@@ -0,0 +1,183 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.NativeArray;
+import org.mozilla.javascript.NativeObject;
+import org.mozilla.javascript.ScriptRuntime;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.dependency.DependencyTestPatcher;
+import org.teavm.interop.SplitPoint;
+import org.teavm.jso.JSBody;
+import org.teavm.vm.TeaVM;
+import org.teavm.vm.TeaVMBuilder;
+import org.teavm.vm.TeaVMOptimizationLevel;
+
+public class CodeSplittingTest {
+    private static final String CORE_FILE = "classes.js";
+    private static final String CHUNK_FILE = "classes.lazy.js";
+    private static final String LOCATION = "var location = { href: 'http://localhost/" + CORE_FILE + "' };";
+    private static final String ENVIRONMENT = String.join("\n",
+            "var chunkSources = {};",
+            "var fetchedUrls = [];",
+            "var pendingTimeouts = [];",
+            "function setTimeout(callback) { pendingTimeouts.push(callback); return pendingTimeouts.length; }",
+            "function clearTimeout() {}",
+            "function URL(path) { this.href = String(path); }",
+            "URL.prototype.toString = function() { return this.href; };",
+            "function fetch(url) {",
+            "    fetchedUrls.push(url.href);",
+            "    var source = chunkSources[url.href];",
+            "    return Promise.resolve({ ok: source !== undefined, status: source !== undefined ? 200 : 404,",
+            "        text: function() { return Promise.resolve(source); } });",
+            "}",
+            "function runTimeouts() {",
+            "    var count = pendingTimeouts.length;",
+            "    while (pendingTimeouts.length > 0) {",
+            "        pendingTimeouts.shift()();",
+            "    }",
+            "    return count;",
+            "}");
+    private static Context rhinoContext;
+    private static Scriptable rhinoRootScope;
+
+    @BeforeClass
+    public static void initClass() {
+        rhinoContext = Context.enter();
+        rhinoContext.setOptimizationLevel(-1);
+        rhinoContext.setLanguageVersion(Context.VERSION_ES6);
+        rhinoRootScope = rhinoContext.initStandardObjects();
+    }
+
+    @AfterClass
+    public static void closeClass() {
+        Context.exit();
+        rhinoRootScope = null;
+        rhinoContext = null;
+    }
+
+    @Test
+    public void splitPointLoadsChunk() {
+        var files = build();
+        var core = files.get(CORE_FILE);
+        var chunk = files.get(CHUNK_FILE);
+        assertNotNull("Chunk was not generated, files are " + files.keySet(), chunk);
+        var definition = Pattern.compile("LazyPart_compute\\s*=\\s*(\\(|function)");
+        assertTrue(definition.matcher(chunk).find());
+        assertFalse(definition.matcher(core).find());
+
+        Scriptable scope = new NativeObject();
+        scope.setParentScope(rhinoRootScope);
+        scope.setPrototype(rhinoRootScope);
+        rhinoContext.evaluateString(scope, LOCATION + "\n" + ENVIRONMENT, "environment.js", 1, null);
+        var chunkSources = (Scriptable) scope.get("chunkSources", scope);
+        for (var entry : files.entrySet()) {
+            if (!entry.getKey().equals(CORE_FILE)) {
+                ScriptableObject.putProperty(chunkSources, entry.getKey(), entry.getValue());
+            }
+        }
+        rhinoContext.evaluateString(scope, core, CORE_FILE, 1, null);
+
+        var main = (Function) scope.get("main", scope);
+        ScriptRuntime.doTopCall(main, rhinoContext, scope, scope,
+                new Object[] { new NativeArray(0), Undefined.instance });
+        var runTimeouts = (Function) scope.get("runTimeouts", scope);
+        for (int i = 0; i < 100 && !main.has("result", main); ++i) {
+            rhinoContext.processMicrotasks();
+            runTimeouts.call(rhinoContext, scope, scope, new Object[0]);
+        }
+
+        assertTrue("Program did not complete", main.has("result", main));
+        assertEquals("lazy:42,lazy:42", main.get("result", main).toString());
+        var fetchedUrls = (NativeArray) scope.get("fetchedUrls", scope);
+        assertEquals(1, fetchedUrls.size());
+        assertEquals(CHUNK_FILE, fetchedUrls.get(0).toString());
+    }
+
+    @Test
+    public void coreLoadsOutsideOfBrowser() {
+        var files = build();
+        assertNotNull(files.get(CHUNK_FILE));
+
+        Scriptable scope = new NativeObject();
+        scope.setParentScope(rhinoRootScope);
+        scope.setPrototype(rhinoRootScope);
+        rhinoContext.evaluateString(scope, ENVIRONMENT, "environment.js", 1, null);
+        rhinoContext.evaluateString(scope, files.get(CORE_FILE), CORE_FILE, 1, null);
+        assertTrue(scope.get("main", scope) instanceof Function);
+    }
+
+    private Map<String, String> build() {
+        var target = new JavaScriptTarget();
+        target.setObfuscated(false);
+        target.setCodeSplitting(true);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        vm.add(new DependencyTestPatcher(CodeSplittingTest.class.getName(), "workload"));
+        vm.installPlugins();
+        vm.setEntryPoint(CodeSplittingTest.class.getName());
+        var outputs = new LinkedHashMap<String, ByteArrayOutputStream>();
+        vm.build(name -> outputs.computeIfAbsent(name, n -> new ByteArrayOutputStream()), CORE_FILE);
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+
+        var result = new LinkedHashMap<String, String>();
+        for (var entry : outputs.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toString(StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    private static void workload() {
+        var first = lazy();
+        var second = lazy();
+        saveResult(first + "," + second);
+    }
+
+    @SplitPoint("lazy")
+    private static String lazy() {
+        return LazyPart.compute(6);
+    }
+
+    @JSBody(params = "result", script = "main.result = result;")
+    private static native void saveResult(String result);
+
+    static class LazyPart {
+        static String compute(int value) {
+            return "lazy:" + multiply(value, 7);
+        }
+
+        static int multiply(int a, int b) {
+            return a * b;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.dependency.DependencyTestPatcher;
+import org.teavm.vm.TeaVM;
+import org.teavm.vm.TeaVMBuilder;
+import org.teavm.vm.TeaVMOptimizationLevel;
+
+public class LongArithmeticRenderingTest {
+    private static String output;
+
+    @BeforeClass
+    public static void build() {
+        var target = new JavaScriptTarget();
+        target.setObfuscated(false);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        vm.add(new DependencyTestPatcher(LongArithmeticRenderingTest.class.getName(), "workload"));
+        vm.installPlugins();
+        vm.setEntryPoint(LongArithmeticRenderingTest.class.getName());
+        var stream = new ByteArrayOutputStream();
+        vm.build(name -> stream, "classes.js");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+        output = stream.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void widenedIntsAddedWithoutWrapping() {
+        String body = methodBody("widenedSum");
+        assertFalse(body, body.contains("Long_add"));
+        assertFalse(body, body.contains("asIntN"));
+    }
+
+    @Test
+    public void widenedIntsMultipliedWithoutWrapping() {
+        String body = methodBody("widenedProduct");
+        assertFalse(body, body.contains("Long_mul"));
+        assertFalse(body, body.contains("asIntN"));
+    }
+
+    @Test
+    public void longsAddedWithWrapping() {
+        String body = methodBody("sum");
+        assertTrue(body, body.contains("Long_add"));
+    }
+
+    @Test
+    public void longsMultipliedWithWrapping() {
+        String body = methodBody("product");
+        assertTrue(body, body.contains("Long_mul"));
+    }
+
+    @Test
+    public void tripleProductWrapped() {
+        String body = methodBody("tripleProduct");
+        assertTrue(body, body.contains("Long_mul"));
+    }
+
+    @Test
+    public void narrowLongsComputedAsNumbers() {
+        String body = methodBody("narrowVariable");
+        assertFalse(body, body.contains("Long_"));
+        assertEquals(body, 1, body.split("BigInt\\(", -1).length - 1);
+    }
+
+    @Test
+    public void narrowLongsComparedAsNumbers() {
+        String body = methodBody("narrowComparison");
+        assertFalse(body, body.contains("Long_"));
+        assertFalse(body, body.contains("BigInt("));
+    }
+
+    private static String methodBody(String name) {
+        String alias = "_" + LongArithmeticRenderingTest.class.getSimpleName() + "_" + name;
+        Pattern pattern = Pattern.compile("(?:function\\s+\\w*" + alias + "\\s*\\(|\\w*" + alias
+                + "\\s*=\\s*(?:function\\s*)?\\()[^{]*\\{([^}]*)\\}");
+        Matcher matcher = pattern.matcher(output);
+        assertTrue("Method " + name + " not found in output", matcher.find());
+        return matcher.group(1);
+    }
+
+    private static void workload() {
+        int a = (int) System.currentTimeMillis();
+        int b = a >>> 3;
+        long c = System.currentTimeMillis();
+        System.out.println(widenedSum(a, b));
+        System.out.println(widenedProduct(a, b));
+        System.out.println(sum(c, c));
+        System.out.println(product(c, c));
+        System.out.println(tripleProduct(a, b, a));
+        System.out.println(narrowVariable(a, b));
+        System.out.println(narrowComparison(a));
+    }
+
+    private static long widenedSum(int a, int b) {
+        return (long) a + b;
+    }
+
+    private static long widenedProduct(int a, int b) {
+        return (long) a * b;
+    }
+
+    private static long sum(long a, long b) {
+        return a + b;
+    }
+
+    private static long product(long a, long b) {
+        return a * b;
+    }
+
+    private static long tripleProduct(int a, int b, int c) {
+        return (long) a * b * c;
+    }
+
+    private static long narrowVariable(int a, int b) {
+        long t = (long) a * 1000 + b;
+        return t * 3 + t;
+    }
+
+    private static boolean narrowComparison(int a) {
+        long t = (long) a * 3 + 1;
+        return t < 1000 && t > -5;
+    }
+}
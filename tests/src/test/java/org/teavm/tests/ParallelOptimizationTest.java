@@ -0,0 +1,249 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.dependency.DependencyTestPatcher;
+import org.teavm.vm.TeaVM;
+import org.teavm.vm.TeaVMBuilder;
+import org.teavm.vm.TeaVMOptimizationLevel;
+
+public class ParallelOptimizationTest {
+    @Test
+    public void parallelFullOptimizationIsDeterministic() {
+        String first = build(TeaVMOptimizationLevel.FULL, 4, "workload");
+        String second = build(TeaVMOptimizationLevel.FULL, 4, "workload");
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void parallelFullOptimizationMatchesSequential() {
+        assertEquals(build(TeaVMOptimizationLevel.FULL, 1, "workload"),
+                build(TeaVMOptimizationLevel.FULL, 4, "workload"));
+    }
+
+    @Test
+    public void parallelAdvancedOptimizationMatchesSequential() {
+        assertEquals(build(TeaVMOptimizationLevel.ADVANCED, 1, "workload"),
+                build(TeaVMOptimizationLevel.ADVANCED, 4, "workload"));
+    }
+
+    @Test
+    public void parallelDecompilationWithLazyProgramsMatchesSequential() {
+        assertEquals(build(TeaVMOptimizationLevel.SIMPLE, 1, "workload"),
+                build(TeaVMOptimizationLevel.SIMPLE, 4, "workload"));
+    }
+
+    @Test
+    public void parallelInliningOfRecursiveComponentsMatchesSequential() {
+        assertEquals(build(TeaVMOptimizationLevel.FULL, 1, "recursiveWorkload"),
+                build(TeaVMOptimizationLevel.FULL, 4, "recursiveWorkload"));
+        assertEquals(build(TeaVMOptimizationLevel.ADVANCED, 1, "recursiveWorkload"),
+                build(TeaVMOptimizationLevel.ADVANCED, 4, "recursiveWorkload"));
+    }
+
+    private String build(TeaVMOptimizationLevel level, int threads, String workload) {
+        var target = new JavaScriptTarget();
+        target.setObfuscated(false);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(level);
+        vm.setOptimizationThreads(threads);
+        vm.add(new DependencyTestPatcher(ParallelOptimizationTest.class.getName(), workload));
+        vm.installPlugins();
+        vm.setEntryPoint(ParallelOptimizationTest.class.getName());
+        var output = new ByteArrayOutputStream();
+        vm.build(name -> output, "classes.js");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void workload() {
+        List<Shape> shapes = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            shapes.add(i % 3 == 0 ? new Square(i) : i % 3 == 1 ? new Circle(i) : new Composite(new Square(i),
+                    new Circle(i)));
+        }
+        Map<String, Double> areas = new HashMap<>();
+        for (Shape shape : shapes) {
+            areas.merge(shape.name(), shape.area(), Double::sum);
+        }
+        var sb = new StringBuilder();
+        areas.forEach((name, area) -> sb.append(name).append('=').append(area).append(';'));
+        System.out.println(sb);
+    }
+
+    private static void recursiveWorkload() {
+        Expr expr = new Sum(new Product(new Constant(3), new Constant(4)), new Negate(new Constant(5)));
+        for (int i = 0; i < 5; ++i) {
+            expr = i % 2 == 0 ? new Sum(expr, new Constant(i)) : new Product(new Negate(expr), new Constant(i));
+        }
+        var sb = new StringBuilder();
+        sb.append(expr.eval()).append(';').append(expr.depth()).append(';');
+        sb.append(isEven(expr.depth())).append(';').append(fib(15));
+        System.out.println(sb);
+    }
+
+    private static boolean isEven(int n) {
+        return n == 0 || isOdd(n - 1);
+    }
+
+    private static boolean isOdd(int n) {
+        return n != 0 && isEven(n - 1);
+    }
+
+    private static int fib(int n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    static abstract class Expr {
+        abstract int eval();
+
+        int depth() {
+            return 1;
+        }
+    }
+
+    static class Constant extends Expr {
+        private final int value;
+
+        Constant(int value) {
+            this.value = value;
+        }
+
+        @Override
+        int eval() {
+            return value;
+        }
+    }
+
+    static class Negate extends Expr {
+        private final Expr operand;
+
+        Negate(Expr operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int eval() {
+            return -operand.eval();
+        }
+
+        @Override
+        int depth() {
+            return operand.depth() + 1;
+        }
+    }
+
+    static abstract class Binary extends Expr {
+        final Expr first;
+        final Expr second;
+
+        Binary(Expr first, Expr second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        int depth() {
+            return Math.max(first.depth(), second.depth()) + 1;
+        }
+    }
+
+    static class Sum extends Binary {
+        Sum(Expr first, Expr second) {
+            super(first, second);
+        }
+
+        @Override
+        int eval() {
+            return first.eval() + second.eval();
+        }
+    }
+
+    static class Product extends Binary {
+        Product(Expr first, Expr second) {
+            super(first, second);
+        }
+
+        @Override
+        int eval() {
+            return first.eval() * second.eval();
+        }
+    }
+
+    interface Shape {
+        double area();
+
+        default String name() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    static class Square implements Shape {
+        private final double side;
+
+        Square(double side) {
+            this.side = side;
+        }
+
+        @Override
+        public double area() {
+            return side * side;
+        }
+    }
+
+    static class Circle implements Shape {
+        private final double radius;
+
+        Circle(double radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public double area() {
+            return Math.PI * radius * radius;
+        }
+
+        @Override
+        public String name() {
+            return "circle";
+        }
+    }
+
+    static class Composite implements Shape {
+        private final Shape first;
+        private final Shape second;
+
+        Composite(Shape first, Shape second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public double area() {
+            return first.area() + second.area();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import org.junit.Test;
+import org.teavm.backend.wasm.WasmGCTarget;
+import org.teavm.dependency.DependencyTestPatcher;
+import org.teavm.vm.TeaVM;
+import org.teavm.vm.TeaVMBuilder;
+import org.teavm.vm.TeaVMOptimizationLevel;
+
+public class WasmGCParallelGenerationTest {
+    @Test
+    public void parallelGenerationMatchesSequential() {
+        assertArrayEquals(build(TeaVMOptimizationLevel.FULL, 1), build(TeaVMOptimizationLevel.FULL, 4));
+    }
+
+    @Test
+    public void parallelGenerationWithLazyProgramsMatchesSequential() {
+        assertArrayEquals(build(TeaVMOptimizationLevel.SIMPLE, 1), build(TeaVMOptimizationLevel.SIMPLE, 4));
+    }
+
+    private byte[] build(TeaVMOptimizationLevel level, int threads) {
+        var target = new WasmGCTarget();
+        target.setObfuscated(false);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.setOptimizationLevel(level);
+        vm.setOptimizationThreads(threads);
+        vm.add(new DependencyTestPatcher(WasmGCParallelGenerationTest.class.getName(), "workload"));
+        vm.installPlugins();
+        vm.setEntryPoint(WasmGCParallelGenerationTest.class.getName());
+        var output = new ByteArrayOutputStream();
+        vm.build(name -> output, "classes.wasm");
+        assertTrue(vm.getProblemProvider().getSevereProblems().isEmpty());
+        return output.toByteArray();
+    }
+
+    private static void workload() {
+        List<Animal> animals = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            animals.add(i % 2 == 0 ? new Dog("dog" + i) : new Cat("cat" + i, i));
+        }
+        var sounds = new TreeMap<String, Integer>();
+        for (var animal : animals) {
+            sounds.merge(animal.sound(), animal.weight(), Integer::sum);
+        }
+        System.out.println(sounds);
+    }
+
+    interface Animal {
+        String sound();
+
+        default int weight() {
+            return 1;
+        }
+    }
+
+    static class Dog implements Animal {
+        private final String name;
+
+        Dog(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String sound() {
+            return name + ": woof";
+        }
+    }
+
+    static class Cat implements Animal {
+        private final String name;
+        private final int weight;
+
+        Cat(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        @Override
+        public String sound() {
+            return name.toUpperCase() + ": meow";
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2024 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import org.junit.Test;
+import org.teavm.backend.wasm.WasmTarget;
+import org.teavm.dependency.DependencyTestPatcher;
+import org.teavm.diagnostics.Problem;
+import org.teavm.vm.TeaVM;
+import org.teavm.vm.TeaVMBuilder;
+
+public class WasmSharedMemoryTest {
+    @Test
+    public void sharedMemoryWithoutThreads() {
+        assertTrue(build("withoutThreads").isEmpty());
+    }
+
+    @Test
+    public void sharedMemoryRejectsThreads() {
+        assertFalse(build("withThreads").isEmpty());
+    }
+
+    private List<Problem> build(String method) {
+        var target = new WasmTarget();
+        target.setSharedMemory(true);
+        TeaVM vm = new TeaVMBuilder(target).build();
+        vm.add(new DependencyTestPatcher(WasmSharedMemoryTest.class.getName(), method));
+        vm.installPlugins();
+        vm.setEntryPoint(WasmSharedMemoryTest.class.getName());
+        vm.build(name -> new ByteArrayOutputStream(), "classes.wasm");
+        return vm.getProblemProvider().getSevereProblems();
+    }
+
+    private static void withoutThreads() {
+        System.out.println("Hello");
+    }
+
+    private static void withThreads() {
+        new Thread(() -> System.out.println("Hello")).start();
+    }
+}
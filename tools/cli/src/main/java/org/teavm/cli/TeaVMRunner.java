@@ -29,6 +29,7 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
 import org.teavm.tooling.ConsoleTeaVMToolLog;
 import org.teavm.tooling.TeaVMProblemRenderer;
@@ -82,11 +83,35 @@ public final class TeaVMRunner {
                 .desc("causes TeaVM to produce code that is as close to Java semantics as possible "
                         + "(in cost of performance)")
                 .build());
+        options.addOption(Option.builder()
+                .longOpt("split-code")
+                .desc("moves code reachable only through @SplitPoint methods to lazily loaded files")
+                .build());
         options.addOption(Option.builder("O")
                 .desc("optimization level (1-3)")
                 .hasArg()
                 .argName("number")
                 .build());
+        options.addOption(Option.builder()
+                .longOpt("evaluate-initializers")
+                .desc("run side-effect-free static initializers at build time (optimization level 2 or higher)")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("compact-ir")
+                .desc("keep optimized methods in compact form until rendering to reduce memory usage")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("profile-report")
+                .desc("write timings and allocations of build phases to the given file (Chrome trace format)")
+                .hasArg()
+                .argName("file")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("optimization-threads")
+                .desc("number of threads used to optimize methods (1 by default)")
+                .hasArg()
+                .argName("number")
+                .build());
         options.addOption(Option.builder("g")
                 .desc("Generate debug information")
                 .longOpt("debug")
@@ -105,6 +130,14 @@ public final class TeaVMRunner {
                 .desc("Incremental build cache directory")
                 .longOpt("cachedir")
                 .build());
+        options.addOption(Option.builder()
+                .desc("Store incremental build cache in a single pack file")
+                .longOpt("packed-cache")
+                .build());
+        options.addOption(Option.builder()
+                .desc("Detect changed classes in incremental build cache by content instead of modification date")
+                .longOpt("content-hash-cache")
+                .build());
         options.addOption(Option.builder("w")
                 .desc("Wait for command after compilation, in order to enable hot recompilation")
                 .longOpt("wait")
@@ -149,6 +182,31 @@ public final class TeaVMRunner {
                 .hasArg()
                 .desc("Maximum heap size in megabytes (for C and WebAssembly)")
                 .build());
+        options.addOption(Option.builder()
+                .longOpt("heap-policy")
+                .argName("policy")
+                .hasArg()
+                .desc("Heap sizing policy: occupancy (default), gc-overhead or pause-time (for C and WebAssembly)")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("heap-target")
+                .argName("value")
+                .hasArg()
+                .desc("Target of heap sizing policy: GC overhead in percent or pause time in milliseconds "
+                        + "(for C and WebAssembly)")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("gc-mark-budget")
+                .argName("objects")
+                .hasArg()
+                .desc("Enables incremental marking in GC, scanning given number of objects per step (for C)")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("gc-threads")
+                .argName("number")
+                .hasArg()
+                .desc("Number of native threads GC uses to sweep heap (for C)")
+                .build());
         options.addOption(Option.builder()
                 .longOpt("js-module-type")
                 .argName("module-type")
@@ -244,6 +302,7 @@ public final class TeaVMRunner {
     private void parseGenerationOptions() {
         tool.setObfuscated(commandLine.hasOption("m"));
         tool.setStrict(commandLine.hasOption("strict"));
+        tool.setCodeSplitting(commandLine.hasOption("split-code"));
         parseJsModuleOption();
 
         if (commandLine.hasOption("max-toplevel-names")) {
@@ -319,6 +378,25 @@ public final class TeaVMRunner {
                     printUsage();
             }
         }
+        if (commandLine.hasOption("optimization-threads")) {
+            int threads;
+            try {
+                threads = Integer.parseInt(commandLine.getOptionValue("optimization-threads"));
+            } catch (NumberFormatException e) {
+                threads = 0;
+            }
+            if (threads < 1) {
+                System.err.print("Wrong number of optimization threads");
+                printUsage();
+                return;
+            }
+            tool.setOptimizationThreads(threads);
+        }
+        tool.setClassInitializerEvaluation(commandLine.hasOption("evaluate-initializers"));
+        tool.setProgramCompaction(commandLine.hasOption("compact-ir"));
+        if (commandLine.hasOption("profile-report")) {
+            tool.setProfileReportFile(new File(commandLine.getOptionValue("profile-report")));
+        }
     }
 
     private void parseIncrementalOptions() {
@@ -330,6 +408,12 @@ public final class TeaVMRunner {
         } else {
             tool.setCacheDirectory(new File(tool.getTargetDirectory(), "teavm-cache"));
         }
+        if (commandLine.hasOption("packed-cache")) {
+            tool.setPackedCache(true);
+        }
+        if (commandLine.hasOption("content-hash-cache")) {
+            tool.setContentHashCache(true);
+        }
     }
 
     private void parseClassPathOptions() {
@@ -365,6 +449,22 @@ public final class TeaVMRunner {
         if (commandLine.hasOption("heap-dump")) {
             tool.setHeapDump(true);
         }
+        if (commandLine.hasOption("gc-mark-budget")) {
+            try {
+                tool.setGcMarkBudget(Integer.parseInt(commandLine.getOptionValue("gc-mark-budget")));
+            } catch (NumberFormatException e) {
+                System.err.print("Wrong GC mark budget");
+                printUsage();
+            }
+        }
+        if (commandLine.hasOption("gc-threads")) {
+            try {
+                tool.setGcThreads(Integer.parseInt(commandLine.getOptionValue("gc-threads")));
+            } catch (NumberFormatException e) {
+                System.err.print("Wrong number of GC threads");
+                printUsage();
+            }
+        }
     }
 
     private void parseHeap() {
@@ -390,6 +490,31 @@ public final class TeaVMRunner {
             }
             tool.setMaxHeapSize(size * 1024 * 1024);
         }
+        if (commandLine.hasOption("heap-policy")) {
+            switch (commandLine.getOptionValue("heap-policy")) {
+                case "occupancy":
+                    tool.setHeapSizingPolicy(HeapSizingPolicy.OCCUPANCY);
+                    break;
+                case "gc-overhead":
+                    tool.setHeapSizingPolicy(HeapSizingPolicy.GC_OVERHEAD);
+                    break;
+                case "pause-time":
+                    tool.setHeapSizingPolicy(HeapSizingPolicy.PAUSE_TIME);
+                    break;
+                default:
+                    System.err.print("Wrong heap sizing policy");
+                    printUsage();
+                    return;
+            }
+        }
+        if (commandLine.hasOption("heap-target")) {
+            try {
+                tool.setHeapSizingTarget(Integer.parseInt(commandLine.getOptionValue("heap-target")));
+            } catch (NumberFormatException e) {
+                System.err.print("Wrong heap sizing target");
+                printUsage();
+            }
+        }
     }
 
     private void setUp() {
@@ -38,6 +38,7 @@ import org.teavm.backend.c.generate.ShorteningFileNameProvider;
 import org.teavm.backend.c.generate.SimpleFileNameProvider;
 import org.teavm.backend.javascript.JSModuleType;
 import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmDebugInfoLevel;
 import org.teavm.backend.wasm.WasmDebugInfoLocation;
 import org.teavm.backend.wasm.WasmGCTarget;
@@ -47,11 +48,14 @@ import org.teavm.backend.wasm.debug.sourcemap.SourceMapBuilder;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
 import org.teavm.cache.AlwaysStaleCacheStatus;
 import org.teavm.cache.CacheStatus;
+import org.teavm.cache.CacheStorage;
+import org.teavm.cache.DirectoryCacheStorage;
 import org.teavm.cache.DiskCachedClassReaderSource;
 import org.teavm.cache.DiskMethodNodeCache;
 import org.teavm.cache.DiskProgramCache;
 import org.teavm.cache.EmptyProgramCache;
 import org.teavm.cache.FileSymbolTable;
+import org.teavm.cache.PackFile;
 import org.teavm.debugging.information.DebugInformation;
 import org.teavm.debugging.information.DebugInformationBuilder;
 import org.teavm.debugging.information.SourceMapsWriter;
@@ -65,9 +69,12 @@ import org.teavm.model.ClassReader;
 import org.teavm.model.PreOptimizingClassHolderSource;
 import org.teavm.model.ReferenceCache;
 import org.teavm.model.transformation.AssertionRemoval;
+import org.teavm.parsing.ClassDateProvider;
+import org.teavm.parsing.ClassHashProvider;
 import org.teavm.parsing.ClasspathClassHolderSource;
 import org.teavm.tooling.sources.DefaultSourceFileResolver;
 import org.teavm.tooling.sources.SourceFileProvider;
+import org.teavm.vm.BuildProfiler;
 import org.teavm.vm.BuildTarget;
 import org.teavm.vm.DirectoryBuildTarget;
 import org.teavm.vm.TeaVM;
@@ -84,6 +91,7 @@ public class TeaVMTool {
     private JSModuleType jsModuleType = JSModuleType.UMD;
     private boolean strict;
     private int maxTopLevelNames = 80_000;
+    private boolean codeSplitting;
     private String mainClass;
     private String entryPointName = "main";
     private Properties properties = new Properties();
@@ -92,6 +100,8 @@ public class TeaVMTool {
     private TeaVMSourceFilePolicy sourceFilePolicy = TeaVMSourceFilePolicy.DO_NOTHING;
     private boolean incremental;
     private File cacheDirectory = new File("./teavm-cache");
+    private boolean packedCache;
+    private boolean contentHashCache;
     private List<String> transformers = new ArrayList<>();
     private List<String> classesToPreserve = new ArrayList<>();
     private TeaVMToolLog log = new EmptyTeaVMToolLog();
@@ -102,11 +112,16 @@ public class TeaVMTool {
     private FileSymbolTable symbolTable;
     private FileSymbolTable fileTable;
     private FileSymbolTable variableTable;
+    private PackFile packFile;
     private boolean cancelled;
     private TeaVMProgressListener progressListener;
     private TeaVM vm;
     private boolean fastDependencyAnalysis;
+    private boolean classInitializerEvaluation;
+    private boolean programCompaction;
     private TeaVMOptimizationLevel optimizationLevel = TeaVMOptimizationLevel.SIMPLE;
+    private int optimizationThreads = 1;
+    private File profileReportFile;
     private List<SourceFileProvider> sourceFileProviders = new ArrayList<>();
     private DebugInformationBuilder debugEmitter;
     private JavaScriptTarget javaScriptTarget;
@@ -121,6 +136,10 @@ public class TeaVMTool {
     private int maxHeapSize = 128 * (1 << 20);
     private ReferenceCache referenceCache;
     private boolean heapDump;
+    private int gcMarkBudget;
+    private int gcThreads = 1;
+    private HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+    private int heapSizingTarget;
     private boolean shortFileNames;
     private boolean assertionsRemoved;
     private SourceMapBuilder wasmSourceMapWriter;
@@ -153,6 +172,10 @@ public class TeaVMTool {
         this.maxTopLevelNames = maxTopLevelNames;
     }
 
+    public void setCodeSplitting(boolean codeSplitting) {
+        this.codeSplitting = codeSplitting;
+    }
+
     public boolean isIncremental() {
         return incremental;
     }
@@ -189,6 +212,22 @@ public class TeaVMTool {
         this.cacheDirectory = cacheDirectory;
     }
 
+    public boolean isPackedCache() {
+        return packedCache;
+    }
+
+    public void setPackedCache(boolean packedCache) {
+        this.packedCache = packedCache;
+    }
+
+    public boolean isContentHashCache() {
+        return contentHashCache;
+    }
+
+    public void setContentHashCache(boolean contentHashCache) {
+        this.contentHashCache = contentHashCache;
+    }
+
     public boolean isSourceMapsFileGenerated() {
         return sourceMapsFileGenerated;
     }
@@ -252,6 +291,28 @@ public class TeaVMTool {
         this.optimizationLevel = optimizationLevel;
     }
 
+    public int getOptimizationThreads() {
+        return optimizationThreads;
+    }
+
+    public void setOptimizationThreads(int optimizationThreads) {
+        this.optimizationThreads = optimizationThreads;
+    }
+
+    public File getProfileReportFile() {
+        return profileReportFile;
+    }
+
+    /**
+     * Specifies where to write build profile (timings and allocations of build phases and optimizations)
+     * in Chrome trace event format.
+     *
+     * @param profileReportFile report file, {@code null} to disable profiling.
+     */
+    public void setProfileReportFile(File profileReportFile) {
+        this.profileReportFile = profileReportFile;
+    }
+
     public boolean isFastDependencyAnalysis() {
         return fastDependencyAnalysis;
     }
@@ -260,6 +321,34 @@ public class TeaVMTool {
         this.fastDependencyAnalysis = fastDependencyAnalysis;
     }
 
+    public boolean isClassInitializerEvaluation() {
+        return classInitializerEvaluation;
+    }
+
+    /**
+     * Specifies whether side-effect-free static initializers should be run at build time, so that their results
+     * are written into generated code. Has no effect for fast dependency analysis and incremental builds.
+     *
+     * @param classInitializerEvaluation whether to evaluate initializers at build time.
+     */
+    public void setClassInitializerEvaluation(boolean classInitializerEvaluation) {
+        this.classInitializerEvaluation = classInitializerEvaluation;
+    }
+
+    public boolean isProgramCompaction() {
+        return programCompaction;
+    }
+
+    /**
+     * Specifies whether optimized programs should be kept in compact form until they are rendered,
+     * which reduces memory consumed by compiler for large projects.
+     *
+     * @param programCompaction whether to compact optimized programs.
+     */
+    public void setProgramCompaction(boolean programCompaction) {
+        this.programCompaction = programCompaction;
+    }
+
     public void setMinHeapSize(int minHeapSize) {
         this.minHeapSize = minHeapSize;
     }
@@ -300,6 +389,22 @@ public class TeaVMTool {
         this.heapDump = heapDump;
     }
 
+    public void setGcMarkBudget(int gcMarkBudget) {
+        this.gcMarkBudget = gcMarkBudget;
+    }
+
+    public void setGcThreads(int gcThreads) {
+        this.gcThreads = gcThreads;
+    }
+
+    public void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy) {
+        this.heapSizingPolicy = heapSizingPolicy;
+    }
+
+    public void setHeapSizingTarget(int heapSizingTarget) {
+        this.heapSizingTarget = heapSizingTarget;
+    }
+
     public void setShortFileNames(boolean shortFileNames) {
         this.shortFileNames = shortFileNames;
     }
@@ -365,6 +470,7 @@ public class TeaVMTool {
         javaScriptTarget.setObfuscated(obfuscated);
         javaScriptTarget.setStrict(strict);
         javaScriptTarget.setMaxTopLevelNames(maxTopLevelNames);
+        javaScriptTarget.setCodeSplitting(codeSplitting);
 
         debugEmitter = debugInformationGenerated || sourceMapsFileGenerated
                 ? new DebugInformationBuilder(referenceCache) : null;
@@ -382,6 +488,7 @@ public class TeaVMTool {
         webAssemblyTarget.setVersion(wasmVersion);
         webAssemblyTarget.setMinHeapSize(minHeapSize);
         webAssemblyTarget.setMaxHeapSize(maxHeapSize);
+        webAssemblyTarget.setHeapSizingPolicy(heapSizingPolicy, heapSizingTarget);
         webAssemblyTarget.setObfuscated(obfuscated);
         webAssemblyTarget.setExceptionsUsed(wasmExceptionsUsed);
         return webAssemblyTarget;
@@ -420,6 +527,9 @@ public class TeaVMTool {
         cTarget.setMaxHeapSize(maxHeapSize);
         cTarget.setLineNumbersGenerated(debugInformationGenerated);
         cTarget.setHeapDump(heapDump);
+        cTarget.setGcMarkBudget(gcMarkBudget);
+        cTarget.setGcThreads(gcThreads);
+        cTarget.setHeapSizingPolicy(heapSizingPolicy, heapSizingTarget);
         cTarget.setObfuscated(obfuscated);
         cTarget.setFileNames(shortFileNames
                 ? new ShorteningFileNameProvider(new SimpleFileNameProvider())
@@ -432,6 +542,7 @@ public class TeaVMTool {
             cancelled = false;
             log.info("Running TeaVM");
             referenceCache = new ReferenceCache();
+            var profiler = profileReportFile != null ? new BuildProfiler() : BuildProfiler.DISABLED;
             TeaVMBuilder vmBuilder = new TeaVMBuilder(prepareTarget());
             CacheStatus cacheStatus;
             vmBuilder.setReferenceCache(referenceCache);
@@ -442,13 +553,26 @@ public class TeaVMTool {
                 variableTable = new FileSymbolTable(new File(cacheDirectory, "variables"));
                 ClasspathClassHolderSource innerClassSource = new ClasspathClassHolderSource(classLoader,
                         referenceCache);
-                ClassHolderSource classSource = new PreOptimizingClassHolderSource(innerClassSource);
-                cachedClassSource = new DiskCachedClassReaderSource(cacheDirectory, referenceCache, symbolTable,
-                        fileTable, variableTable, classSource, innerClassSource);
-                programCache = new DiskProgramCache(cacheDirectory, referenceCache, symbolTable, fileTable,
+                ClassHolderSource classSource = new PreOptimizingClassHolderSource(
+                        profiledClassSource(innerClassSource, profiler));
+                CacheStorage cacheStorage;
+                if (packedCache) {
+                    packFile = new PackFile(new File(cacheDirectory, "cache.pack"));
+                    cacheStorage = packFile;
+                } else {
+                    cacheStorage = new DirectoryCacheStorage(cacheDirectory);
+                }
+                if (contentHashCache) {
+                    cachedClassSource = new DiskCachedClassReaderSource(cacheStorage, referenceCache, symbolTable,
+                            fileTable, variableTable, classSource, (ClassHashProvider) innerClassSource);
+                } else {
+                    cachedClassSource = new DiskCachedClassReaderSource(cacheStorage, referenceCache, symbolTable,
+                            fileTable, variableTable, classSource, (ClassDateProvider) innerClassSource);
+                }
+                programCache = new DiskProgramCache(cacheStorage, referenceCache, symbolTable, fileTable,
                         variableTable);
                 if (targetType == TeaVMTargetType.JAVASCRIPT) {
-                    astCache = new DiskMethodNodeCache(cacheDirectory, referenceCache, symbolTable, fileTable,
+                    astCache = new DiskMethodNodeCache(cacheStorage, referenceCache, symbolTable, fileTable,
                             variableTable);
                     javaScriptTarget.setAstCache(astCache);
                 }
@@ -463,17 +587,20 @@ public class TeaVMTool {
                 cacheStatus = cachedClassSource;
             } else {
                 vmBuilder.setClassLoader(classLoader).setClassSource(new PreOptimizingClassHolderSource(
-                        new ClasspathClassHolderSource(classLoader, referenceCache)));
+                        profiledClassSource(new ClasspathClassHolderSource(classLoader, referenceCache), profiler)));
                 cacheStatus = AlwaysStaleCacheStatus.INSTANCE;
             }
 
-            vmBuilder.setDependencyAnalyzerFactory(fastDependencyAnalysis
-                    ? FastDependencyAnalyzer::new
-                    : PreciseDependencyAnalyzer::new);
+            if (fastDependencyAnalysis) {
+                vmBuilder.setDependencyAnalyzerFactory(FastDependencyAnalyzer::new);
+            } else {
+                vmBuilder.setDependencyAnalyzerFactory(PreciseDependencyAnalyzer::new);
+            }
             vmBuilder.setObfuscated(obfuscated);
             vmBuilder.setStrict(strict);
 
             vm = vmBuilder.build();
+            vm.setProfiler(profiler);
             if (progressListener != null) {
                 vm.setProgressListener(progressListener);
             }
@@ -488,6 +615,9 @@ public class TeaVMTool {
             vm.setOptimizationLevel(!fastDependencyAnalysis && !incremental
                     ? optimizationLevel
                     : TeaVMOptimizationLevel.SIMPLE);
+            vm.setOptimizationThreads(optimizationThreads);
+            vm.setClassInitializerEvaluation(classInitializerEvaluation);
+            vm.setProgramCompaction(programCompaction);
             if (incremental) {
                 vm.addVirtualMethods(m -> true);
             }
@@ -540,20 +670,41 @@ public class TeaVMTool {
             }
 
             if (incremental) {
-                programCache.flush();
-                if (astCache != null) {
-                    astCache.flush();
+                try (var phase = profiler.phase("cache update")) {
+                    programCache.flush();
+                    if (astCache != null) {
+                        astCache.flush();
+                    }
+                    cachedClassSource.flush();
+                    symbolTable.flush();
+                    fileTable.flush();
+                    variableTable.flush();
+                    if (packFile != null) {
+                        packFile.commit();
+                    }
                 }
-                cachedClassSource.flush();
-                symbolTable.flush();
-                fileTable.flush();
-                variableTable.flush();
                 log.info("Cache updated");
             }
 
+            if (profileReportFile != null) {
+                writeProfileReport(profiler);
+            }
             printStats();
         } catch (IOException e) {
             throw new TeaVMToolException("IO error occurred", e);
+        } finally {
+            closePackFile();
+        }
+    }
+
+    private void closePackFile() {
+        if (packFile != null) {
+            try {
+                packFile.close();
+            } catch (IOException e) {
+                log.warning("Could not close cache file", e);
+            }
+            packFile = null;
         }
     }
 
@@ -636,6 +787,29 @@ public class TeaVMTool {
         resolver.close();
     }
 
+    private static ClassHolderSource profiledClassSource(ClassHolderSource classSource, BuildProfiler profiler) {
+        if (!profiler.isEnabled()) {
+            return classSource;
+        }
+        return name -> {
+            try (var stage = profiler.measure("class parsing")) {
+                return classSource.get(name);
+            }
+        };
+    }
+
+    private void writeProfileReport(BuildProfiler profiler) throws IOException {
+        var parent = profileReportFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(profileReportFile));
+                Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+            profiler.writeChromeTrace(writer);
+        }
+        log.info("Build profile written to " + profileReportFile);
+    }
+
     private void printStats() {
         if (vm == null || vm.getWrittenClasses() == null) {
             return;
@@ -18,6 +18,7 @@ package org.teavm.tooling.builder;
 import java.util.List;
 import java.util.Properties;
 import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmDebugInfoLevel;
 import org.teavm.backend.wasm.WasmDebugInfoLocation;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
@@ -67,20 +68,34 @@ public interface BuildStrategy {
 
     void setMaxTopLevelNames(int maxTopLevelNames);
 
+    void setCodeSplitting(boolean codeSplitting);
+
     void setProperties(Properties properties);
 
     void setTransformers(String[] transformers);
 
     void setOptimizationLevel(TeaVMOptimizationLevel level);
 
+    void setOptimizationThreads(int threads);
+
+    void setProfileReportFile(String profileReportFile);
+
     void setFastDependencyAnalysis(boolean value);
 
+    void setClassInitializerEvaluation(boolean value);
+
+    void setProgramCompaction(boolean value);
+
     void setTargetFileName(String targetFileName);
 
     void setClassesToPreserve(String[] classesToPreserve);
 
     void setCacheDirectory(String cacheDirectory);
 
+    void setPackedCache(boolean packedCache);
+
+    void setContentHashCache(boolean contentHashCache);
+
     void setWasmVersion(WasmBinaryVersion wasmVersion);
 
     void setWasmExceptionsUsed(boolean wasmExceptionsUsed);
@@ -95,6 +110,14 @@ public interface BuildStrategy {
 
     void setHeapDump(boolean heapDump);
 
+    void setGcMarkBudget(int gcMarkBudget);
+
+    void setGcThreads(int gcThreads);
+
+    void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy);
+
+    void setHeapSizingTarget(int heapSizingTarget);
+
     void setShortFileNames(boolean shortFileNames);
 
     void setAssertionsRemoved(boolean assertionsRemoved);
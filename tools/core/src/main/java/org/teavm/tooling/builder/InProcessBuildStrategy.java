@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmDebugInfoLevel;
 import org.teavm.backend.wasm.WasmDebugInfoLocation;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
@@ -51,12 +52,19 @@ public class InProcessBuildStrategy implements BuildStrategy {
     private String targetFileName = "";
     private boolean incremental;
     private String cacheDirectory;
+    private boolean packedCache;
+    private boolean contentHashCache;
     private TeaVMOptimizationLevel optimizationLevel = TeaVMOptimizationLevel.ADVANCED;
+    private int optimizationThreads = 1;
+    private String profileReportFile;
     private boolean fastDependencyAnalysis;
+    private boolean classInitializerEvaluation;
+    private boolean programCompaction;
     private boolean obfuscated;
     private JSModuleType jsModuleType;
     private boolean strict;
     private int maxTopLevelNames = 80_000;
+    private boolean codeSplitting;
     private boolean sourceMapsFileGenerated;
     private boolean debugInformationGenerated;
     private TeaVMSourceFilePolicy sourceMapsSourcePolicy;
@@ -70,6 +78,10 @@ public class InProcessBuildStrategy implements BuildStrategy {
     private int maxHeapSize = 128 * 1024 * 1024;
     private final List<SourceFileProvider> sourceFileProviders = new ArrayList<>();
     private boolean heapDump;
+    private int gcMarkBudget;
+    private int gcThreads = 1;
+    private HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+    private int heapSizingTarget;
     private TeaVMProgressListener progressListener;
     private Properties properties = new Properties();
     private TeaVMToolLog log = new EmptyTeaVMToolLog();
@@ -183,6 +195,11 @@ public class InProcessBuildStrategy implements BuildStrategy {
         this.maxTopLevelNames = maxTopLevelNames;
     }
 
+    @Override
+    public void setCodeSplitting(boolean codeSplitting) {
+        this.codeSplitting = codeSplitting;
+    }
+
     @Override
     public void setTransformers(String[] transformers) {
         this.transformers = transformers.clone();
@@ -193,11 +210,31 @@ public class InProcessBuildStrategy implements BuildStrategy {
         this.optimizationLevel = level;
     }
 
+    @Override
+    public void setOptimizationThreads(int threads) {
+        this.optimizationThreads = threads;
+    }
+
+    @Override
+    public void setProfileReportFile(String profileReportFile) {
+        this.profileReportFile = profileReportFile;
+    }
+
     @Override
     public void setFastDependencyAnalysis(boolean fastDependencyAnalysis) {
         this.fastDependencyAnalysis = fastDependencyAnalysis;
     }
 
+    @Override
+    public void setClassInitializerEvaluation(boolean classInitializerEvaluation) {
+        this.classInitializerEvaluation = classInitializerEvaluation;
+    }
+
+    @Override
+    public void setProgramCompaction(boolean programCompaction) {
+        this.programCompaction = programCompaction;
+    }
+
     @Override
     public void setTargetFileName(String targetFileName) {
         this.targetFileName = targetFileName;
@@ -213,6 +250,16 @@ public class InProcessBuildStrategy implements BuildStrategy {
         this.cacheDirectory = cacheDirectory;
     }
 
+    @Override
+    public void setPackedCache(boolean packedCache) {
+        this.packedCache = packedCache;
+    }
+
+    @Override
+    public void setContentHashCache(boolean contentHashCache) {
+        this.contentHashCache = contentHashCache;
+    }
+
     @Override
     public void setWasmVersion(WasmBinaryVersion wasmVersion) {
         this.wasmVersion = wasmVersion;
@@ -248,6 +295,26 @@ public class InProcessBuildStrategy implements BuildStrategy {
         this.heapDump = heapDump;
     }
 
+    @Override
+    public void setGcMarkBudget(int gcMarkBudget) {
+        this.gcMarkBudget = gcMarkBudget;
+    }
+
+    @Override
+    public void setGcThreads(int gcThreads) {
+        this.gcThreads = gcThreads;
+    }
+
+    @Override
+    public void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy) {
+        this.heapSizingPolicy = heapSizingPolicy;
+    }
+
+    @Override
+    public void setHeapSizingTarget(int heapSizingTarget) {
+        this.heapSizingTarget = heapSizingTarget;
+    }
+
     @Override
     public void setShortFileNames(boolean shortFileNames) {
         this.shortFileNames = shortFileNames;
@@ -271,7 +338,11 @@ public class InProcessBuildStrategy implements BuildStrategy {
         var classLoader = buildClassLoader();
         tool.setClassLoader(classLoader);
         tool.setOptimizationLevel(optimizationLevel);
+        tool.setOptimizationThreads(optimizationThreads);
+        tool.setProfileReportFile(profileReportFile != null ? new File(profileReportFile) : null);
         tool.setFastDependencyAnalysis(fastDependencyAnalysis);
+        tool.setClassInitializerEvaluation(classInitializerEvaluation);
+        tool.setProgramCompaction(programCompaction);
 
         tool.setSourceMapsFileGenerated(sourceMapsFileGenerated);
         tool.setDebugInformationGenerated(debugInformationGenerated);
@@ -281,10 +352,13 @@ public class InProcessBuildStrategy implements BuildStrategy {
         tool.setJsModuleType(jsModuleType);
         tool.setStrict(strict);
         tool.setMaxTopLevelNames(maxTopLevelNames);
+        tool.setCodeSplitting(codeSplitting);
         tool.setIncremental(incremental);
         tool.getTransformers().addAll(Arrays.asList(transformers));
         tool.getClassesToPreserve().addAll(Arrays.asList(classesToPreserve));
         tool.setCacheDirectory(cacheDirectory != null ? new File(cacheDirectory) : null);
+        tool.setPackedCache(packedCache);
+        tool.setContentHashCache(contentHashCache);
         tool.setWasmVersion(wasmVersion);
         tool.setWasmExceptionsUsed(wasmExceptionsUsed);
         tool.setWasmDebugInfoLevel(wasmDebugInfoLevel);
@@ -292,6 +366,10 @@ public class InProcessBuildStrategy implements BuildStrategy {
         tool.setMinHeapSize(minHeapSize);
         tool.setMaxHeapSize(maxHeapSize);
         tool.setHeapDump(heapDump);
+        tool.setGcMarkBudget(gcMarkBudget);
+        tool.setGcThreads(gcThreads);
+        tool.setHeapSizingPolicy(heapSizingPolicy);
+        tool.setHeapSizingTarget(heapSizingTarget);
         tool.setShortFileNames(shortFileNames);
         tool.setAssertionsRemoved(assertionsRemoved);
 
@@ -20,6 +20,7 @@ import java.rmi.server.UnicastRemoteObject;
 import java.util.List;
 import java.util.Properties;
 import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmDebugInfoLevel;
 import org.teavm.backend.wasm.WasmDebugInfoLocation;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
@@ -154,6 +155,11 @@ public class RemoteBuildStrategy implements BuildStrategy {
         request.maxTopLevelNames = maxTopLevelNames;
     }
 
+    @Override
+    public void setCodeSplitting(boolean codeSplitting) {
+        request.codeSplitting = codeSplitting;
+    }
+
     @Override
     public void setTransformers(String[] transformers) {
         request.transformers = transformers.clone();
@@ -164,11 +170,31 @@ public class RemoteBuildStrategy implements BuildStrategy {
         request.optimizationLevel = level;
     }
 
+    @Override
+    public void setOptimizationThreads(int threads) {
+        request.optimizationThreads = threads;
+    }
+
+    @Override
+    public void setProfileReportFile(String profileReportFile) {
+        request.profileReportFile = profileReportFile;
+    }
+
     @Override
     public void setFastDependencyAnalysis(boolean value) {
         request.fastDependencyAnalysis = value;
     }
 
+    @Override
+    public void setClassInitializerEvaluation(boolean value) {
+        request.classInitializerEvaluation = value;
+    }
+
+    @Override
+    public void setProgramCompaction(boolean value) {
+        request.programCompaction = value;
+    }
+
     @Override
     public void setTargetFileName(String targetFileName) {
         request.tagetFileName = targetFileName;
@@ -184,6 +210,16 @@ public class RemoteBuildStrategy implements BuildStrategy {
         request.cacheDirectory = cacheDirectory;
     }
 
+    @Override
+    public void setPackedCache(boolean packedCache) {
+        request.packedCache = packedCache;
+    }
+
+    @Override
+    public void setContentHashCache(boolean contentHashCache) {
+        request.contentHashCache = contentHashCache;
+    }
+
     @Override
     public void setWasmVersion(WasmBinaryVersion wasmVersion) {
         request.wasmVersion = wasmVersion;
@@ -219,6 +255,26 @@ public class RemoteBuildStrategy implements BuildStrategy {
         request.heapDump = heapDump;
     }
 
+    @Override
+    public void setGcMarkBudget(int gcMarkBudget) {
+        request.gcMarkBudget = gcMarkBudget;
+    }
+
+    @Override
+    public void setGcThreads(int gcThreads) {
+        request.gcThreads = gcThreads;
+    }
+
+    @Override
+    public void setHeapSizingPolicy(HeapSizingPolicy heapSizingPolicy) {
+        request.heapSizingPolicy = heapSizingPolicy;
+    }
+
+    @Override
+    public void setHeapSizingTarget(int heapSizingTarget) {
+        request.heapSizingTarget = heapSizingTarget;
+    }
+
     @Override
     public void setShortFileNames(boolean shortFileNames) {
         request.shortFileNames = shortFileNames;
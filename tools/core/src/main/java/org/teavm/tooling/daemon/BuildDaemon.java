@@ -130,6 +130,8 @@ public class BuildDaemon extends UnicastRemoteObject implements RemoteBuildServi
             tool.setCacheDirectory(request.cacheDirectory != null
                     ? new File(request.cacheDirectory)
                     : incrementalCache);
+            tool.setPackedCache(request.packedCache);
+            tool.setContentHashCache(request.contentHashCache);
         }
         tool.setProgressListener(createProgressListener(callback));
         tool.setLog(new RemoteBuildLog(callback));
@@ -156,9 +158,16 @@ public class BuildDaemon extends UnicastRemoteObject implements RemoteBuildServi
         }
 
         tool.setOptimizationLevel(request.optimizationLevel);
+        tool.setOptimizationThreads(request.optimizationThreads);
+        if (request.profileReportFile != null) {
+            tool.setProfileReportFile(new File(request.profileReportFile));
+        }
         tool.setFastDependencyAnalysis(request.fastDependencyAnalysis);
+        tool.setClassInitializerEvaluation(request.classInitializerEvaluation);
+        tool.setProgramCompaction(request.programCompaction);
         tool.setObfuscated(request.obfuscated);
         tool.setJsModuleType(request.jsModuleType);
+        tool.setCodeSplitting(request.codeSplitting);
         tool.setStrict(request.strict);
         tool.setWasmVersion(request.wasmVersion);
         tool.setWasmExceptionsUsed(request.wasmExceptionsUsed);
@@ -167,6 +176,10 @@ public class BuildDaemon extends UnicastRemoteObject implements RemoteBuildServi
         tool.setMinHeapSize(request.minHeapSize);
         tool.setMaxHeapSize(request.maxHeapSize);
         tool.setHeapDump(request.heapDump);
+        tool.setGcMarkBudget(request.gcMarkBudget);
+        tool.setGcThreads(request.gcThreads);
+        tool.setHeapSizingPolicy(request.heapSizingPolicy);
+        tool.setHeapSizingTarget(request.heapSizingTarget);
         tool.setShortFileNames(request.shortFileNames);
         tool.setAssertionsRemoved(request.assertionsRemoved);
 
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmDebugInfoLevel;
 import org.teavm.backend.wasm.WasmDebugInfoLocation;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
@@ -43,13 +44,20 @@ public class RemoteBuildRequest implements Serializable {
     public String sourceFilePolicy = TeaVMSourceFilePolicy.DO_NOTHING.name();
     public boolean incremental;
     public String cacheDirectory;
+    public boolean packedCache;
+    public boolean contentHashCache;
     public boolean obfuscated;
     public boolean strict;
     public JSModuleType jsModuleType;
     public int maxTopLevelNames = 80_000;
+    public boolean codeSplitting;
     public Properties properties;
     public TeaVMOptimizationLevel optimizationLevel;
+    public int optimizationThreads = 1;
+    public String profileReportFile;
     public boolean fastDependencyAnalysis;
+    public boolean classInitializerEvaluation;
+    public boolean programCompaction;
     public WasmBinaryVersion wasmVersion;
     public boolean wasmExceptionsUsed;
     public WasmDebugInfoLocation wasmDebugInfoLocation;
@@ -57,6 +65,10 @@ public class RemoteBuildRequest implements Serializable {
     public int minHeapSize;
     public int maxHeapSize;
     public boolean heapDump;
+    public int gcMarkBudget;
+    public int gcThreads = 1;
+    public HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+    public int heapSizingTarget;
     public boolean shortFileNames;
     public boolean assertionsRemoved;
 }
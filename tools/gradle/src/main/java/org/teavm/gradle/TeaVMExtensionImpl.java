@@ -20,6 +20,7 @@ import javax.inject.Inject;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.model.ObjectFactory;
+import org.teavm.gradle.api.HeapSizingPolicy;
 import org.teavm.gradle.api.JSModuleType;
 import org.teavm.gradle.api.OptimizationLevel;
 import org.teavm.gradle.api.SourceFilePolicy;
@@ -95,6 +96,9 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
         wasm.getRelativePathInOutputDir().convention("wasm");
         wasm.getMinHeapSize().convention(1);
         wasm.getMaxHeapSize().convention(16);
+        wasm.getHeapSizingPolicy().convention(property("wasm.heapSizingPolicy")
+                .map(v -> HeapSizingPolicy.valueOf(v.toUpperCase())).orElse(HeapSizingPolicy.OCCUPANCY));
+        wasm.getHeapSizingTarget().convention(property("wasm.heapSizingTarget").map(Integer::parseInt).orElse(0));
         wasm.getOptimization().convention(property("wasm.optimization").map(OptimizationLevel::valueOf)
                 .orElse(OptimizationLevel.AGGRESSIVE));
         wasm.getTargetFileName().convention(project.provider(() -> project.getName() + ".wasm"));
@@ -131,6 +135,9 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
         wasi.getRelativePathInOutputDir().convention("wasi");
         wasi.getMinHeapSize().convention(1);
         wasi.getMaxHeapSize().convention(16);
+        wasi.getHeapSizingPolicy().convention(property("wasi.heapSizingPolicy")
+                .map(v -> HeapSizingPolicy.valueOf(v.toUpperCase())).orElse(HeapSizingPolicy.OCCUPANCY));
+        wasi.getHeapSizingTarget().convention(property("wasi.heapSizingTarget").map(Integer::parseInt).orElse(0));
         wasi.getOptimization().convention(property("wasi.optimization").map(OptimizationLevel::valueOf)
                 .orElse(OptimizationLevel.AGGRESSIVE));
         wasi.getTargetFileName().convention(project.provider(() -> project.getName() + ".wasm"));
@@ -141,7 +148,12 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
         c.getRelativePathInOutputDir().convention("c");
         c.getMinHeapSize().convention(1);
         c.getMaxHeapSize().convention(16);
+        c.getHeapSizingPolicy().convention(property("c.heapSizingPolicy")
+                .map(v -> HeapSizingPolicy.valueOf(v.toUpperCase())).orElse(HeapSizingPolicy.OCCUPANCY));
+        c.getHeapSizingTarget().convention(property("c.heapSizingTarget").map(Integer::parseInt).orElse(0));
         c.getHeapDump().convention(property("c.heapDump").map(Boolean::parseBoolean).orElse(false));
+        c.getGcMarkBudget().convention(property("c.gcMarkBudget").map(Integer::parseInt).orElse(0));
+        c.getGcThreads().convention(property("c.gcThreads").map(Integer::parseInt).orElse(1));
         c.getShortFileNames().convention(property("c.shortFileName").map(Boolean::parseBoolean).orElse(true));
         c.getOptimization().convention(property("c.optimization").map(OptimizationLevel::valueOf)
                 .orElse(OptimizationLevel.AGGRESSIVE));
@@ -153,8 +165,13 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
         all.getDebugInformation().convention(property("debugInformation").map(Boolean::parseBoolean).orElse(false));
         all.getOptimization().convention(OptimizationLevel.BALANCED);
         all.getFastGlobalAnalysis().convention(property("fastGlobalAnalysis").map(Boolean::parseBoolean).orElse(false));
+        all.getClassInitializerEvaluation().convention(property("classInitializerEvaluation")
+                .map(Boolean::parseBoolean).orElse(false));
+        all.getProgramCompaction().convention(property("programCompaction")
+                .map(Boolean::parseBoolean).orElse(false));
         all.getOutOfProcess().convention(property("outOfProcess").map(Boolean::parseBoolean).orElse(false));
         all.getProcessMemory().convention(property("processMemory").map(Integer::parseInt).orElse(512));
+        all.getProfile().convention(property("profile").map(Boolean::parseBoolean).orElse(false));
     }
 
     @Override
@@ -252,11 +269,14 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
         target.getOutputDir().convention(source.getOutputDir());
         target.getDebugInformation().convention(source.getDebugInformation());
         target.getFastGlobalAnalysis().convention(source.getFastGlobalAnalysis());
+        target.getClassInitializerEvaluation().convention(source.getClassInitializerEvaluation());
+        target.getProgramCompaction().convention(source.getProgramCompaction());
         target.getOptimization().convention(source.getOptimization());
         target.getProperties().putAll(source.getProperties());
 
         target.getOutOfProcess().convention(source.getOutOfProcess());
         target.getProcessMemory().convention(source.getProcessMemory());
+        target.getProfile().convention(source.getProfile());
     }
 
     static abstract class JsConfigImpl implements TeaVMJSConfiguration {
@@ -203,6 +203,8 @@ public class TeaVMPlugin implements Plugin<Project> {
             task.getTargetFileName().convention(wasm.getTargetFileName());
             task.getMinHeapSize().convention(wasm.getMinHeapSize());
             task.getMaxHeapSize().convention(wasm.getMaxHeapSize());
+            task.getHeapSizingPolicy().convention(wasm.getHeapSizingPolicy());
+            task.getHeapSizingTarget().convention(wasm.getHeapSizingTarget());
         });
     }
 
@@ -215,6 +217,8 @@ public class TeaVMPlugin implements Plugin<Project> {
             task.getTargetFileName().convention(wasi.getTargetFileName());
             task.getMinHeapSize().convention(wasi.getMinHeapSize());
             task.getMaxHeapSize().convention(wasi.getMaxHeapSize());
+            task.getHeapSizingPolicy().convention(wasi.getHeapSizingPolicy());
+            task.getHeapSizingTarget().convention(wasi.getHeapSizingTarget());
         });
     }
 
@@ -279,7 +283,11 @@ public class TeaVMPlugin implements Plugin<Project> {
             applyToTask(c, task, configuration);
             task.getMinHeapSize().convention(c.getMinHeapSize());
             task.getMaxHeapSize().convention(c.getMaxHeapSize());
+            task.getHeapSizingPolicy().convention(c.getHeapSizingPolicy());
+            task.getHeapSizingTarget().convention(c.getHeapSizingTarget());
             task.getHeapDump().convention(c.getHeapDump());
+            task.getGcMarkBudget().convention(c.getGcMarkBudget());
+            task.getGcThreads().convention(c.getGcThreads());
             task.getShortFileNames().convention(c.getShortFileNames());
             task.getObfuscated().convention(c.getObfuscated());
         });
@@ -337,6 +345,8 @@ public class TeaVMPlugin implements Plugin<Project> {
         task.getPreservedClasses().addAll(configuration.getPreservedClasses());
         task.getDebugInformation().convention(configuration.getDebugInformation());
         task.getFastGlobalAnalysis().convention(configuration.getFastGlobalAnalysis());
+        task.getClassInitializerEvaluation().convention(configuration.getClassInitializerEvaluation());
+        task.getProgramCompaction().convention(configuration.getProgramCompaction());
         task.getOptimization().convention(configuration.getOptimization());
         task.getOutOfProcess().convention(configuration.getOutOfProcess());
         task.getProcessMemory().convention(configuration.getProcessMemory());
@@ -346,6 +356,10 @@ public class TeaVMPlugin implements Plugin<Project> {
                 d -> new File(d.getAsFile(), configuration.getRelativePathInOutputDir().get())));
 
         var project = task.getProject();
+        task.getProfileReport().convention(configuration.getProfile().map(enabled -> enabled
+                ? project.getLayout().getBuildDirectory().file("reports/teavm/" + task.getName() + ".json")
+                        .get().getAsFile()
+                : null));
 
         var sourceSets = project.getExtensions().findByType(SourceSetContainer.class);
         if (sourceSets != null) {
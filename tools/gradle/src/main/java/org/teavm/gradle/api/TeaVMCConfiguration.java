@@ -20,6 +20,10 @@ import org.gradle.api.provider.Property;
 public interface TeaVMCConfiguration extends TeaVMConfiguration, TeaVMNativeBaseConfiguration {
     Property<Boolean> getHeapDump();
 
+    Property<Integer> getGcMarkBudget();
+
+    Property<Integer> getGcThreads();
+
     Property<Boolean> getShortFileNames();
 
     Property<Boolean> getObfuscated();
@@ -27,6 +27,10 @@ public interface TeaVMCommonConfiguration {
 
     Property<Boolean> getFastGlobalAnalysis();
 
+    Property<Boolean> getClassInitializerEvaluation();
+
+    Property<Boolean> getProgramCompaction();
+
     Property<OptimizationLevel> getOptimization();
 
     MapProperty<String, String> getProperties();
@@ -37,5 +41,7 @@ public interface TeaVMCommonConfiguration {
 
     Property<Integer> getProcessMemory();
 
+    Property<Boolean> getProfile();
+
     DirectoryProperty getOutputDir();
 }
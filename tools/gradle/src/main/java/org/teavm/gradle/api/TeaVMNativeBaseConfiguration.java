@@ -21,4 +21,8 @@ public interface TeaVMNativeBaseConfiguration extends TeaVMCommonConfiguration {
     Property<Integer> getMinHeapSize();
 
     Property<Integer> getMaxHeapSize();
+
+    Property<HeapSizingPolicy> getHeapSizingPolicy();
+
+    Property<Integer> getHeapSizingTarget();
 }
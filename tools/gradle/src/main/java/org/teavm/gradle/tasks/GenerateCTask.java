@@ -17,6 +17,7 @@ package org.teavm.gradle.tasks;
 
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.teavm.gradle.api.HeapSizingPolicy;
 import org.teavm.tooling.TeaVMTargetType;
 import org.teavm.tooling.builder.BuildStrategy;
 
@@ -26,7 +27,11 @@ public abstract class GenerateCTask extends TeaVMTask {
     public GenerateCTask() {
         getMinHeapSize().convention(1);
         getMaxHeapSize().convention(16);
+        getHeapSizingPolicy().convention(HeapSizingPolicy.OCCUPANCY);
+        getHeapSizingTarget().convention(0);
         getHeapDump().convention(false);
+        getGcMarkBudget().convention(0);
+        getGcThreads().convention(1);
         getShortFileNames().convention(true);
         getObfuscated().convention(true);
     }
@@ -37,9 +42,21 @@ public abstract class GenerateCTask extends TeaVMTask {
     @Input
     public abstract Property<Integer> getMaxHeapSize();
 
+    @Input
+    public abstract Property<HeapSizingPolicy> getHeapSizingPolicy();
+
+    @Input
+    public abstract Property<Integer> getHeapSizingTarget();
+
     @Input
     public abstract Property<Boolean> getHeapDump();
 
+    @Input
+    public abstract Property<Integer> getGcMarkBudget();
+
+    @Input
+    public abstract Property<Integer> getGcThreads();
+
     @Input
     public abstract Property<Boolean> getShortFileNames();
 
@@ -51,7 +68,10 @@ public abstract class GenerateCTask extends TeaVMTask {
         builder.setTargetType(TeaVMTargetType.C);
         builder.setMinHeapSize(getMinHeapSize().get() * MB);
         builder.setMaxHeapSize(getMaxHeapSize().get() * MB);
+        TaskUtils.applyHeapSizing(getHeapSizingPolicy(), getHeapSizingTarget(), builder);
         builder.setHeapDump(getHeapDump().get());
+        builder.setGcMarkBudget(getGcMarkBudget().get());
+        builder.setGcThreads(getGcThreads().get());
         builder.setShortFileNames(getShortFileNames().get());
         builder.setObfuscated(getObfuscated().get());
     }
@@ -17,6 +17,7 @@ package org.teavm.gradle.tasks;
 
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.teavm.gradle.api.HeapSizingPolicy;
 import org.teavm.tooling.TeaVMTargetType;
 import org.teavm.tooling.builder.BuildStrategy;
 
@@ -27,6 +28,8 @@ public abstract class GenerateWasmTask extends TeaVMTask {
         getExceptionsUsed().convention(false);
         getMinHeapSize().convention(1);
         getMaxHeapSize().convention(16);
+        getHeapSizingPolicy().convention(HeapSizingPolicy.OCCUPANCY);
+        getHeapSizingTarget().convention(0);
     }
 
     @Input
@@ -38,11 +41,18 @@ public abstract class GenerateWasmTask extends TeaVMTask {
     @Input
     public abstract Property<Integer> getMaxHeapSize();
 
+    @Input
+    public abstract Property<HeapSizingPolicy> getHeapSizingPolicy();
+
+    @Input
+    public abstract Property<Integer> getHeapSizingTarget();
+
     @Override
     protected void setupBuilder(BuildStrategy builder) {
         builder.setTargetType(TeaVMTargetType.WEBASSEMBLY);
         builder.setWasmExceptionsUsed(getExceptionsUsed().get());
         builder.setMinHeapSize(getMinHeapSize().get() * MB);
         builder.setMaxHeapSize(getMaxHeapSize().get() * MB);
+        TaskUtils.applyHeapSizing(getHeapSizingPolicy(), getHeapSizingTarget(), builder);
     }
 }
@@ -17,6 +17,7 @@ package org.teavm.gradle.tasks;
 
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.provider.Property;
+import org.teavm.gradle.api.HeapSizingPolicy;
 import org.teavm.gradle.api.SourceFilePolicy;
 import org.teavm.tooling.TeaVMSourceFilePolicy;
 import org.teavm.tooling.builder.BuildStrategy;
@@ -50,4 +51,19 @@ final class TaskUtils {
                 break;
         }
     }
+
+    static void applyHeapSizing(Property<HeapSizingPolicy> policy, Property<Integer> target, BuildStrategy builder) {
+        switch (policy.get()) {
+            case OCCUPANCY:
+                builder.setHeapSizingPolicy(org.teavm.backend.lowlevel.HeapSizingPolicy.OCCUPANCY);
+                break;
+            case GC_OVERHEAD:
+                builder.setHeapSizingPolicy(org.teavm.backend.lowlevel.HeapSizingPolicy.GC_OVERHEAD);
+                break;
+            case PAUSE_TIME:
+                builder.setHeapSizingPolicy(org.teavm.backend.lowlevel.HeapSizingPolicy.PAUSE_TIME);
+                break;
+        }
+        builder.setHeapSizingTarget(target.get());
+    }
 }
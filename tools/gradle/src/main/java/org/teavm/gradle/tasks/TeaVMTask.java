@@ -56,6 +56,8 @@ public abstract class TeaVMTask extends DefaultTask {
         getTargetFileName().convention("bundle");
         getOptimization().convention(OptimizationLevel.BALANCED);
         getFastGlobalAnalysis().convention(false);
+        getClassInitializerEvaluation().convention(false);
+        getProgramCompaction().convention(false);
         getOutOfProcess().convention(false);
         getProcessMemory().convention(512);
     }
@@ -79,6 +81,14 @@ public abstract class TeaVMTask extends DefaultTask {
     @Optional
     public abstract Property<Boolean> getFastGlobalAnalysis();
 
+    @Input
+    @Optional
+    public abstract Property<Boolean> getClassInitializerEvaluation();
+
+    @Input
+    @Optional
+    public abstract Property<Boolean> getProgramCompaction();
+
     @Input
     @Optional
     public abstract MapProperty<String, String> getProperties();
@@ -107,6 +117,9 @@ public abstract class TeaVMTask extends DefaultTask {
     @Internal
     public abstract Property<Integer> getDaemonDebugPort();
 
+    @Internal
+    public abstract Property<File> getProfileReport();
+
     @Inject
     protected abstract ProgressLoggerFactory getProgressLoggerFactory();
 
@@ -148,6 +161,8 @@ public abstract class TeaVMTask extends DefaultTask {
         builder.setTargetFileName(getTargetFileName().get());
         builder.setOptimizationLevel(map(getOptimization().get()));
         builder.setFastDependencyAnalysis(getFastGlobalAnalysis().get());
+        builder.setClassInitializerEvaluation(getClassInitializerEvaluation().get());
+        builder.setProgramCompaction(getProgramCompaction().get());
         builder.setTargetDirectory(getOutputDir().get().getAbsolutePath());
         builder.setClassesToPreserve(getPreservedClasses().get().toArray(new String[0]));
         if (getProperties().isPresent()) {
@@ -157,6 +172,9 @@ public abstract class TeaVMTask extends DefaultTask {
             }
             builder.setProperties(properties);
         }
+        if (getProfileReport().isPresent()) {
+            builder.setProfileReportFile(getProfileReport().get().getAbsolutePath());
+        }
         builder.setProgressListener(createProgressListener());
         setupBuilder(builder);
         var result = builder.build();
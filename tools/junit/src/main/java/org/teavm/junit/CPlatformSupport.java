@@ -17,6 +17,7 @@ package org.teavm.junit;
 
 import static org.teavm.junit.PropertyNames.C_COMPILER;
 import static org.teavm.junit.PropertyNames.C_ENABLED;
+import static org.teavm.junit.PropertyNames.C_GC_MODES;
 import static org.teavm.junit.PropertyNames.C_LINE_NUMBERS;
 import static org.teavm.junit.PropertyNames.OPTIMIZED;
 import static org.teavm.junit.TestUtil.resourceToFile;
@@ -74,6 +75,11 @@ class CPlatformSupport extends TestPlatformSupport<CTarget> {
         if (Boolean.getBoolean(OPTIMIZED)) {
             configurations.add(TeaVMTestConfiguration.C_OPTIMIZED);
         }
+        if (Boolean.getBoolean(C_GC_MODES)) {
+            configurations.add(TeaVMTestConfiguration.C_INCREMENTAL_GC);
+            configurations.add(TeaVMTestConfiguration.C_PARALLEL_SWEEP);
+            configurations.add(TeaVMTestConfiguration.C_PAUSE_TIME_GC);
+        }
         return configurations;
     }
 
@@ -30,6 +30,7 @@ final class PropertyNames {
     static final String WASM_GC_DISASM = "teavm.junit.wasm-gc.disasm";
     static final String C_COMPILER = "teavm.junit.c.compiler";
     static final String C_LINE_NUMBERS = "teavm.junit.c.lineNumbers";
+    static final String C_GC_MODES = "teavm.junit.c.gcModes";
     static final String MINIFIED = "teavm.junit.minified";
     static final String OPTIMIZED = "teavm.junit.optimized";
     static final String SOURCE_DIRS = "teavm.junit.sourceDirs";
@@ -17,6 +17,7 @@ package org.teavm.junit;
 
 import org.teavm.backend.c.CTarget;
 import org.teavm.backend.javascript.JavaScriptTarget;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmGCTarget;
 import org.teavm.backend.wasm.WasmTarget;
 import org.teavm.vm.TeaVM;
@@ -179,4 +180,59 @@ interface TeaVMTestConfiguration<T extends TeaVMTarget> {
         public void apply(CTarget target) {
         }
     };
+
+    TeaVMTestConfiguration<CTarget> C_INCREMENTAL_GC = new TeaVMTestConfiguration<>() {
+        @Override
+        public String getSuffix() {
+            return "incremental-gc";
+        }
+
+        @Override
+        public void apply(TeaVM vm) {
+            vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        }
+
+        @Override
+        public void apply(CTarget target) {
+            target.setGcMarkBudget(64);
+            target.setHeapSizingPolicy(HeapSizingPolicy.OCCUPANCY, 0);
+        }
+    };
+
+    TeaVMTestConfiguration<CTarget> C_PARALLEL_SWEEP = new TeaVMTestConfiguration<>() {
+        @Override
+        public String getSuffix() {
+            return "parallel-sweep";
+        }
+
+        @Override
+        public void apply(TeaVM vm) {
+            vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        }
+
+        @Override
+        public void apply(CTarget target) {
+            target.setGcThreads(4);
+            target.setHeapSizingPolicy(HeapSizingPolicy.GC_OVERHEAD, 0);
+        }
+    };
+
+    TeaVMTestConfiguration<CTarget> C_PAUSE_TIME_GC = new TeaVMTestConfiguration<>() {
+        @Override
+        public String getSuffix() {
+            return "pause-time-gc";
+        }
+
+        @Override
+        public void apply(TeaVM vm) {
+            vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        }
+
+        @Override
+        public void apply(CTarget target) {
+            target.setGcMarkBudget(16);
+            target.setGcThreads(2);
+            target.setHeapSizingPolicy(HeapSizingPolicy.PAUSE_TIME, 0);
+        }
+    };
 }
@@ -38,6 +38,7 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.repository.RepositorySystem;
 import org.teavm.backend.javascript.JSModuleType;
+import org.teavm.backend.lowlevel.HeapSizingPolicy;
 import org.teavm.backend.wasm.WasmDebugInfoLocation;
 import org.teavm.backend.wasm.render.WasmBinaryVersion;
 import org.teavm.tooling.TeaVMProblemRenderer;
@@ -139,6 +140,15 @@ public class TeaVMCompileMojo extends AbstractMojo {
     @Parameter(property = "teavm.fastGlobalAnalysis", defaultValue = "false")
     private boolean fastGlobalAnalysis;
 
+    @Parameter(property = "teavm.classInitializerEvaluation", defaultValue = "false")
+    private boolean classInitializerEvaluation;
+
+    @Parameter(property = "teavm.programCompaction", defaultValue = "false")
+    private boolean programCompaction;
+
+    @Parameter(property = "teavm.profileReport")
+    private File profileReport;
+
     @Parameter(property = "teavm.targetType", defaultValue = "JAVASCRIPT")
     private TeaVMTargetType targetType = TeaVMTargetType.JAVASCRIPT;
 
@@ -157,6 +167,12 @@ public class TeaVMCompileMojo extends AbstractMojo {
     @Parameter(property = "teavm.maxHeapSize", defaultValue = "128")
     private int maxHeapSize;
 
+    @Parameter(property = "teavm.heapSizingPolicy", defaultValue = "OCCUPANCY")
+    private HeapSizingPolicy heapSizingPolicy = HeapSizingPolicy.OCCUPANCY;
+
+    @Parameter(property = "teavm.heapSizingTarget", defaultValue = "0")
+    private int heapSizingTarget;
+
     @Parameter(property = "teavm.outOfProcess", defaultValue = "false")
     private boolean outOfProcess;
 
@@ -166,6 +182,12 @@ public class TeaVMCompileMojo extends AbstractMojo {
     @Parameter(property = "teavm.heapDump", defaultValue = "false")
     private boolean heapDump;
 
+    @Parameter(property = "teavm.gcMarkBudget", defaultValue = "0")
+    private int gcMarkBudget;
+
+    @Parameter(property = "teavm.gcThreads", defaultValue = "1")
+    private int gcThreads;
+
     @Parameter(property = "teavm.shortFileNames", defaultValue = "false")
     private boolean shortFileNames;
 
@@ -200,6 +222,8 @@ public class TeaVMCompileMojo extends AbstractMojo {
                     : TeaVMSourceFilePolicy.DO_NOTHING);
             builder.setMinHeapSize(minHeapSize * 1024 * 1024);
             builder.setMaxHeapSize(maxHeapSize * 1024 * 1024);
+            builder.setHeapSizingPolicy(heapSizingPolicy);
+            builder.setHeapSizingTarget(heapSizingTarget);
             builder.setShortFileNames(shortFileNames);
             builder.setAssertionsRemoved(assertionsRemoved);
         } catch (RuntimeException e) {
@@ -305,6 +329,11 @@ public class TeaVMCompileMojo extends AbstractMojo {
             }
             builder.setOptimizationLevel(optimizationLevel);
             builder.setFastDependencyAnalysis(fastGlobalAnalysis);
+            builder.setClassInitializerEvaluation(classInitializerEvaluation);
+            builder.setProgramCompaction(programCompaction);
+            if (profileReport != null) {
+                builder.setProfileReportFile(profileReport.getAbsolutePath());
+            }
             if (classesToPreserve != null) {
                 builder.setClassesToPreserve(classesToPreserve);
             }
@@ -313,6 +342,8 @@ public class TeaVMCompileMojo extends AbstractMojo {
             builder.setWasmVersion(wasmVersion);
             builder.setWasmExceptionsUsed(wasmExceptionsUsed);
             builder.setHeapDump(heapDump);
+            builder.setGcMarkBudget(gcMarkBudget);
+            builder.setGcThreads(gcThreads);
             BuildResult result;
             result = builder.build();
             TeaVMProblemRenderer.describeProblems(result.getCallGraph(), result.getProblems(), toolLog);